@@ -1,14 +1,24 @@
 package de.dwpbank.mikrobank;
 
 import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.service.BoerseService;
+import de.dwpbank.mikrobank.service.Marktaufzeichnung;
+import de.dwpbank.mikrobank.service.Marktbild;
+import de.dwpbank.mikrobank.service.Marktbildquelle;
+import de.dwpbank.mikrobank.service.PreisService;
+import de.dwpbank.mikrobank.service.preismodell.GbmModell;
+import de.dwpbank.mikrobank.service.preismodell.MittelwertRueckkehrModell;
+import de.dwpbank.mikrobank.service.preismodell.SprungDiffusionModell;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 import java.util.Scanner;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Boersensimulator - Integratives Demo-Programm für den HandelsRoboter
@@ -21,9 +31,36 @@ import java.util.Scanner;
  * mvn clean compile exec:java -Dexec.mainClass="de.dwpbank.mikrobank.Boersensimulator"
  * ```
  *
+ * Optional kann ein Seed übergeben werden (-Dexec.args="42"); mit gleichem Seed
+ * verläuft die Simulation genau gleich. Ohne Seed wird einer gezogen und zu Beginn
+ * ausgegeben, damit sich ein interessanter Lauf wiederholen lässt.
+ *
+ * AUFZEICHNEN UND ABSPIELEN (z. B. um zwei Stände des Roboters zu vergleichen):
+ * ```
+ * -Dexec.args="--aufzeichnen markt.bin 10000 42"   (10.000 Runden mit Seed 42 aufzeichnen)
+ * -Dexec.args="--wiedergabe markt.bin"             (Aufzeichnung so schnell wie möglich abspielen)
+ * ```
+ *
+ * RISIKO EINER STRATEGIE (Monte Carlo über viele Marktverläufe, alle Kerne):
+ * ```
+ * -Dexec.args="--montecarlo 10000 252 42"         (10.000 Pfade à 252 Runden mit Seed 42)
+ * ```
+ * Alle drei Modi laufen ohne Eingaben durch; Roboter und Services loggen dabei nur Warnungen.
+ * Beim Abspielen werden keine Preise erzeugt, der Roboter handelt auf genau den
+ * aufgezeichneten Kursen.
+ *
+ * Was beim Vergleich zweier Roboter-Stände zu beachten ist:
+ * - Beim Aufzeichnen bewegen auch die Orders des Roboters die Kurse (aus dem Strom des
+ *   Seeds). Dieselbe Datei entsteht daher nur mit gleichem Seed UND gleichem Roboter;
+ *   für einen Vergleich einmal aufzeichnen und jeden Stand dieselbe Datei abspielen lassen
+ * - Beim Abspielen wirkt die Kursreaktion auf eine Order nur bis zur nächsten Runde,
+ *   dann gelten wieder die aufgezeichneten Kurse. Wiedergaben derselben Datei sind
+ *   untereinander vergleichbar; vom Endvermögen der Aufzeichnung kann eine Wiedergabe
+ *   leicht abweichen
+ *
  * Die Simulation läuft kontinuierlich:
  * - Jede "Runde" repräsentiert einen Handelsmoment
- * - Aktienkurse ändern sich zufällig (realistisch)
+ * - Aktienkurse ändern sich zufällig nach dem Preismodell der jeweiligen Aktie (realistisch)
  * - Der Roboter macht automatisch Kauf-/Verkaufsentscheidungen
  * - Drücken Sie Enter nach jeder Runde, um fortzufahren
  * - Geben Sie "q" ein und Enter zum Beenden
@@ -33,17 +70,49 @@ import java.util.Scanner;
  */
 public class Boersensimulator {
 
-    private static final double PREIS_SCHWANKUNG_PROZENT = 5.0; // ±5% Kursschwankung
+    private static final double HANDELSTAG = 1.0 / 252; // Eine Runde entspricht einem Handelstag
+    private static final double TREND_SCHWELLE = 0.005; // Ab 0,5 % Änderung gilt ein Kurs als steigend/fallend
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("HH:mm:ss");
     private static final org.slf4j.Logger logger = LoggerFactory.getLogger(Boersensimulator.class);
 
     private HandelsRoboter roboter;
     private List<Aktie> aktien;
-    private Random random;
+    private PreisService preisService;
+    private final Marktbildquelle marktbildquelle = new Marktbildquelle(); // konsistenter Stand aller Kurse pro Runde
+    private double[] vorherigePreise; // Preise vor der letzten Kursänderung, gleiche Reihenfolge wie aktien
     private int rundenZaehler;
 
+    private final long seed;
+
+    public Boersensimulator(long seed) {
+        this.seed = seed;
+    }
+
     public static void main(String[] args) {
-        new Boersensimulator().run();
+        if (args.length >= 3 && args[0].equals("--aufzeichnen")) {
+            nurWarnungenVonRoboterUndServices();
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : new SplittableRandom().nextLong();
+            new Boersensimulator(seed).zeichneAuf(Path.of(args[1]), Integer.parseInt(args[2]));
+        } else if (args.length >= 3 && args[0].equals("--montecarlo")) {
+            nurWarnungenVonRoboterUndServices();
+            long seed = args.length > 3 ? Long.parseLong(args[3]) : new SplittableRandom().nextLong();
+            new Boersensimulator(seed).simuliereMonteCarlo(Integer.parseInt(args[1]), Integer.parseInt(args[2]));
+        } else if (args.length == 2 && args[0].equals("--wiedergabe")) {
+            nurWarnungenVonRoboterUndServices();
+            spieleAb(Marktaufzeichnung.lies(Path.of(args[1])));
+        } else {
+            long seed = args.length > 0 ? Long.parseLong(args[0]) : new SplittableRandom().nextLong();
+            new Boersensimulator(seed).run();
+        }
+    }
+
+    /**
+     * Ohne Eingaben würden Roboter und Services jede Entscheidung und jede Order loggen;
+     * muss vor dem ersten Roboter aufgerufen werden
+     */
+    private static void nurWarnungenVonRoboterUndServices() {
+        System.setProperty("org.slf4j.simpleLogger.log." + HandelsRoboter.class.getName(), "warn");
+        System.setProperty("org.slf4j.simpleLogger.log.de.dwpbank.mikrobank.service", "warn");
     }
 
     private void run() {
@@ -58,18 +127,32 @@ public class Boersensimulator {
         logger.info("═══════════════════════════════════════════════════════════════");
         logger.info("     BÖRSEN-SIMULATOR: Integratives Demo-System");
         logger.info("═══════════════════════════════════════════════════════════════");
+        logger.info("Seed: {}", seed);
         logger.info("");
 
-        this.roboter = new HandelsRoboter("MegaTrader3000", 50000);
-        this.random = new Random();
+        this.preisService = new PreisService(seed);
+        // Auch die Kursreaktion auf die Orders des Roboters kommt aus dem Strom dieses Seeds
+        this.roboter = new HandelsRoboter("MegaTrader3000", 50000,
+                new BoerseService(preisService, ForkJoinPool.commonPool()));
         this.rundenZaehler = 0;
 
+        // Jede Aktie bewegt sich nach ihrem eigenen Preismodell
         this.aktien = new ArrayList<>();
-        aktien.add(new Aktie("Apple", 150.00));
-        aktien.add(new Aktie("BMW", 85.50));
-        aktien.add(new Aktie("SAP", 110.00));
-        aktien.add(new Aktie("Siemens", 95.75));
-        aktien.add(new Aktie("Deutsche Telekom", 28.30));
+        Aktie apple = new Aktie("Apple", 150.00);
+        Aktie bmw = new Aktie("BMW", 85.50);
+        Aktie sap = new Aktie("SAP", 110.00);
+        Aktie siemens = new Aktie("Siemens", 95.75);
+        Aktie telekom = new Aktie("Deutsche Telekom", 28.30);
+        preisService.setzePreismodell(apple, new GbmModell(0.08, 0.30, HANDELSTAG));
+        preisService.setzePreismodell(bmw, new SprungDiffusionModell(0.05, 0.25, 3, -0.04, 0.08, HANDELSTAG));
+        preisService.setzePreismodell(sap, new GbmModell(0.07, 0.25, HANDELSTAG));
+        preisService.setzePreismodell(siemens, new GbmModell(0.06, 0.22, HANDELSTAG));
+        preisService.setzePreismodell(telekom, new MittelwertRueckkehrModell(28.30, 5, 0.15, HANDELSTAG));
+        aktien.add(apple);
+        aktien.add(bmw);
+        aktien.add(sap);
+        aktien.add(siemens);
+        aktien.add(telekom);
 
         logger.info("✅ Roboter erstellt: {}", roboter.getName());
         logger.info("✅ {} Aktien hinzugefügt", aktien.size());
@@ -132,15 +215,86 @@ public class Boersensimulator {
     }
 
     /**
-     * Ändert die Aktienkurse um ±5%
+     * Erzeugt eine feste Anzahl Runden ohne Eingaben und zeichnet die Kurse auf
      */
-    private void simulierKursschwankungen() {
+    private void zeichneAuf(Path datei, int runden) {
+        setup();
+        logger.info("⏺ Zeichne {} Runden nach {} auf", runden, datei);
+
+        try (Marktaufzeichnung.Schreiber schreiber = Marktaufzeichnung.beginne(datei, seed, aktien)) {
+            while (rundenZaehler < runden) {
+                rundenZaehler++;
+                simulierKursschwankungen();
+                schreiber.schreibeRunde(aktien);
+                roboter.handeleSession(aktien);
+            }
+        }
+        zeigeFinaleStatistiken();
+    }
+
+    /**
+     * Simuliert viele Marktverläufe mit den Aktien und Preismodellen aus setup() und zeigt die Verteilung des Endvermögens
+     */
+    private void simuliereMonteCarlo(int pfade, int runden) {
+        setup();
+        MonteCarloSimulation simulation = new MonteCarloSimulation(boerse -> new HandelsRoboter("MegaTrader3000", 50000, boerse));
         for (Aktie aktie : aktien) {
-            double alterPreis = aktie.getPreis();
-            double schwankung = (random.nextDouble() - 0.5) * 2;
-            double neuerPreis = alterPreis * (1 + (PREIS_SCHWANKUNG_PROZENT / 100) * schwankung);
-            aktie.setPreis(Math.max(neuerPreis, 0.01));
+            simulation.fuegeAktieHinzu(aktie.getName(), aktie.getPreis(), preisService.gibPreismodell(aktie));
+        }
+        logger.info("🎲 Simuliere {} Pfade à {} Runden", pfade, runden);
+
+        MonteCarloErgebnis ergebnis = simulation.simuliere(pfade, runden, seed);
+
+        logger.info("═══════════════════════════════════════════════════════════════");
+        logger.info("📈 VERTEILUNG DES ENDVERMÖGENS:");
+        logger.info("  • 1 %-Quantil:  €{}", String.format("%.2f", ergebnis.gibQuantil(0.01)));
+        logger.info("  • 5 %-Quantil:  €{}", String.format("%.2f", ergebnis.gibQuantil(0.05)));
+        logger.info("  • Median:       €{}", String.format("%.2f", ergebnis.gibQuantil(0.5)));
+        logger.info("  • 95 %-Quantil: €{}", String.format("%.2f", ergebnis.gibQuantil(0.95)));
+        logger.info("  • Mittelwert:   €{}", String.format("%.2f", ergebnis.gibMittelwert()));
+        logger.info("  • Durchsatz:    {} Pfade/s", String.format("%.0f", ergebnis.gibPfadeProSekunde()));
+        logger.info("═══════════════════════════════════════════════════════════════");
+    }
+
+    /**
+     * Spielt eine Aufzeichnung so schnell wie möglich ab, der Roboter handelt auf den aufgezeichneten Kursen
+     */
+    private static void spieleAb(Marktaufzeichnung aufzeichnung) {
+        Boersensimulator simulator = new Boersensimulator(aufzeichnung.gibSeed());
+        simulator.roboter = new HandelsRoboter("MegaTrader3000", 50000,
+                new BoerseService(new PreisService(aufzeichnung.gibSeed()), ForkJoinPool.commonPool()));
+        simulator.aktien = new ArrayList<>();
+        for (int i = 0; i < aufzeichnung.gibAnzahlAktien(); i++) {
+            simulator.aktien.add(new Aktie(aufzeichnung.gibAktienName(i), aufzeichnung.gibStartpreis(i)));
         }
+        logger.info("▶ Spiele {} Runden ab (Seed {})", aufzeichnung.gibAnzahlRunden(), aufzeichnung.gibSeed());
+
+        long start = System.nanoTime();
+        for (int runde = 0; runde < aufzeichnung.gibAnzahlRunden(); runde++) {
+            simulator.rundenZaehler++;
+            aufzeichnung.setzePreise(runde, simulator.aktien);
+            simulator.roboter.handeleSession(simulator.aktien);
+        }
+        long dauer = System.nanoTime() - start;
+
+        simulator.zeigeFinaleStatistiken();
+        logger.info("  • Laufzeit: {} ms ({} Runden/s)", dauer / 1_000_000,
+                dauer > 0 ? aufzeichnung.gibAnzahlRunden() * 1_000_000_000L / dauer : 0);
+    }
+
+    /**
+     * Ändert die Aktienkurse um einen Handelstag nach dem Preismodell der jeweiligen Aktie
+     */
+    private void simulierKursschwankungen() {
+        if (vorherigePreise == null) {
+            vorherigePreise = new double[aktien.size()];
+        }
+        for (int i = 0; i < aktien.size(); i++) {
+            Aktie aktie = aktien.get(i);
+            vorherigePreise[i] = aktie.getPreis();
+            preisService.ermittleAktuellenPreis(aktie);
+        }
+        marktbildquelle.veroeffentliche(aktien);
     }
 
     /**
@@ -155,23 +309,27 @@ public class Boersensimulator {
         logger.info("│ Aktie            │ Preis    │ Trend        │");
         logger.info("├──────────────────┼──────────┼──────────────┤");
 
-        for (Aktie aktie : aktien) {
-            logger.info("│ {:<16} │ €{:>7.2f} │ {:<12} │",
-                    aktie.getName(),
-                    aktie.getPreis(),
-                    getTrendIcon());
+        try (Marktbild bild = marktbildquelle.erwerbe()) {
+            for (int i = 0; i < aktien.size(); i++) {
+                Aktie aktie = aktien.get(i);
+                logger.info("│ {:<16} │ €{:>7.2f} │ {:<12} │",
+                        aktie.getName(),
+                        bild.gibPreis(aktie.getId()),
+                        getTrendIcon(i));
+            }
         }
 
         logger.info("└──────────────────┴──────────┴──────────────┘");
     }
 
     /**
-     * Gibt ein zufälliges Trend-Symbol zurück
+     * Gibt das Trend-Symbol zur letzten Kursänderung der Aktie zurück
      */
-    private String getTrendIcon() {
-        double zufall = Math.random();
-        if (zufall < 0.33) return "📈 steigend";
-        if (zufall < 0.66) return "📉 fallend";
+    private String getTrendIcon(int index) {
+        if (vorherigePreise == null) return "➡️  seitwärts";
+        double aenderung = aktien.get(index).getPreis() / vorherigePreise[index] - 1;
+        if (aenderung > TREND_SCHWELLE) return "📈 steigend";
+        if (aenderung < -TREND_SCHWELLE) return "📉 fallend";
         return "➡️  seitwärts";
     }
 
@@ -1,12 +1,15 @@
 package de.dwpbank.mikrobank;
 
 import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.InstrumentRegister;
 import de.dwpbank.mikrobank.model.Konto;
 import de.dwpbank.mikrobank.service.BoerseService;
 import de.dwpbank.mikrobank.service.KursService;
+import de.dwpbank.mikrobank.service.indikator.Indikator;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
+import java.util.function.ToDoubleFunction;
 
 /**
  * HandelsRoboter - Ein automatisierter Tradingsystem für die Mini-Börse
@@ -49,7 +52,7 @@ import java.util.*;
  * │   2. Berechne: Wieviele Aktien kann ich kaufen?                         │
  * │      → Anzahl = guthaben / aktuellPrice (aber min. 1, max. 10)          │
  * │   3. Rufe boerseService.kaufe(konto, aktie, anzahl) auf                 │
- * │   4. Speichere die Aktien im internen Depot: depot.put(aktie, anzahl)   │
+ * │   4. Speichere die Aktien im internen Depot: aendereBestand(aktie, n)   │
  * │   5. KursService wird automatisch von BoerseService aktualisiert        │
  * └─────────────────────────────────────────────────────────────────────────┘
  * <p>
@@ -57,7 +60,7 @@ import java.util.*;
  * │ SCHRITT 3: VERKAUFSENTSCHEIDUNG                                         │
  * │                                                                         │
  * │ VERKAUFEN WENN:                                                         │
- * │   ✓ Roboter besitzt diese Aktie (depot.containsKey(aktie))              │
+ * │   ✓ Roboter besitzt diese Aktie (gibBestand(aktie.getId()) > 0)         │
  * │   ✓ Kurs ist teuer (KursService.istKursTeuer())                         │
  * │   ✓ Roboter hat mindestens 1 Aktie davon                                │
  * │                                                                         │
@@ -79,12 +82,17 @@ import java.util.*;
  * - konto: Konto
  *     Das Bankkonto mit dem Startkapital
  * <p>
- * - depot: Map<String, Integer>
+ * - depot: int[]
  *     Speichert welche Aktien der Roboter besitzt
- *     Key: Aktienname (z.B. "Apple", "BMW")
- *     Value: Anzahl der Aktien
+ *     Index: Instrument-Id der Aktie (aktie.getId(), siehe InstrumentRegister)
+ *     Wert: Anzahl der Aktien (0 = nicht im Depot)
+ *     Nach außen wird das Depot weiterhin als Map Name → Anzahl angeboten (getDepot())
  *     Beispiel: {"Apple": 5, "BMW": 3} → Roboter hat 5 Apple + 3 BMW
  * <p>
+ * - depotAktien: Aktie[]
+ *     Zuletzt gehandeltes Aktie-Objekt je Instrument-Id, für die Bewertung des Depots
+ *     zum aktuellen Preis (berechnetGesamtvermoegen())
+ * <p>
  * - boerseService: BoerseService
  *     Für Kauf und Verkauf von Aktien
  * <p>
@@ -103,9 +111,16 @@ public class HandelsRoboter {
 
     private String name;
     private Konto konto;
-    private Map<String, Integer> depot; // Name → Anzahl der Aktien
+    private int[] depot; // Instrument-Id → Anzahl der Aktien
+    private Aktie[] depotAktien; // Instrument-Id → Aktie, für die Bewertung zum aktuellen Preis
+    private final double startkapital;
+
+    // Höchstens so viele Aktien derselben Art im Depot
+    private static final int MAX_PRO_AKTIE = 10;
+
+    private final InstrumentRegister register = InstrumentRegister.global();
 
-    private final BoerseService boerseService = new BoerseService();
+    private final BoerseService boerseService;
     private final KursService kursService = new KursService();
 
     /**
@@ -115,17 +130,38 @@ public class HandelsRoboter {
      * Initialisiere:
      * 1. Den Namen des Roboters (speichern)
      * 2. Ein neues Konto mit dem Startkapital
-     * 3. Ein leeres Depot (HashMap)
+     * 3. Ein leeres Depot (int[], wächst mit den Instrument-Ids)
      * 4. Logge: "[name] wurde mit Startkapital [betrag]€ erstellt"
      *
      * @param name Der Name des Roboters (z.B. "TradeBot2000")
      * @param startkapital Das verfügbare Budget zum Starten (z.B. 100000)
      */
     public HandelsRoboter(String name, double startkapital) {
-        // TODO: Implementiere den Konstruktor
-        // HINWEIS: Nutze new Konto(startkapital) für das Konto
-        // HINWEIS: Nutze new HashMap<>() für das Depot
-        // HINWEIS: Nutze log.info(...) zum Loggen
+        this(name, startkapital, new BoerseService());
+    }
+
+    /**
+     * Erstellt einen Handelsroboter, der über den gegebenen BoerseService handelt.
+     * <p>
+     * Der Simulator übergibt hier einen BoerseService mit seinem PreisService, damit
+     * ein Lauf mit festem Seed auch mit den Orders des Roboters reproduzierbar ist.
+     *
+     * @param name          Der Name des Roboters (z.B. "TradeBot2000")
+     * @param startkapital  Das verfügbare Budget zum Starten (z.B. 100000)
+     * @param boerseService führt die Orders des Roboters aus
+     * @throws IllegalArgumentException wenn der BoerseService null ist
+     */
+    public HandelsRoboter(String name, double startkapital, BoerseService boerseService) {
+        if (boerseService == null) {
+            throw new IllegalArgumentException("BoerseService darf nicht null sein");
+        }
+        this.boerseService = boerseService;
+        this.name = name;
+        this.startkapital = startkapital;
+        this.konto = new Konto(startkapital);
+        this.depot = new int[0];
+        this.depotAktien = new Aktie[0];
+        log.info("{} wurde mit Startkapital {}€ erstellt", name, startkapital);
     }
 
     /**
@@ -134,8 +170,7 @@ public class HandelsRoboter {
      * @return der Name (z.B. "TradeBot2000")
      */
     public String getName() {
-        // TODO: Gib this.name zurück
-        return null;
+        return name;
     }
 
     /**
@@ -144,18 +179,25 @@ public class HandelsRoboter {
      * @return das Konto mit aktuellem Guthaben
      */
     public Konto getKonto() {
-        // TODO: Gib this.konto zurück
-        return null;
+        return konto;
     }
 
     /**
      * Gibt das Depot des Roboters zurück (welche Aktien er besitzt)
      *
-     * @return die Map mit Aktienname → Anzahl
+     * Das Depot wird intern über Instrument-Ids geführt; diese Methode baut daraus
+     * eine Kopie mit Aktiennamen und ist für Anzeige und Tests gedacht, nicht für den Hot-Path.
+     *
+     * @return neue Map mit Aktienname → Anzahl, nur Aktien mit Anzahl > 0
      */
     public Map<String, Integer> getDepot() {
-        // TODO: Gib this.depot zurück (besser: neue HashMap(this.depot) zur Sicherheit)
-        return null;
+        Map<String, Integer> kopie = new HashMap<>();
+        for (int id = 0; id < depot.length; id++) {
+            if (depot[id] > 0) {
+                kopie.put(register.gibName(id), depot[id]);
+            }
+        }
+        return kopie;
     }
 
 
@@ -168,15 +210,46 @@ public class HandelsRoboter {
         return kursService;
     }
 
+    /**
+     * Lässt den Roboter einen technischen Indikator für eine Aktie verfolgen.
+     * <p>
+     * Der Indikator wird im KursService des Roboters registriert und dort bei
+     * jedem gespeicherten Kurs automatisch aktualisiert.
+     * <p>
+     * Beispiel:
+     * <pre>
+     * RsiIndikator rsi = roboter.beobachteIndikator("Apple", new RsiIndikator(14));
+     * if (roboter.leseIndikator("Apple", rsi, RsiIndikator::gibWert) &lt; 30) { ... }
+     * </pre>
+     *
+     * @param aktienname z.B. "Apple"
+     * @param indikator  der zu verfolgende Indikator
+     * @return der registrierte Indikator
+     */
+    public <I extends Indikator> I beobachteIndikator(String aktienname, I indikator) {
+        return kursService.registriereIndikator(aktienname, indikator);
+    }
+
+    /**
+     * Liest einen Wert eines mit {@link #beobachteIndikator} registrierten Indikators.
+     *
+     * @param aktienname z.B. "Apple"
+     * @param indikator  der registrierte Indikator
+     * @param wert       welcher Wert gelesen werden soll, z.B. {@code RsiIndikator::gibWert}
+     * @return der aktuelle Wert, {@code Double.NaN} wenn noch keine Daten vorliegen
+     */
+    public <I extends Indikator> double leseIndikator(String aktienname, I indikator, ToDoubleFunction<I> wert) {
+        return kursService.leseIndikator(aktienname, indikator, wert);
+    }
+
     /**
      * Prüft ob der Roboter eine bestimmte Aktie besitzt
      *
      * @param aktienname z.B. "Apple"
-     * @return true wenn depot.containsKey(aktienname), sonst false
+     * @return true wenn der Roboter mindestens 1 Stück besitzt, sonst false
      */
     public boolean besitztAktie(String aktienname) {
-        // TODO: Prüfe mit depot.containsKey(aktienname)
-        return false;
+        return gibAnzahlAktien(aktienname) > 0;
     }
 
     /**
@@ -186,8 +259,34 @@ public class HandelsRoboter {
      * @return die Anzahl, oder 0 wenn Roboter nicht besitzt
      */
     public int gibAnzahlAktien(String aktienname) {
-        // TODO: Nutze depot.getOrDefault(aktienname, 0)
-        return 0;
+        return gibBestand(register.gibId(aktienname));
+    }
+
+    /**
+     * Liefert den Bestand einer Aktie über ihre Instrument-Id.
+     *
+     * @param instrumentId Id der Aktie, siehe {@link Aktie#getId()}
+     * @return die Anzahl, oder 0 wenn Roboter nicht besitzt
+     */
+    private int gibBestand(int instrumentId) {
+        return instrumentId >= 0 && instrumentId < depot.length ? depot[instrumentId] : 0;
+    }
+
+    /**
+     * Ändert den Bestand einer Aktie im Depot (positiv = Kauf, negativ = Verkauf).
+     *
+     * @param aktie    die gehandelte Aktie
+     * @param veraenderung Anzahl der gekauften (+) bzw. verkauften (-) Aktien
+     */
+    private void aendereBestand(Aktie aktie, int veraenderung) {
+        int id = aktie.getId();
+        if (id >= depot.length) {
+            int laenge = Math.max(id + 1, depot.length * 2);
+            depot = Arrays.copyOf(depot, laenge);
+            depotAktien = Arrays.copyOf(depotAktien, laenge);
+        }
+        depot[id] += veraenderung;
+        depotAktien[id] = aktie;
     }
 
     /**
@@ -212,7 +311,7 @@ public class HandelsRoboter {
      *    - Halten: log.info("[name] hält Position in [aktie.name()]")
      * <p>
      * 4. AKTUALISIERE das Depot:
-     *    - Nach Kauf: depot.put(aktienname, neue_anzahl)
+     *    - Nach Kauf: aendereBestand(aktie, gekaufte_anzahl)
      *    - Nach Verkauf: entferne oder reduziere Anzahl
      * <p>
      * HINT: Der Algorithmus sieht ungefähr so aus:
@@ -220,20 +319,19 @@ public class HandelsRoboter {
      * ```
      * FUNCTION handleAnEinemTag(aktie):
      *     aktuellerPreis = hole preis von aktie
-     *     depot.put(aktienname, alte_anzahl + gekaufte_anzahl)
      * <p>
      *     IF kursService.istKursGuenstig(aktie) AND habe genug guthaben:
      *         DANN kaufen
      *         anzahl = berechne wieviel ich kaufen kann
      *         boerseService.kaufe(konto, aktie, anzahl)
-     *         depot.put(aktie.getName(), bisherige_anzahl + anzahl)
+     *         aendereBestand(aktie, anzahl)
      *         log.info("gekauft")
      * <p>
      *     ELSE IF kursService.istKursTeuer(aktie) AND ich besitze diese aktie:
      *         DANN verkaufen
-     *         anzahl = depot.get(aktie.getName())
+     *         anzahl = gibBestand(aktie.getId())
      *         boerseService.verkaufe(konto, aktie, anzahl)
-     *         depot.remove(aktie.getName())  // oder depot.put(..., 0)
+     *         aendereBestand(aktie, -anzahl)
      *         log.info("verkauft")
      * <p>
      *     ELSE:
@@ -242,56 +340,45 @@ public class HandelsRoboter {
      * <p>
      * HERAUSFORDERUNG:
      * - Mehrere Aktien handeln? Schreib eine Loop über eine Liste von Aktien
-     * - Nur teilweise verkaufen? Dann depot.put(name, verbleibende_anzahl)
+     * - Nur teilweise verkaufen? Dann aendereBestand(aktie, -verkaufte_anzahl)
      * - Edge case: Was wenn BoerseService eine Exception wirft? (Try-Catch?)
      *
      * @param aktie die zu handelende Aktie
      * @throws IllegalArgumentException wenn Aktie null ist
      */
     public void handleAnEinemTag(Aktie aktie) {
-        // TODO: Implementiere die Handelslogik
-        // SCHRITT 1: Validierung
         if (aktie == null) {
             throw new IllegalArgumentException("Aktie darf nicht null sein");
         }
 
-        // SCHRITT 2: Analysiere den Kurs
-        // WICHTIG: Beim ersten Auftreten einer Aktie kann die Kurshistorie leer sein.
-        // Dann sind istKursGuenstig()/istKursTeuer() meist false (kein Referenzwert).
-        // Tipp: Bei leerer Historie zuerst kursService.speichereKurs(aktie) als Referenz setzen und HALTEN.
-        // - kursService.istKursGuenstig(aktie) → boolean für KAUF
-        // - kursService.istKursTeuer(aktie) → boolean für VERKAUF
-        // - depot.containsKey(aktie.getName()) → habe ich diese Aktie?
-        // - konto.getKontostand() → wie viel Guthaben?
+        double preis = aktie.getPreis();
+        int id = aktie.getId();
 
-        // SCHRITT 3: KAUF wenn Kurs günstig
-        // Bedingungen:
-        //   - kursService.istKursGuenstig(aktie)
-        //   - konto.getKontostand() >= aktie.getPreis()
-        //   - gibAnzahlAktien(aktie.getName()) < 10  (max 10 pro Aktie)
-        //
-        // Wenn ja:
-        //   - double preis = aktie.getPreis()
-        //   - int anzahlKannKaufen = (int) (konto.getKontostand() / preis)
-        //   - aber max 10, also: anzahlZuKaufen = Math.min(anzahlKannKaufen, 10 - schonBesitzt)
-        //   - boerseService.kaufe(konto, aktie, anzahlZuKaufen)
-        //   - depot.put(aktie.getName(), gibAnzahlAktien(aktie.getName()) + anzahlZuKaufen)
-        //   - log.info("[{}] kauft {}x {}", name, anzahlZuKaufen, aktie.getName())
+        // Beim ersten Auftreten gibt es noch keinen Referenzwert: Kurs merken und halten
+        if (kursService.berechnetDurchschnittskurs(id) == 0) {
+            kursService.speichereKurs(aktie);
+            log.info("[{}] hält Position in {}", name, aktie.getName());
+            return;
+        }
 
-        // SCHRITT 4: VERKAUF wenn Kurs teuer
-        // Bedingungen:
-        //   - kursService.istKursTeuer(aktie)
-        //   - depot.containsKey(aktie.getName())
-        //   - gibAnzahlAktien(aktie.getName()) > 0
-        //
-        // Wenn ja:
-        //   - int anzahlZuVerkaufen = depot.get(aktie.getName())
-        //   - boerseService.verkaufe(konto, aktie, anzahlZuVerkaufen)
-        //   - depot.remove(aktie.getName())  oder depot.put(aktie.getName(), 0)
-        //   - log.info("[{}] verkauft {}x {}", name, anzahlZuVerkaufen, aktie.getName())
+        int bestand = gibBestand(id);
+        long preisCent = Konto.inCent(preis);
+        if (kursService.istKursGuenstig(aktie) && bestand < MAX_PRO_AKTIE && preisCent > 0
+                && konto.getKontostandCent() >= preisCent) {
+            int anzahlZuKaufen = (int) Math.min(konto.getKontostandCent() / preisCent, MAX_PRO_AKTIE - bestand);
+            boerseService.kaufe(konto, aktie, anzahlZuKaufen);
+            aendereBestand(aktie, anzahlZuKaufen);
+            log.info("[{}] kauft {}x {}", name, anzahlZuKaufen, aktie.getName());
+        } else if (kursService.istKursTeuer(aktie) && bestand > 0) {
+            boerseService.verkaufe(konto, aktie, bestand);
+            aendereBestand(aktie, -bestand);
+            log.info("[{}] verkauft {}x {}", name, bestand, aktie.getName());
+        } else {
+            log.info("[{}] hält Position in {}", name, aktie.getName());
+        }
 
-        // SCHRITT 5: HALTEN wenn keine Aktion
-        // log.info("[{}] hält Position in {}", name, aktie.getName())
+        // Der Kurs dieses Tages fließt in den Durchschnitt ein, mit dem die nächsten Tage verglichen werden
+        kursService.speichereKurs(aktie.getId(), preis, System.currentTimeMillis(), 0);
     }
 
     /**
@@ -309,9 +396,15 @@ public class HandelsRoboter {
      * @param aktien die zu handelenden Aktien
      */
     public void handeleSession(List<Aktie> aktien) {
-        // TODO: Implementiere die Handelssession
-        // HINWEIS: for (Aktie aktie : aktien) { ... }
-        // HINWEIS: try { handleAnEinemTag(aktie); } catch (Exception e) { log.warn(...); }
+        for (Aktie aktie : aktien) {
+            try {
+                handleAnEinemTag(aktie);
+            } catch (RuntimeException e) {
+                log.warn("[{}] Handel mit {} fehlgeschlagen: {}", name,
+                        aktie != null ? aktie.getName() : null, e.getMessage());
+            }
+        }
+        log.info("[{}] Handelssession beendet. Guthaben: {}€", name, konto.getKontostand());
     }
 
     /**
@@ -333,16 +426,19 @@ public class HandelsRoboter {
      *    - Addiere zu guthaben
      * 3. Gib gesamtVermögen zurück
      * <p>
-     * HERAUSFORDERUNG: Wie speicherst du die Aktien selbst?
-     * Option 1: Zweite Map<String, Aktie> depot_objekte
-     * Option 2: Aktienliste als Parameter übergeben
-     * Option 3: KursService hat die Aktien (aber nur Preise...)
+     * Umsetzung: Neben dem Bestand merkt sich das Depot je Instrument-Id das zuletzt
+     * gehandelte Aktie-Objekt (depotAktien) und bewertet zu dessen aktuellem Preis.
      *
      * @return das Gesamtvermögen in Euro
      */
     public double berechnetGesamtvermoegen() {
-        // TODO: Implementiere die Vermögensberechnung
-        return 0.0;
+        double vermoegen = konto.getKontostand();
+        for (int id = 0; id < depot.length; id++) {
+            if (depot[id] > 0) {
+                vermoegen += depot[id] * depotAktien[id].getPreis();
+            }
+        }
+        return vermoegen;
     }
 
     /**
@@ -366,8 +462,22 @@ public class HandelsRoboter {
      * @return der Status als String
      */
     public String gibStatus() {
-        // TODO: Implementiere die Status-Ausgabe
-        // HINWEIS: Nutze StringBuilder für komplexe Strings
-        return "";
+        String linie = "═══════════════════════════════════════════\n";
+        Map<String, Integer> aktuellesDepot = getDepot();
+        double vermoegen = berechnetGesamtvermoegen();
+
+        StringBuilder status = new StringBuilder();
+        status.append(linie)
+                .append("Handelsroboter: ").append(name).append('\n')
+                .append(linie)
+                .append(String.format("Guthaben: %.2f€%n", konto.getKontostand()))
+                .append("Depot: ").append(aktuellesDepot.size()).append('\n');
+        for (Map.Entry<String, Integer> position : new TreeMap<>(aktuellesDepot).entrySet()) {
+            status.append("  - ").append(position.getKey()).append(": ").append(position.getValue()).append(" Stück\n");
+        }
+        status.append(String.format("Gesamtvermögen: %.2f€%n", vermoegen))
+                .append(String.format("Gewinn/Verlust: %.2f€%n", vermoegen - startkapital))
+                .append(linie);
+        return status.toString();
     }
 }
@@ -0,0 +1,82 @@
+package de.dwpbank.mikrobank;
+
+import java.util.Arrays;
+
+/**
+ * Ergebnis einer {@link MonteCarloSimulation}: Verteilung des Endvermögens über alle Pfade.
+ * <p>
+ * Die Endvermögen werden sortiert gespeichert; Quantile kosten daher O(1).
+ * Unveränderlich.
+ */
+public final class MonteCarloErgebnis {
+
+    private final double[] endvermoegen;
+    private final long dauerNanos;
+
+    /**
+     * @param endvermoegen Endvermögen pro Pfad (wird kopiert und sortiert)
+     * @param dauerNanos   Laufzeit der Simulation in Nanosekunden
+     * @throws IllegalArgumentException wenn keine Pfade übergeben werden
+     */
+    public MonteCarloErgebnis(double[] endvermoegen, long dauerNanos) {
+        if (endvermoegen == null || endvermoegen.length == 0) {
+            throw new IllegalArgumentException("Ergebnis braucht mindestens einen Pfad");
+        }
+        this.endvermoegen = endvermoegen.clone();
+        Arrays.sort(this.endvermoegen);
+        this.dauerNanos = dauerNanos;
+    }
+
+    /**
+     * Liefert ein Quantil des Endvermögens (lineare Interpolation zwischen den Pfaden).
+     *
+     * @param p Wahrscheinlichkeit in [0, 1], z. B. 0.05 für das 5 %-Quantil
+     * @return das Endvermögen, das in einem Anteil p der Pfade nicht überschritten wird
+     * @throws IllegalArgumentException wenn p nicht in [0, 1] liegt
+     */
+    public double gibQuantil(double p) {
+        if (!(p >= 0 && p <= 1)) {
+            throw new IllegalArgumentException("Quantil muss in [0, 1] liegen");
+        }
+        double position = p * (endvermoegen.length - 1);
+        int unten = (int) position;
+        if (unten == endvermoegen.length - 1) {
+            return endvermoegen[unten];
+        }
+        double anteil = position - unten;
+        return endvermoegen[unten] + anteil * (endvermoegen[unten + 1] - endvermoegen[unten]);
+    }
+
+    /**
+     * @return durchschnittliches Endvermögen über alle Pfade
+     */
+    public double gibMittelwert() {
+        double summe = 0;
+        for (double wert : endvermoegen) {
+            summe += wert;
+        }
+        return summe / endvermoegen.length;
+    }
+
+    /**
+     * @return Anzahl der simulierten Pfade
+     */
+    public int gibAnzahlPfade() {
+        return endvermoegen.length;
+    }
+
+    /**
+     * @return Durchsatz der Simulation
+     */
+    public double gibPfadeProSekunde() {
+        return dauerNanos > 0 ? endvermoegen.length * 1e9 / dauerNanos : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("MonteCarloErgebnis{%d Pfade, Mittel=%.2f, 1%%=%.2f, 5%%=%.2f, 50%%=%.2f, "
+                        + "95%%=%.2f, 99%%=%.2f, %.0f Pfade/s}",
+                endvermoegen.length, gibMittelwert(), gibQuantil(0.01), gibQuantil(0.05), gibQuantil(0.5),
+                gibQuantil(0.95), gibQuantil(0.99), gibPfadeProSekunde());
+    }
+}
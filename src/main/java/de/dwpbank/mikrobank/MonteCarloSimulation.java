@@ -0,0 +1,187 @@
+package de.dwpbank.mikrobank;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.service.BoerseService;
+import de.dwpbank.mikrobank.service.PreisService;
+import de.dwpbank.mikrobank.service.preismodell.Preismodell;
+import de.dwpbank.mikrobank.service.preismodell.Zufallsstroeme;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Function;
+
+/**
+ * Monte-Carlo-Simulation einer Handelsstrategie über viele unabhängige Marktverläufe.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Statt eines einzelnen Laufs des {@link Boersensimulator} wird die Verteilung des
+ *   Endvermögens ({@link HandelsRoboter#berechnetGesamtvermoegen()}) über tausende
+ *   Pfade ermittelt, z. B. das 5 %-Quantil als einfaches Risikomaß
+ * - Jeder Pfad startet mit denselben Aktien und Startpreisen und einem frischen Roboter
+ * - Der Roboter handelt über einen eigenen {@link BoerseService} des Pfads; auch die
+ *   Kursreaktion auf seine Orders folgt dem Preismodell der Aktie und ist über den
+ *   Master-Seed festgelegt
+ * <p>
+ * Beispiel:
+ * <pre>
+ * MonteCarloSimulation simulation = new MonteCarloSimulation(boerse -> new HandelsRoboter("Bot", 50000, boerse));
+ * simulation.fuegeAktieHinzu("Apple", 150, new GbmModell(0.08, 0.30, 1.0 / 252));
+ * MonteCarloErgebnis ergebnis = simulation.simuliere(10_000, 252, 42);
+ * </pre>
+ * <p>
+ * Technische Hinweise:
+ * - Die Pfade werden per Fork/Join auf alle Kerne verteilt
+ * - Pfad i zieht seine Zufallszahlen aus einem eigenen Strom
+ *   ({@link Zufallsstroeme#strom(long, long)} mit Index i); das Ergebnis hängt daher
+ *   nur vom Master-Seed ab, nicht von der Anzahl der Threads
+ * - Die Preise werden direkt über die {@link Preismodell}e gezogen, mit derselben
+ *   Untergrenze wie im {@link PreisService}
+ * - Pro Pfad gibt es nur die Objekte, die ein Lauf braucht: Aktien, einen
+ *   PreisService mit einem Seed aus dem Strom des Pfads, einen BoerseService, der
+ *   asynchrone Orders direkt ausführt (keine Threads), und den Roboter
+ * - Aktien werden vor der ersten Simulation hinzugefügt; danach nicht mehr ändern
+ */
+public class MonteCarloSimulation {
+
+    // Pfade pro Fork/Join-Blatt; darunter lohnt sich das Aufteilen nicht mehr
+    private static final int PFADE_PRO_AUFGABE = 8;
+
+    private final Function<BoerseService, HandelsRoboter> roboterFabrik;
+    private final List<String> namen = new ArrayList<>();
+    private final List<Double> startpreise = new ArrayList<>();
+    private final List<Preismodell> modelle = new ArrayList<>();
+
+    /**
+     * @param roboterFabrik erzeugt für jeden Pfad einen frischen Roboter, der über den
+     *                      übergebenen BoerseService des Pfads handelt
+     * @throws IllegalArgumentException wenn die Fabrik null ist
+     */
+    public MonteCarloSimulation(Function<BoerseService, HandelsRoboter> roboterFabrik) {
+        if (roboterFabrik == null) {
+            throw new IllegalArgumentException("Roboter-Fabrik darf nicht null sein");
+        }
+        this.roboterFabrik = roboterFabrik;
+    }
+
+    /**
+     * Fügt eine Aktie hinzu, die in jedem Pfad gehandelt wird.
+     *
+     * @param name       Name der Aktie
+     * @param startpreis Preis vor der ersten Runde (> 0)
+     * @param modell     Preismodell der Aktie
+     * @throws IllegalArgumentException bei fehlendem Namen oder Modell oder Startpreis <= 0
+     */
+    public void fuegeAktieHinzu(String name, double startpreis, Preismodell modell) {
+        if (name == null || modell == null) {
+            throw new IllegalArgumentException("Name und Preismodell dürfen nicht null sein");
+        }
+        if (!(startpreis > 0)) {
+            throw new IllegalArgumentException("Startpreis muss größer als 0 sein");
+        }
+        namen.add(name);
+        startpreise.add(startpreis);
+        modelle.add(modell);
+    }
+
+    /**
+     * Simuliert im gemeinsamen Fork/Join-Pool.
+     *
+     * @see #simuliere(int, int, long, ForkJoinPool)
+     */
+    public MonteCarloErgebnis simuliere(int pfade, int runden, long masterSeed) {
+        return simuliere(pfade, runden, masterSeed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Simuliert die gegebene Anzahl Pfade und liefert die Verteilung des Endvermögens.
+     * <p>
+     * Pro Runde werden alle Preise um einen Schritt bewegt, danach handelt der Roboter
+     * ({@link HandelsRoboter#handeleSession(List)}) – wie im {@link Boersensimulator}.
+     *
+     * @param pfade      Anzahl der Marktverläufe
+     * @param runden     Anzahl der Runden pro Verlauf
+     * @param masterSeed Seed; gleicher Seed ergibt dasselbe Ergebnis
+     * @param pool       Pool, auf dem die Pfade laufen
+     * @return die Verteilung des Endvermögens und der Durchsatz
+     * @throws IllegalArgumentException bei pfade < 1, runden < 0 oder ohne Aktien
+     */
+    public MonteCarloErgebnis simuliere(int pfade, int runden, long masterSeed, ForkJoinPool pool) {
+        if (pfade < 1 || runden < 0) {
+            throw new IllegalArgumentException("Mindestens ein Pfad und keine negativen Runden");
+        }
+        if (namen.isEmpty()) {
+            throw new IllegalArgumentException("Simulation braucht mindestens eine Aktie");
+        }
+        double[] endvermoegen = new double[pfade];
+        long start = System.nanoTime();
+        pool.invoke(new PfadAufgabe(0, pfade, runden, masterSeed, endvermoegen));
+        return new MonteCarloErgebnis(endvermoegen, System.nanoTime() - start);
+    }
+
+    /**
+     * Simuliert einen einzelnen Pfad.
+     *
+     * @return Endvermögen des Roboters auf diesem Pfad
+     */
+    private double simulierePfad(int pfad, int runden, long masterSeed) {
+        SplittableRandom zufall = Zufallsstroeme.strom(masterSeed, pfad);
+        int anzahl = namen.size();
+        PreisService preisService = new PreisService(zufall.nextLong());
+        List<Aktie> aktien = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            Aktie aktie = new Aktie(namen.get(i), startpreise.get(i));
+            preisService.setzePreismodell(aktie, modelle.get(i));
+            aktien.add(aktie);
+        }
+        HandelsRoboter roboter = roboterFabrik.apply(new BoerseService(preisService, Runnable::run));
+
+        for (int runde = 0; runde < runden; runde++) {
+            for (int i = 0; i < anzahl; i++) {
+                Aktie aktie = aktien.get(i);
+                double neuerPreis = modelle.get(i).naechsterPreis(aktie.getPreis(), zufall);
+                aktie.setPreis(neuerPreis >= PreisService.MINDESTPREIS ? neuerPreis : PreisService.MINDESTPREIS);
+            }
+            roboter.handeleSession(aktien);
+        }
+        return roboter.berechnetGesamtvermoegen();
+    }
+
+    /**
+     * Teilt den Bereich [von, bis) der Pfade, bis er klein genug ist, und schreibt
+     * das Endvermögen jedes Pfads an seine Position.
+     */
+    private final class PfadAufgabe extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int von;
+        private final int bis;
+        private final int runden;
+        private final long masterSeed;
+        private final double[] endvermoegen;
+
+        PfadAufgabe(int von, int bis, int runden, long masterSeed, double[] endvermoegen) {
+            this.von = von;
+            this.bis = bis;
+            this.runden = runden;
+            this.masterSeed = masterSeed;
+            this.endvermoegen = endvermoegen;
+        }
+
+        @Override
+        protected void compute() {
+            if (bis - von <= PFADE_PRO_AUFGABE) {
+                for (int pfad = von; pfad < bis; pfad++) {
+                    endvermoegen[pfad] = simulierePfad(pfad, runden, masterSeed);
+                }
+                return;
+            }
+            int mitte = (von + bis) >>> 1;
+            invokeAll(new PfadAufgabe(von, mitte, runden, masterSeed, endvermoegen),
+                    new PfadAufgabe(mitte, bis, runden, masterSeed, endvermoegen));
+        }
+    }
+}
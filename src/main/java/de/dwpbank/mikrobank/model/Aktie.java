@@ -37,8 +37,21 @@ public class Aktie {
      *
      * Technischer Hinweis:
      * - Die Einhaltung fachlicher Regeln wird durch Services sichergestellt
+     * - volatile, damit andere Threads einen neuen Preis sofort und nie halb
+     *   geschrieben sehen; einen über alle Aktien konsistenten Stand liefert
+     *   dagegen erst das {@link de.dwpbank.mikrobank.service.Marktbild}
      */
-    private double preis;
+    private volatile double preis;
+
+    /**
+     * Instrument-Id der Aktie aus dem {@link InstrumentRegister}, -1 solange noch nicht ermittelt.
+     *
+     * Technischer Hinweis:
+     * - Wird beim ersten {@link #getId()} einmalig nachgeschlagen und danach nur noch gelesen
+     * - Ein gleichzeitiger erster Zugriff aus mehreren Threads ist harmlos,
+     *   das Register liefert für denselben Namen immer dieselbe Id
+     */
+    private int id = -1;
 
     /**
      * Erstellt eine neue Aktie.
@@ -60,6 +73,25 @@ public class Aktie {
         return name;
     }
 
+    /**
+     * Liefert die Instrument-Id der Aktie.
+     *
+     * Fachliche Bedeutung:
+     * - Gleicher Name ergibt dieselbe Id, auch bei verschiedenen Aktie-Objekten
+     * - Services indizieren ihre Daten pro Aktie über diese Id statt über den Namen
+     *
+     * @return Instrument-Id aus dem globalen {@link InstrumentRegister}
+     * @throws IllegalArgumentException wenn die Aktie keinen Namen hat
+     */
+    public int getId() {
+        int ergebnis = id;
+        if (ergebnis < 0) {
+            ergebnis = InstrumentRegister.global().registriere(name);
+            id = ergebnis;
+        }
+        return ergebnis;
+    }
+
     /**
      * Liefert den aktuellen Preis der Aktie.
      *
@@ -0,0 +1,115 @@
+package de.dwpbank.mikrobank.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Vergibt jedem Aktiennamen eine dichte, fortlaufende Instrument-Id (0, 1, 2, ...).
+ * <p>
+ * Fachliche Bedeutung:
+ * - Jede Aktie bekommt beim ersten Auftreten genau eine Id, die sich nie mehr ändert
+ * - Gleicher Name ergibt in allen Services dieselbe Id
+ * <p>
+ * Design-Entscheidungen:
+ * - Services speichern ihre Daten pro Aktie in Arrays, die über die Id indiziert
+ *   werden, statt in {@code Map<String, ...>}; pro Tick fallen damit kein
+ *   String-Hashing und kein {@code equals} mehr an
+ * - Der Name wird nur noch an den Rändern (Eingabe, Ausgabe, Logging) in eine Id
+ *   übersetzt, z.B. über {@link Aktie#getId()}
+ * - Es gibt ein prozessweites Register ({@link #global()}), damit die Ids aller
+ *   Services zueinander passen
+ * <p>
+ * Technische Hinweise:
+ * - Lesen ({@link #gibId(String)}, {@link #gibName(int)}) ist sperrfrei
+ * - Nur das erstmalige Anlegen eines Namens ist synchronisiert
+ */
+public final class InstrumentRegister {
+
+    private static final InstrumentRegister GLOBAL = new InstrumentRegister();
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+
+    // Id → Name; wird beim Wachsen kopiert und über volatile veröffentlicht
+    private volatile String[] namen = new String[64];
+    private volatile int anzahl;
+
+    /**
+     * Erstellt ein leeres Register. Services nutzen {@link #global()}.
+     */
+    public InstrumentRegister() {
+    }
+
+    /**
+     * @return das prozessweite Register, das alle Services gemeinsam nutzen
+     */
+    public static InstrumentRegister global() {
+        return GLOBAL;
+    }
+
+    /**
+     * Liefert die Id eines Aktiennamens und legt sie beim ersten Aufruf an.
+     *
+     * @param aktieName der Name der Aktie
+     * @return die Instrument-Id
+     * @throws IllegalArgumentException wenn der Name null ist
+     */
+    public int registriere(String aktieName) {
+        if (aktieName == null) {
+            throw new IllegalArgumentException("Aktienname darf nicht null sein");
+        }
+        Integer id = ids.get(aktieName);
+        if (id != null) {
+            return id;
+        }
+        synchronized (this) {
+            id = ids.get(aktieName);
+            if (id != null) {
+                return id;
+            }
+            int neueId = anzahl;
+            String[] neu = neueId < namen.length ? namen : Arrays.copyOf(namen, namen.length * 2);
+            neu[neueId] = aktieName;
+            namen = neu;
+            anzahl = neueId + 1;
+            // Erst nach dem Namen veröffentlichen, damit jeder, der die Id sieht, auch den Namen sieht
+            ids.put(aktieName, neueId);
+            return neueId;
+        }
+    }
+
+    /**
+     * Liefert die Id eines Aktiennamens, ohne ihn anzulegen.
+     *
+     * @param aktieName der Name der Aktie
+     * @return die Instrument-Id, oder -1 wenn der Name (noch) nicht registriert ist
+     */
+    public int gibId(String aktieName) {
+        if (aktieName == null) {
+            return -1;
+        }
+        Integer id = ids.get(aktieName);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Liefert den Namen zu einer Id.
+     *
+     * @param id die Instrument-Id
+     * @return der Name der Aktie
+     * @throws IllegalArgumentException wenn die Id nicht vergeben ist
+     */
+    public String gibName(int id) {
+        if (id < 0 || id >= anzahl) {
+            throw new IllegalArgumentException("Unbekannte Instrument-Id: " + id);
+        }
+        return namen[id];
+    }
+
+    /**
+     * @return Anzahl der vergebenen Ids; alle Ids liegen in [0, gibAnzahl())
+     */
+    public int gibAnzahl() {
+        return anzahl;
+    }
+}
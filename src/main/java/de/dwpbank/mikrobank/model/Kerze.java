@@ -0,0 +1,92 @@
+package de.dwpbank.mikrobank.model;
+
+/**
+ * Eine Kerze (OHLCV-Balken) fasst alle Kurse einer Aktie in einem Zeitintervall zusammen.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Eröffnung: erster Kurs im Intervall
+ * - Hoch / Tief: höchster bzw. niedrigster Kurs im Intervall
+ * - Schluss: letzter Kurs im Intervall
+ * - Volumen: Summe der gehandelten Stückzahlen im Intervall
+ * <p>
+ * Design-Entscheidungen:
+ * - Unveränderliches Wertobjekt, wird nur zum Auslesen erzeugt
+ * - Intern speichert der {@link de.dwpbank.mikrobank.service.KursService} Kerzen
+ *   in primitiven Arrays, nicht als Kerze-Objekte
+ */
+public class Kerze {
+
+    private final long beginn;
+    private final double eroeffnung;
+    private final double hoch;
+    private final double tief;
+    private final double schluss;
+    private final long volumen;
+
+    /**
+     * Erstellt eine neue Kerze.
+     *
+     * @param beginn     Beginn des Intervalls in Millisekunden seit 1970 (UTC)
+     * @param eroeffnung erster Kurs im Intervall
+     * @param hoch       höchster Kurs im Intervall
+     * @param tief       niedrigster Kurs im Intervall
+     * @param schluss    letzter Kurs im Intervall
+     * @param volumen    gehandelte Stückzahl im Intervall
+     */
+    public Kerze(long beginn, double eroeffnung, double hoch, double tief, double schluss, long volumen) {
+        this.beginn = beginn;
+        this.eroeffnung = eroeffnung;
+        this.hoch = hoch;
+        this.tief = tief;
+        this.schluss = schluss;
+        this.volumen = volumen;
+    }
+
+    /**
+     * @return Beginn des Intervalls in Millisekunden seit 1970 (UTC)
+     */
+    public long getBeginn() {
+        return beginn;
+    }
+
+    /**
+     * @return erster Kurs im Intervall
+     */
+    public double getEroeffnung() {
+        return eroeffnung;
+    }
+
+    /**
+     * @return höchster Kurs im Intervall
+     */
+    public double getHoch() {
+        return hoch;
+    }
+
+    /**
+     * @return niedrigster Kurs im Intervall
+     */
+    public double getTief() {
+        return tief;
+    }
+
+    /**
+     * @return letzter Kurs im Intervall
+     */
+    public double getSchluss() {
+        return schluss;
+    }
+
+    /**
+     * @return gehandelte Stückzahl im Intervall
+     */
+    public long getVolumen() {
+        return volumen;
+    }
+
+    @Override
+    public String toString() {
+        return "Kerze[" + beginn + ": O=" + eroeffnung + " H=" + hoch + " L=" + tief
+                + " C=" + schluss + " V=" + volumen + "]";
+    }
+}
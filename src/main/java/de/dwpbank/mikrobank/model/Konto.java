@@ -1,6 +1,9 @@
 
 package de.dwpbank.mikrobank.model;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
 /**
  * Repräsentiert ein Bankkonto eines Kunden.
  * <p>
@@ -12,38 +15,104 @@ package de.dwpbank.mikrobank.model;
  * - Diese Klasse enthält KEINE Geschäftslogik
  * - Es gibt hier keine Prüfungen auf negative Beträge
  * - Fachliche Regeln werden ausschließlich in Services umgesetzt
+ * - Der Kontostand wird intern in ganzen Cent ({@code long}) gespeichert, damit sich
+ *   keine Rundungsfehler aufsummieren
+ * - Buchungen ändern den Kontostand atomar ({@link #bucheAtomar(long, long)}),
+ *   gleichzeitige Buchungen aus mehreren Threads gehen nicht verloren
  * <p>
  * Beispiel:
  * Ein- und Auszahlungen werden über den {@link de.dwpbank.mikrobank.service.KontoService} durchgeführt.
  */
 public class Konto {
 
+    private static final VarHandle KONTOSTAND_CENT;
+
+    static {
+        try {
+            KONTOSTAND_CENT = MethodHandles.lookup().findVarHandle(Konto.class, "kontostandCent", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
     /**
-     * Der aktuelle Kontostand des Kontos.
+     * Der aktuelle Kontostand des Kontos in Cent.
      *
      * Fachliche Bedeutung:
      * - Der Wert kann sich im Laufe der Zeit ändern
      * - Ein negativer Kontostand ist technisch möglich,
      *   wird aber fachlich durch Services verhindert
+     *
+     * Technischer Hinweis:
+     * - Wird nur über {@link #KONTOSTAND_CENT} (compareAndSet) verändert
      */
-    private double kontostand;
+    private volatile long kontostandCent;
 
     /**
      * Erstellt ein neues Konto mit einem Startguthaben.
      *
-     * @param startGuthaben Anfangsguthaben des Kontos
+     * @param startGuthaben Anfangsguthaben des Kontos in Euro (wird auf Cent gerundet)
      */
     public Konto(double startGuthaben) {
-        this.kontostand = startGuthaben;
+        this.kontostandCent = inCent(startGuthaben);
+    }
+
+    /**
+     * Konstruktor für Kontoansichten, deren Kontostand an anderer Stelle gespeichert ist
+     * (z. B. im {@link de.dwpbank.mikrobank.service.Kontobuch}).
+     * <p>
+     * Unterklassen überschreiben dann {@link #getKontostandCent()},
+     * {@link #bucheAtomar(long, long)} und {@link #setKontostand(double)}.
+     */
+    protected Konto() {
     }
 
     /**
      * Liefert den aktuellen Kontostand.
      *
-     * @return aktueller Kontostand
+     * @return aktueller Kontostand in Euro
      */
     public double getKontostand() {
-        return kontostand;
+        return getKontostandCent() / 100.0;
+    }
+
+    /**
+     * Liefert den aktuellen Kontostand in Cent.
+     *
+     * @return aktueller Kontostand in Cent
+     */
+    public long getKontostandCent() {
+        return kontostandCent;
+    }
+
+    /**
+     * Ändert den Kontostand atomar um einen Betrag, sofern er danach nicht unter
+     * einer Untergrenze liegt.
+     *
+     * Technischer Hinweis:
+     * - Prüfung und Buchung sind ein einziger Schritt (CAS-Schleife); zwischen
+     *   Prüfung und Buchung kann kein anderer Thread den Kontostand ändern
+     * - Welche Untergrenze gilt, entscheidet der aufrufende Service
+     *   (z. B. 0 = keine Überziehung)
+     *
+     * @param betragCent     zu buchender Betrag in Cent (negativ = Abbuchung)
+     * @param untergrenzeCent kleinster erlaubter Kontostand nach der Buchung in Cent
+     * @return true, wenn gebucht wurde; false, wenn die Untergrenze unterschritten würde
+     * @throws ArithmeticException wenn der Kontostand den Wertebereich von long verlassen würde
+     */
+    public boolean bucheAtomar(long betragCent, long untergrenzeCent) {
+        long alt = (long) KONTOSTAND_CENT.getVolatile(this);
+        while (true) {
+            long neu = Math.addExact(alt, betragCent);
+            if (neu < untergrenzeCent) {
+                return false;
+            }
+            long gesehen = (long) KONTOSTAND_CENT.compareAndExchange(this, alt, neu);
+            if (gesehen == alt) {
+                return true;
+            }
+            alt = gesehen;
+        }
     }
 
     /**
@@ -53,9 +122,29 @@ public class Konto {
      * - Diese Methode führt keine Validierung durch
      * - Die Verantwortung für korrekte Werte liegt beim aufrufenden Service
      *
-     * @param kontostand neuer Kontostand
+     * - Überschreibt gleichzeitige Buchungen; für Buchungen {@link #bucheAtomar(long, long)} verwenden
+     *
+     * @param kontostand neuer Kontostand in Euro (wird auf Cent gerundet)
      */
     public void setKontostand(double kontostand) {
-        this.kontostand = kontostand;
+        this.kontostandCent = inCent(kontostand);
+    }
+
+    /**
+     * Rechnet einen Euro-Betrag in ganze Cent um (kaufmännisch gerundet: ab einem
+     * halben Cent vom Betrag her aufgerundet, 0,125 € = 13 Cent, -0,125 € = -13 Cent).
+     *
+     * @param euro Betrag in Euro
+     * @return Betrag in Cent
+     * @throws IllegalArgumentException wenn der Betrag keine endliche Zahl ist oder
+     *                                  nicht in einen long passt
+     */
+    public static long inCent(double euro) {
+        double cent = euro * 100;
+        if (!(Math.abs(cent) < 0x1p63)) {
+            throw new IllegalArgumentException("Ungültiger Betrag: " + euro);
+        }
+        long betrag = Math.round(Math.abs(cent));
+        return cent < 0 ? -betrag : betrag;
     }
 }
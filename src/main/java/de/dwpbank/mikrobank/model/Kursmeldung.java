@@ -0,0 +1,76 @@
+package de.dwpbank.mikrobank.model;
+
+/**
+ * Eine Kursmeldung (Tick) auf dem Marktdatenbus.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Meldet den neuen Kurs einer Aktie zu einem Zeitpunkt, optional mit gehandelter Stückzahl
+ * <p>
+ * Design-Entscheidungen:
+ * - Unveränderliches Wertobjekt, kann gefahrlos an beliebig viele Abonnenten
+ *   und Threads weitergegeben werden
+ * - Die Aktie wird über ihre Instrument-Id ({@link InstrumentRegister}) angegeben,
+ *   der Name wird nur bei Bedarf nachgeschlagen
+ */
+public class Kursmeldung {
+
+    private final int instrumentId;
+    private final double kurs;
+    private final long zeitstempel;
+    private final long volumen;
+
+    /**
+     * Erstellt eine neue Kursmeldung.
+     *
+     * @param instrumentId Instrument-Id der Aktie
+     * @param kurs         der neue Kurs
+     * @param zeitstempel  Zeitpunkt in Millisekunden seit 1970 (UTC)
+     * @param volumen      gehandelte Stückzahl (0 bei reinen Kursmeldungen)
+     */
+    public Kursmeldung(int instrumentId, double kurs, long zeitstempel, long volumen) {
+        this.instrumentId = instrumentId;
+        this.kurs = kurs;
+        this.zeitstempel = zeitstempel;
+        this.volumen = volumen;
+    }
+
+    /**
+     * @return Instrument-Id der Aktie
+     */
+    public int getInstrumentId() {
+        return instrumentId;
+    }
+
+    /**
+     * @return Name der Aktie, nachgeschlagen im globalen {@link InstrumentRegister}
+     */
+    public String getAktieName() {
+        return InstrumentRegister.global().gibName(instrumentId);
+    }
+
+    /**
+     * @return der neue Kurs
+     */
+    public double getKurs() {
+        return kurs;
+    }
+
+    /**
+     * @return Zeitpunkt in Millisekunden seit 1970 (UTC)
+     */
+    public long getZeitstempel() {
+        return zeitstempel;
+    }
+
+    /**
+     * @return gehandelte Stückzahl (0 bei reinen Kursmeldungen)
+     */
+    public long getVolumen() {
+        return volumen;
+    }
+
+    @Override
+    public String toString() {
+        return "Kursmeldung{" + instrumentId + ", kurs=" + kurs + ", zeit=" + zeitstempel + ", volumen=" + volumen + "}";
+    }
+}
@@ -0,0 +1,21 @@
+package de.dwpbank.mikrobank.model;
+
+/**
+ * Trend einer Aktie, wie ihn der {@link de.dwpbank.mikrobank.service.KursService} bestimmt.
+ * <p>
+ * Fachliche Bedeutung:
+ * - STEIGEND: Die jüngsten Kurse liegen deutlich über den älteren
+ * - FALLEND: Die jüngsten Kurse liegen deutlich unter den älteren
+ * - STABIL: Kein signifikanter Unterschied
+ * - UNBEKANNT: Zu wenige Kurse, um einen Trend zu bestimmen
+ * <p>
+ * Als Enum statt String lässt sich der Trend im Handelsroboter per {@code ==}
+ * oder {@code switch} auswerten, ohne Zeichenketten zu vergleichen.
+ */
+public enum Trend {
+
+    STEIGEND,
+    FALLEND,
+    STABIL,
+    UNBEKANNT
+}
@@ -0,0 +1,93 @@
+package de.dwpbank.mikrobank.service;
+
+/**
+ * Ergebnis einer asynchron eingereichten Order, siehe
+ * {@link BoerseService#kaufeAsynchron} und {@link Orderpipeline#reicheEin(de.dwpbank.mikrobank.model.Konto,
+ * de.dwpbank.mikrobank.model.Aktie, int, Orderbuch.Seite)}.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Eine Order wird ganz oder gar nicht ausgeführt: ausgeführte Menge ist entweder
+ *   die Ordermenge oder 0
+ * - Eine fachliche Ablehnung (ungültige Order, nicht gedeckt, keine Liquidität) ist
+ *   kein Fehler, sondern ein Bericht mit Ablehnungsgrund
+ * <p>
+ * Technische Hinweise:
+ * - Unveränderlich, darf zwischen Threads weitergegeben werden
+ */
+public final class Ausfuehrungsbericht {
+
+    private final Orderbuch.Seite seite;
+    private final int menge;
+    private final long umsatzCent;
+    private final String ablehnungsgrund;
+
+    private Ausfuehrungsbericht(Orderbuch.Seite seite, int menge, long umsatzCent, String ablehnungsgrund) {
+        this.seite = seite;
+        this.menge = menge;
+        this.umsatzCent = umsatzCent;
+        this.ablehnungsgrund = ablehnungsgrund;
+    }
+
+    static Ausfuehrungsbericht ausgefuehrt(Orderbuch.Seite seite, int menge, long umsatzCent) {
+        return new Ausfuehrungsbericht(seite, menge, umsatzCent, null);
+    }
+
+    static Ausfuehrungsbericht abgelehnt(Orderbuch.Seite seite, int menge, String grund) {
+        return new Ausfuehrungsbericht(seite, menge, 0, grund != null ? grund : "Unbekannter Grund");
+    }
+
+    static Ausfuehrungsbericht aus(Orderereignis ereignis) {
+        return ereignis.istAbgelehnt()
+                ? abgelehnt(ereignis.gibSeite(), ereignis.gibMenge(), ereignis.gibAblehnungsgrund())
+                : ausgefuehrt(ereignis.gibSeite(), ereignis.gibMenge(), ereignis.gibUmsatzCent());
+    }
+
+    /**
+     * @return Kauf oder Verkauf
+     */
+    public Orderbuch.Seite gibSeite() {
+        return seite;
+    }
+
+    /**
+     * @return true, wenn die Order ausgeführt wurde
+     */
+    public boolean istAusgefuehrt() {
+        return ablehnungsgrund == null;
+    }
+
+    /**
+     * @return ausgeführte Stückzahl, 0 bei Ablehnung
+     */
+    public int gibAusgefuehrteMenge() {
+        return ablehnungsgrund == null ? menge : 0;
+    }
+
+    /**
+     * @return durchschnittlicher Ausführungspreis pro Aktie in Euro, 0 bei Ablehnung
+     */
+    public double gibAusfuehrungspreis() {
+        return ablehnungsgrund == null ? umsatzCent / 100.0 / menge : 0;
+    }
+
+    /**
+     * @return gezahlter (Kauf) oder erhaltener (Verkauf) Betrag in Cent, 0 bei Ablehnung
+     */
+    public long gibUmsatzCent() {
+        return umsatzCent;
+    }
+
+    /**
+     * @return Grund der Ablehnung, null wenn die Order ausgeführt wurde
+     */
+    public String gibAblehnungsgrund() {
+        return ablehnungsgrund;
+    }
+
+    @Override
+    public String toString() {
+        return ablehnungsgrund == null
+                ? "Ausfuehrungsbericht[" + seite + " " + menge + " zu " + gibAusfuehrungspreis() + " Euro]"
+                : "Ausfuehrungsbericht[" + seite + " " + menge + " abgelehnt: " + ablehnungsgrund + "]";
+    }
+}
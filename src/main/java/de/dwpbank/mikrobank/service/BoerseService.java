@@ -5,11 +5,16 @@ import de.dwpbank.mikrobank.model.Aktie;
 import de.dwpbank.mikrobank.model.Konto;
 import lombok.extern.slf4j.Slf4j;
 
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
 @Slf4j
 public class BoerseService {
 
     private final KontoService kontoService = new KontoService();
-    private final PreisService preisService = new PreisService();
+    private final PreisService preisService;
     private final OrderValidierungsService validierungsService = new OrderValidierungsService();
 
      /**
@@ -19,7 +24,106 @@ public class BoerseService {
      */
     private final KursService kursService = new KursService();
 
+    /**
+     * Orderbücher nach Instrument-Id ({@link Aktie#getId()}), null = Aktie ohne Orderbuch.
+     * <p>
+     * Technischer Hinweis:
+     * - Copy-on-write: Orders lesen das Array ohne Sperre, nur
+     *   {@link #verbindeOrderbuch(Aktie, Orderbuch)} ersetzt es
+     */
+    private volatile Orderbuch[] orderbuecher = new Orderbuch[0];
+
+    /**
+     * Sperren für die Kursreaktion nach Instrument-Id.
+     * <p>
+     * Technische Hinweise:
+     * - Der PreisService darf die Preise derselben Aktie nicht gleichzeitig ermitteln;
+     *   Orders derselben Aktie (z. B. asynchron auf mehreren Threads) ermitteln ihre
+     *   Kursreaktion und speichern den Kurs daher nacheinander unter dieser Sperre.
+     *   Mit festem Seed bleibt so der Kursverlauf reproduzierbar
+     * - Copy-on-write wie {@link #orderbuecher}; beim Wachsen werden alle neuen Plätze
+     *   sofort belegt, gelesen wird ohne Sperre
+     */
+    private volatile Object[] kurssperren = new Object[0];
+
+    /**
+     * Führt asynchron eingereichte Orders aus, siehe {@link #kaufeAsynchron(Konto, Aktie, int)}.
+     */
+    private final Executor executor;
+
+    /**
+     * Erstellt einen BoerseService, der asynchrone Orders im gemeinsamen Fork/Join-Pool ausführt.
+     * Die Kursreaktion nach einer Order zieht ein PreisService mit zufälligem Master-Seed.
+     */
+    public BoerseService() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Erstellt einen BoerseService mit einem PreisService mit zufälligem Master-Seed.
+     * <p>
+     * Technischer Hinweis:
+     * - Für viele gleichzeitig offene Orders eignet sich ein Executor mit einem Thread
+     *   pro Auftrag, ab Java 21 z. B. {@code Executors.newVirtualThreadPerTaskExecutor()}
+     *
+     * @param executor führt asynchron eingereichte Orders aus
+     * @throws IllegalArgumentException wenn der Executor null ist
+     */
+    public BoerseService(Executor executor) {
+        this(new PreisService(), executor);
+    }
+
+    /**
+     * Erstellt einen BoerseService, dessen Kursreaktion nach einer Order aus dem
+     * gegebenen PreisService kommt.
+     * <p>
+     * Fachliche Bedeutung:
+     * - Der Simulator übergibt hier seinen PreisService mit festem Master-Seed; dann
+     *   sind auch die Kurse nach den Orders des Roboters reproduzierbar
+     *
+     * @param preisService ermittelt den neuen Kurs nach einer Order
+     * @param executor     führt asynchron eingereichte Orders aus
+     * @throws IllegalArgumentException wenn PreisService oder Executor null sind
+     */
+    public BoerseService(PreisService preisService, Executor executor) {
+        if (preisService == null) {
+            throw new IllegalArgumentException("PreisService darf nicht null sein");
+        }
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor darf nicht null sein");
+        }
+        this.preisService = preisService;
+        this.executor = executor;
+    }
 
+    /**
+     * Verbindet eine Aktie mit einem Orderbuch.
+     * <p>
+     * Fachliche Bedeutung:
+     * - Orders dieser Aktie werden danach als Market-Order gegen das Orderbuch
+     *   ausgeführt; Ausführungspreis und neuer Kurs kommen aus dem Buch statt vom
+     *   PreisService
+     * - Die Gegenseite im Buch (z. B. Market Maker) wird außerhalb des
+     *   BoerseService abgerechnet, hier wird nur das Konto des Kunden gebucht
+     * <p>
+     * Technische Hinweise:
+     * - Der BoerseService synchronisiert auf dem Orderbuch; wer selbst Orders in das
+     *   Buch legt, muss ebenfalls auf dem Orderbuch synchronisieren
+     *
+     * @param aktie die Aktie
+     * @param buch  das Orderbuch, null trennt die Aktie wieder vom Orderbuch
+     * @throws IllegalArgumentException wenn die Aktie null ist
+     */
+    public synchronized void verbindeOrderbuch(Aktie aktie, Orderbuch buch) {
+        if (aktie == null) {
+            throw new IllegalArgumentException("Aktie darf nicht null sein");
+        }
+        int id = aktie.getId();
+        Orderbuch[] neu = Arrays.copyOf(orderbuecher, Math.max(orderbuecher.length, id + 1));
+        neu[id] = buch;
+        orderbuecher = neu;
+        log.info("Aktie {} {}", aktie.getName(), buch != null ? "mit Orderbuch verbunden" : "vom Orderbuch getrennt");
+    }
 
     /**
      * Führt einen Aktienkauf aus.
@@ -31,9 +135,20 @@ public class BoerseService {
      * 4. Es wird geprüft, ob das Konto ausreichend gedeckt ist
      * 5. Der Betrag wird vom Konto abgebucht
      * <p>
+     * Umsetzung:
+     * - Schritte 4 und 5 sind eine Reservierung über den {@link KontoService}: Deckung
+     *   prüfen und Geld vormerken passiert atomar. Gleichzeitige Orders desselben Kontos
+     *   können so nicht alle die Prüfung bestehen und das Konto gemeinsam überziehen
+     * - Ausgeführt wird zum Kurs bei Annahme der Order ({@link Aktie#getPreis()});
+     *   danach reagiert der Markt über den PreisService mit einem neuen Kurs
+     * - Schlägt die Ausführung fehl, wird die Reservierung wieder freigegeben
+     * - Ist die Aktie mit einem {@link Orderbuch} verbunden, wird stattdessen gegen das
+     *   Buch ausgeführt, siehe {@link #verbindeOrderbuch(Aktie, Orderbuch)}
+     * <p>
      * Fehlerfälle:
      * - Ungültige Order → IllegalArgumentException
      * - Nicht genug Guthaben → IllegalStateException
+     * - Nicht genug Verkaufsvolumen im Orderbuch → IllegalStateException
      * <p>
      * Technische Regeln:
      * - Jeder Schritt wird geloggt
@@ -44,16 +159,100 @@ public class BoerseService {
      * @param menge Anzahl der Aktien
      */
     public void kaufe(Konto konto, Aktie aktie, int menge) {
-        // IMPLEMENTIERUNG:
-        // 1. Logge Start der Kauforder
-        // 2. Rufe validierungsService.validiereKauf(...) auf
-        // 3. Ermittle den aktuellen Preis über preisService
-        // 4. Berechne den Gesamtpreis
-        // 5. Prüfe, ob konto.getKontostand() >= Gesamtpreis
-        // 6. Falls nein: logge Fehler und wirf IllegalStateException
-        // 7. Buche den Betrag über kontoService.auszahlen(...) ab
-        // 8. Speichere den neuen Kurs im KursService
-        // 9. Logge erfolgreiche Kauforder
+        fuehreKaufAus(konto, aktie, menge);
+    }
+
+    /**
+     * Reicht einen Aktienkauf ein, ohne auf die Ausführung zu warten.
+     * <p>
+     * Fachliche Bedeutung:
+     * - Es gilt der Ablauf von {@link #kaufe(Konto, Aktie, int)}; ausgeführt wird auf
+     *   dem Executor des BoerseService
+     * - Ein Roboter kann so viele Orders gleichzeitig offen haben und reagiert auf
+     *   jedes Ergebnis, sobald es vorliegt
+     * - Orders derselben Aktie laufen parallel, ihre Kursreaktionen werden aber
+     *   nacheinander ermittelt; mit festem Seed ist der Kursverlauf reproduzierbar
+     * <p>
+     * Fehlerfälle:
+     * - Fachliche Ablehnungen (ungültige Order, nicht gedeckt, keine Liquidität)
+     *   werfen keine Exception, sondern liefern einen {@link Ausfuehrungsbericht} mit
+     *   Ablehnungsgrund
+     * - Nur technische Fehler schließen das Future mit einer Exception ab
+     *
+     * @param konto das Konto des Kunden
+     * @param aktie die zu kaufende Aktie
+     * @param menge Anzahl der Aktien
+     * @return Future des Ausführungsberichts
+     */
+    public CompletableFuture<Ausfuehrungsbericht> kaufeAsynchron(Konto konto, Aktie aktie, int menge) {
+        return CompletableFuture.supplyAsync(() -> berichte(Orderbuch.Seite.KAUF, konto, aktie, menge), executor);
+    }
+
+    /**
+     * Reicht einen Aktienverkauf ein, ohne auf die Ausführung zu warten.
+     * Es gelten Ablauf von {@link #verkaufe(Konto, Aktie, int)} und Fehlerfälle
+     * von {@link #kaufeAsynchron(Konto, Aktie, int)}.
+     *
+     * @param konto das Konto des Kunden
+     * @param aktie die zu verkaufende Aktie
+     * @param menge Anzahl der Aktien
+     * @return Future des Ausführungsberichts
+     */
+    public CompletableFuture<Ausfuehrungsbericht> verkaufeAsynchron(Konto konto, Aktie aktie, int menge) {
+        return CompletableFuture.supplyAsync(() -> berichte(Orderbuch.Seite.VERKAUF, konto, aktie, menge), executor);
+    }
+
+    private Ausfuehrungsbericht berichte(Orderbuch.Seite seite, Konto konto, Aktie aktie, int menge) {
+        try {
+            long umsatzCent = seite == Orderbuch.Seite.KAUF
+                    ? fuehreKaufAus(konto, aktie, menge)
+                    : fuehreVerkaufAus(konto, aktie, menge);
+            return Ausfuehrungsbericht.ausgefuehrt(seite, menge, umsatzCent);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return Ausfuehrungsbericht.abgelehnt(seite, menge, e.getMessage());
+        }
+    }
+
+    /**
+     * Ablauf von {@link #kaufe(Konto, Aktie, int)}.
+     *
+     * @return gezahlter Betrag in Cent
+     */
+    private long fuehreKaufAus(Konto konto, Aktie aktie, int menge) {
+        log.info("Kauforder: {} x {}", menge, aktie != null ? aktie.getName() : null);
+        validierungsService.validiereKauf(aktie, menge);
+        if (konto == null) {
+            log.error("Kauforder ohne Konto");
+            throw new IllegalArgumentException("Konto darf nicht null sein");
+        }
+        Orderbuch buch = gibOrderbuch(aktie);
+        if (buch != null) {
+            return kaufeImOrderbuch(konto, aktie, menge, buch);
+        }
+
+        double preis = aktie.getPreis();
+        long gesamtCent = Math.multiplyExact(Konto.inCent(preis), (long) menge);
+
+        Reservierung reservierung;
+        try {
+            reservierung = kontoService.reserviereCent(konto, gesamtCent);
+        } catch (IllegalArgumentException e) {
+            log.error("Kauf von {} x {} nicht gedeckt: {} Euro benötigt", menge, aktie.getName(), gesamtCent / 100.0);
+            throw new IllegalStateException("Nicht genügend Guthaben für den Kauf", e);
+        }
+
+        try {
+            reagiereMitKurs(aktie);
+            kontoService.abrechnen(reservierung);
+        } catch (RuntimeException e) {
+            if (reservierung.istOffen()) {
+                kontoService.freigeben(reservierung);
+            }
+            log.error("Kauf von {} x {} fehlgeschlagen", menge, aktie.getName(), e);
+            throw e;
+        }
+        log.info("Kauforder ausgeführt: {} x {} zu {} Euro", menge, aktie.getName(), preis);
+        return gesamtCent;
     }
 
     /**
@@ -66,9 +265,15 @@ public class BoerseService {
      * 4. Der Erlös wird auf das Konto eingezahlt
      * 5. Der neue Preis wird im KursService gespeichert
      * <p>
+     * Umsetzung:
+     * - Wie beim Kauf wird zum Kurs bei Annahme der Order ausgeführt, danach
+     *   reagiert der Markt mit einem neuen Kurs
+     * - Ist die Aktie mit einem {@link Orderbuch} verbunden, wird gegen das Buch ausgeführt
+     * <p>
      * Fehlerfälle:
      * - Ungültige Order → IllegalArgumentException
      * - Kein Depot/Aktie vorhanden → wird später vom Roboter gehandhabt
+     * - Nicht genug Kaufvolumen im Orderbuch → IllegalStateException
      * <p>
      * Technische Regeln:
      * - Jeder Schritt wird geloggt
@@ -79,13 +284,141 @@ public class BoerseService {
      * @param menge Anzahl der Aktien
      */
     public void verkaufe(Konto konto, Aktie aktie, int menge) {
-        // IMPLEMENTIERUNG:
-        // 1. Logge Start der Verkaufsorder
-        // 2. Rufe validierungsService.validiereVerkauf(...) auf
-        // 3. Ermittle den aktuellen Preis über preisService
-        // 4. Berechne den Gesamterlös
-        // 5. Zahle den Erlös auf das Konto ein
-        // 6. Speichere den neuen Kurs im KursService
-        // 7. Logge erfolgreiche Verkaufsorder
+        fuehreVerkaufAus(konto, aktie, menge);
+    }
+
+    /**
+     * Ablauf von {@link #verkaufe(Konto, Aktie, int)}.
+     *
+     * @return erhaltener Erlös in Cent
+     */
+    private long fuehreVerkaufAus(Konto konto, Aktie aktie, int menge) {
+        log.info("Verkaufsorder: {} x {}", menge, aktie != null ? aktie.getName() : null);
+        validierungsService.validiereVerkauf(aktie, menge);
+        if (konto == null) {
+            log.error("Verkaufsorder ohne Konto");
+            throw new IllegalArgumentException("Konto darf nicht null sein");
+        }
+        Orderbuch buch = gibOrderbuch(aktie);
+        if (buch != null) {
+            return verkaufeImOrderbuch(konto, aktie, menge, buch);
+        }
+
+        double preis = aktie.getPreis();
+        long erloesCent = Math.multiplyExact(Konto.inCent(preis), (long) menge);
+
+        reagiereMitKurs(aktie);
+        kontoService.einzahlenCent(konto, erloesCent);
+        log.info("Verkaufsorder ausgeführt: {} x {} zu {} Euro", menge, aktie.getName(), preis);
+        return erloesCent;
+    }
+
+    /**
+     * Kauf gegen das Orderbuch: Kosten ermitteln, reservieren und ausführen geschieht
+     * unter der Sperre des Buchs, damit die Kosten exakt der Ausführung entsprechen.
+     */
+    private long kaufeImOrderbuch(Konto konto, Aktie aktie, int menge, Orderbuch buch) {
+        long umsatzCent;
+        long kursCent;
+        Reservierung reservierung;
+        synchronized (buch) {
+            umsatzCent = buch.berechneKaufkosten(menge);
+            if (umsatzCent < 0) {
+                log.error("Kauf von {} x {}: nicht genügend Verkaufsvolumen im Orderbuch", menge, aktie.getName());
+                throw new IllegalStateException("Nicht genügend Liquidität im Orderbuch");
+            }
+            try {
+                reservierung = kontoService.reserviereCent(konto, umsatzCent);
+            } catch (IllegalArgumentException e) {
+                log.error("Kauf von {} x {} nicht gedeckt: {} Euro benötigt", menge, aktie.getName(), umsatzCent / 100.0);
+                throw new IllegalStateException("Nicht genügend Guthaben für den Kauf", e);
+            }
+            buch.ordneEinMarkt(Orderbuch.Seite.KAUF, menge);
+            kursCent = buch.gibLetztenKursCent();
+            // Unter der Sperre, damit der Kurs der Aktie nie auf einen älteren zurückspringt
+            aktie.setPreis(kursCent / 100.0);
+        }
+        kontoService.abrechnen(reservierung);
+        kursService.speichereKurs(aktie.getId(), kursCent / 100.0, System.currentTimeMillis(), menge);
+        log.info("Kauforder ausgeführt: {} x {} für {} Euro im Orderbuch", menge, aktie.getName(), umsatzCent / 100.0);
+        return umsatzCent;
+    }
+
+    private long verkaufeImOrderbuch(Konto konto, Aktie aktie, int menge, Orderbuch buch) {
+        long erloesCent;
+        long kursCent;
+        synchronized (buch) {
+            erloesCent = buch.berechneVerkaufserloes(menge);
+            if (erloesCent < 0) {
+                log.error("Verkauf von {} x {}: nicht genügend Kaufvolumen im Orderbuch", menge, aktie.getName());
+                throw new IllegalStateException("Nicht genügend Liquidität im Orderbuch");
+            }
+            buch.ordneEinMarkt(Orderbuch.Seite.VERKAUF, menge);
+            kursCent = buch.gibLetztenKursCent();
+            // Unter der Sperre, damit der Kurs der Aktie nie auf einen älteren zurückspringt
+            aktie.setPreis(kursCent / 100.0);
+        }
+        kontoService.einzahlenCent(konto, erloesCent);
+        kursService.speichereKurs(aktie.getId(), kursCent / 100.0, System.currentTimeMillis(), menge);
+        log.info("Verkaufsorder ausgeführt: {} x {} für {} Euro im Orderbuch", menge, aktie.getName(), erloesCent / 100.0);
+        return erloesCent;
+    }
+
+    /**
+     * Ermittelt die Kursreaktion auf eine Order ohne Orderbuch und speichert den neuen
+     * Kurs; für jede Aktie nacheinander.
+     */
+    private void reagiereMitKurs(Aktie aktie) {
+        synchronized (gibKurssperre(aktie.getId())) {
+            preisService.ermittleAktuellenPreis(aktie);
+            kursService.speichereKurs(aktie);
+        }
+    }
+
+    /**
+     * @return die Sperre, unter der die Kursreaktion der Aktie ermittelt wird
+     */
+    Object gibKurssperre(int instrumentId) {
+        Object[] sperren = kurssperren;
+        return instrumentId < sperren.length ? sperren[instrumentId] : legeKurssperrenAn(instrumentId);
+    }
+
+    private synchronized Object legeKurssperrenAn(int instrumentId) {
+        Object[] sperren = kurssperren;
+        if (instrumentId >= sperren.length) {
+            int laenge = Math.max(sperren.length * 2, instrumentId + 1);
+            Object[] neu = Arrays.copyOf(sperren, laenge);
+            for (int i = sperren.length; i < laenge; i++) {
+                neu[i] = new Object();
+            }
+            kurssperren = neu;
+            sperren = neu;
+        }
+        return sperren[instrumentId];
+    }
+
+    /**
+     * @return das mit der Aktie verbundene Orderbuch, oder null
+     */
+    Orderbuch gibOrderbuch(Aktie aktie) {
+        Orderbuch[] buecher = orderbuecher;
+        int id = aktie.getId();
+        return id < buecher.length ? buecher[id] : null;
+    }
+
+    KontoService gibKontoService() {
+        return kontoService;
+    }
+
+    PreisService gibPreisService() {
+        return preisService;
+    }
+
+    OrderValidierungsService gibValidierungsService() {
+        return validierungsService;
+    }
+
+    KursService gibKursService() {
+        return kursService;
     }
 }
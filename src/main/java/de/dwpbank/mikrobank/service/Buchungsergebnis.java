@@ -0,0 +1,62 @@
+package de.dwpbank.mikrobank.service;
+
+/**
+ * Zusammenfassung eines mit {@link KontoService#bucheStapel(Buchungspuffer, Buchungsmodus)}
+ * gebuchten Stapels. Welche Buchungen einzeln abgelehnt wurden, steht im
+ * {@link Buchungspuffer#istAbgelehnt(int)}.
+ */
+public final class Buchungsergebnis {
+
+    private final int anzahlGebucht;
+    private final int anzahlAbgelehnt;
+    private final long eingezahltCent;
+    private final long ausgezahltCent;
+
+    Buchungsergebnis(int anzahlGebucht, int anzahlAbgelehnt, long eingezahltCent, long ausgezahltCent) {
+        this.anzahlGebucht = anzahlGebucht;
+        this.anzahlAbgelehnt = anzahlAbgelehnt;
+        this.eingezahltCent = eingezahltCent;
+        this.ausgezahltCent = ausgezahltCent;
+    }
+
+    /**
+     * @return Anzahl der ausgeführten Buchungen
+     */
+    public int gibAnzahlGebucht() {
+        return anzahlGebucht;
+    }
+
+    /**
+     * @return Anzahl der abgelehnten Buchungen
+     */
+    public int gibAnzahlAbgelehnt() {
+        return anzahlAbgelehnt;
+    }
+
+    /**
+     * @return Summe der ausgeführten Einzahlungen in Cent
+     */
+    public long gibEingezahltCent() {
+        return eingezahltCent;
+    }
+
+    /**
+     * @return Summe der ausgeführten Auszahlungen in Cent (positiv)
+     */
+    public long gibAusgezahltCent() {
+        return ausgezahltCent;
+    }
+
+    /**
+     * @return true, wenn keine Buchung abgelehnt wurde
+     */
+    public boolean istVollstaendig() {
+        return anzahlAbgelehnt == 0;
+    }
+
+    @Override
+    public String toString() {
+        return anzahlGebucht + " gebucht, " + anzahlAbgelehnt + " abgelehnt, eingezahlt "
+                + eingezahltCent + " Cent, ausgezahlt " + ausgezahltCent + " Cent";
+    }
+}
@@ -0,0 +1,23 @@
+package de.dwpbank.mikrobank.service;
+
+/**
+ * Wie {@link KontoService#bucheStapel(Buchungspuffer, Buchungsmodus)} mit nicht
+ * gedeckten Auszahlungen umgeht.
+ */
+public enum Buchungsmodus {
+
+    /**
+     * Jede Buchung für sich: nicht gedeckte Auszahlungen werden abgelehnt,
+     * alle übrigen Buchungen werden ausgeführt.
+     */
+    EINZELN,
+
+    /**
+     * Ganz oder gar nicht: ist eine Auszahlung nicht gedeckt, wird keine Buchung
+     * des Stapels ausgeführt.
+     * <p>
+     * Die Auszahlungen werden vor den Einzahlungen gebucht; eine Einzahlung im
+     * selben Stapel deckt daher keine Auszahlung desselben Kontos.
+     */
+    ALLES_ODER_NICHTS
+}
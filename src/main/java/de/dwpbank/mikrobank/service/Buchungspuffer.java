@@ -0,0 +1,131 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Konto;
+
+import java.util.Arrays;
+
+/**
+ * Wiederverwendbarer Puffer für einen Stapel von Buchungen.
+ * <p>
+ * Wer viele Buchungen auf einmal ausführen will (z. B. die Abrechnung aller
+ * Ausführungen einer Handelssitzung), sammelt sie im Puffer und übergibt ihn an
+ * {@link KontoService#bucheStapel(Buchungspuffer, Buchungsmodus)}. Danach wird der
+ * Puffer mit {@link #leere()} für den nächsten Stapel geleert.
+ * <p>
+ * Beispiel:
+ * <pre>
+ * Buchungspuffer puffer = new Buchungspuffer(4096);
+ * puffer.fuegeHinzu(kaeufer, -10_050);     // Auszahlung 100,50 Euro
+ * puffer.fuegeHinzu(verkaeufer, 10_050);   // Einzahlung 100,50 Euro
+ * Buchungsergebnis ergebnis = kontoService.bucheStapel(puffer, Buchungsmodus.EINZELN);
+ * puffer.leere();
+ * </pre>
+ * <p>
+ * Technische Hinweise:
+ * - Konten und Beträge liegen in parallelen Arrays; nach der Anlage erzeugt der
+ *   Puffer pro Buchung keine Objekte mehr
+ * - Die Klasse ist nicht thread-sicher, jeder Thread nutzt seinen eigenen Puffer
+ */
+public final class Buchungspuffer {
+
+    final Konto[] konten;
+    final long[] betraegeCent;
+    final boolean[] abgelehnt;
+    private int anzahl;
+
+    /**
+     * Erstellt einen leeren Puffer.
+     *
+     * @param kapazitaet maximale Anzahl der Buchungen pro Stapel
+     * @throws IllegalArgumentException wenn die Kapazität kleiner als 1 ist
+     */
+    public Buchungspuffer(int kapazitaet) {
+        if (kapazitaet < 1) {
+            throw new IllegalArgumentException("Kapazität muss größer als 0 sein");
+        }
+        this.konten = new Konto[kapazitaet];
+        this.betraegeCent = new long[kapazitaet];
+        this.abgelehnt = new boolean[kapazitaet];
+    }
+
+    /**
+     * Hängt eine Buchung an den Stapel an.
+     *
+     * @param konto      das Konto
+     * @param betragCent Betrag in Cent; positiv = Einzahlung, negativ = Auszahlung
+     * @return false, wenn der Puffer voll ist und die Buchung nicht angehängt wurde
+     * @throws IllegalArgumentException wenn das Konto null oder der Betrag 0 ist
+     */
+    public boolean fuegeHinzu(Konto konto, long betragCent) {
+        if (konto == null) {
+            throw new IllegalArgumentException("Konto darf nicht null sein");
+        }
+        if (betragCent == 0 || betragCent == Long.MIN_VALUE) {
+            throw new IllegalArgumentException("Ungültiger Betrag: " + betragCent);
+        }
+        if (anzahl == konten.length) {
+            return false;
+        }
+        konten[anzahl] = konto;
+        betraegeCent[anzahl] = betragCent;
+        abgelehnt[anzahl] = false;
+        anzahl++;
+        return true;
+    }
+
+    /**
+     * Leert den Puffer für den nächsten Stapel.
+     */
+    public void leere() {
+        // Referenzen freigeben, damit der Puffer keine Konten festhält
+        Arrays.fill(konten, 0, anzahl, null);
+        anzahl = 0;
+    }
+
+    /**
+     * @param index Position der Buchung im Stapel (0 = zuerst angehängt)
+     * @return true, wenn die Buchung beim letzten Buchen abgelehnt wurde
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Stapels liegt
+     */
+    public boolean istAbgelehnt(int index) {
+        pruefeIndex(index);
+        return abgelehnt[index];
+    }
+
+    /**
+     * @param index Position der Buchung im Stapel
+     * @return Betrag der Buchung in Cent
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Stapels liegt
+     */
+    public long gibBetragCent(int index) {
+        pruefeIndex(index);
+        return betraegeCent[index];
+    }
+
+    /**
+     * @return Anzahl der Buchungen im aktuellen Stapel
+     */
+    public int gibAnzahl() {
+        return anzahl;
+    }
+
+    /**
+     * @return maximale Anzahl der Buchungen pro Stapel
+     */
+    public int gibKapazitaet() {
+        return konten.length;
+    }
+
+    /**
+     * @return true, wenn keine weitere Buchung angehängt werden kann
+     */
+    public boolean istVoll() {
+        return anzahl == konten.length;
+    }
+
+    private void pruefeIndex(int index) {
+        if (index < 0 || index >= anzahl) {
+            throw new IndexOutOfBoundsException("Index " + index + " bei " + anzahl + " Buchungen");
+        }
+    }
+}
@@ -0,0 +1,184 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Kerze;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Kerzen (OHLCV) einer Aktie in einer Auflösung als Ringpuffer.
+ * <p>
+ * Technische Hinweise:
+ * - Jede Kerzen-Spalte liegt in einem eigenen primitiven Array, pro Tick wird
+ *   kein Objekt erzeugt
+ * - Die neueste Kerze ist die gerade laufende; sie wird aktualisiert, bis ein
+ *   Tick in ein späteres Intervall fällt
+ * - Intervalle ohne Ticks erzeugen keine leeren Kerzen
+ * - Verspätete Ticks (Zeitstempel vor der laufenden Kerze) werden der laufenden
+ *   Kerze zugeschlagen, abgeschlossene Kerzen bleiben unverändert
+ * - Die Spalten werden erst mit dem ersten Tick angelegt und wachsen durch Verdoppeln
+ *   bis {@link Kerzenaufloesung#getMaxKerzen()}; eine Aktie ohne Ticks oder mit wenigen
+ *   Kerzen belegt damit kaum Speicher
+ * - Die Klasse ist nicht thread-sicher, die Synchronisation liegt beim {@link KursEintrag}
+ * - Optimistische Leser laufen ohne Sperre parallel zum Schreiber; alle Spalten liegen
+ *   deshalb in einem gemeinsamen {@link Spalten}-Objekt, das beim Wachsen mit einem
+ *   einzigen Schreibzugriff ersetzt wird, und {@link #alsListe()} begrenzt jeden Index
+ *   auf dessen Länge. Ein Leser sieht so nie Spalten verschiedener Längen und läuft
+ *   nie aus dem Array; ob seine Kopie stimmt, prüft der Stempel des Aufrufers
+ */
+class KerzenReihe {
+
+    private static final int START_KAPAZITAET = 8;
+
+    /**
+     * Die Spalten einer Kapazität; werden nur als Ganzes ersetzt.
+     */
+    private static final class Spalten {
+        final long[] beginn;
+        final double[] eroeffnung;
+        final double[] hoch;
+        final double[] tief;
+        final double[] schluss;
+        final long[] volumen;
+
+        Spalten(int kapazitaet) {
+            beginn = new long[kapazitaet];
+            eroeffnung = new double[kapazitaet];
+            hoch = new double[kapazitaet];
+            tief = new double[kapazitaet];
+            schluss = new double[kapazitaet];
+            volumen = new long[kapazitaet];
+        }
+
+        Spalten(Spalten alt, int kapazitaet) {
+            beginn = Arrays.copyOf(alt.beginn, kapazitaet);
+            eroeffnung = Arrays.copyOf(alt.eroeffnung, kapazitaet);
+            hoch = Arrays.copyOf(alt.hoch, kapazitaet);
+            tief = Arrays.copyOf(alt.tief, kapazitaet);
+            schluss = Arrays.copyOf(alt.schluss, kapazitaet);
+            volumen = Arrays.copyOf(alt.volumen, kapazitaet);
+        }
+    }
+
+    private static final Spalten LEER = new Spalten(0);
+
+    private final Kerzenaufloesung aufloesung;
+
+    private volatile Spalten spalten = LEER;
+
+    // Position, an die die nächste neue Kerze geschrieben wird
+    private int schreibPosition;
+
+    // Anzahl gespeicherter Kerzen inklusive der laufenden
+    private int anzahl;
+
+    KerzenReihe(Kerzenaufloesung aufloesung) {
+        this.aufloesung = aufloesung;
+    }
+
+    /**
+     * Verarbeitet einen Tick.
+     *
+     * @param zeitstempel Zeitpunkt des Ticks in Millisekunden seit 1970 (UTC)
+     * @param kurs        Kurs des Ticks
+     * @param stueck      gehandelte Stückzahl (0 bei reinen Kursmeldungen)
+     */
+    void aktualisiere(long zeitstempel, double kurs, long stueck) {
+        long intervall = aufloesung.intervallBeginn(zeitstempel);
+        Spalten s = spalten;
+
+        if (anzahl > 0) {
+            int laufend = schreibPosition == 0 ? s.beginn.length - 1 : schreibPosition - 1;
+            if (intervall <= s.beginn[laufend]) {
+                if (kurs > s.hoch[laufend]) {
+                    s.hoch[laufend] = kurs;
+                }
+                if (kurs < s.tief[laufend]) {
+                    s.tief[laufend] = kurs;
+                }
+                s.schluss[laufend] = kurs;
+                s.volumen[laufend] += stueck;
+                return;
+            }
+        }
+
+        // Neues Intervall: neue Kerze beginnen (verdrängt bei vollem Puffer die älteste)
+        if (anzahl == s.beginn.length && s.beginn.length < aufloesung.getMaxKerzen()) {
+            s = wachse(s);
+        }
+        int position = schreibPosition;
+        s.beginn[position] = intervall;
+        s.eroeffnung[position] = kurs;
+        s.hoch[position] = kurs;
+        s.tief[position] = kurs;
+        s.schluss[position] = kurs;
+        s.volumen[position] = stueck;
+
+        schreibPosition++;
+        if (schreibPosition == s.beginn.length) {
+            schreibPosition = 0;
+        }
+        if (anzahl < s.beginn.length) {
+            anzahl++;
+        }
+    }
+
+    /**
+     * @return Anzahl gespeicherter Kerzen inklusive der laufenden
+     */
+    int gibAnzahl() {
+        return anzahl;
+    }
+
+    /**
+     * Kopiert die Kerzen chronologisch in eine neue Liste.
+     * <p>
+     * Die letzte Kerze ist die gerade laufende und kann sich noch ändern. Läuft
+     * gleichzeitig ein Schreiber, kann das Ergebnis inkonsistent sein, aber der
+     * Aufruf wirft nicht; der Aufrufer verwirft es anhand seines Stempels.
+     *
+     * @return Kerzen vom ältesten zum neuesten Intervall
+     */
+    List<Kerze> alsListe() {
+        Spalten s = spalten;
+        int laenge = s.beginn.length;
+        // Zähler können zu neueren Spalten gehören als s; auf s begrenzen
+        int n = Math.max(0, Math.min(anzahl, laenge));
+        int ende = Math.max(0, Math.min(schreibPosition, laenge));
+        List<Kerze> kerzen = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int position = ende - n + i;
+            if (position < 0) {
+                position += laenge;
+            }
+            kerzen.add(new Kerze(s.beginn[position], s.eroeffnung[position], s.hoch[position],
+                    s.tief[position], s.schluss[position], s.volumen[position]));
+        }
+        return kerzen;
+    }
+
+    /**
+     * @return Anzahl der Kerzen, für die derzeit Platz reserviert ist
+     */
+    int gibKapazitaet() {
+        return spalten.beginn.length;
+    }
+
+    /**
+     * Verdoppelt die Spalten. Wird nur aufgerufen, solange der Puffer noch nie
+     * übergelaufen ist; die Kerzen liegen dann von Position 0 an in Reihenfolge.
+     *
+     * @return die neuen, bereits veröffentlichten Spalten
+     */
+    private Spalten wachse(Spalten alt) {
+        int laenge = alt.beginn.length;
+        int kapazitaet = laenge == 0
+                ? Math.min(START_KAPAZITAET, aufloesung.getMaxKerzen())
+                : Math.min(laenge * 2, aufloesung.getMaxKerzen());
+        Spalten neu = new Spalten(alt, kapazitaet);
+        spalten = neu;
+        schreibPosition = anzahl;
+        return neu;
+    }
+}
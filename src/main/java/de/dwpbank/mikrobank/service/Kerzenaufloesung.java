@@ -0,0 +1,50 @@
+package de.dwpbank.mikrobank.service;
+
+/**
+ * Zeitliche Auflösungen, in denen der {@link KursService} Kerzen (OHLCV) bildet.
+ * <p>
+ * Jede Auflösung hält höchstens {@code maxKerzen} Kerzen pro Aktie. Ältere
+ * Kerzen werden verdrängt, der Speicher pro Aktie ist damit fest begrenzt.
+ * <p>
+ * Beispiel: Eine Stunde an Sekunden-Ticks kostet bei {@link #MINUTE} nur 60 Kerzen
+ * statt tausender Einzelkurse.
+ */
+public enum Kerzenaufloesung {
+
+    SEKUNDE(1_000L, 300),
+    MINUTE(60_000L, 240),
+    STUNDE(3_600_000L, 168),
+    TAG(86_400_000L, 250);
+
+    private final long dauerMillis;
+    private final int maxKerzen;
+
+    Kerzenaufloesung(long dauerMillis, int maxKerzen) {
+        this.dauerMillis = dauerMillis;
+        this.maxKerzen = maxKerzen;
+    }
+
+    /**
+     * @return Länge eines Intervalls in Millisekunden
+     */
+    public long getDauerMillis() {
+        return dauerMillis;
+    }
+
+    /**
+     * @return maximale Anzahl gespeicherter Kerzen pro Aktie
+     */
+    public int getMaxKerzen() {
+        return maxKerzen;
+    }
+
+    /**
+     * Berechnet den Beginn des Intervalls, in das ein Zeitstempel fällt.
+     *
+     * @param zeitstempel Millisekunden seit 1970 (UTC)
+     * @return Intervallbeginn in Millisekunden seit 1970 (UTC)
+     */
+    public long intervallBeginn(long zeitstempel) {
+        return zeitstempel - Math.floorMod(zeitstempel, dauerMillis);
+    }
+}
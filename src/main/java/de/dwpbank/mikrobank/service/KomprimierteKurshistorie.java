@@ -0,0 +1,390 @@
+package de.dwpbank.mikrobank.service;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+/**
+ * Lange Kurshistorie einer Aktie in komprimierter Form (Gorilla-Kodierung).
+ * <p>
+ * Fachliche Bedeutung:
+ * - Speichert Ticks (Zeitstempel + Kurs) über lange Zeiträume, ohne für jeden
+ *   Tick 8 Byte plus Objekt-Overhead zu bezahlen
+ * - Gelesen wird sequenziell mit einem {@link Dekodierer}, vom ältesten zum neuesten Tick
+ * <p>
+ * Kodierung (nach Pelkonen et al., "Gorilla", VLDB 2015):
+ * - Zeitstempel als Delta-of-Delta: regelmäßige Ticks kosten 1 Bit
+ * - Kurse als XOR mit dem Vorgängerkurs: unveränderte Kurse kosten 1 Bit,
+ *   kleine Änderungen nur die signifikanten Bits des XOR
+ * <p>
+ * Technische Hinweise:
+ * - Die Ticks liegen in Blöcken zu {@link #TICKS_PRO_BLOCK} Ticks, jeder Block ist
+ *   für sich dekodierbar; abgeschlossene Blöcke sind unveränderlich
+ * - Werden mehr als {@code maxBloecke} Blöcke erreicht, wird der älteste Block verworfen
+ * - Pro Tick wird kein Objekt erzeugt, nur gelegentlich das Bit-Array des
+ *   laufenden Blocks vergrößert
+ * - Die Klasse ist nicht thread-sicher; {@link #schnappschuss()} liefert eine
+ *   unveränderliche Kopie zum Lesen in anderen Threads
+ */
+public class KomprimierteKurshistorie {
+
+    /** Anzahl Ticks pro unabhängig dekodierbarem Block. */
+    public static final int TICKS_PRO_BLOCK = 1024;
+
+    // Anfangsgröße des Bit-Arrays eines Blocks in 64-Bit-Worten (wächst bei Bedarf)
+    private static final int START_WORTE = 64;
+
+    private final int maxBloecke;
+    private final ArrayDeque<Block> abgeschlossen;
+    private Block laufend;
+
+    // Zustand des Kodierers für den laufenden Block
+    private long letzterZeitstempel;
+    private long letztesDelta;
+    private long letzteWertBits;
+    private int letzteFuehrendeNullen;
+    private int letzteNachfolgendeNullen;
+
+    /**
+     * Erstellt eine leere komprimierte Historie.
+     *
+     * @param maxTicks ungefähre Obergrenze der gespeicherten Ticks (auf ganze Blöcke aufgerundet)
+     * @throws IllegalArgumentException wenn maxTicks kleiner als 1 ist
+     */
+    public KomprimierteKurshistorie(int maxTicks) {
+        if (maxTicks < 1) {
+            throw new IllegalArgumentException("maxTicks muss größer als 0 sein");
+        }
+        this.maxBloecke = (maxTicks + TICKS_PRO_BLOCK - 1) / TICKS_PRO_BLOCK;
+        this.abgeschlossen = new ArrayDeque<>();
+    }
+
+    private KomprimierteKurshistorie(ArrayDeque<Block> abgeschlossen, Block laufend) {
+        this.maxBloecke = Integer.MAX_VALUE;
+        this.abgeschlossen = abgeschlossen;
+        this.laufend = laufend;
+    }
+
+    /**
+     * Hängt einen Tick an.
+     *
+     * @param zeitstempel Zeitpunkt in Millisekunden seit 1970 (UTC)
+     * @param kurs        der Kurs
+     */
+    public void fuegeHinzu(long zeitstempel, double kurs) {
+        if (laufend == null || laufend.anzahl == TICKS_PRO_BLOCK) {
+            beginneBlock();
+        }
+        Block block = laufend;
+        long wertBits = Double.doubleToRawLongBits(kurs);
+
+        if (block.anzahl == 0) {
+            // Erster Tick eines Blocks: beide Werte unkomprimiert
+            block.schreibe(zeitstempel, 64);
+            block.schreibe(wertBits, 64);
+            letztesDelta = 0;
+            letzteFuehrendeNullen = Integer.MAX_VALUE;
+            letzteNachfolgendeNullen = 0;
+        } else {
+            long delta = zeitstempel - letzterZeitstempel;
+            schreibeDeltaOfDelta(block, delta - letztesDelta);
+            letztesDelta = delta;
+            schreibeXor(block, wertBits ^ letzteWertBits);
+        }
+
+        letzterZeitstempel = zeitstempel;
+        letzteWertBits = wertBits;
+        block.anzahl++;
+    }
+
+    /**
+     * @return Anzahl der gespeicherten Ticks
+     */
+    public int gibAnzahl() {
+        int anzahl = laufend != null ? laufend.anzahl : 0;
+        for (Block block : abgeschlossen) {
+            anzahl += block.anzahl;
+        }
+        return anzahl;
+    }
+
+    /**
+     * Liefert den belegten Speicher der kodierten Daten.
+     * <p>
+     * Gezählt werden die genutzten Bytes der Bit-Arrays, ohne Objekt-Header.
+     *
+     * @return belegte Bytes
+     */
+    public long gibBelegteBytes() {
+        long bits = laufend != null ? laufend.bitLaenge : 0;
+        for (Block block : abgeschlossen) {
+            bits += block.bitLaenge;
+        }
+        return (bits + 7) / 8;
+    }
+
+    /**
+     * Erstellt eine unveränderliche Kopie zum Lesen.
+     * <p>
+     * Abgeschlossene Blöcke werden geteilt, nur der laufende Block wird kopiert.
+     *
+     * @return Schnappschuss des aktuellen Stands
+     */
+    public KomprimierteKurshistorie schnappschuss() {
+        Block kopie = laufend != null ? laufend.kopie() : null;
+        return new KomprimierteKurshistorie(new ArrayDeque<>(abgeschlossen), kopie);
+    }
+
+    /**
+     * Erstellt einen Dekodierer, der die Ticks vom ältesten zum neuesten liefert.
+     * <p>
+     * Der Dekodierer darf nur genutzt werden, solange nicht weiter angehängt wird;
+     * für nebenläufiges Lesen zuerst {@link #schnappschuss()} erstellen.
+     *
+     * @return neuer Dekodierer
+     */
+    public Dekodierer dekodierer() {
+        Block[] bloecke = abgeschlossen.toArray(new Block[abgeschlossen.size() + 1]);
+        bloecke[bloecke.length - 1] = laufend;
+        return new Dekodierer(bloecke);
+    }
+
+    private void beginneBlock() {
+        if (laufend != null) {
+            laufend.abschliessen();
+            abgeschlossen.addLast(laufend);
+            if (abgeschlossen.size() >= maxBloecke) {
+                abgeschlossen.removeFirst();
+            }
+        }
+        laufend = new Block();
+    }
+
+    /**
+     * Delta-of-Delta-Kodierung der Zeitstempel mit Präfixcode (Werte im Zweierkomplement):
+     * 0 | 10+7 Bit | 110+9 Bit | 1110+12 Bit | 1111+64 Bit
+     */
+    private static void schreibeDeltaOfDelta(Block block, long dod) {
+        if (dod == 0) {
+            block.schreibe(0b0, 1);
+        } else if (dod >= -64 && dod <= 63) {
+            block.schreibe(0b10, 2);
+            block.schreibe(dod, 7);
+        } else if (dod >= -256 && dod <= 255) {
+            block.schreibe(0b110, 3);
+            block.schreibe(dod, 9);
+        } else if (dod >= -2048 && dod <= 2047) {
+            block.schreibe(0b1110, 4);
+            block.schreibe(dod, 12);
+        } else {
+            block.schreibe(0b1111, 4);
+            block.schreibe(dod, 64);
+        }
+    }
+
+    /**
+     * XOR-Kodierung der Kurse:
+     * 0 = gleicher Wert | 10 + Bits im vorherigen Fenster | 11 + 5 Bit führende Nullen
+     * + 6 Bit Länge + Bits
+     */
+    private void schreibeXor(Block block, long xor) {
+        if (xor == 0) {
+            block.schreibe(0b0, 1);
+            return;
+        }
+        int fuehrend = Math.min(Long.numberOfLeadingZeros(xor), 31);
+        int nachfolgend = Long.numberOfTrailingZeros(xor);
+
+        if (fuehrend >= letzteFuehrendeNullen && nachfolgend >= letzteNachfolgendeNullen) {
+            int laenge = 64 - letzteFuehrendeNullen - letzteNachfolgendeNullen;
+            block.schreibe(0b10, 2);
+            block.schreibe(xor >>> letzteNachfolgendeNullen, laenge);
+        } else {
+            int laenge = 64 - fuehrend - nachfolgend;
+            block.schreibe(0b11, 2);
+            block.schreibe(fuehrend, 5);
+            // Länge 64 passt nicht in 6 Bit und wird als 0 kodiert
+            block.schreibe(laenge == 64 ? 0 : laenge, 6);
+            block.schreibe(xor >>> nachfolgend, laenge);
+            letzteFuehrendeNullen = fuehrend;
+            letzteNachfolgendeNullen = nachfolgend;
+        }
+    }
+
+    /**
+     * Ein unabhängig dekodierbarer Block als Bitstrom in einem {@code long[]}.
+     */
+    private static final class Block {
+
+        private long[] worte = new long[START_WORTE];
+        private int bitLaenge;
+        private int anzahl;
+
+        private Block() {
+        }
+
+        private Block(long[] worte, int bitLaenge, int anzahl) {
+            this.worte = worte;
+            this.bitLaenge = bitLaenge;
+            this.anzahl = anzahl;
+        }
+
+        /**
+         * Schreibt die niederwertigsten {@code bits} Bits von {@code wert} (höchstwertiges zuerst).
+         */
+        void schreibe(long wert, int bits) {
+            int wortIndex = bitLaenge >>> 6;
+            if (wortIndex + 1 >= worte.length) {
+                worte = Arrays.copyOf(worte, worte.length * 2);
+            }
+            if (bits < 64) {
+                wert &= (1L << bits) - 1;
+            }
+            int frei = 64 - (bitLaenge & 63);
+            if (bits <= frei) {
+                worte[wortIndex] |= wert << (frei - bits);
+            } else {
+                int rest = bits - frei;
+                worte[wortIndex] |= wert >>> rest;
+                worte[wortIndex + 1] = wert << (64 - rest);
+            }
+            bitLaenge += bits;
+        }
+
+        void abschliessen() {
+            worte = Arrays.copyOf(worte, (bitLaenge + 63) >>> 6);
+        }
+
+        Block kopie() {
+            return new Block(Arrays.copyOf(worte, (bitLaenge >>> 6) + 1), bitLaenge, anzahl);
+        }
+    }
+
+    /**
+     * Liest die Ticks sequenziell vom ältesten zum neuesten, ohne pro Tick Objekte zu erzeugen.
+     * <p>
+     * Verwendung:
+     * <pre>
+     * KomprimierteKurshistorie.Dekodierer d = historie.dekodierer();
+     * while (d.naechster()) {
+     *     verarbeite(d.gibZeitstempel(), d.gibKurs());
+     * }
+     * </pre>
+     */
+    public static final class Dekodierer {
+
+        private final Block[] bloecke;
+        private int blockIndex = -1;
+        private Block block;
+        private int gelesenImBlock;
+        private int bitPosition;
+
+        private long zeitstempel;
+        private long delta;
+        private long wertBits;
+        private int fuehrendeNullen;
+        private int nachfolgendeNullen;
+
+        private Dekodierer(Block[] bloecke) {
+            this.bloecke = bloecke;
+        }
+
+        /**
+         * Rückt zum nächsten Tick vor.
+         *
+         * @return false, wenn alle Ticks gelesen sind
+         */
+        public boolean naechster() {
+            while (block == null || gelesenImBlock == block.anzahl) {
+                blockIndex++;
+                if (blockIndex >= bloecke.length) {
+                    return false;
+                }
+                block = bloecke[blockIndex];
+                gelesenImBlock = 0;
+                bitPosition = 0;
+            }
+
+            if (gelesenImBlock == 0) {
+                zeitstempel = lese(64);
+                wertBits = lese(64);
+                delta = 0;
+            } else {
+                delta += leseDeltaOfDelta();
+                zeitstempel += delta;
+                leseXor();
+            }
+            gelesenImBlock++;
+            return true;
+        }
+
+        /**
+         * @return Zeitstempel des aktuellen Ticks in Millisekunden seit 1970 (UTC)
+         */
+        public long gibZeitstempel() {
+            return zeitstempel;
+        }
+
+        /**
+         * @return Kurs des aktuellen Ticks
+         */
+        public double gibKurs() {
+            return Double.longBitsToDouble(wertBits);
+        }
+
+        private long leseDeltaOfDelta() {
+            if (lese(1) == 0) {
+                return 0;
+            }
+            if (lese(1) == 0) {
+                return mitVorzeichen(lese(7), 7);
+            }
+            if (lese(1) == 0) {
+                return mitVorzeichen(lese(9), 9);
+            }
+            if (lese(1) == 0) {
+                return mitVorzeichen(lese(12), 12);
+            }
+            return lese(64);
+        }
+
+        private void leseXor() {
+            if (lese(1) == 0) {
+                return;
+            }
+            if (lese(1) == 1) {
+                fuehrendeNullen = (int) lese(5);
+                int laenge = (int) lese(6);
+                if (laenge == 0) {
+                    laenge = 64;
+                }
+                nachfolgendeNullen = 64 - fuehrendeNullen - laenge;
+            }
+            int laenge = 64 - fuehrendeNullen - nachfolgendeNullen;
+            wertBits ^= lese(laenge) << nachfolgendeNullen;
+        }
+
+        /**
+         * Liest {@code bits} Bits (1 bis 64) als vorzeichenlosen Wert.
+         */
+        private long lese(int bits) {
+            long[] worte = block.worte;
+            int wortIndex = bitPosition >>> 6;
+            int versatz = bitPosition & 63;
+            long wert;
+            if (versatz + bits <= 64) {
+                wert = worte[wortIndex] << versatz;
+            } else {
+                wert = (worte[wortIndex] << versatz) | (worte[wortIndex + 1] >>> (64 - versatz));
+            }
+            bitPosition += bits;
+            return wert >>> (64 - bits);
+        }
+
+        /**
+         * Interpretiert ein {@code bits} Bit breites Feld als Zweierkomplement.
+         */
+        private static long mitVorzeichen(long wert, int bits) {
+            return (wert << (64 - bits)) >> (64 - bits);
+        }
+    }
+}
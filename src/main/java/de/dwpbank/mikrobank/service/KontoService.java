@@ -4,9 +4,119 @@ package de.dwpbank.mikrobank.service;
 import de.dwpbank.mikrobank.model.Konto;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+
 @Slf4j
 public class KontoService {
 
+    private final Kontobuch kontobuch;
+    private final Kontojournal journal;
+
+    /**
+     * Erstellt einen KontoService mit eigenem, leerem {@link Kontobuch}.
+     */
+    public KontoService() {
+        this(new Kontobuch());
+    }
+
+    /**
+     * Erstellt einen KontoService auf einem vorhandenen Kontobuch, ohne Journal.
+     *
+     * @param kontobuch Speicher für die über diesen Service eröffneten Konten
+     * @throws IllegalArgumentException wenn das Kontobuch null ist
+     */
+    public KontoService(Kontobuch kontobuch) {
+        this(kontobuch, null);
+    }
+
+    /**
+     * Erstellt einen KontoService, der alle Eröffnungen und Buchungen auf Konten des
+     * Kontobuchs im Journal sichert.
+     * <p>
+     * Buchung und Journaleintrag sind ein Schritt, die Reihenfolge im Journal ist also
+     * die, in der die Buchungen sichtbar werden. Eine Ein- oder Auszahlung kehrt erst
+     * zurück, wenn ihr Journaleintrag dauerhaft geschrieben ist; gleichzeitige Buchungen
+     * teilen sich dabei ein {@code fsync} (siehe {@link Kontojournal}). Ist das Journal
+     * geschlossen oder gesperrt, wird gar nicht gebucht ({@link IllegalStateException});
+     * scheitert der Commit, wird die Buchung im Speicher zurückgenommen und eine
+     * {@link UncheckedIOException} geworfen. Konten, die nicht aus dem Kontobuch stammen
+     * (z. B. {@code new Konto(...)}), werden nicht journalisiert.
+     *
+     * @param kontobuch Speicher für die über diesen Service eröffneten Konten
+     * @param journal   Journal zum Kontobuch oder null
+     * @throws IllegalArgumentException wenn das Kontobuch null ist
+     */
+    public KontoService(Kontobuch kontobuch, Kontojournal journal) {
+        if (kontobuch == null) {
+            throw new IllegalArgumentException("Kontobuch darf nicht null sein");
+        }
+        this.kontobuch = kontobuch;
+        this.journal = journal;
+    }
+
+    /**
+     * Eröffnet ein Konto im Kontobuch.
+     * <p>
+     * Das gelieferte {@link Konto} ist eine Ansicht ohne eigenen Kontostand und kann
+     * wie jedes andere Konto an {@link #einzahlen(Konto, double)} und
+     * {@link #auszahlen(Konto, double)} übergeben werden.
+     *
+     * @param startGuthaben Anfangsguthaben in Euro (wird auf Cent gerundet)
+     * @return das neue Konto
+     * @throws IllegalArgumentException wenn das Startguthaben negativ oder keine endliche Zahl ist
+     */
+    public Konto eroeffneKonto(double startGuthaben) {
+        long cent = pruefeStartguthaben(startGuthaben);
+        int id;
+        if (journal == null) {
+            id = kontobuch.eroeffne(cent);
+        } else {
+            long eintrag;
+            synchronized (journal.gibReihenfolgeSperre()) {
+                journal.pruefeOffen();
+                id = kontobuch.eroeffne(cent);
+                eintrag = journal.haengeEroeffnungAn(id, 1, cent);
+            }
+            journal.synchronisiere(eintrag);
+        }
+        return kontobuch.gibKonto(id);
+    }
+
+    /**
+     * Eröffnet viele Konten mit gleichem Startguthaben auf einmal, z. B. für
+     * Simulationen mit Millionen von Privatkunden.
+     *
+     * @param anzahl        Anzahl der Konten
+     * @param startGuthaben Anfangsguthaben je Konto in Euro (wird auf Cent gerundet)
+     * @return die Id des ersten Kontos im Kontobuch; die Ids sind fortlaufend
+     * @throws IllegalArgumentException wenn die Anzahl nicht größer als 0 oder das Startguthaben ungültig ist
+     */
+    public int eroeffneKonten(int anzahl, double startGuthaben) {
+        long cent = pruefeStartguthaben(startGuthaben);
+        int ersteId;
+        if (journal == null) {
+            ersteId = kontobuch.eroeffne(anzahl, cent);
+        } else {
+            long eintrag;
+            synchronized (journal.gibReihenfolgeSperre()) {
+                journal.pruefeOffen();
+                ersteId = kontobuch.eroeffne(anzahl, cent);
+                eintrag = journal.haengeEroeffnungAn(ersteId, anzahl, cent);
+            }
+            journal.synchronisiere(eintrag);
+        }
+        log.info("{} Konten eröffnet (Ids {} bis {})", anzahl, ersteId, ersteId + anzahl - 1);
+        return ersteId;
+    }
+
+    /**
+     * @return das Kontobuch dieses Services, z. B. für Sammelbuchungen und Auswertungen
+     */
+    public Kontobuch gibKontobuch() {
+        return kontobuch;
+    }
+
     /**
      * Zahlt einen Betrag auf das Konto ein.
      * <p>
@@ -20,14 +130,36 @@ public class KontoService {
      * - Nach der Einzahlung wird der neue Kontostand geloggt
      *
      * @param konto  das Konto, auf das eingezahlt wird
-     * @param betrag der einzuzahlende Betrag
+     * @param betrag der einzuzahlende Betrag in Euro (wird auf Cent gerundet)
+     * @throws IllegalArgumentException wenn das Konto null oder der Betrag nicht größer als 0 ist
      */
     public void einzahlen(Konto konto, double betrag) {
-        // IMPLEMENTIERUNG:
-        // 1. Prüfe, ob betrag <= 0
-        // 2. Wenn ja, logge einen Fehler und wirf IllegalArgumentException
-        // 3. Wenn nein, addiere den Betrag zum Kontostand
-        // 4. Logge den neuen Kontostand
+        if (!(betrag > 0)) {
+            log.error("Ungültiger Einzahlungsbetrag: {}", betrag);
+            throw new IllegalArgumentException("Betrag muss größer als 0 sein");
+        }
+        einzahlenCent(konto, Konto.inCent(betrag));
+    }
+
+    /**
+     * Zahlt einen Betrag in Cent auf das Konto ein.
+     * <p>
+     * Es gelten dieselben Regeln wie bei {@link #einzahlen(Konto, double)}. Die Buchung
+     * ist atomar, gleichzeitige Einzahlungen aus mehreren Threads gehen nicht verloren.
+     *
+     * @param konto      das Konto, auf das eingezahlt wird
+     * @param betragCent der einzuzahlende Betrag in Cent
+     * @throws IllegalArgumentException wenn das Konto null oder der Betrag nicht größer als 0 ist
+     */
+    public void einzahlenCent(Konto konto, long betragCent) {
+        pruefeKonto(konto);
+        if (betragCent <= 0) {
+            log.error("Ungültiger Einzahlungsbetrag: {} Cent", betragCent);
+            throw new IllegalArgumentException("Betrag muss größer als 0 sein");
+        }
+        log.info("Einzahlung von {} Cent", betragCent);
+        bucheGesichert(konto, betragCent, Long.MIN_VALUE);
+        log.info("Neuer Kontostand: {}", konto.getKontostand());
     }
 
     /**
@@ -42,14 +174,313 @@ public class KontoService {
      * - Nach der Auszahlung wird der neue Kontostand geloggt
      *
      * @param konto  das Konto
-     * @param betrag der auszuzahlende Betrag
+     * @param betrag der auszuzahlende Betrag in Euro (wird auf Cent gerundet)
+     * @throws IllegalArgumentException wenn das Konto null, der Betrag nicht größer als 0
+     *                                  oder das Guthaben nicht ausreichend ist
      */
     public void auszahlen(Konto konto, double betrag) {
-        // IMPLEMENTIERUNG:
-        // 1. Prüfe, ob betrag <= 0
-        // 2. Prüfe, ob konto.getKontostand() - betrag < 0
-        // 3. Falls eine Prüfung fehlschlägt, logge einen Fehler und wirf Exception
-        // 4. Ziehe den Betrag vom Kontostand ab
-        // 5. Logge den neuen Kontostand
+        if (!(betrag > 0)) {
+            log.error("Ungültiger Auszahlungsbetrag: {}", betrag);
+            throw new IllegalArgumentException("Betrag muss größer als 0 sein");
+        }
+        auszahlenCent(konto, Konto.inCent(betrag));
+    }
+
+    /**
+     * Zahlt einen Betrag in Cent vom Konto aus.
+     * <p>
+     * Es gelten dieselben Regeln wie bei {@link #auszahlen(Konto, double)}. Deckungsprüfung
+     * und Abbuchung sind ein einziger atomarer Schritt: zwei gleichzeitige Auszahlungen
+     * können das Konto nicht gemeinsam überziehen.
+     *
+     * @param konto      das Konto
+     * @param betragCent der auszuzahlende Betrag in Cent
+     * @throws IllegalArgumentException wenn das Konto null, der Betrag nicht größer als 0
+     *                                  oder das Guthaben nicht ausreichend ist
+     */
+    public void auszahlenCent(Konto konto, long betragCent) {
+        pruefeKonto(konto);
+        if (betragCent <= 0) {
+            log.error("Ungültiger Auszahlungsbetrag: {} Cent", betragCent);
+            throw new IllegalArgumentException("Betrag muss größer als 0 sein");
+        }
+        log.info("Kontostand vor Auszahlung: {}", konto.getKontostand());
+        if (!bucheGesichert(konto, -betragCent, 0)) {
+            log.error("Auszahlung von {} Cent nicht gedeckt, Kontostand: {}", betragCent, konto.getKontostand());
+            throw new IllegalArgumentException("Nicht genügend Guthaben");
+        }
+        log.info("Neuer Kontostand: {}", konto.getKontostand());
+    }
+
+    /**
+     * Bucht einen ganzen Stapel von Ein- und Auszahlungen in einem Durchlauf.
+     * <p>
+     * Für die Abrechnung vieler Ausführungen auf einmal gedacht: statt pro Buchung
+     * zu prüfen und zweimal zu loggen, werden die Einträge bereits beim Anhängen an
+     * den Puffer geprüft, und der ganze Stapel erzeugt genau einen Logeintrag.
+     * Jede einzelne Buchung ist atomar wie bei {@link #einzahlenCent(Konto, long)}
+     * und {@link #auszahlenCent(Konto, long)}; mit Journal wird nur einmal pro Stapel
+     * auf den Commit gewartet. Der Stapel wird dazu ohne fremde Buchungen dazwischen
+     * angehängt und landet so vollständig in einem Commit; scheitert er, wird der ganze
+     * Stapel im Speicher zurückgenommen.
+     * <p>
+     * Bei {@link Buchungsmodus#ALLES_ODER_NICHTS} werden bereits gebuchte Auszahlungen
+     * wieder gutgeschrieben, sobald eine Auszahlung nicht gedeckt ist. Andere Threads
+     * können diese Zwischenstände kurz sehen, das Konto wird dabei aber nie überzogen.
+     *
+     * @param puffer die Buchungen; {@link Buchungspuffer#istAbgelehnt(int)} meldet danach
+     *               die abgelehnten Einträge
+     * @param modus  Umgang mit nicht gedeckten Auszahlungen
+     * @return Zusammenfassung des Stapels
+     * @throws IllegalArgumentException wenn Puffer oder Modus null sind
+     */
+    public Buchungsergebnis bucheStapel(Buchungspuffer puffer, Buchungsmodus modus) {
+        if (puffer == null || modus == null) {
+            log.error("Stapelbuchung ohne Puffer oder Modus");
+            throw new IllegalArgumentException("Puffer und Modus dürfen nicht null sein");
+        }
+        int anzahl = puffer.gibAnzahl();
+        Konto[] konten = puffer.konten;
+        long[] betraege = puffer.betraegeCent;
+        boolean[] abgelehnt = puffer.abgelehnt;
+
+        long letzterEintrag;
+        if (journal == null) {
+            letzterEintrag = bucheStapelImSpeicher(anzahl, konten, betraege, abgelehnt, modus);
+        } else {
+            synchronized (journal.gibReihenfolgeSperre()) {
+                journal.pruefeOffen();
+                letzterEintrag = bucheStapelImSpeicher(anzahl, konten, betraege, abgelehnt, modus);
+            }
+        }
+        if (letzterEintrag > 0) {
+            try {
+                journal.synchronisiere(letzterEintrag);
+            } catch (UncheckedIOException e) {
+                // Der Stapel lag vollständig in einem Commit, nichts davon ist gesichert
+                for (int i = anzahl - 1; i >= 0; i--) {
+                    if (!abgelehnt[i]) {
+                        konten[i].bucheAtomar(-betraege[i], Long.MIN_VALUE);
+                    }
+                }
+                log.error("Stapel mit {} Buchungen nicht gesichert und zurückgenommen", anzahl);
+                throw e;
+            }
+        }
+
+        int gebucht = 0;
+        long eingezahlt = 0;
+        long ausgezahlt = 0;
+        for (int i = 0; i < anzahl; i++) {
+            if (abgelehnt[i]) {
+                continue;
+            }
+            gebucht++;
+            if (betraege[i] > 0) {
+                eingezahlt += betraege[i];
+            } else {
+                ausgezahlt -= betraege[i];
+            }
+        }
+
+        Buchungsergebnis ergebnis = new Buchungsergebnis(gebucht, anzahl - gebucht, eingezahlt, ausgezahlt);
+        if (gebucht < anzahl) {
+            log.warn("Stapel mit {} Buchungen ({}): {}", anzahl, modus, ergebnis);
+        } else {
+            log.info("Stapel mit {} Buchungen ({}): {}", anzahl, modus, ergebnis);
+        }
+        return ergebnis;
+    }
+
+    /**
+     * Bucht den Stapel im Kontobuch und, mit Journal, im selben Schritt ins Journal.
+     *
+     * @return Nummer des letzten Journaleintrags oder 0, wenn keiner angehängt wurde
+     */
+    private long bucheStapelImSpeicher(int anzahl, Konto[] konten, long[] betraege, boolean[] abgelehnt,
+                                       Buchungsmodus modus) {
+        long letzterEintrag = 0;
+        if (modus == Buchungsmodus.EINZELN) {
+            for (int i = 0; i < anzahl; i++) {
+                long betrag = betraege[i];
+                long eintrag = bucheImStapel(konten[i], betrag, betrag > 0 ? Long.MIN_VALUE : 0);
+                abgelehnt[i] = eintrag < 0;
+                letzterEintrag = Math.max(letzterEintrag, eintrag);
+            }
+            return letzterEintrag;
+        }
+        // Erst alle Auszahlungen: nur sie können scheitern, und ihr Rückbuchen ist immer möglich
+        int fehler = -1;
+        for (int i = 0; i < anzahl; i++) {
+            if (betraege[i] < 0) {
+                long eintrag = bucheImStapel(konten[i], betraege[i], 0);
+                if (eintrag < 0) {
+                    fehler = i;
+                    break;
+                }
+                letzterEintrag = Math.max(letzterEintrag, eintrag);
+            }
+        }
+        if (fehler >= 0) {
+            for (int i = fehler - 1; i >= 0; i--) {
+                if (betraege[i] < 0) {
+                    letzterEintrag = Math.max(letzterEintrag, bucheImStapel(konten[i], -betraege[i], Long.MIN_VALUE));
+                }
+            }
+        } else {
+            for (int i = 0; i < anzahl; i++) {
+                if (betraege[i] > 0) {
+                    letzterEintrag = Math.max(letzterEintrag, bucheImStapel(konten[i], betraege[i], Long.MIN_VALUE));
+                }
+            }
+        }
+        Arrays.fill(abgelehnt, 0, anzahl, fehler >= 0);
+        return letzterEintrag;
+    }
+
+    /**
+     * Reserviert Guthaben für eine laufende Order.
+     * <p>
+     * Deckungsprüfung und Abzug vom Kontostand sind ein einziger atomarer Schritt,
+     * wie bei {@link #auszahlenCent(Konto, long)}. Beliebig viele Orders eines Kontos
+     * können so gleichzeitig laufen, ohne dass eine globale Sperre nötig ist: jede
+     * angenommene Order hat ihr Geld sicher, und zusammen überziehen sie das Konto nie.
+     * Die Reservierung wird danach mit {@link #abrechnen(Reservierung)} bzw.
+     * {@link #abrechnenCent(Reservierung, long)} oder {@link #freigeben(Reservierung)} beendet.
+     *
+     * @param konto      das Konto
+     * @param betragCent zu reservierender Betrag in Cent
+     * @return die Reservierung
+     * @throws IllegalArgumentException wenn das Konto null, der Betrag nicht größer als 0
+     *                                  oder das Guthaben nicht ausreichend ist
+     */
+    public Reservierung reserviereCent(Konto konto, long betragCent) {
+        pruefeKonto(konto);
+        if (betragCent <= 0) {
+            log.error("Ungültiger Reservierungsbetrag: {} Cent", betragCent);
+            throw new IllegalArgumentException("Betrag muss größer als 0 sein");
+        }
+        if (!bucheGesichert(konto, -betragCent, 0)) {
+            log.error("Reservierung von {} Cent nicht gedeckt, Kontostand: {}", betragCent, konto.getKontostand());
+            throw new IllegalArgumentException("Nicht genügend Guthaben");
+        }
+        log.debug("{} Cent reserviert, verfügbar: {}", betragCent, konto.getKontostand());
+        return new Reservierung(konto, betragCent);
+    }
+
+    /**
+     * Rechnet eine Reservierung über den vollen Betrag ab; das Geld bleibt abgebucht.
+     *
+     * @param reservierung die Reservierung
+     * @throws IllegalArgumentException wenn die Reservierung null ist
+     * @throws IllegalStateException    wenn die Reservierung bereits beendet ist
+     */
+    public void abrechnen(Reservierung reservierung) {
+        pruefeReservierung(reservierung);
+        abrechnenCent(reservierung, reservierung.gibBetragCent());
+    }
+
+    /**
+     * Rechnet eine Reservierung mit dem tatsächlichen Betrag ab, z. B. wenn die Order
+     * günstiger ausgeführt wurde. Der nicht benötigte Rest wird wieder gutgeschrieben.
+     *
+     * @param reservierung      die Reservierung
+     * @param tatsaechlichCent  tatsächlich benötigter Betrag in Cent, höchstens der reservierte Betrag
+     * @throws IllegalArgumentException wenn die Reservierung null oder der Betrag außerhalb
+     *                                  von [0, reservierter Betrag] liegt
+     * @throws IllegalStateException    wenn die Reservierung bereits beendet ist
+     */
+    public void abrechnenCent(Reservierung reservierung, long tatsaechlichCent) {
+        pruefeReservierung(reservierung);
+        if (tatsaechlichCent < 0 || tatsaechlichCent > reservierung.gibBetragCent()) {
+            log.error("Abrechnung über {} Cent bei Reservierung über {} Cent", tatsaechlichCent,
+                    reservierung.gibBetragCent());
+            throw new IllegalArgumentException("Abrechnungsbetrag außerhalb der Reservierung");
+        }
+        reservierung.beende(Reservierung.ABGERECHNET);
+        schreibeGut(reservierung.gibKonto(), reservierung.gibBetragCent() - tatsaechlichCent);
+        log.debug("Reservierung abgerechnet: {} Cent", tatsaechlichCent);
+    }
+
+    /**
+     * Gibt eine Reservierung frei, z. B. wenn die Order abgelehnt oder storniert wurde.
+     * Der ganze Betrag wird wieder gutgeschrieben.
+     *
+     * @param reservierung die Reservierung
+     * @throws IllegalArgumentException wenn die Reservierung null ist
+     * @throws IllegalStateException    wenn die Reservierung bereits beendet ist
+     */
+    public void freigeben(Reservierung reservierung) {
+        pruefeReservierung(reservierung);
+        reservierung.beende(Reservierung.FREIGEGEBEN);
+        schreibeGut(reservierung.gibKonto(), reservierung.gibBetragCent());
+        log.debug("Reservierung freigegeben: {} Cent", reservierung.gibBetragCent());
+    }
+
+    private void schreibeGut(Konto konto, long betragCent) {
+        if (betragCent > 0) {
+            bucheGesichert(konto, betragCent, Long.MIN_VALUE);
+        }
+    }
+
+    private static void pruefeReservierung(Reservierung reservierung) {
+        if (reservierung == null) {
+            log.error("Abschluss ohne Reservierung");
+            throw new IllegalArgumentException("Reservierung darf nicht null sein");
+        }
+    }
+
+    /**
+     * Bucht atomar und sichert die Buchung im selben Schritt im Journal; wartet danach
+     * auf den Commit. Scheitert er, wird die Buchung im Speicher zurückgenommen: sie
+     * steht dann nicht im Journal, und alle später sichtbaren Buchungen auch nicht.
+     *
+     * @return false, wenn die Untergrenze unterschritten würde und nichts gebucht wurde
+     */
+    private boolean bucheGesichert(Konto konto, long betragCent, long untergrenzeCent) {
+        int id = journal != null ? kontobuch.gibId(konto) : -1;
+        if (id < 0) {
+            return konto.bucheAtomar(betragCent, untergrenzeCent);
+        }
+        long eintrag = journal.bucheUndSchreibe(konto, id, betragCent, untergrenzeCent);
+        if (eintrag < 0) {
+            return false;
+        }
+        try {
+            journal.synchronisiere(eintrag);
+        } catch (UncheckedIOException e) {
+            konto.bucheAtomar(-betragCent, Long.MIN_VALUE);
+            log.error("Buchung von {} Cent nicht gesichert und zurückgenommen", betragCent);
+            throw e;
+        }
+        return true;
+    }
+
+    /**
+     * Eine Buchung des Stapels; mit Journal nur unter {@link Kontojournal#gibReihenfolgeSperre()}.
+     *
+     * @return Nummer des Journaleintrags, 0 ohne Journaleintrag oder -1, wenn nicht gebucht wurde
+     */
+    private long bucheImStapel(Konto konto, long betragCent, long untergrenzeCent) {
+        int id = journal != null ? kontobuch.gibId(konto) : -1;
+        if (id < 0) {
+            return konto.bucheAtomar(betragCent, untergrenzeCent) ? 0 : -1;
+        }
+        return journal.haengeBuchungAn(konto, id, betragCent, untergrenzeCent);
+    }
+
+    private static long pruefeStartguthaben(double startGuthaben) {
+        if (!(startGuthaben >= 0)) {
+            log.error("Ungültiges Startguthaben: {}", startGuthaben);
+            throw new IllegalArgumentException("Startguthaben darf nicht negativ sein");
+        }
+        return Konto.inCent(startGuthaben);
+    }
+
+    private static void pruefeKonto(Konto konto) {
+        if (konto == null) {
+            log.error("Buchung ohne Konto");
+            throw new IllegalArgumentException("Konto darf nicht null sein");
+        }
     }
 }
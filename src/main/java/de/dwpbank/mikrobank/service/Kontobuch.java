@@ -0,0 +1,329 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Konto;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+
+/**
+ * Speicher für sehr viele Konten: die Kontostände liegen in {@code long}-Arrays,
+ * indiziert über eine dichte Konto-Id (0, 1, 2, ...).
+ * <p>
+ * Fachliche Bedeutung:
+ * - Simulation von Privatkundenbeständen mit Millionen von Konten
+ * - Es gelten dieselben Regeln wie für einzelne {@link Konto}-Objekte: Beträge in
+ *   Cent, Buchungen atomar, Deckungsprüfung und Abbuchung in einem Schritt
+ * - {@link #gibKonto(int)} liefert ein {@link Konto} als schlanke Ansicht, damit
+ *   der {@link KontoService} und alle übrigen Aufrufer unverändert weiterarbeiten
+ * <p>
+ * Design-Entscheidungen:
+ * - Pro Konto 8 Byte statt eines eigenen Objekts (ca. 24 Byte plus Referenz);
+ *   für den Garbage Collector sind es wenige große Arrays statt Millionen Objekte
+ * - Die Konten liegen in Segmenten fester Größe ({@value #SEGMENT_GROESSE}). Beim
+ *   Wachsen wird nur die Segmenttabelle kopiert, nie ein Segment; so kann keine
+ *   Buchung auf einer veralteten Kopie verloren gehen
+ * <p>
+ * Technische Hinweise:
+ * - Lesen und Buchen sind sperrfrei (CAS auf das Array-Element)
+ * - Nur das Eröffnen von Konten ist synchronisiert
+ */
+public final class Kontobuch {
+
+    static final int SEGMENT_BITS = 16;
+    static final int SEGMENT_GROESSE = 1 << SEGMENT_BITS;
+    private static final int SEGMENT_MASKE = SEGMENT_GROESSE - 1;
+
+    private static final VarHandle ELEMENT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    // Segmenttabelle; wird beim Wachsen kopiert und über volatile veröffentlicht
+    private volatile long[][] segmente = new long[0][];
+    private volatile int anzahl;
+
+    /**
+     * Eröffnet ein neues Konto.
+     *
+     * @param startGuthabenCent Anfangsguthaben in Cent
+     * @return die Konto-Id
+     */
+    public int eroeffne(long startGuthabenCent) {
+        return eroeffne(1, startGuthabenCent);
+    }
+
+    /**
+     * Eröffnet mehrere Konten mit gleichem Anfangsguthaben auf einmal.
+     * Die Ids sind fortlaufend.
+     *
+     * @param anzahlKonten      Anzahl der neuen Konten
+     * @param startGuthabenCent Anfangsguthaben je Konto in Cent
+     * @return die Id des ersten neuen Kontos
+     * @throws IllegalArgumentException wenn die Anzahl nicht größer als 0 ist
+     * @throws IllegalStateException    wenn die maximale Anzahl Konten überschritten würde
+     */
+    public synchronized int eroeffne(int anzahlKonten, long startGuthabenCent) {
+        if (anzahlKonten <= 0) {
+            throw new IllegalArgumentException("Anzahl Konten muss größer als 0 sein");
+        }
+        int ersteId = anzahl;
+        if (Integer.MAX_VALUE - ersteId < anzahlKonten) {
+            throw new IllegalStateException("Zu viele Konten");
+        }
+        int neueAnzahl = ersteId + anzahlKonten;
+        int benoetigteSegmente = (int) (((long) neueAnzahl + SEGMENT_MASKE) >>> SEGMENT_BITS);
+        long[][] tabelle = segmente;
+        if (benoetigteSegmente > tabelle.length) {
+            tabelle = Arrays.copyOf(tabelle, benoetigteSegmente);
+            for (int s = segmente.length; s < benoetigteSegmente; s++) {
+                tabelle[s] = new long[SEGMENT_GROESSE];
+            }
+        }
+        if (startGuthabenCent != 0) {
+            for (int id = ersteId; id < neueAnzahl; ) {
+                long[] segment = tabelle[id >>> SEGMENT_BITS];
+                int von = id & SEGMENT_MASKE;
+                int bis = (int) Math.min(SEGMENT_GROESSE, von + (long) (neueAnzahl - id));
+                Arrays.fill(segment, von, bis, startGuthabenCent);
+                id += bis - von;
+            }
+        }
+        segmente = tabelle;
+        // Erst nach den Kontoständen veröffentlichen, damit jeder, der die Id sieht, auch das Guthaben sieht
+        anzahl = neueAnzahl;
+        return ersteId;
+    }
+
+    /**
+     * @return Anzahl der Konten; alle Ids liegen in [0, gibAnzahl())
+     */
+    public int gibAnzahl() {
+        return anzahl;
+    }
+
+    /**
+     * @param id die Konto-Id
+     * @return aktueller Kontostand in Cent
+     * @throws IllegalArgumentException wenn die Id nicht vergeben ist
+     */
+    public long gibKontostandCent(int id) {
+        pruefeId(id);
+        return (long) ELEMENT.getVolatile(segmente[id >>> SEGMENT_BITS], id & SEGMENT_MASKE);
+    }
+
+    /**
+     * Setzt den Kontostand ohne Prüfung, siehe {@link Konto#setKontostand(double)}.
+     *
+     * @param id                die Konto-Id
+     * @param kontostandCent    neuer Kontostand in Cent
+     * @throws IllegalArgumentException wenn die Id nicht vergeben ist
+     */
+    public void setzeKontostandCent(int id, long kontostandCent) {
+        pruefeId(id);
+        ELEMENT.setVolatile(segmente[id >>> SEGMENT_BITS], id & SEGMENT_MASKE, kontostandCent);
+    }
+
+    /**
+     * Ändert den Kontostand atomar, siehe {@link Konto#bucheAtomar(long, long)}.
+     *
+     * @param id              die Konto-Id
+     * @param betragCent      zu buchender Betrag in Cent (negativ = Abbuchung)
+     * @param untergrenzeCent kleinster erlaubter Kontostand nach der Buchung in Cent
+     * @return true, wenn gebucht wurde; false, wenn die Untergrenze unterschritten würde
+     * @throws IllegalArgumentException wenn die Id nicht vergeben ist
+     * @throws ArithmeticException      wenn der Kontostand den Wertebereich von long verlassen würde
+     */
+    public boolean bucheAtomar(int id, long betragCent, long untergrenzeCent) {
+        pruefeId(id);
+        return buche(segmente[id >>> SEGMENT_BITS], id & SEGMENT_MASKE, betragCent, untergrenzeCent);
+    }
+
+    /**
+     * Zahlt Beträge auf mehrere Konten ein.
+     * <p>
+     * Alle Einträge werden vorab geprüft; ist einer ungültig, wird nichts gebucht.
+     *
+     * @param ids          Konto-Ids
+     * @param betraegeCent Beträge in Cent, passend zu {@code ids}
+     * @param anzahlEintraege Anzahl der zu buchenden Einträge ab Index 0
+     * @throws IllegalArgumentException wenn eine Id nicht vergeben oder ein Betrag nicht größer als 0 ist
+     */
+    public void zahleEin(int[] ids, long[] betraegeCent, int anzahlEintraege) {
+        pruefeEintraege(ids, betraegeCent, anzahlEintraege);
+        long[][] tabelle = segmente;
+        for (int i = 0; i < anzahlEintraege; i++) {
+            int id = ids[i];
+            buche(tabelle[id >>> SEGMENT_BITS], id & SEGMENT_MASKE, betraegeCent[i], Long.MIN_VALUE);
+        }
+    }
+
+    /**
+     * Zahlt Beträge von mehreren Konten aus.
+     * <p>
+     * Alle Einträge werden vorab geprüft; ist einer ungültig, wird nichts gebucht.
+     * Nicht gedeckte Auszahlungen werden einzeln übersprungen, die übrigen gebucht.
+     *
+     * @param ids             Konto-Ids
+     * @param betraegeCent    Beträge in Cent, passend zu {@code ids}
+     * @param anzahlEintraege Anzahl der zu buchenden Einträge ab Index 0
+     * @param gebucht         optional (darf null sein): erhält pro Eintrag, ob gebucht wurde
+     * @return Anzahl der gebuchten Auszahlungen
+     * @throws IllegalArgumentException wenn eine Id nicht vergeben oder ein Betrag nicht größer als 0 ist
+     */
+    public int zahleAus(int[] ids, long[] betraegeCent, int anzahlEintraege, boolean[] gebucht) {
+        pruefeEintraege(ids, betraegeCent, anzahlEintraege);
+        if (gebucht != null && gebucht.length < anzahlEintraege) {
+            throw new IllegalArgumentException("Ergebnisarray zu kurz");
+        }
+        long[][] tabelle = segmente;
+        int erfolgreich = 0;
+        for (int i = 0; i < anzahlEintraege; i++) {
+            int id = ids[i];
+            boolean ok = buche(tabelle[id >>> SEGMENT_BITS], id & SEGMENT_MASKE, -betraegeCent[i], 0);
+            if (ok) {
+                erfolgreich++;
+            }
+            if (gebucht != null) {
+                gebucht[i] = ok;
+            }
+        }
+        return erfolgreich;
+    }
+
+    /**
+     * Übergibt alle Konten der Reihe nach an einen Verbraucher, z. B. für Auswertungen.
+     * <p>
+     * Die Kontostände werden einzeln gelesen; laufen gleichzeitig Buchungen, ist das
+     * Ergebnis kein Stichtagsstand über alle Konten.
+     *
+     * @param verbraucher erhält Konto-Id und Kontostand in Cent
+     */
+    public void fuerAlle(KontostandVerbraucher verbraucher) {
+        int n = anzahl;
+        long[][] tabelle = segmente;
+        for (int s = 0, id = 0; id < n; s++) {
+            long[] segment = tabelle[s];
+            int bis = Math.min(SEGMENT_GROESSE, n - id);
+            for (int i = 0; i < bis; i++) {
+                verbraucher.verarbeite(id + i, (long) ELEMENT.getVolatile(segment, i));
+            }
+            id += bis;
+        }
+    }
+
+    /**
+     * @return Summe aller Kontostände in Cent
+     * @throws ArithmeticException wenn die Summe den Wertebereich von long verlässt
+     */
+    public long gibSummeCent() {
+        long summe = 0;
+        int n = anzahl;
+        long[][] tabelle = segmente;
+        for (int s = 0, id = 0; id < n; s++) {
+            long[] segment = tabelle[s];
+            int bis = Math.min(SEGMENT_GROESSE, n - id);
+            for (int i = 0; i < bis; i++) {
+                summe = Math.addExact(summe, (long) ELEMENT.getVolatile(segment, i));
+            }
+            id += bis;
+        }
+        return summe;
+    }
+
+    /**
+     * Liefert eine Ansicht auf ein Konto. Die Ansicht hält keinen eigenen Kontostand,
+     * alle Zugriffe gehen auf dieses Kontobuch.
+     *
+     * @param id die Konto-Id
+     * @return das Konto
+     * @throws IllegalArgumentException wenn die Id nicht vergeben ist
+     */
+    public Konto gibKonto(int id) {
+        pruefeId(id);
+        return new Kontoansicht(this, id);
+    }
+
+    /**
+     * Liefert die Konto-Id eines Kontos, wenn es eine Ansicht auf dieses Kontobuch ist.
+     *
+     * @param konto das Konto
+     * @return die Konto-Id, oder -1 wenn das Konto nicht aus diesem Kontobuch stammt
+     */
+    public int gibId(Konto konto) {
+        if (konto instanceof Kontoansicht ansicht && ansicht.buch == this) {
+            return ansicht.id;
+        }
+        return -1;
+    }
+
+    private static boolean buche(long[] segment, int index, long betragCent, long untergrenzeCent) {
+        long alt = (long) ELEMENT.getVolatile(segment, index);
+        while (true) {
+            long neu = Math.addExact(alt, betragCent);
+            if (neu < untergrenzeCent) {
+                return false;
+            }
+            long gesehen = (long) ELEMENT.compareAndExchange(segment, index, alt, neu);
+            if (gesehen == alt) {
+                return true;
+            }
+            alt = gesehen;
+        }
+    }
+
+    private void pruefeId(int id) {
+        if (id < 0 || id >= anzahl) {
+            throw new IllegalArgumentException("Unbekannte Konto-Id: " + id);
+        }
+    }
+
+    private void pruefeEintraege(int[] ids, long[] betraegeCent, int anzahlEintraege) {
+        if (anzahlEintraege < 0 || anzahlEintraege > ids.length || anzahlEintraege > betraegeCent.length) {
+            throw new IllegalArgumentException("Ungültige Anzahl Einträge: " + anzahlEintraege);
+        }
+        int n = anzahl;
+        for (int i = 0; i < anzahlEintraege; i++) {
+            if (ids[i] < 0 || ids[i] >= n) {
+                throw new IllegalArgumentException("Unbekannte Konto-Id: " + ids[i]);
+            }
+            if (betraegeCent[i] <= 0) {
+                throw new IllegalArgumentException("Betrag muss größer als 0 sein: " + betraegeCent[i]);
+            }
+        }
+    }
+
+    /**
+     * Verbraucher für {@link #fuerAlle(KontostandVerbraucher)}; ohne Boxing der Werte.
+     */
+    @FunctionalInterface
+    public interface KontostandVerbraucher {
+        void verarbeite(int id, long kontostandCent);
+    }
+
+    /**
+     * {@link Konto} ohne eigenen Kontostand; liest und bucht im Kontobuch.
+     */
+    private static final class Kontoansicht extends Konto {
+
+        private final Kontobuch buch;
+        private final int id;
+
+        private Kontoansicht(Kontobuch buch, int id) {
+            this.buch = buch;
+            this.id = id;
+        }
+
+        @Override
+        public long getKontostandCent() {
+            return buch.gibKontostandCent(id);
+        }
+
+        @Override
+        public boolean bucheAtomar(long betragCent, long untergrenzeCent) {
+            return buch.bucheAtomar(id, betragCent, untergrenzeCent);
+        }
+
+        @Override
+        public void setKontostand(double kontostand) {
+            buch.setzeKontostandCent(id, Konto.inCent(kontostand));
+        }
+    }
+}
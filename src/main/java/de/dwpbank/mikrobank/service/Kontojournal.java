@@ -0,0 +1,568 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Konto;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Journal aller Kontoeröffnungen und Buchungen eines {@link Kontobuch}s.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Nach einem Absturz lassen sich alle Kontostände aus einem Schnappschuss und den
+ *   danach journalisierten Buchungen wiederherstellen ({@link #stelleWiederHer(Path, Path)})
+ * - Buchung im Kontobuch und Eintrag im Journal sind ein Schritt unter derselben
+ *   Sperre ({@link #bucheUndSchreibe}): die Reihenfolge im Journal ist die Reihenfolge,
+ *   in der die Buchungen sichtbar werden. Jeder gesicherte Anfang des Journals ist
+ *   damit in sich stimmig – eine gesicherte Auszahlung hat ihre Deckung immer vor sich
+ * - Bestätigt wird eine Buchung dem Aufrufer erst, wenn ihr Eintrag dauerhaft auf dem
+ *   Datenträger steht ({@link #synchronisiere(long)}); nach einem Absturz fehlen daher
+ *   höchstens Buchungen, die noch nicht bestätigt waren
+ * <p>
+ * Dateiformat Journal (Little Endian), Einträge fester Länge:
+ * <pre>
+ * Offset  Länge  Inhalt
+ *      0      4  Kennung 0x4B4A524E ("KJRN")
+ *      4      4  Formatversion (1)
+ *  8+16n      4  Konto-Id (bei Eröffnung: erste Id)
+ *     +4      4  Anzahl eröffneter Konten; 0 = Buchung
+ *     +8      8  Betrag in Cent (bei Eröffnung: Startguthaben je Konto)
+ * </pre>
+ * Dateiformat Schnappschuss:
+ * <pre>
+ *      0      4  Kennung 0x4B534E50 ("KSNP")
+ *      4      4  Formatversion (1)
+ *      8      8  Anzahl der Journaleinträge, die im Schnappschuss enthalten sind
+ *     16      4  Anzahl Konten K
+ *     20  K * 8  Kontostände in Cent nach Konto-Id
+ * </pre>
+ * Design-Entscheidungen:
+ * - Group Commit: Einträge werden nur in einen Puffer gehängt; wer auf Dauerhaftigkeit
+ *   wartet, schreibt den Puffer und ruft {@code force} auf – für alle Einträge, die
+ *   bis dahin von beliebigen Threads angehängt wurden. Ein {@code fsync} deckt so
+ *   unter Last viele Buchungen ab
+ * - Es gibt keinen eigenen Schreib-Thread; der erste wartende Thread übernimmt das
+ *   Schreiben, alle übrigen warten gemeinsam auf dessen Ende und finden ihren
+ *   Eintrag danach meist schon gesichert vor; nur wer noch nicht enthalten ist,
+ *   schreibt als Nächster
+ * - Wiederherstellung addiert alle Beträge auf; die Reihenfolge der Einträge
+ *   verschiedener Threads spielt dafür keine Rolle
+ * <p>
+ * Technische Hinweise:
+ * - Ein unvollständiger letzter Eintrag (Absturz beim Schreiben) wird beim Öffnen
+ *   abgeschnitten; er war noch nicht bestätigt
+ * - Ein Eintrag aus lauter Nullen ist eine Buchung über 0 Cent und ändert nichts
+ * - Scheitert Schreiben oder {@code force}, wird die Datei auf den letzten gesicherten
+ *   Eintrag zurückgeschnitten und das Journal gesperrt: jeder Thread, dessen Eintrag
+ *   noch nicht gesichert war, erhält eine {@link UncheckedIOException}, weitere
+ *   Buchungen werden abgelehnt, bevor sie das Kontobuch ändern. Der {@link KontoService}
+ *   nimmt nicht gesicherte Buchungen im Speicher wieder zurück. Scheitert auch das
+ *   Zurückschneiden, können nach dem Neustart unbestätigte Einträge des gescheiterten
+ *   Commits enthalten sein
+ */
+public final class Kontojournal implements AutoCloseable {
+
+    static final int KENNUNG = 0x4B4A524E;
+    static final int SCHNAPPSCHUSS_KENNUNG = 0x4B534E50;
+    static final int VERSION = 1;
+    static final int KOPF_GROESSE = 8;
+    static final int EINTRAG_GROESSE = 16;
+
+    private static final int PUFFER_GROESSE = 64 * 1024;
+
+    private final Path pfad;
+    private final FileChannel kanal;
+
+    // Schützt puffer und angehaengt; wird nur für Buchen und Anhängen kurz gehalten
+    private final Object anhaengeSperre = new Object();
+    // Schützt schreibtGerade; nur der schreibende Thread benutzt reserve und den Kanal
+    private final ReentrantLock commitSperre = new ReentrantLock();
+    private final Condition commitFertig = commitSperre.newCondition();
+    private boolean schreibtGerade;
+
+    private ByteBuffer puffer = neuerPuffer(PUFFER_GROESSE);
+    private ByteBuffer reserve = neuerPuffer(PUFFER_GROESSE);
+    private long angehaengt;
+    private volatile long gesichert;
+    private volatile long anzahlCommits;
+    private volatile boolean geschlossen;
+    // Erster Schreibfehler; danach wird nichts mehr gesichert
+    private volatile UncheckedIOException fehler;
+
+    private Kontojournal(Path pfad, FileChannel kanal, long eintraege) {
+        this.pfad = pfad;
+        this.kanal = kanal;
+        this.angehaengt = eintraege;
+        this.gesichert = eintraege;
+    }
+
+    /**
+     * Öffnet ein Journal zum Anhängen; existiert die Datei nicht, wird sie angelegt.
+     *
+     * @param pfad Pfad der Journaldatei
+     * @return das Journal
+     * @throws IllegalStateException wenn die Datei kein gültiges Journal ist
+     * @throws UncheckedIOException  bei Ein-/Ausgabefehlern
+     */
+    public static Kontojournal oeffne(Path pfad) {
+        try {
+            return oeffne(pfad, FileChannel.open(pfad, StandardOpenOption.CREATE,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal " + pfad + " kann nicht geöffnet werden", e);
+        }
+    }
+
+    /**
+     * Öffnet ein Journal auf einem bereits geöffneten Kanal; für Tests, die Schreibfehler
+     * auslösen. Der Kanal gehört danach dem Journal.
+     */
+    static Kontojournal oeffne(Path pfad, FileChannel kanal) {
+        try {
+            try {
+                long groesse = kanal.size();
+                if (groesse == 0) {
+                    ByteBuffer kopf = neuerPuffer(KOPF_GROESSE).putInt(KENNUNG).putInt(VERSION).flip();
+                    while (kopf.hasRemaining()) {
+                        kanal.write(kopf);
+                    }
+                    kanal.force(true);
+                    return new Kontojournal(pfad, kanal, 0);
+                }
+                pruefeKopf(kanal, pfad);
+                long eintraege = (groesse - KOPF_GROESSE) / EINTRAG_GROESSE;
+                // Unvollständigen letzten Eintrag abschneiden
+                kanal.truncate(KOPF_GROESSE + eintraege * EINTRAG_GROESSE);
+                kanal.position(KOPF_GROESSE + eintraege * EINTRAG_GROESSE);
+                return new Kontojournal(pfad, kanal, eintraege);
+            } catch (IOException | RuntimeException e) {
+                kanal.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal " + pfad + " kann nicht geöffnet werden", e);
+        }
+    }
+
+    /**
+     * Hängt eine Buchung an. Der Eintrag ist danach noch nicht dauerhaft gesichert.
+     *
+     * @param kontoId    die Konto-Id
+     * @param betragCent gebuchter Betrag in Cent (negativ = Abbuchung)
+     * @return Anzahl der Einträge einschließlich dieses; für {@link #synchronisiere(long)}
+     * @throws IllegalStateException wenn das Journal geschlossen oder nach einem Schreibfehler gesperrt ist
+     */
+    public long schreibeBuchung(int kontoId, long betragCent) {
+        return haengeAn(kontoId, 0, betragCent);
+    }
+
+    /**
+     * Hängt die Eröffnung fortlaufender Konten an.
+     *
+     * @param ersteId           Id des ersten Kontos
+     * @param anzahlKonten      Anzahl der Konten
+     * @param startGuthabenCent Anfangsguthaben je Konto in Cent
+     * @return Anzahl der Einträge einschließlich dieses; für {@link #synchronisiere(long)}
+     * @throws IllegalArgumentException wenn die Anzahl nicht größer als 0 ist
+     * @throws IllegalStateException    wenn das Journal geschlossen oder nach einem Schreibfehler gesperrt ist
+     */
+    public long schreibeEroeffnung(int ersteId, int anzahlKonten, long startGuthabenCent) {
+        if (anzahlKonten <= 0) {
+            throw new IllegalArgumentException("Anzahl Konten muss größer als 0 sein");
+        }
+        return haengeAn(ersteId, anzahlKonten, startGuthabenCent);
+    }
+
+    /**
+     * Bucht atomar auf ein Konto des Kontobuchs und hängt die Buchung im selben Schritt an.
+     * <p>
+     * Zwischen Buchung und Eintrag kann kein anderer Thread buchen; die Reihenfolge
+     * im Journal entspricht so der Reihenfolge, in der die Buchungen sichtbar werden.
+     * Ein geschlossenes oder gesperrtes Journal lehnt ab, bevor der Kontostand sich ändert.
+     *
+     * @param konto           das Konto
+     * @param kontoId         seine Id im Kontobuch
+     * @param betragCent      Betrag in Cent (negativ = Abbuchung)
+     * @param untergrenzeCent Kontostand, der nach der Buchung nicht unterschritten werden darf
+     * @return Anzahl der Einträge einschließlich dieses, oder -1, wenn die Untergrenze
+     * unterschritten würde und nichts gebucht wurde
+     * @throws IllegalStateException wenn das Journal geschlossen oder nach einem Schreibfehler gesperrt ist
+     */
+    long bucheUndSchreibe(Konto konto, int kontoId, long betragCent, long untergrenzeCent) {
+        synchronized (anhaengeSperre) {
+            pruefeOffen();
+            return haengeBuchungAn(konto, kontoId, betragCent, untergrenzeCent);
+        }
+    }
+
+    /**
+     * @return die Sperre, unter der gebucht und angehängt wird; wer sie hält, kann mehrere
+     * Buchungen ohne fremde dazwischen anhängen ({@link #haengeBuchungAn}, {@link #haengeEroeffnungAn}).
+     * Solange sie gehalten wird, beginnt auch kein Commit: alle so angehängten Einträge
+     * werden gemeinsam gesichert oder gar nicht
+     */
+    Object gibReihenfolgeSperre() {
+        return anhaengeSperre;
+    }
+
+    /**
+     * Prüft, ob das Journal noch Einträge annimmt; nur unter {@link #gibReihenfolgeSperre()}.
+     *
+     * @throws IllegalStateException wenn das Journal geschlossen oder nach einem Schreibfehler gesperrt ist
+     */
+    void pruefeOffen() {
+        if (geschlossen) {
+            throw new IllegalStateException("Journal " + pfad + " ist geschlossen");
+        }
+        if (fehler != null) {
+            throw new IllegalStateException("Journal " + pfad + " ist nach einem Schreibfehler gesperrt", fehler);
+        }
+    }
+
+    /**
+     * Wie {@link #bucheUndSchreibe}, aber ohne Prüfung; nur unter {@link #gibReihenfolgeSperre()}
+     * nach {@link #pruefeOffen()}. Scheitert das Journal währenddessen, meldet das erst
+     * {@link #synchronisiere(long)}.
+     */
+    long haengeBuchungAn(Konto konto, int kontoId, long betragCent, long untergrenzeCent) {
+        if (!konto.bucheAtomar(betragCent, untergrenzeCent)) {
+            return -1;
+        }
+        return fuegeEin(kontoId, 0, betragCent);
+    }
+
+    /**
+     * Hängt eine Eröffnung ohne Prüfung an; nur unter {@link #gibReihenfolgeSperre()}
+     * nach {@link #pruefeOffen()}.
+     */
+    long haengeEroeffnungAn(int ersteId, int anzahlKonten, long startGuthabenCent) {
+        return fuegeEin(ersteId, anzahlKonten, startGuthabenCent);
+    }
+
+    private long haengeAn(int kontoId, int anzahlKonten, long betragCent) {
+        synchronized (anhaengeSperre) {
+            pruefeOffen();
+            return fuegeEin(kontoId, anzahlKonten, betragCent);
+        }
+    }
+
+    private long fuegeEin(int kontoId, int anzahlKonten, long betragCent) {
+        if (puffer.remaining() < EINTRAG_GROESSE) {
+            ByteBuffer groesser = neuerPuffer(puffer.capacity() * 2);
+            groesser.put(puffer.flip());
+            puffer = groesser;
+        }
+        puffer.putInt(kontoId).putInt(anzahlKonten).putLong(betragCent);
+        return ++angehaengt;
+    }
+
+    /**
+     * Wartet, bis alle Einträge bis einschließlich {@code bisEintrag} dauerhaft gesichert sind.
+     * <p>
+     * Schreibt dabei alle bis dahin angehängten Einträge aller Threads mit einem
+     * einzigen {@code force}. Scheitert ein Commit, wirft dieser Aufruf – wie jeder
+     * weitere für einen noch nicht gesicherten Eintrag – eine {@link UncheckedIOException}.
+     *
+     * @param bisEintrag Rückgabewert von {@link #schreibeBuchung}, {@link #schreibeEroeffnung}
+     *                   oder {@link #bucheUndSchreibe}
+     * @throws UncheckedIOException bei Ein-/Ausgabefehlern, auch eines früheren Commits
+     */
+    public void synchronisiere(long bisEintrag) {
+        if (gesichert >= bisEintrag) {
+            return;
+        }
+        commitSperre.lock();
+        try {
+            while (gesichert < bisEintrag) {
+                if (fehler != null) {
+                    // Der Eintrag war im gescheiterten Commit oder kann nicht mehr folgen
+                    throw new UncheckedIOException("Eintrag " + bisEintrag + " in Journal " + pfad
+                            + " ist nicht gesichert", fehler.getCause());
+                }
+                if (schreibtGerade) {
+                    // Der laufende Commit nimmt unseren Eintrag womöglich schon mit
+                    commitFertig.awaitUninterruptibly();
+                    continue;
+                }
+                schreibtGerade = true;
+                commitSperre.unlock();
+                long bis = -1;
+                try {
+                    bis = schreibePuffer();
+                } finally {
+                    commitSperre.lock();
+                    schreibtGerade = false;
+                    if (bis >= 0) {
+                        anzahlCommits++;
+                        gesichert = bis;
+                    }
+                    commitFertig.signalAll();
+                }
+            }
+        } finally {
+            commitSperre.unlock();
+        }
+    }
+
+    /**
+     * Schreibt alle angehängten Einträge und wartet auf den Datenträger. Läuft ohne
+     * Commit-Sperre, damit Wartende sich währenddessen für den nächsten Commit anstellen.
+     * <p>
+     * Bei einem Fehler wird die Datei auf den letzten gesicherten Eintrag zurückgeschnitten,
+     * damit kein halber oder unbestätigter Eintrag stehen bleibt, und das Journal gesperrt.
+     *
+     * @return Anzahl der Einträge, die danach gesichert sind
+     */
+    private long schreibePuffer() {
+        ByteBuffer voll;
+        long bis;
+        synchronized (anhaengeSperre) {
+            voll = puffer;
+            puffer = reserve;
+            bis = angehaengt;
+        }
+        long anfang = KOPF_GROESSE + gesichert * EINTRAG_GROESSE;
+        try {
+            voll.flip();
+            schreibeVoll(kanal, voll);
+            kanal.force(false);
+        } catch (IOException e) {
+            try {
+                kanal.truncate(anfang);
+                kanal.position(anfang);
+                kanal.force(false);
+            } catch (IOException weiterer) {
+                e.addSuppressed(weiterer);
+            }
+            UncheckedIOException f = new UncheckedIOException("Journal " + pfad + " kann nicht geschrieben werden", e);
+            fehler = f;
+            throw f;
+        } finally {
+            voll.clear();
+            // Nur der schreibende Thread benutzt die Reserve
+            reserve = voll;
+        }
+        return bis;
+    }
+
+    /**
+     * @return Anzahl aller angehängten Einträge
+     */
+    public long gibAnzahlEintraege() {
+        synchronized (anhaengeSperre) {
+            return angehaengt;
+        }
+    }
+
+    /**
+     * @return Anzahl der dauerhaft gesicherten Einträge
+     */
+    public long gibAnzahlGesichert() {
+        return gesichert;
+    }
+
+    /**
+     * @return Anzahl der {@code force}-Aufrufe seit dem Öffnen; im Verhältnis zu den
+     * Einträgen ein Maß dafür, wie gut Group Commit bündelt
+     */
+    public long gibAnzahlCommits() {
+        return anzahlCommits;
+    }
+
+    /**
+     * Schreibt einen Schnappschuss aller Kontostände. Nach der Wiederherstellung aus
+     * diesem Schnappschuss werden nur noch die danach angehängten Journaleinträge angewendet.
+     * <p>
+     * Darf nur aufgerufen werden, wenn keine Buchungen laufen (z. B. zum Handelsschluss),
+     * sonst passen Kontostände und Journalstand nicht zusammen. Die Datei wird erst
+     * vollständig geschrieben und dann atomar umbenannt.
+     *
+     * @param kontobuch das Kontobuch, dessen Buchungen dieses Journal enthält
+     * @param ziel      Pfad der Schnappschussdatei; eine vorhandene Datei wird ersetzt
+     * @throws UncheckedIOException bei Ein-/Ausgabefehlern
+     */
+    public void schreibeSchnappschuss(Kontobuch kontobuch, Path ziel) {
+        synchronisiere(gibAnzahlEintraege());
+        long eintraege = gesichert;
+        int konten = kontobuch.gibAnzahl();
+        Path temp = ziel.resolveSibling(ziel.getFileName() + ".tmp");
+        try (FileChannel aus = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            ByteBuffer block = neuerPuffer(PUFFER_GROESSE);
+            block.putInt(SCHNAPPSCHUSS_KENNUNG).putInt(VERSION).putLong(eintraege).putInt(konten);
+            for (int id = 0; id < konten; id++) {
+                if (block.remaining() < 8) {
+                    schreibeVoll(aus, block.flip());
+                    block.clear();
+                }
+                block.putLong(kontobuch.gibKontostandCent(id));
+            }
+            schreibeVoll(aus, block.flip());
+            aus.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Schnappschuss " + ziel + " kann nicht geschrieben werden", e);
+        }
+        try {
+            Files.move(temp, ziel, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Schnappschuss " + ziel + " kann nicht angelegt werden", e);
+        }
+    }
+
+    /**
+     * Stellt ein Kontobuch aus Schnappschuss und Journal wieder her.
+     * <p>
+     * Die Konto-Ids sind danach dieselben wie vor dem Absturz. Zum Weiterbuchen wird
+     * das Journal mit {@link #oeffne(Path)} wieder geöffnet.
+     *
+     * @param schnappschuss Schnappschussdatei oder null, wenn das Journal von Anfang an gilt
+     * @param journal       Journaldatei
+     * @return das wiederhergestellte Kontobuch
+     * @throws IllegalStateException wenn eine Datei ungültig ist oder nicht zusammenpasst
+     * @throws UncheckedIOException  bei Ein-/Ausgabefehlern
+     */
+    public static Kontobuch stelleWiederHer(Path schnappschuss, Path journal) {
+        long[] staende = new long[1024];
+        int konten = 0;
+        long ab = 0;
+
+        if (schnappschuss != null) {
+            try (FileChannel ein = FileChannel.open(schnappschuss, StandardOpenOption.READ)) {
+                ByteBuffer kopf = neuerPuffer(20);
+                liesVoll(ein, kopf, schnappschuss);
+                if (kopf.getInt(0) != SCHNAPPSCHUSS_KENNUNG || kopf.getInt(4) != VERSION) {
+                    throw new IllegalStateException("Kein gültiger Schnappschuss: " + schnappschuss);
+                }
+                ab = kopf.getLong(8);
+                konten = kopf.getInt(16);
+                if (konten < 0 || ein.size() != 20 + 8L * konten) {
+                    throw new IllegalStateException("Beschädigter Schnappschuss: " + schnappschuss);
+                }
+                staende = new long[Math.max(konten, 1024)];
+                ByteBuffer block = neuerPuffer(PUFFER_GROESSE);
+                for (int id = 0; id < konten; ) {
+                    block.clear().limit((int) Math.min(block.capacity(), 8L * (konten - id)));
+                    liesVoll(ein, block, schnappschuss);
+                    block.flip();
+                    while (block.hasRemaining()) {
+                        staende[id++] = block.getLong();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Schnappschuss " + schnappschuss + " kann nicht gelesen werden", e);
+            }
+        }
+
+        try (FileChannel ein = FileChannel.open(journal, StandardOpenOption.READ)) {
+            pruefeKopf(ein, journal);
+            long eintraege = (ein.size() - KOPF_GROESSE) / EINTRAG_GROESSE;
+            if (eintraege < ab) {
+                throw new IllegalStateException("Schnappschuss " + schnappschuss + " ist neuer als Journal " + journal);
+            }
+            ein.position(KOPF_GROESSE + ab * EINTRAG_GROESSE);
+            ByteBuffer block = neuerPuffer(PUFFER_GROESSE - PUFFER_GROESSE % EINTRAG_GROESSE);
+            for (long n = ab; n < eintraege; ) {
+                block.clear().limit((int) Math.min(block.capacity(), (eintraege - n) * EINTRAG_GROESSE));
+                liesVoll(ein, block, journal);
+                block.flip();
+                while (block.hasRemaining()) {
+                    int id = block.getInt();
+                    int anzahl = block.getInt();
+                    long betrag = block.getLong();
+                    n++;
+                    int bis = anzahl == 0 ? id + 1 : id + anzahl;
+                    if (id < 0 || anzahl < 0 || bis < id) {
+                        throw new IllegalStateException("Beschädigter Eintrag " + (n - 1) + " in " + journal);
+                    }
+                    if (bis > staende.length) {
+                        staende = Arrays.copyOf(staende, Math.max(bis, staende.length * 2));
+                    }
+                    konten = Math.max(konten, bis);
+                    for (int k = id; k < bis; k++) {
+                        staende[k] = Math.addExact(staende[k], betrag);
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Journal " + journal + " kann nicht gelesen werden", e);
+        }
+
+        Kontobuch kontobuch = new Kontobuch();
+        if (konten > 0) {
+            kontobuch.eroeffne(konten, 0);
+            for (int id = 0; id < konten; id++) {
+                if (staende[id] != 0) {
+                    kontobuch.setzeKontostandCent(id, staende[id]);
+                }
+            }
+        }
+        return kontobuch;
+    }
+
+    /**
+     * Sichert alle angehängten Einträge und schließt die Datei. Die Datei wird auch dann
+     * geschlossen, wenn das Sichern scheitert.
+     *
+     * @throws UncheckedIOException bei Ein-/Ausgabefehlern
+     */
+    @Override
+    public void close() {
+        long bis;
+        synchronized (anhaengeSperre) {
+            if (geschlossen) {
+                return;
+            }
+            geschlossen = true;
+            bis = angehaengt;
+        }
+        try {
+            synchronisiere(bis);
+        } finally {
+            try {
+                kanal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Journal " + pfad + " kann nicht geschlossen werden", e);
+            }
+        }
+    }
+
+    private static void pruefeKopf(FileChannel kanal, Path pfad) throws IOException {
+        ByteBuffer kopf = neuerPuffer(KOPF_GROESSE);
+        kanal.position(0);
+        liesVoll(kanal, kopf, pfad);
+        if (kopf.getInt(0) != KENNUNG) {
+            throw new IllegalStateException("Kein gültiges Journal: " + pfad);
+        }
+        if (kopf.getInt(4) != VERSION) {
+            throw new IllegalStateException("Nicht unterstützte Version " + kopf.getInt(4) + " in " + pfad);
+        }
+    }
+
+    private static void liesVoll(FileChannel kanal, ByteBuffer ziel, Path pfad) throws IOException {
+        while (ziel.hasRemaining()) {
+            if (kanal.read(ziel) < 0) {
+                throw new IllegalStateException("Beschädigte Datei: " + pfad);
+            }
+        }
+    }
+
+    private static void schreibeVoll(FileChannel kanal, ByteBuffer daten) throws IOException {
+        while (daten.hasRemaining()) {
+            kanal.write(daten);
+        }
+    }
+
+    private static ByteBuffer neuerPuffer(int groesse) {
+        return ByteBuffer.allocate(groesse).order(ByteOrder.LITTLE_ENDIAN);
+    }
+}
@@ -0,0 +1,75 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Kursmeldung;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.Flow;
+
+/**
+ * Abonnent des {@link Marktdatenbus}, der jede Kursmeldung im {@link KursService} speichert.
+ * <p>
+ * Beispiel:
+ * <pre>
+ * bus.subscribe(new KursAbonnent(kursService));
+ * </pre>
+ * <p>
+ * Technische Hinweise:
+ * - Fordert Meldungen in Paketen an ({@link #PAKET}) und fordert nach der Hälfte
+ *   nach, damit der Bus nicht bei jeder Meldung auf eine Anforderung warten muss
+ * - Ungültige Meldungen (z. B. Kurs ≤ 0) werden vom KursService abgelehnt und
+ *   übersprungen, das Abonnement läuft weiter
+ * - Fasst der Bus bei vollem Puffer Meldungen zusammen, fehlen diese Ticks in der
+ *   Historie; gespeichert wird immer der jüngste Kurs
+ */
+@Slf4j
+public class KursAbonnent implements Flow.Subscriber<Kursmeldung> {
+
+    /** Anzahl der Meldungen, die auf einmal angefordert werden. */
+    public static final int PAKET = 64;
+
+    private final KursService kursService;
+    private Flow.Subscription abonnement;
+    private int offen;
+
+    /**
+     * @param kursService der KursService, in dem die Kurse gespeichert werden
+     * @throws IllegalArgumentException wenn der KursService null ist
+     */
+    public KursAbonnent(KursService kursService) {
+        if (kursService == null) {
+            throw new IllegalArgumentException("KursService darf nicht null sein");
+        }
+        this.kursService = kursService;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription abonnement) {
+        this.abonnement = abonnement;
+        this.offen = PAKET;
+        abonnement.request(PAKET);
+    }
+
+    @Override
+    public void onNext(Kursmeldung meldung) {
+        try {
+            kursService.speichereKurs(meldung.getInstrumentId(), meldung.getKurs(),
+                    meldung.getZeitstempel(), meldung.getVolumen());
+        } catch (IllegalArgumentException e) {
+            log.debug("Kursmeldung übersprungen: {}", e.getMessage());
+        }
+        if (--offen <= PAKET / 2) {
+            abonnement.request(PAKET - offen);
+            offen = PAKET;
+        }
+    }
+
+    @Override
+    public void onError(Throwable fehler) {
+        log.warn("Marktdatenbus meldet Fehler: {}", fehler.getMessage());
+    }
+
+    @Override
+    public void onComplete() {
+        log.debug("Marktdatenbus geschlossen");
+    }
+}
@@ -0,0 +1,124 @@
+package de.dwpbank.mikrobank.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Verzeichnis mit persistenten Kurshistorien, eine {@link KursArchivDatei} pro Aktie.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Kurse überleben einen Neustart, der HandelsRoboter muss nicht erst wieder
+ *   zehn Ticks abwarten, bevor er einen Trend erkennt
+ * <p>
+ * Technische Hinweise:
+ * - Pro Aktie gibt es eine Datei {@code <Aktienname>.kurse} (Name URL-kodiert)
+ * - Beim Start werden die Dateien nur eingeblendet, nicht eingelesen; auch
+ *   tausende Aktien sind damit in Millisekunden verfügbar
+ * - Die Daten liegen im Page-Cache des Betriebssystems, nicht im Java-Heap
+ * <p>
+ * Beispiel:
+ * <pre>
+ * try (KursArchiv archiv = new KursArchiv(Path.of("kurse"))) {
+ *     KursService kursService = new KursService(archiv);
+ *     ...
+ * }
+ * </pre>
+ */
+public class KursArchiv implements AutoCloseable {
+
+    /** Standard-Kapazität einer neuen Archivdatei: 65.536 Ticks (1 MiB pro Aktie). */
+    public static final int STANDARD_KAPAZITAET = 1 << 16;
+
+    private static final String ENDUNG = ".kurse";
+
+    private final Path verzeichnis;
+    private final int kapazitaet;
+    private final Map<String, KursArchivDatei> dateien = new ConcurrentHashMap<>();
+
+    /**
+     * Öffnet ein Archivverzeichnis mit der Standard-Kapazität für neue Dateien.
+     *
+     * @param verzeichnis Verzeichnis der Archivdateien (wird bei Bedarf angelegt)
+     */
+    public KursArchiv(Path verzeichnis) {
+        this(verzeichnis, STANDARD_KAPAZITAET);
+    }
+
+    /**
+     * Öffnet ein Archivverzeichnis und blendet alle vorhandenen Archivdateien ein.
+     *
+     * @param verzeichnis Verzeichnis der Archivdateien (wird bei Bedarf angelegt)
+     * @param kapazitaet  Anzahl der Ticks pro neu angelegter Datei
+     * @throws IllegalArgumentException wenn die Kapazität kleiner als 1 ist
+     * @throws UncheckedIOException     bei Ein-/Ausgabefehlern
+     */
+    public KursArchiv(Path verzeichnis, int kapazitaet) {
+        if (kapazitaet < 1) {
+            throw new IllegalArgumentException("Kapazität muss größer als 0 sein");
+        }
+        this.verzeichnis = verzeichnis;
+        this.kapazitaet = kapazitaet;
+        try {
+            Files.createDirectories(verzeichnis);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(verzeichnis, "*" + ENDUNG)) {
+                for (Path pfad : stream) {
+                    String dateiname = pfad.getFileName().toString();
+                    String kodiert = dateiname.substring(0, dateiname.length() - ENDUNG.length());
+                    String aktieName = URLDecoder.decode(kodiert, StandardCharsets.UTF_8);
+                    dateien.put(aktieName, KursArchivDatei.oeffne(pfad, kapazitaet));
+                }
+            }
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException("Kursarchiv " + verzeichnis + " kann nicht geöffnet werden", e);
+        } catch (RuntimeException e) {
+            close();
+            throw e;
+        }
+    }
+
+    /**
+     * @return Namen aller Aktien, für die eine Archivdatei existiert
+     */
+    public List<String> gibAktienNamen() {
+        return new ArrayList<>(dateien.keySet());
+    }
+
+    /**
+     * Liefert die Archivdatei einer Aktie und legt sie bei Bedarf an.
+     *
+     * @param aktieName der Name der Aktie
+     * @return die eingeblendete Archivdatei
+     */
+    public KursArchivDatei gibDatei(String aktieName) {
+        return dateien.computeIfAbsent(aktieName, name -> KursArchivDatei.oeffne(
+                verzeichnis.resolve(URLEncoder.encode(name, StandardCharsets.UTF_8) + ENDUNG), kapazitaet));
+    }
+
+    /**
+     * Schreibt alle geänderten Seiten aller Archivdateien auf den Datenträger.
+     */
+    public void synchronisiere() {
+        for (KursArchivDatei datei : dateien.values()) {
+            datei.synchronisiere();
+        }
+    }
+
+    @Override
+    public void close() {
+        for (KursArchivDatei datei : dateien.values()) {
+            datei.close();
+        }
+        dateien.clear();
+    }
+}
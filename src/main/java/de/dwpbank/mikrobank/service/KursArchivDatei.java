@@ -0,0 +1,195 @@
+package de.dwpbank.mikrobank.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Persistente Kurshistorie einer Aktie in einer memory-mapped Datei.
+ * <p>
+ * Dateiformat (Little Endian, feste Größe):
+ * <pre>
+ * Offset  Länge  Inhalt
+ *      0      4  Kennung 0x4B555253 ("KURS")
+ *      4      4  Formatversion (1)
+ *      8      4  Kapazität N (Anzahl Datensätze)
+ *     12      4  reserviert
+ *     16      8  Anzahl insgesamt geschriebener Ticks (wächst monoton)
+ *     24     40  reserviert
+ *     64  N * 16 Datensätze als Ringpuffer: long Zeitstempel (ms), double Kurs
+ * </pre>
+ * Technische Hinweise:
+ * - Die Datei wird einmal per {@link FileChannel#map} eingeblendet, Lesen und
+ *   Schreiben erfolgt direkt im Page-Cache, nicht im Java-Heap
+ * - Der Kanal wird direkt nach dem Einblenden geschlossen; die Einblendung bleibt
+ *   gültig, so belegt auch ein Archiv mit tausenden Aktien keine Dateideskriptoren
+ * - Ein Tick wird zuerst als Datensatz geschrieben, danach wird der Zähler erhöht;
+ *   nach einem Prozessabsturz ist der Zähler daher nie größer als die Daten
+ * - Schreiben ist nicht thread-sicher, der {@link KursEintrag} sorgt für genau
+ *   einen Schreiber pro Aktie
+ */
+public class KursArchivDatei implements AutoCloseable {
+
+    static final int KENNUNG = 0x4B555253;
+    static final int VERSION = 1;
+    static final int KOPF_GROESSE = 64;
+    static final int DATENSATZ_GROESSE = 16;
+
+    private static final int OFFSET_KAPAZITAET = 8;
+    private static final int OFFSET_ANZAHL = 16;
+
+    private final Path pfad;
+    private final MappedByteBuffer puffer;
+    private final int kapazitaet;
+
+    private KursArchivDatei(Path pfad, MappedByteBuffer puffer, int kapazitaet) {
+        this.pfad = pfad;
+        this.puffer = puffer;
+        this.kapazitaet = kapazitaet;
+    }
+
+    /**
+     * Öffnet eine vorhandene Archivdatei oder legt eine neue an.
+     * <p>
+     * Bei einer vorhandenen Datei gilt die Kapazität aus dem Dateikopf.
+     *
+     * @param pfad       Pfad der Datei
+     * @param kapazitaet Anzahl der Datensätze für eine neue Datei
+     * @return die eingeblendete Datei
+     * @throws IllegalStateException wenn eine vorhandene Datei kein gültiges Kursarchiv ist
+     * @throws UncheckedIOException  bei Ein-/Ausgabefehlern
+     */
+    static KursArchivDatei oeffne(Path pfad, int kapazitaet) {
+        try {
+            boolean neu = !Files.exists(pfad) || Files.size(pfad) == 0;
+            try (FileChannel kanal = FileChannel.open(pfad,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                if (!neu) {
+                    kapazitaet = leseKapazitaet(pfad, kanal);
+                }
+                long groesse = KOPF_GROESSE + (long) kapazitaet * DATENSATZ_GROESSE;
+                MappedByteBuffer puffer = kanal.map(FileChannel.MapMode.READ_WRITE, 0, groesse);
+                puffer.order(ByteOrder.LITTLE_ENDIAN);
+                if (neu) {
+                    puffer.putInt(0, KENNUNG);
+                    puffer.putInt(4, VERSION);
+                    puffer.putInt(OFFSET_KAPAZITAET, kapazitaet);
+                    puffer.putLong(OFFSET_ANZAHL, 0L);
+                }
+                return new KursArchivDatei(pfad, puffer, kapazitaet);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Kursarchiv " + pfad + " kann nicht geöffnet werden", e);
+        }
+    }
+
+    private static int leseKapazitaet(Path pfad, FileChannel kanal) throws IOException {
+        if (kanal.size() < KOPF_GROESSE) {
+            throw new IllegalStateException("Keine gültige Kursarchiv-Datei: " + pfad);
+        }
+        MappedByteBuffer kopf = kanal.map(FileChannel.MapMode.READ_ONLY, 0, KOPF_GROESSE);
+        kopf.order(ByteOrder.LITTLE_ENDIAN);
+        if (kopf.getInt(0) != KENNUNG) {
+            throw new IllegalStateException("Keine gültige Kursarchiv-Datei: " + pfad);
+        }
+        if (kopf.getInt(4) != VERSION) {
+            throw new IllegalStateException("Nicht unterstützte Version " + kopf.getInt(4) + " in " + pfad);
+        }
+        int kapazitaet = kopf.getInt(OFFSET_KAPAZITAET);
+        if (kapazitaet < 1 || kanal.size() < KOPF_GROESSE + (long) kapazitaet * DATENSATZ_GROESSE) {
+            throw new IllegalStateException("Beschädigte Kursarchiv-Datei: " + pfad);
+        }
+        return kapazitaet;
+    }
+
+    /**
+     * Hängt einen Tick an. Ist der Ringpuffer voll, wird der älteste Tick überschrieben.
+     *
+     * @param zeitstempel Zeitpunkt in Millisekunden seit 1970 (UTC)
+     * @param kurs        der Kurs
+     */
+    void schreibe(long zeitstempel, double kurs) {
+        long geschrieben = puffer.getLong(OFFSET_ANZAHL);
+        int position = KOPF_GROESSE + (int) (geschrieben % kapazitaet) * DATENSATZ_GROESSE;
+        puffer.putLong(position, zeitstempel);
+        puffer.putDouble(position + 8, kurs);
+        puffer.putLong(OFFSET_ANZAHL, geschrieben + 1);
+    }
+
+    /**
+     * @return Anzahl der verfügbaren Ticks (höchstens die Kapazität)
+     */
+    public int gibAnzahl() {
+        return (int) Math.min(puffer.getLong(OFFSET_ANZAHL), kapazitaet);
+    }
+
+    /**
+     * @return maximale Anzahl der Ticks in dieser Datei
+     */
+    public int gibKapazitaet() {
+        return kapazitaet;
+    }
+
+    /**
+     * Liefert den Kurs an einer chronologischen Position.
+     *
+     * @param index 0 = ältester verfügbarer Tick, gibAnzahl() - 1 = neuester Tick
+     * @return der Kurs
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Archivs liegt
+     */
+    public double gibKurs(int index) {
+        return puffer.getDouble(datensatzPosition(index) + 8);
+    }
+
+    /**
+     * Liefert den Zeitstempel an einer chronologischen Position.
+     *
+     * @param index 0 = ältester verfügbarer Tick, gibAnzahl() - 1 = neuester Tick
+     * @return Zeitstempel in Millisekunden seit 1970 (UTC)
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Archivs liegt
+     */
+    public long gibZeitstempel(int index) {
+        return puffer.getLong(datensatzPosition(index));
+    }
+
+    /**
+     * Schreibt geänderte Seiten auf den Datenträger.
+     * <p>
+     * Ohne diesen Aufruf überleben die Daten einen Absturz des Prozesses,
+     * aber nicht zwingend einen Absturz des Betriebssystems.
+     */
+    public void synchronisiere() {
+        puffer.force();
+    }
+
+    /**
+     * @return Pfad der Datei
+     */
+    public Path gibPfad() {
+        return pfad;
+    }
+
+    /**
+     * Schreibt geänderte Seiten auf den Datenträger; die Einblendung selbst gibt die
+     * JVM frei, sobald die Datei nicht mehr erreichbar ist.
+     */
+    @Override
+    public void close() {
+        puffer.force();
+    }
+
+    private int datensatzPosition(int index) {
+        long geschrieben = puffer.getLong(OFFSET_ANZAHL);
+        int anzahl = (int) Math.min(geschrieben, kapazitaet);
+        if (index < 0 || index >= anzahl) {
+            throw new IndexOutOfBoundsException("Index " + index + " bei " + anzahl + " Ticks");
+        }
+        long aeltester = geschrieben - anzahl;
+        return KOPF_GROESSE + (int) ((aeltester + index) % kapazitaet) * DATENSATZ_GROESSE;
+    }
+}
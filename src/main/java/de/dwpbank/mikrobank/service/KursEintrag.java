@@ -0,0 +1,223 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.service.indikator.Indikator;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Verwaltungsdaten des KursService für genau eine Aktie.
+ * <p>
+ * Technische Hinweise:
+ * - Jede Aktie hat ihre eigene Sperre (Lock-Striping pro Aktie), Schreiber
+ *   auf verschiedenen Aktien behindern sich daher nie
+ * - Die {@link StampedLock} wird wie ein Seqlock genutzt: Schreiber nehmen den
+ *   Write-Lock, Leser lesen optimistisch und wiederholen bei Überschneidung,
+ *   ohne selbst eine Sperre zu halten
+ * - Registrierte {@link Indikator}en werden im selben Write-Lock wie die Historie
+ *   aktualisiert und sind damit über dasselbe Lese-Muster konsistent lesbar
+ * - Ebenso die {@link KerzenReihe}n, eine pro {@link Kerzenaufloesung}, und die
+ *   {@link KomprimierteKurshistorie}
+ * - Ist eine {@link KursArchivDatei} angebunden, wird jeder Tick dort im selben
+ *   Write-Lock angehängt (genau ein Schreiber pro Datei)
+ * <p>
+ * Lese-Muster:
+ * <pre>
+ * long stempel;
+ * do {
+ *     stempel = eintrag.beginneLesen();
+ *     wert = eintrag.historie.gibDurchschnitt();
+ * } while (!eintrag.istLesenGueltig(stempel));
+ * </pre>
+ */
+final class KursEintrag {
+
+    final Kurshistorie historie;
+
+    // Lange Historie mit Zeitstempeln in komprimierter Form
+    final KomprimierteKurshistorie langzeit;
+
+    // Eine Kerzenreihe pro Auflösung, Index = Kerzenaufloesung.ordinal()
+    final KerzenReihe[] kerzen;
+
+    private final StampedLock sperre = new StampedLock();
+
+    // Copy-on-Write: wird nur bei (seltener) Registrierung ersetzt, pro Tick nur gelesen
+    private Indikator[] indikatoren = new Indikator[0];
+
+    // Persistente Historie, null wenn der KursService ohne Archiv läuft
+    private final KursArchivDatei archivDatei;
+
+    /**
+     * Erstellt die Verwaltungsdaten einer Aktie.
+     * <p>
+     * Mit Archivdatei wird die Kurshistorie aus den neuesten archivierten Kursen
+     * vorbelegt; die Datei selbst wird dabei nicht eingelesen, nur deren Ende.
+     *
+     * @param kapazitaet         Kapazität der Kurshistorie im Speicher
+     * @param langzeitKapazitaet ungefähre Anzahl Ticks der komprimierten Langzeithistorie
+     * @param archivDatei        persistente Historie oder null
+     */
+    KursEintrag(int kapazitaet, int langzeitKapazitaet, KursArchivDatei archivDatei) {
+        this.historie = new Kurshistorie(kapazitaet);
+        this.langzeit = new KomprimierteKurshistorie(langzeitKapazitaet);
+        this.archivDatei = archivDatei;
+        if (archivDatei != null) {
+            int archiviert = archivDatei.gibAnzahl();
+            for (int i = Math.max(0, archiviert - kapazitaet); i < archiviert; i++) {
+                historie.fuegeHinzu(archivDatei.gibKurs(i));
+            }
+        }
+        Kerzenaufloesung[] aufloesungen = Kerzenaufloesung.values();
+        this.kerzen = new KerzenReihe[aufloesungen.length];
+        for (Kerzenaufloesung aufloesung : aufloesungen) {
+            kerzen[aufloesung.ordinal()] = new KerzenReihe(aufloesung);
+        }
+    }
+
+    /**
+     * Hängt einen Kurs unter dem Write-Lock dieser Aktie an und aktualisiert
+     * alle Kerzenreihen und registrierten Indikatoren.
+     *
+     * @param zeitstempel Zeitpunkt des Ticks in Millisekunden seit 1970 (UTC)
+     * @param kurs        der neue Kurs
+     * @param stueck      gehandelte Stückzahl
+     */
+    void schreibe(long zeitstempel, double kurs, long stueck) {
+        long stempel = sperre.writeLock();
+        try {
+            haengeAn(zeitstempel, kurs, stueck);
+        } finally {
+            sperre.unlockWrite(stempel);
+        }
+    }
+
+    /**
+     * Hängt alle nicht abgelehnten Ticks eines Symbols aus einem Stapel unter
+     * einem einzigen Write-Lock an.
+     * <p>
+     * Leser sehen danach entweder keinen oder alle Ticks dieses Symbols aus dem Stapel.
+     *
+     * @param puffer der Stapel
+     * @param symbol Instrument-Id der Aktie
+     */
+    void schreibe(KursPuffer puffer, int symbol) {
+        long stempel = sperre.writeLock();
+        try {
+            for (int i = puffer.erster[symbol]; i >= 0; i = puffer.naechster[i]) {
+                if (!puffer.abgelehnt[i]) {
+                    haengeAn(puffer.zeitstempel[i], puffer.kurse[i], puffer.volumen[i]);
+                }
+            }
+        } finally {
+            sperre.unlockWrite(stempel);
+        }
+    }
+
+    private void haengeAn(long zeitstempel, double kurs, long stueck) {
+        historie.fuegeHinzu(kurs);
+        langzeit.fuegeHinzu(zeitstempel, kurs);
+        if (archivDatei != null) {
+            archivDatei.schreibe(zeitstempel, kurs);
+        }
+        for (KerzenReihe reihe : kerzen) {
+            reihe.aktualisiere(zeitstempel, kurs, stueck);
+        }
+        for (Indikator indikator : indikatoren) {
+            indikator.aktualisiere(kurs);
+        }
+    }
+
+    /**
+     * Registriert einen Indikator für diese Aktie.
+     * <p>
+     * Der Indikator wird sofort mit der vorhandenen Historie gefüttert, damit er
+     * nicht erst die nächsten Ticks abwarten muss.
+     *
+     * @param indikator der neue Indikator
+     */
+    void registriere(Indikator indikator) {
+        long stempel = sperre.writeLock();
+        try {
+            for (int i = 0; i < historie.gibAnzahl(); i++) {
+                indikator.aktualisiere(historie.gib(i));
+            }
+            Indikator[] neu = Arrays.copyOf(indikatoren, indikatoren.length + 1);
+            neu[indikatoren.length] = indikator;
+            indikatoren = neu;
+        } finally {
+            sperre.unlockWrite(stempel);
+        }
+    }
+
+    /**
+     * Entfernt einen Indikator dieser Aktie.
+     *
+     * @param indikator der zu entfernende Indikator
+     * @return true, wenn der Indikator registriert war
+     */
+    boolean entferne(Indikator indikator) {
+        long stempel = sperre.writeLock();
+        try {
+            for (int i = 0; i < indikatoren.length; i++) {
+                if (indikatoren[i] == indikator) {
+                    Indikator[] neu = new Indikator[indikatoren.length - 1];
+                    System.arraycopy(indikatoren, 0, neu, 0, i);
+                    System.arraycopy(indikatoren, i + 1, neu, i, neu.length - i);
+                    indikatoren = neu;
+                    return true;
+                }
+            }
+            return false;
+        } finally {
+            sperre.unlockWrite(stempel);
+        }
+    }
+
+    /**
+     * Startet einen optimistischen Lesevorgang.
+     * <p>
+     * Läuft gerade ein Schreibvorgang, wird kurz gewartet (Spin), bis er fertig ist.
+     * Der Leser hält dabei keine Sperre und blockiert keinen Schreiber.
+     *
+     * @return Stempel für {@link #istLesenGueltig(long)}
+     */
+    long beginneLesen() {
+        long stempel = sperre.tryOptimisticRead();
+        while (stempel == 0) {
+            Thread.onSpinWait();
+            stempel = sperre.tryOptimisticRead();
+        }
+        return stempel;
+    }
+
+    /**
+     * Nimmt die Lesesperre, für Leser, deren optimistische Versuche wiederholt
+     * von Schreibern überholt wurden. Blockiert Schreiber, bis
+     * {@link #entsperreLesen(long)} aufgerufen wird.
+     *
+     * @return Stempel für {@link #entsperreLesen(long)}
+     */
+    long sperreLesen() {
+        return sperre.readLock();
+    }
+
+    /**
+     * Gibt die mit {@link #sperreLesen()} genommene Lesesperre frei.
+     *
+     * @param stempel Stempel aus {@link #sperreLesen()}
+     */
+    void entsperreLesen(long stempel) {
+        sperre.unlockRead(stempel);
+    }
+
+    /**
+     * Prüft, ob seit {@link #beginneLesen()} kein Schreiber aktiv war.
+     *
+     * @param stempel Stempel aus {@link #beginneLesen()}
+     * @return true, wenn die gelesenen Werte konsistent sind
+     */
+    boolean istLesenGueltig(long stempel) {
+        return sperre.validate(stempel);
+    }
+}
@@ -0,0 +1,223 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.InstrumentRegister;
+
+import java.util.Arrays;
+
+/**
+ * Wiederverwendbarer Puffer für einen Stapel von Kursmeldungen.
+ * <p>
+ * Ein Feed-Thread sammelt die Ticks eines Stapels im Puffer und übergibt ihn
+ * gesammelt an {@link KursService#speichereKurse(KursPuffer)}. Danach wird der
+ * Puffer mit {@link #leere()} für den nächsten Stapel geleert.
+ * <p>
+ * Beispiel:
+ * <pre>
+ * KursPuffer puffer = new KursPuffer(512);
+ * int apple = puffer.symbol("Apple");      // einmalig, danach nur noch die Id
+ * ...
+ * puffer.fuegeHinzu(apple, 187.5, zeitstempel, 100);
+ * int abgelehnt = kursService.speichereKurse(puffer);
+ * puffer.leere();
+ * </pre>
+ * <p>
+ * Technische Hinweise:
+ * - Ticks werden über die Instrument-Id der Aktie ({@link InstrumentRegister})
+ *   abgelegt, pro Tick wird nur eine int-Id gespeichert, kein Name
+ * - Kurse, Zeitstempel und Volumen liegen in parallelen primitiven Arrays
+ * - Die Ticks jedes Symbols sind über {@code naechster} verkettet, der KursService
+ *   kann daher jedes Symbol eines Stapels mit einem Array-Zugriff und einer
+ *   Sperre abarbeiten
+ * - Nach der Anlage erzeugt der Puffer pro Tick und Stapel keine Objekte mehr
+ * - Die Klasse ist nicht thread-sicher, jeder Feed-Thread nutzt seinen eigenen Puffer
+ */
+public final class KursPuffer {
+
+    private final InstrumentRegister register = InstrumentRegister.global();
+
+    // Pro Instrument-Id: erster und letzter Tick im aktuellen Stapel, -1 wenn keiner
+    int[] erster = neueListe(16);
+    private int[] letzter = neueListe(16);
+
+    // Symbole mit mindestens einem Tick im aktuellen Stapel, in Reihenfolge des ersten Ticks
+    final int[] aktiveSymbole;
+    int aktiveAnzahl;
+
+    // Pro Tick: parallele Arrays
+    final int[] symbole;
+    final double[] kurse;
+    final long[] zeitstempel;
+    final long[] volumen;
+    final int[] naechster;
+    final boolean[] abgelehnt;
+    private int anzahl;
+
+    /**
+     * Erstellt einen leeren Puffer.
+     *
+     * @param kapazitaet maximale Anzahl der Ticks pro Stapel
+     * @throws IllegalArgumentException wenn die Kapazität kleiner als 1 ist
+     */
+    public KursPuffer(int kapazitaet) {
+        if (kapazitaet < 1) {
+            throw new IllegalArgumentException("Kapazität muss größer als 0 sein");
+        }
+        this.symbole = new int[kapazitaet];
+        this.kurse = new double[kapazitaet];
+        this.zeitstempel = new long[kapazitaet];
+        this.volumen = new long[kapazitaet];
+        this.naechster = new int[kapazitaet];
+        this.abgelehnt = new boolean[kapazitaet];
+        // Ein Stapel kann höchstens so viele verschiedene Symbole enthalten wie Ticks
+        this.aktiveSymbole = new int[kapazitaet];
+    }
+
+    /**
+     * Liefert die Instrument-Id einer Aktie und legt sie beim ersten Aufruf an.
+     * <p>
+     * Die Id ist dieselbe wie {@link de.dwpbank.mikrobank.model.Aktie#getId()}; wer
+     * Aktie-Objekte hat, kann deren Id auch direkt an {@link #fuegeHinzu} übergeben.
+     *
+     * @param aktieName der Name der Aktie
+     * @return die Instrument-Id
+     * @throws IllegalArgumentException wenn der Name null ist
+     */
+    public int symbol(String aktieName) {
+        int id = register.registriere(aktieName);
+        stelleSymbolPlatzSicher(id);
+        return id;
+    }
+
+    /**
+     * Hängt einen Tick an den Stapel an.
+     * <p>
+     * Kurs und Volumen werden hier noch nicht geprüft; ungültige Ticks werden erst
+     * beim Speichern abgelehnt und über {@link #istAbgelehnt(int)} gemeldet.
+     *
+     * @param symbol      Instrument-Id, z.B. aus {@link #symbol(String)}
+     * @param kurs        der Kurs
+     * @param zeitstempel Zeitpunkt des Ticks in Millisekunden seit 1970 (UTC)
+     * @param stueck      gehandelte Stückzahl (0 bei reinen Kursmeldungen)
+     * @return false, wenn der Puffer voll ist und der Tick nicht angehängt wurde
+     * @throws IllegalArgumentException wenn die Instrument-Id nicht vergeben ist
+     */
+    public boolean fuegeHinzu(int symbol, double kurs, long zeitstempel, long stueck) {
+        if (symbol < 0 || symbol >= register.gibAnzahl()) {
+            throw new IllegalArgumentException("Unbekannte Instrument-Id: " + symbol);
+        }
+        if (symbol >= erster.length) {
+            stelleSymbolPlatzSicher(symbol);
+        }
+        if (anzahl == kurse.length) {
+            return false;
+        }
+        int index = anzahl++;
+        symbole[index] = symbol;
+        kurse[index] = kurs;
+        this.zeitstempel[index] = zeitstempel;
+        volumen[index] = stueck;
+        naechster[index] = -1;
+        abgelehnt[index] = false;
+
+        if (erster[symbol] < 0) {
+            erster[symbol] = index;
+            aktiveSymbole[aktiveAnzahl++] = symbol;
+        } else {
+            naechster[letzter[symbol]] = index;
+        }
+        letzter[symbol] = index;
+        return true;
+    }
+
+    /**
+     * Leert den Puffer für den nächsten Stapel.
+     */
+    public void leere() {
+        for (int i = 0; i < aktiveAnzahl; i++) {
+            erster[aktiveSymbole[i]] = -1;
+        }
+        aktiveAnzahl = 0;
+        anzahl = 0;
+    }
+
+    /**
+     * @param index Position des Ticks im Stapel (0 = zuerst angehängt)
+     * @return true, wenn der Tick beim letzten Speichern abgelehnt wurde
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Stapels liegt
+     */
+    public boolean istAbgelehnt(int index) {
+        pruefeIndex(index);
+        return abgelehnt[index];
+    }
+
+    /**
+     * @param index Position des Ticks im Stapel
+     * @return Name der Aktie dieses Ticks
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Stapels liegt
+     */
+    public String gibAktieName(int index) {
+        pruefeIndex(index);
+        return register.gibName(symbole[index]);
+    }
+
+    /**
+     * @param index Position des Ticks im Stapel
+     * @return Kurs dieses Ticks
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Stapels liegt
+     */
+    public double gibKurs(int index) {
+        pruefeIndex(index);
+        return kurse[index];
+    }
+
+    /**
+     * @return Anzahl der Ticks im aktuellen Stapel
+     */
+    public int gibAnzahl() {
+        return anzahl;
+    }
+
+    /**
+     * @return maximale Anzahl der Ticks pro Stapel
+     */
+    public int gibKapazitaet() {
+        return kurse.length;
+    }
+
+    /**
+     * @return true, wenn kein weiterer Tick angehängt werden kann
+     */
+    public boolean istVoll() {
+        return anzahl == kurse.length;
+    }
+
+    private void pruefeIndex(int index) {
+        if (index < 0 || index >= anzahl) {
+            throw new IndexOutOfBoundsException("Index " + index + " bei " + anzahl + " Ticks");
+        }
+    }
+
+    /**
+     * Vergrößert die Listen pro Instrument-Id, falls die Id noch nicht hineinpasst.
+     */
+    private void stelleSymbolPlatzSicher(int id) {
+        if (id >= erster.length && id < register.gibAnzahl()) {
+            int neueLaenge = Math.max(erster.length * 2, id + 1);
+            erster = verlaengere(erster, neueLaenge);
+            letzter = verlaengere(letzter, neueLaenge);
+        }
+    }
+
+    private static int[] neueListe(int laenge) {
+        int[] liste = new int[laenge];
+        Arrays.fill(liste, -1);
+        return liste;
+    }
+
+    private static int[] verlaengere(int[] liste, int neueLaenge) {
+        int alteLaenge = liste.length;
+        int[] neu = Arrays.copyOf(liste, neueLaenge);
+        Arrays.fill(neu, alteLaenge, neueLaenge, -1);
+        return neu;
+    }
+}
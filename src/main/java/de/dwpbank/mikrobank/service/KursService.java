@@ -1,8 +1,15 @@
 package de.dwpbank.mikrobank.service;
 
 import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.InstrumentRegister;
+import de.dwpbank.mikrobank.model.Kerze;
+import de.dwpbank.mikrobank.model.Trend;
+import de.dwpbank.mikrobank.service.indikator.Indikator;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.util.*;
+import java.util.function.ToDoubleFunction;
 
 /**
  * Service zur Verwaltung und Analyse von Aktienkursen.
@@ -12,33 +19,97 @@ import java.util.*;
  * zu treffen.
  * <p>
  * Fachliche Aufgaben:
- * 1. Speichert Kurshistorie für jede Aktie
- * 2. Berechnet Durchschnittskurse und Trends
+ * 1. Speichert Kurshistorie für jede Aktie, einzeln oder stapelweise über einen {@link KursPuffer}
+ * 2. Berechnet Durchschnittskurse und Trends ({@link Trend}, einstellbar über {@link TrendParameter})
  * 3. Erkennt Hochs und Tiefs
  * 4. Hilft dem Roboter bei der Entscheidungsfindung
+ * 5. Aktualisiert registrierte technische {@link Indikator}en (EMA, RSI, MACD, ...) bei jedem Kurs
+ * 6. Verdichtet Ticks mit Zeitstempel zu Kerzen (OHLCV) in mehreren {@link Kerzenaufloesung}en
+ * 7. Schreibt Ticks optional in ein persistentes {@link KursArchiv}
+ * 8. Hält eine lange Historie mit Zeitstempeln in komprimierter Form ({@link KomprimierteKurshistorie})
  * <p>
  * Beispiel:
  * - Wenn der aktuelle Kurs deutlich unter dem Durchschnitt liegt → KAUFSIGNAL
  * - Wenn der aktuelle Kurs deutlich über dem Durchschnitt liegt → VERKAUFSSIGNAL
+ * <p>
+ * Nebenläufigkeit:
+ * - Alle Methoden sind thread-sicher, Feed-Threads dürfen {@link #speichereKurs(Aktie)}
+ *   aufrufen, während Roboter gleichzeitig Durchschnitt und Trend lesen
+ * - Jede Aktie hat ihre eigene Sperre ({@link KursEintrag}), Schreiber auf
+ *   verschiedenen Aktien konkurrieren nie miteinander
+ * - Leser arbeiten optimistisch (Seqlock-Prinzip) und blockieren keine Schreiber
+ * <p>
+ * Instrument-Ids:
+ * - Intern werden die Daten jeder Aktie über ihre Instrument-Id ({@link Aktie#getId()})
+ *   in einem Array gefunden, nicht über den Namen in einer Map
+ * - Für Hot-Paths gibt es Varianten mit {@code int instrumentId}; die Varianten
+ *   mit Aktiennamen übersetzen nur den Namen und delegieren
  *
  * @author Praktikant
  * @version 1.0
  */
 public class KursService {
 
-    // Map speichert für jede Aktie eine Liste ihrer historischen Kurse
-    // Key: Aktien-Name (z.B. "Apple")
-    // Value: Liste der Kurse in chronologischer Reihenfolge
-    private final Map<String, List<Double>> kursHistorie = new HashMap<>();
+    // Ringpuffer der historischen Kurse jeder Aktie zusammen mit der Sperre dieser Aktie
+    // Index: Instrument-Id der Aktie (siehe InstrumentRegister), null = noch keine Kurse
+    // Wird nur ersetzt, wenn eine neue Id nicht mehr hineinpasst (geometrisch wachsend);
+    // sonst wird der neue Eintrag mit Release-Semantik eingetragen. Pro Tick nur gelesen
+    private volatile KursEintrag[] kursHistorie = new KursEintrag[0];
+
+    // Übersetzt Aktiennamen in Instrument-Ids und zurück
+    private final InstrumentRegister register = InstrumentRegister.global();
 
     // Maximale Anzahl der gespeicherten Kurse pro Aktie (um Speicher zu sparen)
     private static final int MAX_KURSHISTORIE = 100;
 
+    // Ungefähre Anzahl der Ticks in der komprimierten Langzeithistorie pro Aktie
+    // (Gorilla-Kodierung, typischerweise 1-3 Byte pro Tick statt 8 Byte plus Overhead)
+    private static final int MAX_LANGZEITHISTORIE = 65_536;
+
+    // Optimistische Leseversuche für lange Kopien, danach wird die Lesesperre genommen
+    private static final int OPTIMISTISCHE_VERSUCHE = 3;
+
+    private static final VarHandle EINTRAG = MethodHandles.arrayElementVarHandle(KursEintrag[].class);
+
+    // Persistente Kurshistorie, null wenn Kurse nur im Speicher gehalten werden
+    private final KursArchiv archiv;
+
+    /**
+     * Erstellt einen KursService, der Kurse nur im Speicher hält.
+     */
+    public KursService() {
+        this.archiv = null;
+    }
+
+    /**
+     * Erstellt einen KursService mit persistenter Kurshistorie.
+     * <p>
+     * Für jede archivierte Aktie wird die Kurshistorie sofort aus den neuesten
+     * Kursen der eingeblendeten Archivdatei vorbelegt. Die Archivdateien werden dabei
+     * nicht Tick für Tick nachgespielt: Kerzen beginnen leer, Indikatoren werden bei
+     * ihrer Registrierung mit der vorbelegten Historie gefüttert.
+     * <p>
+     * Jeder weitere Tick wird zusätzlich an die Archivdatei seiner Aktie angehängt.
+     *
+     * @param archiv das geöffnete Kursarchiv
+     * @throws IllegalArgumentException wenn das Archiv null ist
+     */
+    public KursService(KursArchiv archiv) {
+        if (archiv == null) {
+            throw new IllegalArgumentException("Archiv darf nicht null sein");
+        }
+        this.archiv = archiv;
+        for (String aktieName : archiv.gibAktienNamen()) {
+            holeEintrag(register.registriere(aktieName));
+        }
+    }
+
     /**
      * Registriert einen neuen Kurs für eine Aktie in der Historie.
      * <p>
      * Diese Methode wird nach jedem Kauf/Verkauf aufgerufen, um den neuen Preis
-     * in der Kurshistorie zu speichern.
+     * in der Kurshistorie zu speichern. Als Zeitstempel wird die aktuelle Systemzeit
+     * verwendet, als Volumen 0.
      * <p>
      * Geschäftsregeln:
      * - Der Kurs muss > 0 sein
@@ -49,25 +120,115 @@ public class KursService {
      * @throws IllegalArgumentException wenn der Kurse negativ oder 0 ist
      */
     public void speichereKurs(Aktie aktie) {
+        speichereKurs(aktie, System.currentTimeMillis(), 0);
+    }
+
+    /**
+     * Registriert einen Tick mit Zeitstempel und Volumen.
+     * <p>
+     * Zusätzlich zur Kurshistorie wird der Tick in die Kerzen aller
+     * {@link Kerzenaufloesung}en eingerechnet.
+     * <p>
+     * Geschäftsregeln:
+     * - Der Kurs muss > 0 sein
+     * - Das Volumen darf nicht negativ sein
+     * - Ticks mit einem Zeitstempel vor der laufenden Kerze zählen zur laufenden Kerze
+     *
+     * @param aktie       die Aktie, deren Kurs gespeichert werden soll
+     * @param zeitstempel Zeitpunkt des Ticks in Millisekunden seit 1970 (UTC)
+     * @param volumen     gehandelte Stückzahl (0 bei reinen Kursmeldungen)
+     * @throws IllegalArgumentException wenn der Kurs ≤ 0 oder das Volumen negativ ist
+     */
+    public void speichereKurs(Aktie aktie, long zeitstempel, long volumen) {
         if (aktie == null) {
             System.out.println("Warnung: Null-Wert bei speichereKurs: Aktie ist null");
             throw new IllegalArgumentException("Aktie darf nicht null sein");
         }
+        speichereKurs(aktie.getId(), aktie.getPreis(), zeitstempel, volumen);
+    }
 
-        double neuerKurs = aktie.getPreis();
-        if (neuerKurs <= 0) {
-            System.out.println("Warnung: Ungültiger Kurs für Aktie '" + aktie.getName() + "': " + neuerKurs);
+    /**
+     * Registriert einen Tick für eine Aktie, die über ihre Instrument-Id angegeben wird.
+     * <p>
+     * Für Feed-Threads, die Ids statt Aktie-Objekten vorliegen haben. Es gelten dieselben
+     * Geschäftsregeln wie bei {@link #speichereKurs(Aktie, long, long)}.
+     *
+     * @param instrumentId Id der Aktie, siehe {@link Aktie#getId()}
+     * @param kurs         der neue Kurs
+     * @param zeitstempel  Zeitpunkt des Ticks in Millisekunden seit 1970 (UTC)
+     * @param volumen      gehandelte Stückzahl (0 bei reinen Kursmeldungen)
+     * @throws IllegalArgumentException wenn die Id unbekannt, der Kurs ≤ 0 oder das Volumen negativ ist
+     */
+    public void speichereKurs(int instrumentId, double kurs, long zeitstempel, long volumen) {
+        if (instrumentId < 0 || instrumentId >= register.gibAnzahl()) {
+            System.out.println("Warnung: Unbekannte Instrument-Id bei speichereKurs: " + instrumentId);
+            throw new IllegalArgumentException("Unbekannte Instrument-Id: " + instrumentId);
+        }
+
+        if (kurs <= 0) {
+            System.out.println("Warnung: Ungültiger Kurs für Aktie '" + register.gibName(instrumentId) + "': " + kurs);
             throw new IllegalArgumentException("Kurs muss größer als 0 sein");
         }
 
-        // Hole oder erstelle die Historien-Liste für diese Aktie
-        kursHistorie.computeIfAbsent(aktie.getName(), k -> new ArrayList<>()).add(neuerKurs);
+        if (volumen < 0) {
+            System.out.println("Warnung: Ungültiges Volumen für Aktie '" + register.gibName(instrumentId) + "': " + volumen);
+            throw new IllegalArgumentException("Volumen darf nicht negativ sein");
+        }
 
-        // Begrenze die Größe der Historie
-        List<Double> historie = kursHistorie.get(aktie.getName());
-        if (historie.size() > MAX_KURSHISTORIE) {
-            historie.remove(0); // Entferne den ältesten Kurs
+        // Hole oder erstelle die Historie für diese Aktie.
+        // Der Ringpuffer ist auf MAX_KURSHISTORIE begrenzt und überschreibt
+        // bei Überlauf den ältesten Kurs in O(1).
+        holeEintrag(instrumentId).schreibe(zeitstempel, kurs, volumen);
+    }
+
+    /**
+     * Speichert einen ganzen Stapel von Ticks.
+     * <p>
+     * Gegenüber einzelnen Aufrufen von {@link #speichereKurs(Aktie, long, long)} wird
+     * pro Aktie im Stapel nur einmal nachgeschlagen und nur einmal gesperrt.
+     * Pro Tick werden keine Objekte erzeugt.
+     * <p>
+     * Geschäftsregeln:
+     * - Es gelten dieselben Regeln wie beim einzelnen Tick (Kurs > 0, Volumen ≥ 0)
+     * - Ungültige Ticks führen nicht zu einer Exception, sie werden übersprungen und
+     *   im Puffer als abgelehnt markiert ({@link KursPuffer#istAbgelehnt(int)})
+     * - Die Reihenfolge der Ticks einer Aktie bleibt erhalten
+     *
+     * @param puffer der gefüllte Puffer, er wird nicht geleert
+     * @return Anzahl der abgelehnten Ticks
+     * @throws IllegalArgumentException wenn der Puffer null ist
+     */
+    public int speichereKurse(KursPuffer puffer) {
+        if (puffer == null) {
+            throw new IllegalArgumentException("Puffer darf nicht null sein");
+        }
+
+        int abgelehnt = 0;
+        for (int a = 0; a < puffer.aktiveAnzahl; a++) {
+            int symbol = puffer.aktiveSymbole[a];
+            int gueltig = 0;
+            for (int i = puffer.erster[symbol]; i >= 0; i = puffer.naechster[i]) {
+                // Negiert formuliert, damit auch NaN abgelehnt wird
+                boolean ungueltig = !(puffer.kurse[i] > 0) || puffer.volumen[i] < 0;
+                puffer.abgelehnt[i] = ungueltig;
+                if (ungueltig) {
+                    abgelehnt++;
+                } else {
+                    gueltig++;
+                }
+            }
+            if (gueltig == 0) {
+                continue;
+            }
+
+            holeEintrag(symbol).schreibe(puffer, symbol);
         }
+
+        if (abgelehnt > 0) {
+            System.out.println("Warnung: " + abgelehnt + " von " + puffer.gibAnzahl()
+                    + " Ticks im Stapel abgelehnt (Kurs ≤ 0 oder Volumen negativ)");
+        }
+        return abgelehnt;
     }
 
     /**
@@ -75,6 +236,9 @@ public class KursService {
      * <p>
      * Formel: Durchschnitt = Summe aller Kurse / Anzahl der Kurse
      * <p>
+     * Die Summe wird von der {@link Kurshistorie} bei jedem {@link #speichereKurs(Aktie)}
+     * laufend mitgeführt, daher kostet diese Abfrage O(1) statt einer Schleife über die Historie.
+     * <p>
      * Verwendungsfall: Der Roboter kann damit erkennen, ob ein aktueller Kurs
      * günstig (unter Durchschnitt) oder teuer (über Durchschnitt) ist.
      *
@@ -82,18 +246,28 @@ public class KursService {
      * @return der Durchschnittskurs, oder 0.0 wenn keine Historie existiert
      */
     public double berechnetDurchschnittskurs(String aktieName) {
-        List<Double> historie = kursHistorie.get(aktieName);
+        return berechnetDurchschnittskurs(register.gibId(aktieName));
+    }
 
-        if (historie == null || historie.isEmpty()) {
-            return 0.0;
-        }
+    /**
+     * Berechnet den Durchschnittskurs einer Aktie, die über ihre Instrument-Id angegeben wird.
+     *
+     * @param instrumentId Id der Aktie, siehe {@link Aktie#getId()}
+     * @return der Durchschnittskurs, oder 0.0 wenn keine Historie existiert
+     */
+    public double berechnetDurchschnittskurs(int instrumentId) {
+        KursEintrag eintrag = gibEintrag(instrumentId);
 
-        double summe = 0;
-        for (double kurs : historie) {
-            summe += kurs;
+        if (eintrag == null) {
+            return 0.0;
         }
 
-        double durchschnitt = summe / historie.size();
+        double durchschnitt;
+        long stempel;
+        do {
+            stempel = eintrag.beginneLesen();
+            durchschnitt = eintrag.historie.gibDurchschnitt();
+        } while (!eintrag.istLesenGueltig(stempel));
         return durchschnitt;
     }
 
@@ -104,41 +278,98 @@ public class KursService {
      * - STEIGEND: Durchschnitt der letzten 5 Kurse > Durchschnitt der 5 davor
      * - FALLEND: Durchschnitt der letzten 5 Kurse < Durchschnitt der 5 davor
      * - STABIL: Kein signifikanter Unterschied
+     * <p>
+     * Für neue Aufrufer ist {@link #ermittleTrend(String, TrendParameter)} gedacht,
+     * das einen {@link Trend} statt eines Strings liefert.
      *
      * @param aktieName der Name der Aktie
      * @return "STEIGEND", "FALLEND" oder "STABIL"
      */
     public String bestimmeTrend(String aktieName) {
-        List<Double> historie = kursHistorie.get(aktieName);
+        return ermittleTrend(aktieName, TrendParameter.STANDARD).name();
+    }
 
-        if (historie == null || historie.size() < 10) {
-            return "UNBEKANNT";
-        }
+    /**
+     * Bestimmt den Trend einer Aktie mit eigenen Fenstern und Schwelle.
+     * <p>
+     * Die Fenstersummen werden aus den laufend mitgeführten Präfixsummen der
+     * Kurshistorie gelesen. Eine Abfrage kostet O(1) und erzeugt keine Objekte,
+     * unabhängig von der Länge der Fenster.
+     * <p>
+     * Es werden höchstens MAX_KURSHISTORIE Kurse gehalten; sind beide Fenster
+     * zusammen länger, ist der Trend immer UNBEKANNT.
+     *
+     * @param aktieName der Name der Aktie
+     * @param parameter Fensterlängen und Schwelle
+     * @return der Trend, UNBEKANNT wenn die Aktie unbekannt ist oder zu wenige Kurse hat
+     * @throws IllegalArgumentException wenn die Parameter null sind
+     */
+    public Trend ermittleTrend(String aktieName, TrendParameter parameter) {
+        return ermittleTrend(register.gibId(aktieName), parameter);
+    }
 
-        // Berechne Durchschnitt der letzten 5 Kurse
-        double durchschnittNeu = 0;
-        for (int i = historie.size() - 5; i < historie.size(); i++) {
-            durchschnittNeu += historie.get(i);
+    /**
+     * Bestimmt den Trend einer Aktie, die über ihre Instrument-Id angegeben wird.
+     *
+     * @param instrumentId Id der Aktie, siehe {@link Aktie#getId()}
+     * @param parameter    Fensterlängen und Schwelle
+     * @return der Trend, UNBEKANNT wenn die Aktie unbekannt ist oder zu wenige Kurse hat
+     * @throws IllegalArgumentException wenn die Parameter null sind
+     */
+    public Trend ermittleTrend(int instrumentId, TrendParameter parameter) {
+        if (parameter == null) {
+            throw new IllegalArgumentException("Trend-Parameter dürfen nicht null sein");
         }
-        durchschnittNeu /= 5;
-
-        // Berechne Durchschnitt der 5 Kurse davor
-        double durchschnittAlt = 0;
-        for (int i = historie.size() - 10; i < historie.size() - 5; i++) {
-            durchschnittAlt += historie.get(i);
+        KursEintrag eintrag = gibEintrag(instrumentId);
+        if (eintrag == null) {
+            return Trend.UNBEKANNT;
         }
-        durchschnittAlt /= 5;
 
-        String trend;
-        if (durchschnittNeu > durchschnittAlt * 1.02) { // 2% Schwellenwert
-            trend = "STEIGEND";
-        } else if (durchschnittNeu < durchschnittAlt * 0.98) {
-            trend = "FALLEND";
-        } else {
-            trend = "STABIL";
+        Trend trend;
+        long stempel;
+        do {
+            stempel = eintrag.beginneLesen();
+            trend = parameter.bewerte(eintrag.historie);
+        } while (!eintrag.istLesenGueltig(stempel));
+        return trend;
+    }
+
+    /**
+     * Bestimmt den Trend einer Aktie für mehrere Einstellungen auf einmal.
+     * <p>
+     * Alle Trends werden aus demselben Stand der Kurshistorie berechnet. So kann ein
+     * Roboter viele Fensterkombinationen pro Tick auswerten, ohne dass ein
+     * dazwischen gespeicherter Kurs die Ergebnisse gegeneinander verschiebt.
+     * Das Ergebnis-Array wird vom Aufrufer gestellt und wiederverwendet.
+     *
+     * @param aktieName der Name der Aktie
+     * @param parameter die auszuwertenden Einstellungen
+     * @param ergebnis  nimmt an Position i den Trend für {@code parameter[i]} auf
+     * @throws IllegalArgumentException wenn ein Array null ist, ein Eintrag null ist
+     *                                  oder das Ergebnis-Array zu kurz ist
+     */
+    public void ermittleTrends(String aktieName, TrendParameter[] parameter, Trend[] ergebnis) {
+        if (parameter == null || ergebnis == null || ergebnis.length < parameter.length) {
+            throw new IllegalArgumentException("Ergebnis-Array muss mindestens so lang wie die Parameter sein");
+        }
+        for (TrendParameter p : parameter) {
+            if (p == null) {
+                throw new IllegalArgumentException("Trend-Parameter dürfen nicht null sein");
+            }
+        }
+        KursEintrag eintrag = gibEintrag(register.gibId(aktieName));
+        if (eintrag == null) {
+            Arrays.fill(ergebnis, 0, parameter.length, Trend.UNBEKANNT);
+            return;
         }
 
-        return trend;
+        long stempel;
+        do {
+            stempel = eintrag.beginneLesen();
+            for (int i = 0; i < parameter.length; i++) {
+                ergebnis[i] = parameter[i].bewerte(eintrag.historie);
+            }
+        } while (!eintrag.istLesenGueltig(stempel));
     }
 
     /**
@@ -150,8 +381,88 @@ public class KursService {
      * @return eine Liste der Kurse, oder eine leere Liste wenn keine Daten existieren
      */
     public List<Double> gibKurshistorie(String aktieName) {
-        List<Double> historie = kursHistorie.get(aktieName);
-        return historie != null ? new ArrayList<>(historie) : new ArrayList<>();
+        KursEintrag eintrag = gibEintrag(register.gibId(aktieName));
+        if (eintrag == null) {
+            return new ArrayList<>();
+        }
+
+        List<Double> kopie;
+        long stempel;
+        do {
+            stempel = eintrag.beginneLesen();
+            kopie = eintrag.historie.alsListe();
+        } while (!eintrag.istLesenGueltig(stempel));
+        return kopie;
+    }
+
+    /**
+     * Gibt die Kerzen (OHLCV) einer Aktie in einer Auflösung zurück.
+     * <p>
+     * Pro Auflösung werden höchstens {@link Kerzenaufloesung#getMaxKerzen()} Kerzen
+     * gehalten. Die letzte Kerze der Liste ist die gerade laufende und kann sich
+     * mit dem nächsten Tick noch ändern.
+     *
+     * @param aktieName  der Name der Aktie
+     * @param aufloesung die gewünschte Auflösung
+     * @return Kerzen vom ältesten zum neuesten Intervall, leer wenn keine Daten existieren
+     */
+    public List<Kerze> gibKerzen(String aktieName, Kerzenaufloesung aufloesung) {
+        KursEintrag eintrag = gibEintrag(register.gibId(aktieName));
+        if (eintrag == null) {
+            return new ArrayList<>();
+        }
+
+        KerzenReihe reihe = eintrag.kerzen[aufloesung.ordinal()];
+        List<Kerze> kopie;
+        long stempel;
+        do {
+            stempel = eintrag.beginneLesen();
+            kopie = reihe.alsListe();
+        } while (!eintrag.istLesenGueltig(stempel));
+        return kopie;
+    }
+
+    /**
+     * Gibt die komprimierte Langzeithistorie einer Aktie zurück.
+     * <p>
+     * Die Langzeithistorie enthält bis zu etwa MAX_LANGZEITHISTORIE Ticks mit Zeitstempel.
+     * Zurückgegeben wird ein unveränderlicher Schnappschuss, der mit einem
+     * {@link KomprimierteKurshistorie.Dekodierer} gelesen wird, während weitere Kurse
+     * gespeichert werden.
+     *
+     * @param aktieName der Name der Aktie
+     * @return Schnappschuss der Langzeithistorie, leer wenn keine Daten existieren
+     */
+    public KomprimierteKurshistorie gibLangzeitHistorie(String aktieName) {
+        KursEintrag eintrag = gibEintrag(register.gibId(aktieName));
+        if (eintrag == null) {
+            return new KomprimierteKurshistorie(1).schnappschuss();
+        }
+
+        // Der Schnappschuss kopiert Arrays und Blockliste; das dauert länger als die übrigen
+        // Lesevorgänge. Bei dauernden Schreibern daher nach wenigen Versuchen die Lesesperre
+        for (int versuch = 0; versuch < OPTIMISTISCHE_VERSUCHE; versuch++) {
+            long stempel = eintrag.beginneLesen();
+            KomprimierteKurshistorie kopie;
+            try {
+                kopie = eintrag.langzeit.schnappschuss();
+            } catch (NullPointerException | IndexOutOfBoundsException | ConcurrentModificationException e) {
+                // Nur als Folge einer Überschneidung mit einem Schreiber zulässig, sonst ein echter Fehler
+                if (eintrag.istLesenGueltig(stempel)) {
+                    throw e;
+                }
+                continue;
+            }
+            if (eintrag.istLesenGueltig(stempel)) {
+                return kopie;
+            }
+        }
+        long stempel = eintrag.sperreLesen();
+        try {
+            return eintrag.langzeit.schnappschuss();
+        } finally {
+            eintrag.entsperreLesen(stempel);
+        }
     }
 
     /**
@@ -224,6 +535,128 @@ public class KursService {
         return teuer;
     }
 
+    /**
+     * Registriert einen technischen Indikator für eine Aktie.
+     * <p>
+     * Ab jetzt wird der Indikator bei jedem {@link #speichereKurs(Aktie)} dieser Aktie
+     * in O(1) und ohne Objekterzeugung aktualisiert. Eine bereits vorhandene
+     * Kurshistorie wird dem Indikator sofort übergeben.
+     * <p>
+     * Beispiel:
+     * <pre>
+     * RsiIndikator rsi = kursService.registriereIndikator("Apple", new RsiIndikator(14));
+     * double wert = kursService.leseIndikator("Apple", rsi, RsiIndikator::gibWert);
+     * </pre>
+     *
+     * @param aktieName der Name der Aktie
+     * @param indikator der zu registrierende Indikator
+     * @return der registrierte Indikator (für Verkettung)
+     * @throws IllegalArgumentException wenn Name oder Indikator null sind
+     */
+    public <I extends Indikator> I registriereIndikator(String aktieName, I indikator) {
+        if (aktieName == null || indikator == null) {
+            throw new IllegalArgumentException("Aktienname und Indikator dürfen nicht null sein");
+        }
+        holeEintrag(register.registriere(aktieName)).registriere(indikator);
+        return indikator;
+    }
+
+    /**
+     * Entfernt einen zuvor registrierten Indikator.
+     *
+     * @param aktieName der Name der Aktie
+     * @param indikator der zu entfernende Indikator
+     * @return true, wenn der Indikator registriert war
+     */
+    public boolean entferneIndikator(String aktieName, Indikator indikator) {
+        KursEintrag eintrag = gibEintrag(register.gibId(aktieName));
+        return eintrag != null && eintrag.entferne(indikator);
+    }
+
+    /**
+     * Liest einen Wert eines registrierten Indikators konsistent, auch während
+     * andere Threads Kurse für diese Aktie speichern.
+     * <p>
+     * Der Wert wird ohne Sperre optimistisch gelesen und bei einer Überschneidung
+     * mit einem Schreiber erneut gelesen. Mit einer Methodenreferenz wie
+     * {@code BollingerIndikator::gibOberesBand} entstehen dabei keine Objekte.
+     *
+     * @param aktieName der Name der Aktie
+     * @param indikator der registrierte Indikator
+     * @param wert      welcher Wert des Indikators gelesen werden soll
+     * @return der gelesene Wert, {@code Double.NaN} wenn die Aktie unbekannt ist
+     */
+    public <I extends Indikator> double leseIndikator(String aktieName, I indikator, ToDoubleFunction<I> wert) {
+        return leseIndikator(register.gibId(aktieName), indikator, wert);
+    }
+
+    /**
+     * Liest einen Wert eines registrierten Indikators einer Aktie, die über ihre
+     * Instrument-Id angegeben wird.
+     *
+     * @param instrumentId Id der Aktie, siehe {@link Aktie#getId()}
+     * @param indikator    der registrierte Indikator
+     * @param wert         welcher Wert des Indikators gelesen werden soll
+     * @return der gelesene Wert, {@code Double.NaN} wenn die Aktie unbekannt ist
+     */
+    public <I extends Indikator> double leseIndikator(int instrumentId, I indikator, ToDoubleFunction<I> wert) {
+        KursEintrag eintrag = gibEintrag(instrumentId);
+        if (eintrag == null) {
+            return Double.NaN;
+        }
+
+        double ergebnis;
+        long stempel;
+        do {
+            stempel = eintrag.beginneLesen();
+            ergebnis = wert.applyAsDouble(indikator);
+        } while (!eintrag.istLesenGueltig(stempel));
+        return ergebnis;
+    }
+
+    /**
+     * Liefert die Verwaltungsdaten einer Aktie ohne Sperre.
+     *
+     * @return die Verwaltungsdaten, null wenn für diese Id noch keine existieren
+     */
+    private KursEintrag gibEintrag(int instrumentId) {
+        KursEintrag[] eintraege = kursHistorie;
+        return instrumentId >= 0 && instrumentId < eintraege.length
+                ? (KursEintrag) EINTRAG.getAcquire(eintraege, instrumentId)
+                : null;
+    }
+
+    /**
+     * Liefert die Verwaltungsdaten einer Aktie und legt sie beim ersten Aufruf an.
+     */
+    private KursEintrag holeEintrag(int instrumentId) {
+        KursEintrag eintrag = gibEintrag(instrumentId);
+        return eintrag != null ? eintrag : erstelleEintrag(instrumentId);
+    }
+
+    private synchronized KursEintrag erstelleEintrag(int instrumentId) {
+        KursEintrag[] eintraege = kursHistorie;
+        if (instrumentId < eintraege.length && eintraege[instrumentId] != null) {
+            return eintraege[instrumentId];
+        }
+        String aktieName = register.gibName(instrumentId);
+        KursArchivDatei archivDatei = archiv != null ? archiv.gibDatei(aktieName) : null;
+        KursEintrag eintrag = new KursEintrag(MAX_KURSHISTORIE, MAX_LANGZEITHISTORIE, archivDatei);
+
+        if (instrumentId < eintraege.length) {
+            // Platz vorhanden: direkt eintragen, die Release-Schreiboperation veröffentlicht
+            // den fertig angelegten Eintrag für Leser mit getAcquire
+            EINTRAG.setRelease(eintraege, instrumentId, eintrag);
+            return eintrag;
+        }
+        // Zu klein: geometrisch wachsen, damit n neue Aktien nur O(log n) Kopien kosten
+        int laenge = Math.max(Math.max(eintraege.length * 2, instrumentId + 1), register.gibAnzahl());
+        KursEintrag[] neu = Arrays.copyOf(eintraege, laenge);
+        neu[instrumentId] = eintrag;
+        kursHistorie = neu;
+        return eintrag;
+    }
+
     /**
      * Gibt den aktuellen Status des KursService für Debugging aus.
      *
@@ -232,10 +665,21 @@ public class KursService {
     public String gibStatus() {
         StringBuilder sb = new StringBuilder();
         sb.append("KursService Status:\n");
-        sb.append("- Verwaltete Aktien: ").append(kursHistorie.size()).append("\n");
-        for (String aktieName : kursHistorie.keySet()) {
-            int anzahlKurse = kursHistorie.get(aktieName).size();
-            double durchschnitt = berechnetDurchschnittskurs(aktieName);
+        KursEintrag[] eintraege = kursHistorie;
+        int verwaltet = 0;
+        for (KursEintrag eintrag : eintraege) {
+            if (eintrag != null) {
+                verwaltet++;
+            }
+        }
+        sb.append("- Verwaltete Aktien: ").append(verwaltet).append("\n");
+        for (int id = 0; id < eintraege.length; id++) {
+            if (eintraege[id] == null) {
+                continue;
+            }
+            String aktieName = register.gibName(id);
+            int anzahlKurse = eintraege[id].historie.gibAnzahl();
+            double durchschnitt = berechnetDurchschnittskurs(id);
             sb.append("  - ").append(aktieName).append(": ")
                     .append(anzahlKurse).append(" Kurse, Ø=").append(durchschnitt).append("\n");
         }
@@ -0,0 +1,260 @@
+package de.dwpbank.mikrobank.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Kurshistorie einer einzelnen Aktie als Ringpuffer fester Kapazität.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Speichert die letzten N Kurse einer Aktie in chronologischer Reihenfolge
+ * - Ist der Puffer voll, überschreibt ein neuer Kurs den ältesten (FIFO)
+ * <p>
+ * Technische Hinweise:
+ * - Die Kurse liegen in einem primitiven {@code double[]}, es werden keine
+ *   {@code Double}-Objekte erzeugt
+ * - Das Anhängen eines Kurses kostet O(1), auch wenn der Puffer voll ist
+ *   (kein Verschieben des Arrays wie bei {@code ArrayList.remove(0)})
+ * - Die Summe aller gespeicherten Kurse wird beim Anhängen und Verdrängen
+ *   laufend mitgeführt, der Durchschnitt ist daher in O(1) lesbar
+ * - Die laufende Summe nutzt kompensierte Summation (Kahan-Babuška/Neumaier),
+ *   damit sich über Millionen Ticks keine Rundungsfehler aufsummieren
+ * - Zusätzlich werden Präfixsummen in einem zweiten Ring mitgeführt, damit die
+ *   Summe jedes beliebigen Teilfensters ({@link #gibSumme(int, int)}) in O(1)
+ *   lesbar ist; nach jedem Umlauf werden sie auf den ältesten Stand zurückgesetzt,
+ *   damit die Werte nicht über alle Ticks hinweg wachsen
+ * - Die Klasse ist nicht thread-sicher, die Synchronisation liegt beim Aufrufer
+ */
+public class Kurshistorie {
+
+    // Ringpuffer mit den Kursen
+    private final double[] kurse;
+
+    // Position, an die der nächste Kurs geschrieben wird
+    private int schreibPosition;
+
+    // Anzahl der aktuell gespeicherten Kurse (höchstens kurse.length)
+    private int anzahl;
+
+    // Laufende Summe aller gespeicherten Kurse und ihr Rundungsfehler-Ausgleich
+    private double summe;
+    private double kompensation;
+
+    // Präfixsummen: praefix[praefixPosition] = Summe bis einschließlich des neuesten Kurses,
+    // die Einträge davor gehören zu den älteren Kursen (Länge = Kapazität + 1)
+    private final double[] praefix;
+    private int praefixPosition;
+
+    /**
+     * Erstellt eine leere Kurshistorie.
+     *
+     * @param kapazitaet maximale Anzahl der gespeicherten Kurse
+     * @throws IllegalArgumentException wenn die Kapazität kleiner als 1 ist
+     */
+    public Kurshistorie(int kapazitaet) {
+        if (kapazitaet < 1) {
+            throw new IllegalArgumentException("Kapazität muss größer als 0 sein");
+        }
+        this.kurse = new double[kapazitaet];
+        this.praefix = new double[kapazitaet + 1];
+    }
+
+    /**
+     * Hängt einen neuen Kurs an die Historie an.
+     * <p>
+     * Ist die Historie voll, wird der älteste Kurs überschrieben und aus der
+     * laufenden Summe herausgerechnet.
+     *
+     * @param kurs der neue Kurs
+     */
+    public void fuegeHinzu(double kurs) {
+        if (anzahl == kurse.length) {
+            addiereZurSumme(-kurse[schreibPosition]);
+        }
+        addiereZurSumme(kurs);
+
+        kurse[schreibPosition] = kurs;
+        schreibPosition++;
+        if (schreibPosition == kurse.length) {
+            schreibPosition = 0;
+        }
+        if (anzahl < kurse.length) {
+            anzahl++;
+        }
+
+        int neuePosition = praefixPosition + 1;
+        if (neuePosition == praefix.length) {
+            neuePosition = 0;
+        }
+        praefix[neuePosition] = praefix[praefixPosition] + kurs;
+        praefixPosition = neuePosition;
+        if (neuePosition == praefix.length - 1) {
+            rebasierePraefix();
+        }
+    }
+
+    /**
+     * Liefert den Kurs an einer chronologischen Position.
+     *
+     * @param index 0 = ältester gespeicherter Kurs, gibAnzahl() - 1 = neuester Kurs
+     * @return der Kurs an dieser Position
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb der Historie liegt
+     */
+    public double gib(int index) {
+        if (index < 0 || index >= anzahl) {
+            throw new IndexOutOfBoundsException("Index " + index + " bei " + anzahl + " Kursen");
+        }
+        int position = schreibPosition - anzahl + index;
+        if (position < 0) {
+            position += kurse.length;
+        }
+        return kurse[position];
+    }
+
+    /**
+     * Liefert den neuesten Kurs.
+     *
+     * @return der zuletzt gespeicherte Kurs
+     * @throws IndexOutOfBoundsException wenn die Historie leer ist
+     */
+    public double gibNeuesten() {
+        return gib(anzahl - 1);
+    }
+
+    /**
+     * Liefert den ältesten gespeicherten Kurs.
+     * <p>
+     * Ist die Historie voll ({@link #istVoll()}), wird genau dieser Kurs beim
+     * nächsten {@link #fuegeHinzu(double)} überschrieben.
+     *
+     * @return der älteste gespeicherte Kurs
+     * @throws IndexOutOfBoundsException wenn die Historie leer ist
+     */
+    public double gibAeltesten() {
+        return gib(0);
+    }
+
+    /**
+     * Liefert die Summe aller gespeicherten Kurse in O(1).
+     *
+     * @return Summe der Kurse, 0.0 bei leerer Historie
+     */
+    public double gibSumme() {
+        return summe + kompensation;
+    }
+
+    /**
+     * Liefert den Durchschnitt aller gespeicherten Kurse in O(1).
+     *
+     * @return Durchschnittskurs, 0.0 bei leerer Historie
+     */
+    public double gibDurchschnitt() {
+        if (anzahl == 0) {
+            return 0.0;
+        }
+        return gibSumme() / anzahl;
+    }
+
+    /**
+     * Liefert die Summe eines chronologischen Teilfensters in O(1).
+     * <p>
+     * Beispiel: {@code gibSumme(gibAnzahl() - 5, gibAnzahl())} ist die Summe der
+     * letzten 5 Kurse, unabhängig von der Fensterlänge ohne Schleife.
+     *
+     * @param von erster Index (einschließlich), 0 = ältester gespeicherter Kurs
+     * @param bis letzter Index (ausschließlich), höchstens {@link #gibAnzahl()}
+     * @return Summe der Kurse im Fenster, 0.0 bei leerem Fenster
+     * @throws IndexOutOfBoundsException wenn das Fenster außerhalb der Historie liegt
+     */
+    public double gibSumme(int von, int bis) {
+        if (von < 0 || von > bis || bis > anzahl) {
+            throw new IndexOutOfBoundsException("Fenster [" + von + ", " + bis + ") bei " + anzahl + " Kursen");
+        }
+        return praefix[praefixIndex(bis)] - praefix[praefixIndex(von)];
+    }
+
+    /**
+     * @return Anzahl der gespeicherten Kurse
+     */
+    public int gibAnzahl() {
+        return anzahl;
+    }
+
+    /**
+     * @return maximale Anzahl der gespeicherten Kurse
+     */
+    public int gibKapazitaet() {
+        return kurse.length;
+    }
+
+    /**
+     * @return true, wenn ein weiterer Kurs den ältesten überschreiben würde
+     */
+    public boolean istVoll() {
+        return anzahl == kurse.length;
+    }
+
+    /**
+     * @return true, wenn noch kein Kurs gespeichert wurde
+     */
+    public boolean istLeer() {
+        return anzahl == 0;
+    }
+
+    /**
+     * Kopiert die Kurse in chronologischer Reihenfolge in eine neue Liste.
+     * <p>
+     * Diese Methode erzeugt Objekte und ist für Debugging und Analyse gedacht,
+     * nicht für den Hot-Path.
+     *
+     * @return neue Liste vom ältesten zum neuesten Kurs
+     */
+    public List<Double> alsListe() {
+        List<Double> liste = new ArrayList<>(anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            liste.add(gib(i));
+        }
+        return liste;
+    }
+
+    /**
+     * Position der Präfixsumme vor dem Kurs mit dem chronologischen Index.
+     */
+    private int praefixIndex(int index) {
+        int position = praefixPosition - (anzahl - index);
+        if (position < 0) {
+            position += praefix.length;
+        }
+        return position;
+    }
+
+    /**
+     * Zieht die älteste gespeicherte Präfixsumme von allen ab.
+     * <p>
+     * Wird einmal pro Umlauf aufgerufen (amortisiert O(1)). Ohne diesen Schritt
+     * würden die Präfixsummen mit jedem Tick wachsen und Differenzen kleiner
+     * Fenster durch Auslöschung ungenau werden.
+     */
+    private void rebasierePraefix() {
+        double basis = praefix[0];
+        for (int i = 0; i < praefix.length; i++) {
+            praefix[i] -= basis;
+        }
+    }
+
+    /**
+     * Addiert einen Wert kompensiert (Neumaier) zur laufenden Summe.
+     * <p>
+     * Der bei der Addition verlorene Rundungsanteil wird in {@code kompensation}
+     * gesammelt und beim Lesen der Summe wieder hinzugerechnet.
+     */
+    private void addiereZurSumme(double wert) {
+        double neueSumme = summe + wert;
+        if (Math.abs(summe) >= Math.abs(wert)) {
+            kompensation += (summe - neueSumme) + wert;
+        } else {
+            kompensation += (wert - neueSumme) + summe;
+        }
+        summe = neueSumme;
+    }
+}
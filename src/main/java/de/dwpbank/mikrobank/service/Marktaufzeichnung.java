@@ -0,0 +1,295 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Aufgezeichneter Marktverlauf eines Simulationslaufs zum Wiederabspielen.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Zwei Stände des HandelsRoboters lassen sich auf genau demselben Marktverlauf
+ *   vergleichen (Gewinn/Verlust und Laufzeit)
+ * - Beim Abspielen werden keine Preise neu erzeugt, es werden nur die
+ *   aufgezeichneten Preise Runde für Runde gesetzt
+ * <p>
+ * Dateiformat (Little Endian):
+ * <pre>
+ * Offset  Länge  Inhalt
+ *      0      4  Kennung 0x4D41524B ("MARK")
+ *      4      4  Formatversion (1)
+ *      8      8  Seed des aufgezeichneten Laufs
+ *     16      4  Anzahl Aktien A
+ *     20    ...  A Aktiennamen: je 2 Byte Länge + UTF-8
+ *      .  A * 8  Startpreise (double)
+ *      .  R*A*8  pro Runde die Preise aller Aktien nach der Kursänderung (double)
+ * </pre>
+ * Technische Hinweise:
+ * - Die Anzahl der Runden R steht nicht im Kopf, sondern ergibt sich aus der
+ *   Dateigröße; bricht eine Aufzeichnung ab, sind alle vollständigen Runden lesbar
+ * - Zum Abspielen wird die Datei einmal komplett in ein {@code double[]} gelesen,
+ *   die Runden liegen darin hintereinander
+ */
+public final class Marktaufzeichnung {
+
+    static final int KENNUNG = 0x4D41524B;
+    static final int VERSION = 1;
+
+    private final long seed;
+    private final String[] aktienNamen;
+    private final double[] startpreise;
+    // Runde r, Aktie a: preise[r * A + a]
+    private final double[] preise;
+    private final int runden;
+
+    private Marktaufzeichnung(long seed, String[] aktienNamen, double[] startpreise, double[] preise, int runden) {
+        this.seed = seed;
+        this.aktienNamen = aktienNamen;
+        this.startpreise = startpreise;
+        this.preise = preise;
+        this.runden = runden;
+    }
+
+    /**
+     * Beginnt eine neue Aufzeichnung; eine vorhandene Datei wird überschrieben.
+     *
+     * @param pfad   Pfad der Datei
+     * @param seed   Seed des Laufs
+     * @param aktien die Aktien in fester Reihenfolge, ihre aktuellen Preise sind die Startpreise
+     * @return der Schreiber für die Runden
+     * @throws IllegalArgumentException wenn keine Aktien übergeben werden
+     * @throws UncheckedIOException     bei Ein-/Ausgabefehlern
+     */
+    public static Schreiber beginne(Path pfad, long seed, List<Aktie> aktien) {
+        if (aktien == null || aktien.isEmpty()) {
+            throw new IllegalArgumentException("Aufzeichnung braucht mindestens eine Aktie");
+        }
+        byte[][] namen = new byte[aktien.size()][];
+        int kopfGroesse = 20 + aktien.size() * 8;
+        for (int i = 0; i < namen.length; i++) {
+            namen[i] = aktien.get(i).getName().getBytes(StandardCharsets.UTF_8);
+            if (namen[i].length > 0xFFFF) {
+                throw new IllegalArgumentException("Aktienname zu lang: " + aktien.get(i).getName());
+            }
+            kopfGroesse += 2 + namen[i].length;
+        }
+
+        ByteBuffer kopf = ByteBuffer.allocate(kopfGroesse).order(ByteOrder.LITTLE_ENDIAN);
+        kopf.putInt(KENNUNG).putInt(VERSION).putLong(seed).putInt(namen.length);
+        for (byte[] name : namen) {
+            kopf.putShort((short) name.length).put(name);
+        }
+        for (Aktie aktie : aktien) {
+            kopf.putDouble(aktie.getPreis());
+        }
+        kopf.flip();
+
+        try {
+            FileChannel kanal = FileChannel.open(pfad, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+            try {
+                while (kopf.hasRemaining()) {
+                    kanal.write(kopf);
+                }
+                return new Schreiber(pfad, kanal, aktien.size());
+            } catch (IOException e) {
+                kanal.close();
+                throw e;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Aufzeichnung " + pfad + " kann nicht angelegt werden", e);
+        }
+    }
+
+    /**
+     * Liest eine Aufzeichnung vollständig ein.
+     *
+     * @param pfad Pfad der Datei
+     * @return die Aufzeichnung
+     * @throws IllegalStateException wenn die Datei keine gültige Aufzeichnung ist
+     * @throws UncheckedIOException  bei Ein-/Ausgabefehlern
+     */
+    public static Marktaufzeichnung lies(Path pfad) {
+        ByteBuffer daten;
+        try {
+            daten = ByteBuffer.wrap(Files.readAllBytes(pfad)).order(ByteOrder.LITTLE_ENDIAN);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Aufzeichnung " + pfad + " kann nicht gelesen werden", e);
+        }
+        try {
+            if (daten.getInt() != KENNUNG) {
+                throw new IllegalStateException("Keine gültige Aufzeichnung: " + pfad);
+            }
+            int version = daten.getInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("Nicht unterstützte Version " + version + " in " + pfad);
+            }
+            long seed = daten.getLong();
+            int anzahlAktien = daten.getInt();
+            // Jede Aktie belegt mindestens 10 Byte (Namenslänge + Startpreis)
+            if (anzahlAktien < 1 || anzahlAktien > daten.remaining() / 10) {
+                throw new IllegalStateException("Beschädigte Aufzeichnung: " + pfad);
+            }
+            String[] namen = new String[anzahlAktien];
+            for (int i = 0; i < anzahlAktien; i++) {
+                byte[] name = new byte[Short.toUnsignedInt(daten.getShort())];
+                daten.get(name);
+                namen[i] = new String(name, StandardCharsets.UTF_8);
+            }
+            double[] startpreise = new double[anzahlAktien];
+            daten.asDoubleBuffer().get(startpreise);
+            daten.position(daten.position() + anzahlAktien * 8);
+
+            // Unvollständige letzte Runde (abgebrochene Aufzeichnung) wird ignoriert
+            int runden = daten.remaining() / (anzahlAktien * 8);
+            double[] preise = new double[runden * anzahlAktien];
+            daten.asDoubleBuffer().get(preise);
+            return new Marktaufzeichnung(seed, namen, startpreise, preise, runden);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalStateException("Beschädigte Aufzeichnung: " + pfad, e);
+        }
+    }
+
+    /**
+     * @return Seed des aufgezeichneten Laufs
+     */
+    public long gibSeed() {
+        return seed;
+    }
+
+    /**
+     * @return Anzahl der Aktien
+     */
+    public int gibAnzahlAktien() {
+        return aktienNamen.length;
+    }
+
+    /**
+     * @return Anzahl der vollständig aufgezeichneten Runden
+     */
+    public int gibAnzahlRunden() {
+        return runden;
+    }
+
+    /**
+     * @param aktie Position der Aktie in der Aufzeichnung
+     * @return Name der Aktie
+     */
+    public String gibAktienName(int aktie) {
+        return aktienNamen[aktie];
+    }
+
+    /**
+     * @param aktie Position der Aktie in der Aufzeichnung
+     * @return Preis der Aktie vor der ersten Runde
+     */
+    public double gibStartpreis(int aktie) {
+        return startpreise[aktie];
+    }
+
+    /**
+     * @param runde Runde, beginnend bei 0
+     * @param aktie Position der Aktie in der Aufzeichnung
+     * @return Preis der Aktie nach der Kursänderung dieser Runde
+     * @throws IndexOutOfBoundsException wenn Runde oder Aktie außerhalb der Aufzeichnung liegen
+     */
+    public double gibPreis(int runde, int aktie) {
+        if (runde < 0 || runde >= runden || aktie < 0 || aktie >= aktienNamen.length) {
+            throw new IndexOutOfBoundsException("Runde " + runde + ", Aktie " + aktie);
+        }
+        return preise[runde * aktienNamen.length + aktie];
+    }
+
+    /**
+     * Setzt die Preise einer Runde in die Aktien.
+     *
+     * @param runde  Runde, beginnend bei 0
+     * @param aktien die Aktien in der Reihenfolge der Aufzeichnung
+     * @throws IndexOutOfBoundsException wenn die Runde außerhalb der Aufzeichnung liegt
+     * @throws IllegalArgumentException  wenn die Anzahl der Aktien nicht passt
+     */
+    public void setzePreise(int runde, List<Aktie> aktien) {
+        if (aktien.size() != aktienNamen.length) {
+            throw new IllegalArgumentException("Aufzeichnung hat " + aktienNamen.length + " Aktien, nicht " + aktien.size());
+        }
+        if (runde < 0 || runde >= runden) {
+            throw new IndexOutOfBoundsException("Runde " + runde + " bei " + runden + " Runden");
+        }
+        int basis = runde * aktienNamen.length;
+        for (int i = 0; i < aktienNamen.length; i++) {
+            aktien.get(i).setPreis(preise[basis + i]);
+        }
+    }
+
+    /**
+     * Schreibt die Runden einer Aufzeichnung, siehe {@link #beginne(Path, long, List)}.
+     * <p>
+     * Nicht thread-sicher; die Runden werden vom Simulator nacheinander geschrieben.
+     */
+    public static final class Schreiber implements AutoCloseable {
+
+        private final Path pfad;
+        private final FileChannel kanal;
+        private final ByteBuffer runde;
+        private int runden;
+
+        private Schreiber(Path pfad, FileChannel kanal, int anzahlAktien) {
+            this.pfad = pfad;
+            this.kanal = kanal;
+            this.runde = ByteBuffer.allocate(anzahlAktien * 8).order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        /**
+         * Hängt die aktuellen Preise der Aktien als nächste Runde an.
+         *
+         * @param aktien die Aktien in derselben Reihenfolge wie beim Beginn der Aufzeichnung
+         * @throws IllegalArgumentException wenn die Anzahl der Aktien nicht passt
+         * @throws UncheckedIOException     bei Ein-/Ausgabefehlern
+         */
+        public void schreibeRunde(List<Aktie> aktien) {
+            if (aktien.size() * 8 != runde.capacity()) {
+                throw new IllegalArgumentException("Aufzeichnung hat " + runde.capacity() / 8
+                        + " Aktien, nicht " + aktien.size());
+            }
+            runde.clear();
+            for (Aktie aktie : aktien) {
+                runde.putDouble(aktie.getPreis());
+            }
+            runde.flip();
+            try {
+                while (runde.hasRemaining()) {
+                    kanal.write(runde);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Aufzeichnung " + pfad + " kann nicht geschrieben werden", e);
+            }
+            runden++;
+        }
+
+        /**
+         * @return Anzahl der bisher geschriebenen Runden
+         */
+        public int gibAnzahlRunden() {
+            return runden;
+        }
+
+        @Override
+        public void close() {
+            try {
+                kanal.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Aufzeichnung " + pfad + " kann nicht geschlossen werden", e);
+            }
+        }
+    }
+}
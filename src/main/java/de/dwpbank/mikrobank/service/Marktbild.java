@@ -0,0 +1,113 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.InstrumentRegister;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Konsistenter Stand der Preise aller Aktien zu einem Tick.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Alle Preise eines Marktbilds gehören zum selben Tick; ein Roboter, der mehrere
+ *   Aktien vergleicht, sieht nie eine halb aktualisierte Preisliste
+ * - Die Version zählt die veröffentlichten Ticks (1, 2, 3, ...)
+ * <p>
+ * Verwendung (Marktbilder werden wiederverwendet und müssen zurückgegeben werden):
+ * <pre>
+ * try (Marktbild bild = marktbildquelle.erwerbe()) {
+ *     double apple = bild.gibPreis(appleId);
+ *     double sap = bild.gibPreis(sapId);
+ * }
+ * </pre>
+ * <p>
+ * Technische Hinweise:
+ * - Nach der Veröffentlichung unveränderlich, bis die letzte Referenz zurückgegeben ist;
+ *   danach kommt das Marktbild in den Pool der {@link Marktbildquelle} und wird für
+ *   einen späteren Tick überschrieben
+ * - Nach {@link #close()} darf das Marktbild daher nicht mehr gelesen werden
+ * - Die Preise liegen in einem {@code double[]}, indiziert über die Instrument-Id
+ */
+public final class Marktbild implements AutoCloseable {
+
+    private final Marktbildquelle quelle;
+    final double[] preise;
+    long version;
+
+    // Referenzen: 1 für "aktuell veröffentlicht" plus 1 pro Leser; 0 = im Pool oder in Arbeit
+    private final AtomicInteger referenzen = new AtomicInteger();
+
+    Marktbild(Marktbildquelle quelle, int kapazitaet) {
+        this.quelle = quelle;
+        this.preise = new double[kapazitaet];
+        Arrays.fill(preise, Double.NaN);
+    }
+
+    /**
+     * @return Nummer des Ticks, zu dem dieses Marktbild gehört
+     */
+    public long gibVersion() {
+        return version;
+    }
+
+    /**
+     * @param instrumentId Instrument-Id der Aktie
+     * @return Preis der Aktie in diesem Tick, NaN wenn für die Aktie noch kein Preis
+     *         veröffentlicht wurde
+     */
+    public double gibPreis(int instrumentId) {
+        return instrumentId >= 0 && instrumentId < preise.length ? preise[instrumentId] : Double.NaN;
+    }
+
+    /**
+     * @param aktieName Name der Aktie
+     * @return Preis der Aktie in diesem Tick, NaN wenn die Aktie unbekannt ist oder
+     *         noch keinen Preis hat
+     */
+    public double gibPreis(String aktieName) {
+        return gibPreis(InstrumentRegister.global().gibId(aktieName));
+    }
+
+    /**
+     * Gibt die Referenz des Lesers zurück.
+     */
+    @Override
+    public void close() {
+        gibFrei();
+    }
+
+    /**
+     * Erhöht die Referenzen, falls das Marktbild noch veröffentlicht oder gelesen wird.
+     *
+     * @return false, wenn das Marktbild schon im Pool liegt
+     */
+    boolean erwerbeReferenz() {
+        while (true) {
+            int aktuell = referenzen.get();
+            if (aktuell == 0) {
+                return false;
+            }
+            if (referenzen.compareAndSet(aktuell, aktuell + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Macht ein fertig befülltes Marktbild lesbar (eine Referenz für "veröffentlicht").
+     */
+    void aktiviere(long neueVersion) {
+        version = neueVersion;
+        referenzen.set(1);
+    }
+
+    void gibFrei() {
+        int rest = referenzen.decrementAndGet();
+        if (rest == 0) {
+            quelle.recycle(this);
+        } else if (rest < 0) {
+            referenzen.incrementAndGet();
+            throw new IllegalStateException("Marktbild wurde öfter zurückgegeben als erworben");
+        }
+    }
+}
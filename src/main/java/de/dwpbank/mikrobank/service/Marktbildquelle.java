@@ -0,0 +1,176 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.InstrumentRegister;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Veröffentlicht pro Tick ein {@link Marktbild} mit den Preisen aller Aktien.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Der Simulator (oder der {@link PreisService} im Blockmodus) veröffentlicht nach
+ *   jeder Kursänderung ein neues Marktbild
+ * - Roboter und andere Leser holen sich mit {@link #erwerbe()} jeweils das aktuelle
+ *   und sehen darin alle Aktien im selben Tick
+ * <p>
+ * Technische Hinweise:
+ * - Leser sperren nicht: Erwerben ist ein volatile-Lesen plus ein CAS auf den
+ *   Referenzzähler des Marktbilds
+ * - Ein neues Marktbild wird vollständig befüllt und erst dann über ein
+ *   volatile-Feld veröffentlicht
+ * - Marktbilder, die niemand mehr liest, kommen in einen kleinen Pool und werden für
+ *   spätere Ticks wiederverwendet; im Normalfall wird pro Tick nichts angelegt
+ * - Schreiber werden über die Sperre der Quelle nacheinander ausgeführt
+ */
+public class Marktbildquelle {
+
+    /** Standardgröße des Pools wiederverwendbarer Marktbilder. */
+    public static final int STANDARD_POOL = 4;
+
+    private final InstrumentRegister register = InstrumentRegister.global();
+
+    // Freie Marktbilder; null = Platz frei
+    private final AtomicReferenceArray<Marktbild> pool;
+
+    private volatile Marktbild aktuell;
+
+    /**
+     * Erstellt eine Quelle mit einem leeren Marktbild (Version 0) und dem Standard-Pool.
+     */
+    public Marktbildquelle() {
+        this(STANDARD_POOL);
+    }
+
+    /**
+     * Erstellt eine Quelle mit einem leeren Marktbild (Version 0).
+     *
+     * @param poolGroesse Anzahl der Marktbilder, die zur Wiederverwendung aufgehoben werden
+     * @throws IllegalArgumentException wenn die Poolgröße kleiner als 1 ist
+     */
+    public Marktbildquelle(int poolGroesse) {
+        if (poolGroesse < 1) {
+            throw new IllegalArgumentException("Poolgröße muss größer als 0 sein");
+        }
+        this.pool = new AtomicReferenceArray<>(poolGroesse);
+        Marktbild leer = new Marktbild(this, register.gibAnzahl());
+        leer.aktiviere(0);
+        this.aktuell = leer;
+    }
+
+    /**
+     * Liefert das aktuelle Marktbild. Es muss mit {@link Marktbild#close()} zurückgegeben werden.
+     *
+     * @return das zuletzt veröffentlichte Marktbild
+     */
+    public Marktbild erwerbe() {
+        while (true) {
+            Marktbild bild = aktuell;
+            // Schlägt nur fehl, wenn das Bild zwischen Lesen und CAS ersetzt und recycelt wurde
+            if (bild.erwerbeReferenz()) {
+                return bild;
+            }
+        }
+    }
+
+    /**
+     * @return Version des zuletzt veröffentlichten Marktbilds
+     */
+    public long gibVersion() {
+        return aktuell.version;
+    }
+
+    /**
+     * Veröffentlicht die aktuellen Preise der gegebenen Aktien als neues Marktbild.
+     * <p>
+     * Aktien, die nicht übergeben werden, behalten ihren Preis aus dem vorherigen Marktbild.
+     *
+     * @param aktien die Aktien mit ihren neuen Preisen
+     * @return Version des neuen Marktbilds
+     * @throws IllegalArgumentException wenn die Liste null ist
+     */
+    public synchronized long veroeffentliche(List<Aktie> aktien) {
+        if (aktien == null) {
+            throw new IllegalArgumentException("Aktienliste darf nicht null sein");
+        }
+        // Ids zuerst ermitteln, damit neue Aktien beim Anlegen des Bilds schon registriert sind
+        for (Aktie aktie : aktien) {
+            aktie.getId();
+        }
+        Marktbild neu = beginne();
+        for (Aktie aktie : aktien) {
+            neu.preise[aktie.getId()] = aktie.getPreis();
+        }
+        return aktiviere(neu);
+    }
+
+    /**
+     * Veröffentlicht die Preise eines Blocks als neues Marktbild.
+     *
+     * @param block der Block nach {@link PreisService#ermittlePreise(Preisblock)}
+     * @return Version des neuen Marktbilds
+     * @throws IllegalArgumentException wenn der Block null ist
+     */
+    public synchronized long veroeffentliche(Preisblock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("Preisblock darf nicht null sein");
+        }
+        Marktbild neu = beginne();
+        int[] ids = block.ids;
+        double[] blockPreise = block.preise;
+        double[] ziel = neu.preise;
+        for (int i = 0; i < ids.length; i++) {
+            ziel[ids[i]] = blockPreise[i];
+        }
+        return aktiviere(neu);
+    }
+
+    /**
+     * Holt ein freies Marktbild und kopiert die Preise des aktuellen hinein.
+     */
+    private Marktbild beginne() {
+        Marktbild vorher = aktuell;
+        int kapazitaet = Math.max(register.gibAnzahl(), vorher.preise.length);
+        Marktbild neu = ausPool(kapazitaet);
+        System.arraycopy(vorher.preise, 0, neu.preise, 0, vorher.preise.length);
+        // Ein Bild aus dem Pool kann länger sein und dahinter alte Preise enthalten
+        Arrays.fill(neu.preise, vorher.preise.length, neu.preise.length, Double.NaN);
+        return neu;
+    }
+
+    private long aktiviere(Marktbild neu) {
+        Marktbild vorher = aktuell;
+        neu.aktiviere(vorher.version + 1);
+        aktuell = neu;
+        // Die Referenz "veröffentlicht" des Vorgängers zurückgeben; lesen ihn noch
+        // Roboter, kommt er erst nach deren close() in den Pool
+        vorher.gibFrei();
+        return neu.version;
+    }
+
+    private Marktbild ausPool(int kapazitaet) {
+        for (int i = 0; i < pool.length(); i++) {
+            Marktbild bild = pool.getAndSet(i, null);
+            if (bild != null) {
+                if (bild.preise.length >= kapazitaet) {
+                    return bild;
+                }
+                // Zu klein für die inzwischen registrierten Aktien; wird verworfen
+            }
+        }
+        return new Marktbild(this, kapazitaet);
+    }
+
+    /**
+     * Nimmt ein Marktbild zurück, das niemand mehr liest. Ist der Pool voll, wird es verworfen.
+     */
+    void recycle(Marktbild bild) {
+        for (int i = 0; i < pool.length(); i++) {
+            if (pool.compareAndSet(i, null, bild)) {
+                return;
+            }
+        }
+    }
+}
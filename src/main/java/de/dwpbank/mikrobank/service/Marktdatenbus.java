@@ -0,0 +1,360 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Kursmeldung;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Marktdatenbus: verteilt Kursmeldungen an beliebig viele Abonnenten
+ * ({@link java.util.concurrent.Flow}).
+ * <p>
+ * Fachliche Bedeutung:
+ * - Roboter, {@link KursService} oder Logger abonnieren den Bus und werden über
+ *   jede Kursänderung informiert, statt {@link Aktie#getPreis()} abzufragen
+ * - Ein langsamer Abonnent bremst weder den Bus noch die anderen Abonnenten
+ * <p>
+ * Regeln pro Abonnent:
+ * - Jeder Abonnent hat einen eigenen, begrenzten Puffer
+ * - Zugestellt wird nur, was der Abonnent mit {@link Flow.Subscription#request(long)}
+ *   angefordert hat (Backpressure)
+ * - Ist der Puffer voll, wird eine neue Meldung mit der noch nicht zugestellten
+ *   Meldung derselben Aktie zusammengefasst: die ältere wird durch die neuere
+ *   ersetzt, der Abonnent sieht danach nur den aktuellen Kurs (Conflation)
+ * - Ist keine Meldung derselben Aktie im Puffer, wird die älteste Meldung verworfen;
+ *   der Puffer sollte daher mindestens so groß sein wie die Anzahl der Aktien
+ * <p>
+ * Technische Hinweise:
+ * - {@link #veroeffentliche(Kursmeldung)} legt die Meldung nur in die Puffer und
+ *   kehrt sofort zurück; zugestellt wird auf dem {@link Executor} des Busses,
+ *   pro Abonnent höchstens von einem Thread gleichzeitig und in Reihenfolge
+ * - Die Abonnenten liegen in einem Array (Copy-on-Write), Veröffentlichen braucht
+ *   keine gemeinsame Sperre
+ */
+@Slf4j
+public class Marktdatenbus implements Flow.Publisher<Kursmeldung>, AutoCloseable {
+
+    /** Standardgröße des Puffers pro Abonnent. */
+    public static final int STANDARD_PUFFER = 256;
+
+    private final Executor executor;
+    private final int pufferKapazitaet;
+
+    private volatile Abonnement[] abonnements = new Abonnement[0];
+    private volatile boolean geschlossen;
+
+    /**
+     * Erstellt einen Bus, der im gemeinsamen Fork/Join-Pool zustellt.
+     */
+    public Marktdatenbus() {
+        this(ForkJoinPool.commonPool(), STANDARD_PUFFER);
+    }
+
+    /**
+     * Erstellt einen Bus.
+     *
+     * @param executor         führt die Zustellung an die Abonnenten aus
+     * @param pufferKapazitaet maximale Anzahl nicht zugestellter Meldungen pro Abonnent
+     * @throws IllegalArgumentException wenn der Executor null oder die Kapazität kleiner als 1 ist
+     */
+    public Marktdatenbus(Executor executor, int pufferKapazitaet) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Executor darf nicht null sein");
+        }
+        if (pufferKapazitaet < 1) {
+            throw new IllegalArgumentException("Kapazität muss größer als 0 sein");
+        }
+        this.executor = executor;
+        this.pufferKapazitaet = pufferKapazitaet;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super Kursmeldung> abonnent) {
+        if (abonnent == null) {
+            throw new NullPointerException("Abonnent darf nicht null sein");
+        }
+        Abonnement abonnement = new Abonnement(abonnent);
+        abonnent.onSubscribe(abonnement);
+        synchronized (this) {
+            if (geschlossen) {
+                abonnement.schliesse();
+            } else {
+                Abonnement[] neu = Arrays.copyOf(abonnements, abonnements.length + 1);
+                neu[neu.length - 1] = abonnement;
+                abonnements = neu;
+            }
+        }
+    }
+
+    /**
+     * Verteilt eine Kursmeldung an alle Abonnenten.
+     *
+     * @param meldung die Kursmeldung
+     * @throws IllegalArgumentException wenn die Meldung null ist
+     * @throws IllegalStateException    wenn der Bus geschlossen ist
+     */
+    public void veroeffentliche(Kursmeldung meldung) {
+        if (meldung == null) {
+            throw new IllegalArgumentException("Kursmeldung darf nicht null sein");
+        }
+        if (geschlossen) {
+            throw new IllegalStateException("Marktdatenbus ist geschlossen");
+        }
+        for (Abonnement abonnement : abonnements) {
+            abonnement.biete(meldung);
+        }
+    }
+
+    /**
+     * Verteilt den aktuellen Preis einer Aktie als Kursmeldung ohne Volumen.
+     *
+     * @param aktie       die Aktie
+     * @param zeitstempel Zeitpunkt in Millisekunden seit 1970 (UTC)
+     * @throws IllegalArgumentException wenn die Aktie null ist
+     * @throws IllegalStateException    wenn der Bus geschlossen ist
+     */
+    public void veroeffentliche(Aktie aktie, long zeitstempel) {
+        if (aktie == null) {
+            throw new IllegalArgumentException("Aktie darf nicht null sein");
+        }
+        veroeffentliche(new Kursmeldung(aktie.getId(), aktie.getPreis(), zeitstempel, 0));
+    }
+
+    /**
+     * @return Anzahl der aktiven Abonnenten
+     */
+    public int gibAnzahlAbonnenten() {
+        return abonnements.length;
+    }
+
+    /**
+     * @return Anzahl der Meldungen, die bei vollen Puffern durch eine neuere Meldung
+     *         derselben Aktie ersetzt wurden, über alle aktiven Abonnenten
+     */
+    public long gibAnzahlZusammengefasst() {
+        long summe = 0;
+        for (Abonnement abonnement : abonnements) {
+            summe += abonnement.gibZusammengefasst();
+        }
+        return summe;
+    }
+
+    /**
+     * @return Anzahl der Meldungen, die bei vollen Puffern verworfen wurden,
+     *         über alle aktiven Abonnenten
+     */
+    public long gibAnzahlVerworfen() {
+        long summe = 0;
+        for (Abonnement abonnement : abonnements) {
+            summe += abonnement.gibVerworfen();
+        }
+        return summe;
+    }
+
+    /**
+     * Schließt den Bus. Jeder Abonnent erhält noch seine gepufferten Meldungen
+     * (soweit angefordert) und danach {@code onComplete}.
+     */
+    @Override
+    public void close() {
+        Abonnement[] bisher;
+        synchronized (this) {
+            if (geschlossen) {
+                return;
+            }
+            geschlossen = true;
+            bisher = abonnements;
+            abonnements = new Abonnement[0];
+        }
+        for (Abonnement abonnement : bisher) {
+            abonnement.schliesse();
+        }
+    }
+
+    private synchronized void entferne(Abonnement abonnement) {
+        Abonnement[] aktuell = abonnements;
+        for (int i = 0; i < aktuell.length; i++) {
+            if (aktuell[i] == abonnement) {
+                Abonnement[] neu = new Abonnement[aktuell.length - 1];
+                System.arraycopy(aktuell, 0, neu, 0, i);
+                System.arraycopy(aktuell, i + 1, neu, i, aktuell.length - i - 1);
+                abonnements = neu;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Puffer und Zustellung für einen Abonnenten.
+     * <p>
+     * Der Puffer ist ein Ring über fortlaufende Sequenznummern [kopf, ende).
+     * {@code letzteSequenz} merkt sich pro Instrument-Id die Sequenz der jüngsten
+     * gepufferten Meldung; liegt sie noch im Ring, kann sie ersetzt werden.
+     * Der Zustand wird unter der Sperre des Abonnements geändert, die Aufrufe des
+     * Abonnenten erfolgen außerhalb der Sperre.
+     */
+    private final class Abonnement implements Flow.Subscription, Runnable {
+
+        private final Flow.Subscriber<? super Kursmeldung> abonnent;
+        private final Kursmeldung[] puffer = new Kursmeldung[pufferKapazitaet];
+        private long[] letzteSequenz = new long[0];
+        private long kopf;
+        private long ende;
+
+        private long nachfrage;
+        private boolean abgebrochen;
+        private boolean abschliessen;
+        private Throwable fehler;
+        private long zusammengefasst;
+        private long verworfen;
+
+        // Anzahl der ausstehenden Zustellaufträge; nur wer von 0 erhöht, startet die Zustellung
+        private final AtomicInteger arbeit = new AtomicInteger();
+
+        Abonnement(Flow.Subscriber<? super Kursmeldung> abonnent) {
+            this.abonnent = abonnent;
+        }
+
+        void biete(Kursmeldung meldung) {
+            synchronized (this) {
+                if (abgebrochen || abschliessen) {
+                    return;
+                }
+                int id = meldung.getInstrumentId();
+                if (id >= letzteSequenz.length) {
+                    int alteLaenge = letzteSequenz.length;
+                    letzteSequenz = Arrays.copyOf(letzteSequenz, Math.max(alteLaenge * 2, id + 1));
+                    Arrays.fill(letzteSequenz, alteLaenge, letzteSequenz.length, -1);
+                }
+                if (ende - kopf == puffer.length) {
+                    long sequenz = letzteSequenz[id];
+                    if (sequenz >= kopf) {
+                        puffer[(int) (sequenz % puffer.length)] = meldung;
+                        zusammengefasst++;
+                        return;
+                    }
+                    puffer[(int) (kopf % puffer.length)] = null;
+                    kopf++;
+                    verworfen++;
+                }
+                puffer[(int) (ende % puffer.length)] = meldung;
+                letzteSequenz[id] = ende;
+                ende++;
+                if (nachfrage == 0) {
+                    return;
+                }
+            }
+            plane();
+        }
+
+        @Override
+        public void request(long n) {
+            synchronized (this) {
+                if (abgebrochen) {
+                    return;
+                }
+                if (n <= 0) {
+                    fehler = new IllegalArgumentException("Anforderung muss größer als 0 sein: " + n);
+                } else {
+                    nachfrage = nachfrage + n < 0 ? Long.MAX_VALUE : nachfrage + n;
+                }
+            }
+            plane();
+        }
+
+        @Override
+        public void cancel() {
+            synchronized (this) {
+                abgebrochen = true;
+                Arrays.fill(puffer, null);
+            }
+            entferne(this);
+        }
+
+        void schliesse() {
+            synchronized (this) {
+                abschliessen = true;
+            }
+            plane();
+        }
+
+        synchronized long gibZusammengefasst() {
+            return zusammengefasst;
+        }
+
+        synchronized long gibVerworfen() {
+            return verworfen;
+        }
+
+        private void plane() {
+            if (arbeit.getAndIncrement() == 0) {
+                executor.execute(this);
+            }
+        }
+
+        /**
+         * Stellt zu, solange Nachfrage und Meldungen vorhanden sind.
+         */
+        @Override
+        public void run() {
+            int auftraege = arbeit.get();
+            while (true) {
+                stelleZu();
+                auftraege = arbeit.addAndGet(-auftraege);
+                if (auftraege == 0) {
+                    return;
+                }
+            }
+        }
+
+        private void stelleZu() {
+            while (true) {
+                Kursmeldung meldung;
+                synchronized (this) {
+                    if (abgebrochen) {
+                        return;
+                    }
+                    if (fehler != null) {
+                        abgebrochen = true;
+                        break;
+                    }
+                    if (kopf == ende) {
+                        if (abschliessen) {
+                            abgebrochen = true;
+                            meldung = null;
+                        } else {
+                            return;
+                        }
+                    } else if (nachfrage == 0) {
+                        return;
+                    } else {
+                        int position = (int) (kopf % puffer.length);
+                        meldung = puffer[position];
+                        puffer[position] = null;
+                        kopf++;
+                        nachfrage--;
+                    }
+                }
+                if (meldung == null) {
+                    abonnent.onComplete();
+                    return;
+                }
+                try {
+                    abonnent.onNext(meldung);
+                } catch (RuntimeException e) {
+                    log.warn("Abonnent {} hat eine Kursmeldung nicht verarbeitet: {}", abonnent, e.getMessage());
+                    synchronized (this) {
+                        fehler = e;
+                    }
+                }
+            }
+            entferne(this);
+            abonnent.onError(fehler);
+        }
+    }
+}
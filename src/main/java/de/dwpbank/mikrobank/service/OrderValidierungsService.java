@@ -20,14 +20,10 @@ public class OrderValidierungsService {
      *
      * @param aktie die zu kaufende Aktie
      * @param menge Anzahl der Aktien
+     * @throws IllegalArgumentException wenn die Order ungültig ist
      */
     public void validiereKauf(Aktie aktie, int menge) {
-        // IMPLEMENTIERUNG:
-        // 1. Prüfe, ob aktie == null
-        // 2. Prüfe, ob menge <= 0
-        // 3. Wenn eine Prüfung fehlschlägt:
-        //    - logge die Ursache
-        //    - wirf IllegalArgumentException
+        validiere("Kauforder", aktie, menge);
     }
 
     /**
@@ -39,9 +35,22 @@ public class OrderValidierungsService {
      *
      * @param aktie die zu verkaufende Aktie
      * @param menge Anzahl der Aktien
+     * @throws IllegalArgumentException wenn die Order ungültig ist
      */
     public void validiereVerkauf(Aktie aktie, int menge) {
-        // IMPLEMENTIERUNG:
-        // Gleiche Logik wie bei validiereKauf
+        validiere("Verkaufsorder", aktie, menge);
+    }
+
+    private static void validiere(String order, Aktie aktie, int menge) {
+        log.debug("Prüfe {}: Aktie vorhanden", order);
+        if (aktie == null) {
+            log.error("{} ohne Aktie", order);
+            throw new IllegalArgumentException("Aktie darf nicht null sein");
+        }
+        log.debug("Prüfe {}: Menge {} größer als 0", order, menge);
+        if (menge <= 0) {
+            log.error("{} über {} mit ungültiger Menge {}", order, aktie.getName(), menge);
+            throw new IllegalArgumentException("Menge muss größer als 0 sein");
+        }
     }
 }
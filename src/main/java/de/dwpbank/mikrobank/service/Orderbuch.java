@@ -0,0 +1,459 @@
+package de.dwpbank.mikrobank.service;
+
+import java.util.Arrays;
+
+/**
+ * Limit-Orderbuch einer Aktie mit Preis-Zeit-Priorität.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Kauf- und Verkaufsorders werden gegeneinander ausgeführt; der Kurs entsteht aus
+ *   den Orders selbst und reagiert damit auch auf die Orders der Roboter
+ * - Eine eingehende Order wird gegen die beste Gegenseite ausgeführt, zuerst zum
+ *   besten Preis, bei gleichem Preis gegen die älteste Order (FIFO);
+ *   Ausführungspreis ist immer der Preis der ruhenden Order
+ * - Limit-Orders: ein nicht ausgeführter Rest ruht im Buch, bis er ausgeführt oder
+ *   storniert wird. Market-Orders: ein nicht ausführbarer Rest verfällt
+ * <p>
+ * Design-Entscheidungen:
+ * - Preise in ganzen Cent; jede Preisstufe zwischen {@code minPreisCent} und
+ *   {@code maxPreisCent} ist ein Index in primitive Arrays (erste/letzte Order,
+ *   Gesamtvolumen). Den besten Kurs je Seite findet ein Indexvergleich, keine Map
+ *   und kein Baum
+ * - Orders liegen in parallelen Arrays (Restmenge, Stufe, Verkettung) und werden über
+ *   eine Freiliste wiederverwendet; nach dem Aufwärmen erzeugt eine Order kein Objekt
+ * - Die Order-Id enthält Slot und Generation des Slots; eine Id einer bereits
+ *   erledigten Order trifft deshalb nie eine spätere Order im selben Slot
+ * - Ausführungen werden an einen {@link Ausfuehrungsbeobachter} gemeldet, mit
+ *   primitiven Parametern
+ * <p>
+ * Technische Hinweise:
+ * - Nicht thread-sicher: ein Orderbuch hat genau einen schreibenden Thread, oder
+ *   der Aufrufer synchronisiert (z. B. der {@link BoerseService} auf dem Orderbuch)
+ */
+public final class Orderbuch {
+
+    /**
+     * Seite einer Order.
+     */
+    public enum Seite {
+        KAUF,
+        VERKAUF
+    }
+
+    /**
+     * Erhält jede einzelne Ausführung.
+     */
+    @FunctionalInterface
+    public interface Ausfuehrungsbeobachter {
+
+        /**
+         * @param aktiveOrderId  Id der eingehenden Order
+         * @param passiveOrderId Id der ruhenden Order
+         * @param preisCent      Ausführungspreis in Cent
+         * @param menge          ausgeführte Stückzahl
+         */
+        void ausgefuehrt(long aktiveOrderId, long passiveOrderId, long preisCent, long menge);
+    }
+
+    private static final int START_SLOTS = 1024;
+
+    private final String symbol;
+    private final long minPreisCent;
+    private final int stufen;
+
+    // Preisstufen, Index = Preis in Cent - minPreisCent; -1 = leer
+    private final int[] kaufKopf;
+    private final int[] kaufEnde;
+    private final long[] kaufVolumen;
+    private final int[] verkaufKopf;
+    private final int[] verkaufEnde;
+    private final long[] verkaufVolumen;
+    // Höchste belegte Kaufstufe (-1 = keine), niedrigste belegte Verkaufsstufe (stufen = keine)
+    private int besterKauf = -1;
+    private int besterVerkauf;
+
+    // Orders nach Slot
+    private long[] restmenge = new long[START_SLOTS];
+    private int[] stufe = new int[START_SLOTS];
+    private boolean[] istKauf = new boolean[START_SLOTS];
+    private int[] naechster = new int[START_SLOTS];
+    private int[] vorheriger = new int[START_SLOTS];
+    private int[] generation = new int[START_SLOTS];
+    private int belegteSlots;
+    private int freiKopf = -1;
+    private int offeneOrders;
+
+    private Ausfuehrungsbeobachter beobachter;
+    private long letzterKursCent = -1;
+    private long zuletztAusgefuehrt;
+    private long zuletztUmsatzCent;
+
+    /**
+     * Erstellt ein leeres Orderbuch.
+     *
+     * @param symbol       Name der Aktie, für Meldungen
+     * @param minPreisCent niedrigster zulässiger Preis in Cent
+     * @param maxPreisCent höchster zulässiger Preis in Cent
+     * @throws IllegalArgumentException wenn das Preisband ungültig oder größer als 10 Mio. Stufen ist
+     */
+    public Orderbuch(String symbol, long minPreisCent, long maxPreisCent) {
+        if (minPreisCent < 1 || maxPreisCent < minPreisCent || maxPreisCent - minPreisCent >= 10_000_000) {
+            throw new IllegalArgumentException("Ungültiges Preisband [" + minPreisCent + ", " + maxPreisCent + "]");
+        }
+        this.symbol = symbol;
+        this.minPreisCent = minPreisCent;
+        this.stufen = (int) (maxPreisCent - minPreisCent + 1);
+        this.kaufKopf = leereStufen(stufen);
+        this.kaufEnde = leereStufen(stufen);
+        this.kaufVolumen = new long[stufen];
+        this.verkaufKopf = leereStufen(stufen);
+        this.verkaufEnde = leereStufen(stufen);
+        this.verkaufVolumen = new long[stufen];
+        this.besterVerkauf = stufen;
+    }
+
+    /**
+     * @param beobachter erhält alle künftigen Ausführungen; null = keiner
+     */
+    public void setzeBeobachter(Ausfuehrungsbeobachter beobachter) {
+        this.beobachter = beobachter;
+    }
+
+    /**
+     * Gibt eine Limit-Order auf. Der ausführbare Teil wird sofort ausgeführt, ein Rest
+     * ruht im Buch.
+     *
+     * @param seite      Kauf oder Verkauf
+     * @param limitCent  Limit in Cent (Kauf: höchstens, Verkauf: mindestens)
+     * @param menge      Stückzahl
+     * @return die Order-Id, z. B. für {@link #storniere(long)}
+     * @throws IllegalArgumentException wenn Menge oder Limit ungültig sind
+     */
+    public long ordneEin(Seite seite, long limitCent, long menge) {
+        if (limitCent < minPreisCent || limitCent - minPreisCent >= stufen) {
+            throw new IllegalArgumentException("Limit " + limitCent + " außerhalb des Preisbands von " + symbol);
+        }
+        return verarbeite(seite == Seite.KAUF, (int) (limitCent - minPreisCent), menge, true);
+    }
+
+    /**
+     * Gibt eine Market-Order auf. Sie wird so weit wie möglich ausgeführt, ein Rest verfällt.
+     *
+     * @param seite Kauf oder Verkauf
+     * @param menge Stückzahl
+     * @return die Order-Id
+     * @throws IllegalArgumentException wenn die Menge nicht größer als 0 ist
+     */
+    public long ordneEinMarkt(Seite seite, long menge) {
+        boolean kauf = seite == Seite.KAUF;
+        return verarbeite(kauf, kauf ? stufen - 1 : 0, menge, false);
+    }
+
+    /**
+     * Storniert den ruhenden Rest einer Order.
+     *
+     * @param orderId die Order-Id
+     * @return true, wenn ein Rest storniert wurde; false, wenn die Order bereits
+     *         vollständig ausgeführt, storniert oder unbekannt ist
+     */
+    public boolean storniere(long orderId) {
+        int slot = gibOffenenSlot(orderId);
+        if (slot < 0) {
+            return false;
+        }
+        int s = stufe[slot];
+        if (istKauf[slot]) {
+            kaufVolumen[s] -= restmenge[slot];
+            entferne(slot, s, kaufKopf, kaufEnde);
+            if (s == besterKauf && kaufKopf[s] < 0) {
+                besterKauf = naechsteKaufstufe(s);
+            }
+        } else {
+            verkaufVolumen[s] -= restmenge[slot];
+            entferne(slot, s, verkaufKopf, verkaufEnde);
+            if (s == besterVerkauf && verkaufKopf[s] < 0) {
+                besterVerkauf = naechsteVerkaufsstufe(s);
+            }
+        }
+        offeneOrders--;
+        gibFrei(slot);
+        return true;
+    }
+
+    /**
+     * @param orderId die Order-Id
+     * @return ruhende Restmenge der Order, 0 wenn sie nicht (mehr) im Buch liegt
+     */
+    public long gibRestmenge(long orderId) {
+        int slot = gibOffenenSlot(orderId);
+        return slot < 0 ? 0 : restmenge[slot];
+    }
+
+    /**
+     * Berechnet, was eine Market-Kauforder über {@code menge} Stück jetzt kosten würde.
+     *
+     * @param menge Stückzahl
+     * @return Kosten in Cent, oder -1 wenn das Buch nicht genug Verkaufsvolumen hat
+     */
+    public long berechneKaufkosten(long menge) {
+        long rest = menge;
+        long kosten = 0;
+        for (int s = besterVerkauf; s < stufen && rest > 0; s++) {
+            long m = Math.min(rest, verkaufVolumen[s]);
+            kosten = Math.addExact(kosten, Math.multiplyExact(m, minPreisCent + s));
+            rest -= m;
+        }
+        return rest > 0 ? -1 : kosten;
+    }
+
+    /**
+     * Berechnet, was eine Market-Verkaufsorder über {@code menge} Stück jetzt erlösen würde.
+     *
+     * @param menge Stückzahl
+     * @return Erlös in Cent, oder -1 wenn das Buch nicht genug Kaufvolumen hat
+     */
+    public long berechneVerkaufserloes(long menge) {
+        long rest = menge;
+        long erloes = 0;
+        for (int s = besterKauf; s >= 0 && rest > 0; s--) {
+            long m = Math.min(rest, kaufVolumen[s]);
+            erloes = Math.addExact(erloes, Math.multiplyExact(m, minPreisCent + s));
+            rest -= m;
+        }
+        return rest > 0 ? -1 : erloes;
+    }
+
+    /**
+     * @return bester (höchster) Kaufpreis in Cent, oder -1 wenn keine Kauforder ruht
+     */
+    public long gibBestenGeldkursCent() {
+        return besterKauf < 0 ? -1 : minPreisCent + besterKauf;
+    }
+
+    /**
+     * @return bester (niedrigster) Verkaufspreis in Cent, oder -1 wenn keine Verkaufsorder ruht
+     */
+    public long gibBestenBriefkursCent() {
+        return besterVerkauf >= stufen ? -1 : minPreisCent + besterVerkauf;
+    }
+
+    /**
+     * @param seite     Kauf oder Verkauf
+     * @param preisCent Preisstufe in Cent
+     * @return ruhendes Gesamtvolumen der Stufe, 0 außerhalb des Preisbands
+     */
+    public long gibVolumen(Seite seite, long preisCent) {
+        if (preisCent < minPreisCent || preisCent - minPreisCent >= stufen) {
+            return 0;
+        }
+        int s = (int) (preisCent - minPreisCent);
+        return seite == Seite.KAUF ? kaufVolumen[s] : verkaufVolumen[s];
+    }
+
+    /**
+     * @return Preis der letzten Ausführung in Cent, oder -1 wenn noch nichts ausgeführt wurde
+     */
+    public long gibLetztenKursCent() {
+        return letzterKursCent;
+    }
+
+    /**
+     * @return ausgeführte Stückzahl der zuletzt aufgegebenen Order
+     */
+    public long gibZuletztAusgefuehrt() {
+        return zuletztAusgefuehrt;
+    }
+
+    /**
+     * @return Umsatz der zuletzt aufgegebenen Order in Cent (Summe Preis * Menge)
+     */
+    public long gibZuletztUmsatzCent() {
+        return zuletztUmsatzCent;
+    }
+
+    /**
+     * @return Anzahl der im Buch ruhenden Orders
+     */
+    public int gibAnzahlOffeneOrders() {
+        return offeneOrders;
+    }
+
+    /**
+     * @return Name der Aktie
+     */
+    public String gibSymbol() {
+        return symbol;
+    }
+
+    private long verarbeite(boolean kauf, int limitStufe, long menge, boolean ruhen) {
+        if (menge <= 0) {
+            throw new IllegalArgumentException("Menge muss größer als 0 sein");
+        }
+        int slot = belegeSlot();
+        long id = id(slot);
+        zuletztAusgefuehrt = 0;
+        zuletztUmsatzCent = 0;
+
+        long rest = menge;
+        if (kauf) {
+            while (rest > 0 && besterVerkauf <= limitStufe) {
+                rest = fuelle(id, besterVerkauf, rest, verkaufKopf, verkaufEnde, verkaufVolumen);
+                if (verkaufKopf[besterVerkauf] < 0) {
+                    besterVerkauf = naechsteVerkaufsstufe(besterVerkauf);
+                }
+            }
+        } else {
+            while (rest > 0 && besterKauf >= limitStufe) {
+                rest = fuelle(id, besterKauf, rest, kaufKopf, kaufEnde, kaufVolumen);
+                if (kaufKopf[besterKauf] < 0) {
+                    besterKauf = naechsteKaufstufe(besterKauf);
+                }
+            }
+        }
+
+        if (rest > 0 && ruhen) {
+            restmenge[slot] = rest;
+            stufe[slot] = limitStufe;
+            istKauf[slot] = kauf;
+            if (kauf) {
+                haengeAn(slot, limitStufe, kaufKopf, kaufEnde);
+                kaufVolumen[limitStufe] += rest;
+                besterKauf = Math.max(besterKauf, limitStufe);
+            } else {
+                haengeAn(slot, limitStufe, verkaufKopf, verkaufEnde);
+                verkaufVolumen[limitStufe] += rest;
+                besterVerkauf = Math.min(besterVerkauf, limitStufe);
+            }
+            offeneOrders++;
+        } else {
+            gibFrei(slot);
+        }
+        return id;
+    }
+
+    /**
+     * Führt eine eingehende Order gegen die Orders einer Stufe aus, älteste zuerst.
+     *
+     * @return nicht ausgeführter Rest der eingehenden Order
+     */
+    private long fuelle(long aktiveId, int s, long rest, int[] kopf, int[] ende, long[] volumen) {
+        long preis = minPreisCent + s;
+        int passiv = kopf[s];
+        while (rest > 0 && passiv >= 0) {
+            long m = Math.min(rest, restmenge[passiv]);
+            rest -= m;
+            restmenge[passiv] -= m;
+            volumen[s] -= m;
+            zuletztAusgefuehrt += m;
+            zuletztUmsatzCent += m * preis;
+            letzterKursCent = preis;
+            if (beobachter != null) {
+                beobachter.ausgefuehrt(aktiveId, id(passiv), preis, m);
+            }
+            if (restmenge[passiv] == 0) {
+                int weiter = naechster[passiv];
+                kopf[s] = weiter;
+                if (weiter < 0) {
+                    ende[s] = -1;
+                } else {
+                    vorheriger[weiter] = -1;
+                }
+                offeneOrders--;
+                gibFrei(passiv);
+                passiv = weiter;
+            }
+        }
+        return rest;
+    }
+
+    private void haengeAn(int slot, int s, int[] kopf, int[] ende) {
+        int letzter = ende[s];
+        naechster[slot] = -1;
+        vorheriger[slot] = letzter;
+        if (letzter < 0) {
+            kopf[s] = slot;
+        } else {
+            naechster[letzter] = slot;
+        }
+        ende[s] = slot;
+    }
+
+    private void entferne(int slot, int s, int[] kopf, int[] ende) {
+        int vor = vorheriger[slot];
+        int nach = naechster[slot];
+        if (vor < 0) {
+            kopf[s] = nach;
+        } else {
+            naechster[vor] = nach;
+        }
+        if (nach < 0) {
+            ende[s] = vor;
+        } else {
+            vorheriger[nach] = vor;
+        }
+    }
+
+    private int naechsteKaufstufe(int ab) {
+        for (int s = ab - 1; s >= 0; s--) {
+            if (kaufKopf[s] >= 0) {
+                return s;
+            }
+        }
+        return -1;
+    }
+
+    private int naechsteVerkaufsstufe(int ab) {
+        for (int s = ab + 1; s < stufen; s++) {
+            if (verkaufKopf[s] >= 0) {
+                return s;
+            }
+        }
+        return stufen;
+    }
+
+    private int belegeSlot() {
+        if (freiKopf >= 0) {
+            int slot = freiKopf;
+            freiKopf = naechster[slot];
+            return slot;
+        }
+        if (belegteSlots == restmenge.length) {
+            int neu = restmenge.length * 2;
+            restmenge = Arrays.copyOf(restmenge, neu);
+            stufe = Arrays.copyOf(stufe, neu);
+            istKauf = Arrays.copyOf(istKauf, neu);
+            naechster = Arrays.copyOf(naechster, neu);
+            vorheriger = Arrays.copyOf(vorheriger, neu);
+            generation = Arrays.copyOf(generation, neu);
+        }
+        return belegteSlots++;
+    }
+
+    private void gibFrei(int slot) {
+        restmenge[slot] = 0;
+        generation[slot]++;
+        naechster[slot] = freiKopf;
+        freiKopf = slot;
+    }
+
+    private long id(int slot) {
+        return ((long) generation[slot] << 32) | slot;
+    }
+
+    /**
+     * @return Slot der Order, wenn sie noch im Buch ruht; sonst -1
+     */
+    private int gibOffenenSlot(long orderId) {
+        int slot = (int) orderId;
+        if (slot < 0 || slot >= belegteSlots || generation[slot] != (int) (orderId >>> 32) || restmenge[slot] == 0) {
+            return -1;
+        }
+        return slot;
+    }
+
+    private static int[] leereStufen(int anzahl) {
+        int[] stufen = new int[anzahl];
+        Arrays.fill(stufen, -1);
+        return stufen;
+    }
+}
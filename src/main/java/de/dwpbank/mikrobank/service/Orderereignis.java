@@ -0,0 +1,139 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Konto;
+
+/**
+ * Ein Platz im Ring der {@link Orderpipeline}: eine Order und ihr Ergebnis.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Enthält die eingereichte Order (Konto, Aktie, Menge, Seite) und, sobald die
+ *   Pipeline sie durchlaufen hat, das Ergebnis: ausgeführt mit Umsatz und neuem Kurs
+ *   oder abgelehnt mit Grund
+ * <p>
+ * Technische Hinweise:
+ * - Die Objekte werden beim Anlegen der Pipeline einmal erzeugt und für jede
+ *   Order wiederverwendet. Ein Ereignis ist nur während des Aufrufs von
+ *   {@link Orderpipeline.Abschluss#abgeschlossen(Orderereignis)} gültig; wer Werte
+ *   danach braucht, muss sie kopieren
+ * - Jede Stufe der Pipeline schreibt nur ihre eigenen Felder; die Sichtbarkeit für
+ *   die nächste Stufe stellt der Fortschrittszähler der Pipeline her
+ */
+public final class Orderereignis {
+
+    long sequenz;
+    Konto konto;
+    Aktie aktie;
+    int menge;
+    Orderbuch.Seite seite;
+    Object anhang;
+
+    String ablehnungsgrund;
+    Reservierung reservierung;
+    // Von der Deckungsstufe ermittelt; die Ausführung nutzt dasselbe Buch
+    Orderbuch buch;
+    long umsatzCent;
+    long kursCent;
+
+    Orderereignis() {
+    }
+
+    void setze(long sequenz, Konto konto, Aktie aktie, int menge, Orderbuch.Seite seite, Object anhang) {
+        this.sequenz = sequenz;
+        this.konto = konto;
+        this.aktie = aktie;
+        this.menge = menge;
+        this.seite = seite;
+        this.anhang = anhang;
+        this.ablehnungsgrund = null;
+        this.reservierung = null;
+        this.buch = null;
+        this.umsatzCent = 0;
+        this.kursCent = 0;
+    }
+
+    void leere() {
+        konto = null;
+        aktie = null;
+        anhang = null;
+        reservierung = null;
+        buch = null;
+    }
+
+    /**
+     * @return Sequenznummer, die {@link Orderpipeline#reicheEin} für die Order geliefert hat
+     */
+    public long gibSequenz() {
+        return sequenz;
+    }
+
+    /**
+     * @return das Konto des Kunden
+     */
+    public Konto gibKonto() {
+        return konto;
+    }
+
+    /**
+     * @return die Aktie
+     */
+    public Aktie gibAktie() {
+        return aktie;
+    }
+
+    /**
+     * @return Anzahl der Aktien
+     */
+    public int gibMenge() {
+        return menge;
+    }
+
+    /**
+     * @return Kauf oder Verkauf
+     */
+    public Orderbuch.Seite gibSeite() {
+        return seite;
+    }
+
+    /**
+     * @return das beim Einreichen übergebene Objekt, z. B. für die Zuordnung der Antwort
+     */
+    public Object gibAnhang() {
+        return anhang;
+    }
+
+    /**
+     * @return true, wenn die Order abgelehnt wurde; Konto und Kurs sind dann unverändert
+     */
+    public boolean istAbgelehnt() {
+        return ablehnungsgrund != null;
+    }
+
+    /**
+     * @return Grund der Ablehnung, null wenn die Order ausgeführt wurde
+     */
+    public String gibAblehnungsgrund() {
+        return ablehnungsgrund;
+    }
+
+    /**
+     * @return gebuchter Betrag in Cent (Kosten beim Kauf, Erlös beim Verkauf), 0 bei Ablehnung
+     */
+    public long gibUmsatzCent() {
+        return umsatzCent;
+    }
+
+    /**
+     * @return Kurs der Aktie nach der Ausführung in Cent, 0 bei Ablehnung
+     */
+    public long gibKursCent() {
+        return kursCent;
+    }
+
+    @Override
+    public String toString() {
+        return "Orderereignis[" + sequenz + ", " + seite + " " + menge + " x "
+                + (aktie != null ? aktie.getName() : null) + ", "
+                + (ablehnungsgrund != null ? "abgelehnt: " + ablehnungsgrund : umsatzCent + " Cent") + "]";
+    }
+}
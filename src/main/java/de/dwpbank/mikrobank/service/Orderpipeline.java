@@ -0,0 +1,483 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Konto;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Orderpipeline: führt Orders des {@link BoerseService} in aufeinanderfolgenden Stufen
+ * auf eigenen Threads aus, statt auf dem Thread des Aufrufers.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Jede Order durchläuft vier Stufen: Validierung, Deckung (Geld reservieren),
+ *   Ausführung (Orderbuch oder PreisService) und Historie (KursService)
+ * - Fachlich gelten dieselben Regeln wie bei {@link BoerseService#kaufe} und
+ *   {@link BoerseService#verkaufe}; eine Ablehnung wird aber nicht geworfen, sondern
+ *   mit Grund im {@link Orderereignis} gemeldet
+ * - Alle Orders werden in der Reihenfolge ihrer Sequenznummer ausgeführt und gemeldet
+ * <p>
+ * Design-Entscheidungen (nach dem Vorbild des LMAX Disruptor):
+ * - Ein Ring aus vorab angelegten {@link Orderereignis}sen; Einreichen und Verarbeiten
+ *   erzeugen keine Objekte der Pipeline
+ * - Einreichende Threads holen sich eine Sequenznummer per CAS, ohne Sperre, und
+ *   veröffentlichen ihren Platz einzeln; ist der Ring voll, warten sie auf die
+ *   letzte Stufe (Backpressure)
+ * - Jede Stufe hat genau einen Thread und einen Fortschrittszähler, den nur sie
+ *   schreibt. Eine Stufe verarbeitet alles bis zum Fortschritt der vorigen Stufe am
+ *   Stück und veröffentlicht ihren eigenen Fortschritt einmal pro Stapel
+ * - Wartende Threads spinnen kurz, geben dann den Prozessor ab und parken zuletzt
+ *   kurz; es gibt keine Sperre und kein Condition-Objekt
+ * - Die Ausführung gegen ein {@link Orderbuch} synchronisiert weiterhin auf dem Buch,
+ *   damit parallel direkt aufgerufene {@link BoerseService#kaufe}-Orders sicher bleiben
+ * <p>
+ * Technische Hinweise:
+ * - Die Dienste selbst (Logging, Journal, eine {@link Reservierung} je Kauf) können
+ *   weiterhin Objekte erzeugen
+ * - {@link Abschluss} wird auf dem Thread der Historie-Stufe aufgerufen und hält
+ *   die Pipeline auf, solange er läuft
+ * - Von einem Stufen-Thread aus (im {@link Abschluss} oder in einer synchronen
+ *   Fortsetzung eines Futures) wird keine Order angenommen: bei vollem Ring würde
+ *   die Historie-Stufe auf sich selbst warten. Folgeorders werden mit den
+ *   {@code ...Async}-Varianten der Futures oder von einem anderen Thread eingereicht
+ * - {@link #close()} verarbeitet alle bereits eingereichten Orders zu Ende
+ */
+@Slf4j
+public class Orderpipeline implements AutoCloseable {
+
+    /**
+     * Erhält jede Order, nachdem sie alle Stufen durchlaufen hat.
+     */
+    @FunctionalInterface
+    public interface Abschluss {
+
+        /**
+         * @param ereignis die ausgeführte oder abgelehnte Order, nur während des Aufrufs gültig
+         */
+        void abgeschlossen(Orderereignis ereignis);
+    }
+
+    static final String NICHT_GEDECKT = "Nicht genügend Guthaben für den Kauf";
+    static final String KEINE_LIQUIDITAET = "Nicht genügend Liquidität im Orderbuch";
+
+    private static final int VALIDIERUNG = 0;
+    private static final int DECKUNG = 1;
+    private static final int AUSFUEHRUNG = 2;
+    private static final int HISTORIE = 3;
+    private static final String[] STUFENNAMEN = {"validierung", "deckung", "ausfuehrung", "historie"};
+
+    // Abstand der Fortschrittszähler im Array (16 longs = 128 Byte), damit sich die
+    // Stufen nicht gegenseitig die Cache-Zeile entziehen
+    private static final int ABSTAND = 16;
+
+    private static final VarHandle VEROEFFENTLICHT = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final BoerseService boerse;
+    private final KontoService kontoService;
+    private final Abschluss abschluss;
+
+    private final Orderereignis[] ring;
+    private final long[] veroeffentlicht;
+    private final int maske;
+
+    // Nächste freie Sequenz; nach close() negativ, damit niemand mehr eine Sequenz erhält
+    private final AtomicLong naechsteSequenz = new AtomicLong();
+    private final AtomicLongArray fortschritt = new AtomicLongArray(HISTORIE * ABSTAND + 1);
+    private volatile long endeSequenz = -1;
+
+    private final Thread[] stufen = new Thread[HISTORIE + 1];
+
+    /**
+     * Erstellt eine Pipeline und startet ihre Threads.
+     *
+     * @param boerse     der BoerseService, dessen Dienste und Orderbücher genutzt werden
+     * @param kapazitaet Anzahl der Plätze im Ring, eine Zweierpotenz
+     * @param abschluss  erhält jede Order nach der letzten Stufe; null = keiner
+     * @throws IllegalArgumentException wenn der BoerseService null oder die Kapazität keine Zweierpotenz ist
+     */
+    public Orderpipeline(BoerseService boerse, int kapazitaet, Abschluss abschluss) {
+        if (boerse == null) {
+            throw new IllegalArgumentException("BoerseService darf nicht null sein");
+        }
+        if (kapazitaet < 1 || Integer.bitCount(kapazitaet) != 1) {
+            throw new IllegalArgumentException("Kapazität muss eine Zweierpotenz sein: " + kapazitaet);
+        }
+        this.boerse = boerse;
+        this.kontoService = boerse.gibKontoService();
+        this.abschluss = abschluss;
+        this.ring = new Orderereignis[kapazitaet];
+        for (int i = 0; i < kapazitaet; i++) {
+            ring[i] = new Orderereignis();
+        }
+        this.veroeffentlicht = new long[kapazitaet];
+        Arrays.fill(veroeffentlicht, -1);
+        this.maske = kapazitaet - 1;
+        for (int s = VALIDIERUNG; s <= HISTORIE; s++) {
+            fortschritt.set(s * ABSTAND, -1);
+        }
+        for (int s = VALIDIERUNG; s <= HISTORIE; s++) {
+            int stufe = s;
+            stufen[s] = new Thread(() -> laufe(stufe), "orderpipeline-" + STUFENNAMEN[s]);
+            stufen[s].setDaemon(true);
+            stufen[s].start();
+        }
+        log.info("Orderpipeline mit {} Plätzen gestartet", kapazitaet);
+    }
+
+    /**
+     * Reicht eine Order ein und kehrt zurück, sobald sie im Ring liegt.
+     * <p>
+     * Ungültige Orders (z. B. Menge 0) werden nicht hier, sondern in der
+     * Validierungsstufe abgelehnt und über {@link Abschluss} gemeldet.
+     *
+     * @param konto  das Konto des Kunden
+     * @param aktie  die Aktie
+     * @param menge  Anzahl der Aktien
+     * @param seite  Kauf oder Verkauf
+     * @param anhang beliebiges Objekt, das im {@link Orderereignis} zurückkommt; darf null sein
+     * @return Sequenznummer der Order
+     * @throws IllegalArgumentException wenn die Seite null ist
+     * @throws IllegalStateException    wenn die Pipeline geschlossen ist oder der Aufruf
+     *                                  von einem ihrer Stufen-Threads kommt
+     */
+    public long reicheEin(Konto konto, Aktie aktie, int menge, Orderbuch.Seite seite, Object anhang) {
+        if (seite == null) {
+            throw new IllegalArgumentException("Seite darf nicht null sein");
+        }
+        pruefeAufrufer();
+        long sequenz;
+        do {
+            sequenz = naechsteSequenz.get();
+            if (sequenz < 0) {
+                throw new IllegalStateException("Orderpipeline ist geschlossen");
+            }
+        } while (!naechsteSequenz.compareAndSet(sequenz, sequenz + 1));
+
+        // Platz erst beschreiben, wenn die letzte Stufe ihn eine Runde zuvor freigegeben hat
+        long frei = sequenz - ring.length;
+        for (int leerlauf = 0; fortschritt.get(HISTORIE * ABSTAND) < frei; leerlauf++) {
+            warte(leerlauf);
+        }
+        int platz = (int) (sequenz & maske);
+        ring[platz].setze(sequenz, konto, aktie, menge, seite, anhang);
+        VEROEFFENTLICHT.setRelease(veroeffentlicht, platz, sequenz);
+        return sequenz;
+    }
+
+    /**
+     * Reicht eine Order ein und liefert ihr Ergebnis als Future.
+     * <p>
+     * Fachliche Bedeutung:
+     * - Für Roboter, die viele Orders gleichzeitig offen haben: es wartet kein Thread
+     *   auf die Ausführung, die Pipeline schließt das Future ab
+     * - Ablehnungen kommen als {@link Ausfuehrungsbericht} mit Grund, nicht als Exception
+     * <p>
+     * Technische Hinweise:
+     * - Erzeugt pro Order ein Future und einen Bericht
+     * - Das Future wird auf dem Thread der Historie-Stufe abgeschlossen; wer daran
+     *   längere Arbeit oder Folgeorders hängt, muss die {@code ...Async}-Varianten
+     *   nutzen, damit die Pipeline nicht aufgehalten wird
+     *
+     * @param konto das Konto des Kunden
+     * @param aktie die Aktie
+     * @param menge Anzahl der Aktien
+     * @param seite Kauf oder Verkauf
+     * @return Future des Ausführungsberichts
+     * @throws IllegalArgumentException wenn die Seite null ist
+     * @throws IllegalStateException    wenn die Pipeline geschlossen ist oder der Aufruf
+     *                                  von einem ihrer Stufen-Threads kommt
+     */
+    public CompletableFuture<Ausfuehrungsbericht> reicheEin(Konto konto, Aktie aktie, int menge, Orderbuch.Seite seite) {
+        Auftrag auftrag = new Auftrag();
+        reicheEin(konto, aktie, menge, seite, auftrag);
+        return auftrag;
+    }
+
+    /**
+     * @return Anzahl der eingereichten Orders
+     */
+    public long gibAnzahlEingereicht() {
+        long naechste = naechsteSequenz.get();
+        return naechste < 0 ? endeSequenz : naechste;
+    }
+
+    /**
+     * @return Anzahl der Orders, die alle Stufen durchlaufen haben
+     */
+    public long gibAnzahlAbgeschlossen() {
+        return fortschritt.get(HISTORIE * ABSTAND) + 1;
+    }
+
+    /**
+     * Nimmt keine Orders mehr an, verarbeitet alle eingereichten zu Ende und beendet
+     * die Threads der Pipeline.
+     */
+    @Override
+    public void close() {
+        long ende;
+        synchronized (this) {
+            if (endeSequenz >= 0) {
+                return;
+            }
+            ende = naechsteSequenz.getAndSet(Long.MIN_VALUE);
+            endeSequenz = ende;
+        }
+        for (Thread stufe : stufen) {
+            try {
+                stufe.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        log.info("Orderpipeline nach {} Orders geschlossen", ende);
+    }
+
+    /**
+     * Lehnt Einreichungen von den eigenen Stufen-Threads ab; ein solcher Thread würde
+     * bei vollem Ring darauf warten, dass er selbst einen Platz freigibt.
+     */
+    private void pruefeAufrufer() {
+        Thread aktuell = Thread.currentThread();
+        for (Thread stufe : stufen) {
+            if (stufe == aktuell) {
+                throw new IllegalStateException("Orders dürfen nicht vom Thread " + aktuell.getName()
+                        + " der Orderpipeline eingereicht werden");
+            }
+        }
+    }
+
+    /**
+     * Schleife eines Stufen-Threads.
+     */
+    private void laufe(int stufe) {
+        long verarbeitet = -1;
+        int leerlauf = 0;
+        while (true) {
+            long verfuegbar = stufe == VALIDIERUNG
+                    ? gibVeroeffentlicht(verarbeitet)
+                    : fortschritt.get((stufe - 1) * ABSTAND);
+            if (verfuegbar > verarbeitet) {
+                for (long s = verarbeitet + 1; s <= verfuegbar; s++) {
+                    verarbeite(stufe, ring[(int) (s & maske)]);
+                }
+                verarbeitet = verfuegbar;
+                fortschritt.set(stufe * ABSTAND, verarbeitet);
+                leerlauf = 0;
+            } else if (verarbeitet == endeSequenz - 1) {
+                return;
+            } else {
+                warte(leerlauf++);
+            }
+        }
+    }
+
+    /**
+     * @return höchste Sequenz, bis zu der ab {@code verarbeitet + 1} alle Plätze lückenlos veröffentlicht sind
+     */
+    private long gibVeroeffentlicht(long verarbeitet) {
+        long s = verarbeitet + 1;
+        long grenze = verarbeitet + ring.length;
+        while (s <= grenze && (long) VEROEFFENTLICHT.getAcquire(veroeffentlicht, (int) (s & maske)) == s) {
+            s++;
+        }
+        return s - 1;
+    }
+
+    private void verarbeite(int stufe, Orderereignis ereignis) {
+        if (stufe == HISTORIE) {
+            schliesseAb(ereignis);
+            return;
+        }
+        if (ereignis.istAbgelehnt()) {
+            return;
+        }
+        try {
+            switch (stufe) {
+                case VALIDIERUNG -> validiere(ereignis);
+                case DECKUNG -> decke(ereignis);
+                default -> fuehreAus(ereignis);
+            }
+        } catch (RuntimeException e) {
+            lehneAb(ereignis, e.getMessage() != null ? e.getMessage() : e.toString());
+            if (stufe != VALIDIERUNG) {
+                log.error("Order {} in Stufe {} fehlgeschlagen", ereignis.sequenz, STUFENNAMEN[stufe], e);
+            }
+        }
+    }
+
+    private void validiere(Orderereignis ereignis) {
+        if (ereignis.seite == Orderbuch.Seite.KAUF) {
+            boerse.gibValidierungsService().validiereKauf(ereignis.aktie, ereignis.menge);
+        } else {
+            boerse.gibValidierungsService().validiereVerkauf(ereignis.aktie, ereignis.menge);
+        }
+        if (ereignis.konto == null) {
+            throw new IllegalArgumentException("Konto darf nicht null sein");
+        }
+    }
+
+    /**
+     * Reserviert beim Kauf die voraussichtlichen Kosten wie {@link BoerseService#kaufe}.
+     * Ohne Orderbuch wird zum Kurs bei Annahme ausgeführt, der Betrag steht damit fest.
+     * <p>
+     * Legt hier fest, ob gegen ein Orderbuch ausgeführt wird; wird das Buch danach
+     * getrennt oder verbunden, führt die Ausführungsstufe trotzdem so aus, wie hier
+     * reserviert wurde.
+     */
+    private void decke(Orderereignis ereignis) {
+        Orderbuch buch = boerse.gibOrderbuch(ereignis.aktie);
+        ereignis.buch = buch;
+        if (buch == null) {
+            ereignis.umsatzCent = Math.multiplyExact(Konto.inCent(ereignis.aktie.getPreis()), (long) ereignis.menge);
+        }
+        if (ereignis.seite == Orderbuch.Seite.VERKAUF) {
+            return;
+        }
+        long betragCent = ereignis.umsatzCent;
+        if (buch != null) {
+            synchronized (buch) {
+                betragCent = buch.berechneKaufkosten(ereignis.menge);
+            }
+            if (betragCent < 0) {
+                lehneAb(ereignis, KEINE_LIQUIDITAET);
+                return;
+            }
+        }
+        ereignis.reservierung = reserviere(ereignis.konto, betragCent);
+        if (ereignis.reservierung == null) {
+            lehneAb(ereignis, NICHT_GEDECKT);
+        }
+    }
+
+    private void fuehreAus(Orderereignis ereignis) {
+        Orderbuch buch = ereignis.buch;
+        try {
+            if (buch != null) {
+                fuehreImOrderbuchAus(ereignis, buch);
+                return;
+            }
+            // Unter der Sperre der Aktie, damit parallel direkt aufgerufene Orders
+            // nicht gleichzeitig denselben Kurs ermitteln
+            synchronized (boerse.gibKurssperre(ereignis.aktie.getId())) {
+                boerse.gibPreisService().ermittleAktuellenPreis(ereignis.aktie);
+            }
+            if (ereignis.seite == Orderbuch.Seite.VERKAUF) {
+                kontoService.einzahlenCent(ereignis.konto, ereignis.umsatzCent);
+            } else {
+                kontoService.abrechnen(ereignis.reservierung);
+            }
+            ereignis.kursCent = Konto.inCent(ereignis.aktie.getPreis());
+        } finally {
+            // Abgelehnt oder fehlgeschlagen: Reservierung freigeben
+            Reservierung reservierung = ereignis.reservierung;
+            ereignis.reservierung = null;
+            if (reservierung != null && reservierung.istOffen()) {
+                kontoService.freigeben(reservierung);
+            }
+        }
+    }
+
+    /**
+     * Führt gegen das Orderbuch aus. Sind die tatsächlichen Kosten höher als die
+     * reservierten (das Buch hat sich seit der Deckungsstufe bewegt), wird die
+     * Differenz zusätzlich reserviert; abgerechnet wird der tatsächliche Betrag,
+     * ein Rest wird dabei wieder gutgeschrieben.
+     */
+    private void fuehreImOrderbuchAus(Orderereignis ereignis, Orderbuch buch) {
+        boolean kauf = ereignis.seite == Orderbuch.Seite.KAUF;
+        Reservierung nachschuss = null;
+        synchronized (buch) {
+            long betragCent = kauf ? buch.berechneKaufkosten(ereignis.menge) : buch.berechneVerkaufserloes(ereignis.menge);
+            if (betragCent < 0) {
+                lehneAb(ereignis, KEINE_LIQUIDITAET);
+                return;
+            }
+            long reserviertCent = kauf ? ereignis.reservierung.gibBetragCent() : 0;
+            if (kauf && betragCent > reserviertCent) {
+                nachschuss = reserviere(ereignis.konto, betragCent - reserviertCent);
+                if (nachschuss == null) {
+                    lehneAb(ereignis, NICHT_GEDECKT);
+                    return;
+                }
+            }
+            buch.ordneEinMarkt(ereignis.seite, ereignis.menge);
+            ereignis.umsatzCent = betragCent;
+            ereignis.kursCent = buch.gibLetztenKursCent();
+            ereignis.aktie.setPreis(ereignis.kursCent / 100.0);
+        }
+        if (kauf) {
+            Reservierung reservierung = ereignis.reservierung;
+            kontoService.abrechnenCent(reservierung, Math.min(ereignis.umsatzCent, reservierung.gibBetragCent()));
+            if (nachschuss != null) {
+                kontoService.abrechnen(nachschuss);
+            }
+        } else {
+            kontoService.einzahlenCent(ereignis.konto, ereignis.umsatzCent);
+        }
+    }
+
+    private void schliesseAb(Orderereignis ereignis) {
+        try {
+            if (!ereignis.istAbgelehnt()) {
+                boerse.gibKursService().speichereKurs(ereignis.aktie.getId(), ereignis.kursCent / 100.0,
+                        System.currentTimeMillis(), ereignis.menge);
+            }
+        } catch (RuntimeException e) {
+            // Die Order ist ausgeführt und gebucht, nur die Historie fehlt
+            log.error("Kurs von Order {} nicht gespeichert", ereignis.sequenz, e);
+        }
+        if (ereignis.anhang instanceof Auftrag auftrag) {
+            auftrag.complete(Ausfuehrungsbericht.aus(ereignis));
+        }
+        if (abschluss != null) {
+            try {
+                abschluss.abgeschlossen(ereignis);
+            } catch (RuntimeException e) {
+                log.warn("Abschluss von Order {} fehlgeschlagen: {}", ereignis.sequenz, e.getMessage());
+            }
+        }
+        ereignis.leere();
+    }
+
+    /**
+     * @return die Reservierung, oder null wenn das Guthaben nicht reicht
+     */
+    private Reservierung reserviere(Konto konto, long betragCent) {
+        try {
+            return kontoService.reserviereCent(konto, betragCent);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void lehneAb(Orderereignis ereignis, String grund) {
+        ereignis.ablehnungsgrund = grund;
+        ereignis.umsatzCent = 0;
+        log.warn("Order {} abgelehnt: {}", ereignis.sequenz, grund);
+    }
+
+    private static void warte(int leerlauf) {
+        if (leerlauf < 100) {
+            Thread.onSpinWait();
+        } else if (leerlauf < 200) {
+            Thread.yield();
+        } else {
+            LockSupport.parkNanos(50_000);
+        }
+    }
+
+    /**
+     * Future einer über {@link #reicheEin(Konto, Aktie, int, Orderbuch.Seite)} eingereichten
+     * Order; eigene Klasse, damit es von einem beliebigen Anhang unterscheidbar ist.
+     */
+    private static final class Auftrag extends CompletableFuture<Ausfuehrungsbericht> {
+    }
+}
@@ -1,19 +1,195 @@
-
 package de.dwpbank.mikrobank.service;
 
 import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.InstrumentRegister;
+import de.dwpbank.mikrobank.model.Kursmeldung;
+import de.dwpbank.mikrobank.service.preismodell.GleichverteilungModell;
+import de.dwpbank.mikrobank.service.preismodell.Preismodell;
+import de.dwpbank.mikrobank.service.preismodell.Zufallsstroeme;
+import de.dwpbank.mikrobank.service.preismodell.Zufallsstrom;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Service zur Ermittlung aktueller Aktienpreise.
+ * <p>
+ * Wie sich der Preis einer Aktie bewegt, legt ein {@link Preismodell} fest. Ohne
+ * eigene Einstellung gilt für alle Aktien die ursprüngliche Regel (gleichverteilt ±5 %).
+ * Über {@link #setzePreismodell(Aktie, Preismodell)} bekommt eine Aktie ein eigenes
+ * Modell, z. B. eine {@link de.dwpbank.mikrobank.service.preismodell.GbmModell GBM}
+ * mit ihrer eigenen Volatilität.
+ * <p>
+ * Technische Hinweise:
+ * - Die Modelle werden über die Instrument-Id der Aktie in einem Array gefunden
+ *   (Copy-on-Write, pro Preisermittlung nur gelesen)
+ * - Jede Aktie hat ihren eigenen Zufallsstrom ({@link Zufallsstrom}), abgeleitet aus
+ *   einem Master-Seed und ihrer Instrument-Id ({@link Zufallsstroeme}); parallele
+ *   Preisermittlungen konkurrieren nicht um einen gemeinsamen {@code Random}
+ * - Einzelermittlung, Blockmodus und {@link #erzeugePfad} setzen denselben Strom der
+ *   Aktie fort; auch mehrere Blöcke nacheinander wiederholen keine Zufallszahlen. Ein
+ *   Block übernimmt Preis und Strom zu Beginn jedes Ticks, zwischen zwei Ticks darf
+ *   dieselbe Aktie also einzeln bepreist oder (z. B. im Orderbuch) neu gesetzt werden
+ * - Mit festem Master-Seed ist ein Lauf reproduzierbar, egal wie viele Threads die
+ *   Preise ermitteln, solange die Preise einer Aktie nacheinander ermittelt werden
+ * - Der Strom einer Aktie ist über ihre Instrument-Id festgelegt. Die Ids vergibt das
+ *   prozessweite {@link InstrumentRegister} in der Reihenfolge der ersten Verwendung;
+ *   reproduzierbar ist ein Lauf daher nur, wenn die Aktien in derselben Reihenfolge
+ *   angelegt werden (wie im Simulator, der sie in setup() immer gleich anlegt)
+ * - Die Preise derselben Aktie dürfen nicht gleichzeitig aus mehreren Threads
+ *   ermittelt werden (das gilt ohnehin, da der Preis in der Aktie gespeichert wird)
+ * - Für das ganze Universum pro Tick gibt es den Blockmodus ({@link Preisblock},
+ *   {@link #ermittlePreise(Preisblock)}), der über primitive Arrays statt über
+ *   einzelne Aktie-Objekte rechnet
+ * - Ist ein {@link Marktdatenbus} gesetzt, wird jeder neue Preis dort als
+ *   Kursmeldung veröffentlicht
+ * - Ist eine {@link Marktbildquelle} gesetzt, wird nach jedem Block ein neues,
+ *   über alle Aktien konsistentes {@link Marktbild} veröffentlicht
+ */
 @Slf4j
 public class PreisService {
 
+    // Ursprüngliche Regel: Preis ändert sich zufällig um maximal ±5 %
+    private static final Preismodell STANDARD_MODELL = new GleichverteilungModell(0.05);
+
+    /** Untergrenze, damit ein Preis nie 0 oder negativ wird. */
+    public static final double MINDESTPREIS = 0.01;
+
+    private final Preismodell standardModell;
+
+    // Seed, aus dem die Zufallsströme aller Aktien abgeleitet werden
+    private final long masterSeed;
+
+    // Index: Instrument-Id der Aktie, null = Standardmodell
+    private volatile Preismodell[] modelle = new Preismodell[0];
+
+    private final InstrumentRegister register = InstrumentRegister.global();
+
+    // Index: Instrument-Id der Aktie, null = Strom noch nicht angelegt
+    private volatile Zufallsstrom[] zufallsstroeme = new Zufallsstrom[0];
+
+    // Neue Ströme werden in ein vorhandenes Array eingetragen, siehe legeZufallsstromAn
+    private static final VarHandle STROM = MethodHandles.arrayElementVarHandle(Zufallsstrom[].class);
+
+    // null = keine Veröffentlichung
+    private volatile Marktdatenbus marktdatenbus;
+    private volatile Marktbildquelle marktbildquelle;
+
+    /**
+     * Erstellt einen PreisService mit der Standardregel (gleichverteilt ±5 %) und
+     * einem zufälligen Master-Seed.
+     */
+    public PreisService() {
+        this(STANDARD_MODELL, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Erstellt einen reproduzierbaren PreisService mit der Standardregel.
+     *
+     * @param masterSeed Seed des Laufs; gleicher Seed ergibt dieselben Preisfolgen
+     */
+    public PreisService(long masterSeed) {
+        this(STANDARD_MODELL, masterSeed);
+    }
+
+    /**
+     * Erstellt einen PreisService mit einem eigenen Modell für alle Aktien ohne eigene
+     * Einstellung und einem zufälligen Master-Seed.
+     *
+     * @param standardModell das Modell für Aktien ohne eigenes Modell
+     * @throws IllegalArgumentException wenn das Modell null ist
+     */
+    public PreisService(Preismodell standardModell) {
+        this(standardModell, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Erstellt einen PreisService mit einem eigenen Modell für alle Aktien ohne eigene Einstellung.
+     *
+     * @param standardModell das Modell für Aktien ohne eigenes Modell
+     * @param masterSeed     Seed des Laufs; gleicher Seed ergibt dieselben Preisfolgen
+     * @throws IllegalArgumentException wenn das Modell null ist
+     */
+    public PreisService(Preismodell standardModell, long masterSeed) {
+        if (standardModell == null) {
+            throw new IllegalArgumentException("Preismodell darf nicht null sein");
+        }
+        this.standardModell = standardModell;
+        this.masterSeed = masterSeed;
+    }
+
+    /**
+     * @return der Master-Seed, mit dem sich dieser Lauf wiederholen lässt
+     */
+    public long gibMasterSeed() {
+        return masterSeed;
+    }
+
+    /**
+     * Legt fest, auf welchem Bus neue Preise veröffentlicht werden.
+     *
+     * @param marktdatenbus der Bus, oder null, um nicht mehr zu veröffentlichen
+     */
+    public void setzeMarktdatenbus(Marktdatenbus marktdatenbus) {
+        this.marktdatenbus = marktdatenbus;
+    }
+
+    /**
+     * Legt fest, wo nach jedem Block ({@link #ermittlePreise(Preisblock)}) ein neues
+     * Marktbild veröffentlicht wird.
+     *
+     * @param marktbildquelle die Quelle, oder null, um keine Marktbilder zu veröffentlichen
+     */
+    public void setzeMarktbildquelle(Marktbildquelle marktbildquelle) {
+        this.marktbildquelle = marktbildquelle;
+    }
+
+    /**
+     * Legt fest, nach welchem Modell sich der Preis einer Aktie bewegt.
+     *
+     * @param aktie  die Aktie
+     * @param modell das Modell, oder null für das Standardmodell
+     * @throws IllegalArgumentException wenn die Aktie null ist
+     */
+    public synchronized void setzePreismodell(Aktie aktie, Preismodell modell) {
+        if (aktie == null) {
+            throw new IllegalArgumentException("Aktie darf nicht null sein");
+        }
+        int id = aktie.getId();
+        Preismodell[] neu = Arrays.copyOf(modelle, Math.max(modelle.length, id + 1));
+        neu[id] = modell;
+        modelle = neu;
+    }
+
+    /**
+     * Liefert das Modell, nach dem sich der Preis einer Aktie bewegt.
+     *
+     * @param aktie die Aktie
+     * @return das eigene Modell der Aktie oder das Standardmodell
+     * @throws IllegalArgumentException wenn die Aktie null ist
+     */
+    public Preismodell gibPreismodell(Aktie aktie) {
+        if (aktie == null) {
+            throw new IllegalArgumentException("Aktie darf nicht null sein");
+        }
+        int id = aktie.getId();
+        Preismodell[] aktuell = modelle;
+        Preismodell modell = id < aktuell.length ? aktuell[id] : null;
+        return modell != null ? modell : standardModell;
+    }
 
     /**
      * Ermittelt den aktuellen Preis einer Aktie.
      * <p>
      * Fachliche Regeln:
      * - Der Basispreis ist der aktuelle Preis der Aktie
-     * - Der Preis verändert sich zufällig um maximal ±5 %
+     * - Der Preis verändert sich zufällig nach dem Modell der Aktie,
+     *   mit dem Standardmodell um maximal ±5 %
      * - Der neue Preis darf niemals <= 0 sein
      * <p>
      * Technische Regeln:
@@ -23,17 +199,224 @@ public class PreisService {
      *
      * @param aktie die Aktie
      * @return der neue, gültige Preis
+     * @throws IllegalArgumentException wenn die Aktie null ist
      */
     public double ermittleAktuellenPreis(Aktie aktie) {
+        if (aktie == null) {
+            log.error("Preisermittlung ohne Aktie");
+            throw new IllegalArgumentException("Aktie darf nicht null sein");
+        }
+
+        double alterPreis = aktie.getPreis();
+        log.debug("Alter Preis von {}: {}", aktie.getName(), alterPreis);
+
+        double neuerPreis = gibPreismodell(aktie).naechsterPreis(alterPreis, gibZufallsstrom(aktie.getId()));
+        // Negiert formuliert, damit auch NaN auf den Mindestpreis fällt
+        if (!(neuerPreis >= MINDESTPREIS)) {
+            neuerPreis = MINDESTPREIS;
+        }
+
+        aktie.setPreis(neuerPreis);
+        log.debug("Neuer Preis von {}: {}", aktie.getName(), neuerPreis);
+
+        Marktdatenbus bus = marktdatenbus;
+        if (bus != null) {
+            bus.veroeffentliche(new Kursmeldung(aktie.getId(), neuerPreis, System.currentTimeMillis(), 0));
+        }
+        return neuerPreis;
+    }
+
+    /**
+     * Legt einen Block an, dessen Preise gemeinsam mit {@link #ermittlePreise(Preisblock)}
+     * ermittelt werden.
+     * <p>
+     * Die Preismodelle werden jetzt aus diesem Service übernommen. Jede Aktie zieht im
+     * Block aus ihrem eigenen Zufallsstrom, abgeleitet aus Master-Seed und Instrument-Id;
+     * das Ergebnis hängt daher nicht von der Zusammensetzung der Blöcke ab. Der Block
+     * übernimmt zu Beginn jedes Ticks den Preis der Aktie und den Zustand ihres Stroms
+     * und schreibt beides danach zurück, setzt also fort, was seit dem letzten Tick
+     * anderswo geschehen ist, statt wieder an seinem Anfang zu beginnen.
+     *
+     * @param aktien die Aktien des Blocks
+     * @return der neue Block
+     * @throws IllegalArgumentException wenn die Liste oder eine Aktie null ist
+     */
+    public Preisblock erstelleBlock(List<Aktie> aktien) {
+        if (aktien == null) {
+            throw new IllegalArgumentException("Aktienliste darf nicht null sein");
+        }
+        int anzahl = aktien.size();
+        Aktie[] blockAktien = new Aktie[anzahl];
+        int[] ids = new int[anzahl];
+        double[] preise = new double[anzahl];
+        double[] schwankung = new double[anzahl];
+        long[] zufallsZustand = new long[anzahl];
+        Zufallsstrom[] stroeme = new Zufallsstrom[anzahl];
+        List<Integer> sonderfaelle = new ArrayList<>();
+
+        for (int i = 0; i < anzahl; i++) {
+            Aktie aktie = aktien.get(i);
+            if (aktie == null) {
+                throw new IllegalArgumentException("Aktie darf nicht null sein");
+            }
+            blockAktien[i] = aktie;
+            ids[i] = aktie.getId();
+            preise[i] = aktie.getPreis();
+            stroeme[i] = gibZufallsstrom(ids[i]);
+            zufallsZustand[i] = stroeme[i].gibZustand();
+            if (gibPreismodell(aktie) instanceof GleichverteilungModell gleichverteilt) {
+                schwankung[i] = gleichverteilt.getMaxSchwankung();
+            } else {
+                sonderfaelle.add(i);
+            }
+        }
 
-        // IMPLEMENTIERUNG:
-        // 1. Lese den aktuellen Preis aus der Aktie
-        // 2. Berechne eine zufällige Preisänderung (+/- Prozent)
-        // 3. Berechne den neuen Preis
-        // 4. Stelle sicher, dass der neue Preis > 0 ist
-        // 5. Setze den neuen Preis in der Aktie
-        // 6. Gib den neuen Preis zurück
+        int[] sonderPositionen = new int[sonderfaelle.size()];
+        Preismodell[] sondermodelle = new Preismodell[sonderfaelle.size()];
+        for (int k = 0; k < sonderPositionen.length; k++) {
+            sonderPositionen[k] = sonderfaelle.get(k);
+            sondermodelle[k] = gibPreismodell(blockAktien[sonderPositionen[k]]);
+        }
+        log.debug("Preisblock mit {} Aktien angelegt, davon {} ohne Blockrechnung", anzahl, sonderPositionen.length);
+        return new Preisblock(blockAktien, ids, preise, schwankung, zufallsZustand, stroeme,
+                sonderPositionen, sondermodelle);
+    }
 
-        return 0;
+    /**
+     * Ermittelt die Preise aller Aktien eines Blocks um einen Schritt.
+     * <p>
+     * Es gelten dieselben fachlichen Regeln wie bei {@link #ermittleAktuellenPreis(Aktie)};
+     * die neuen Preise stehen danach im Block und in den Aktien.
+     * <p>
+     * Ablauf:
+     * 0. Aktuelle Preise der Aktien und Zustände ihrer Zufallsströme übernehmen; eine
+     *    Einzelermittlung oder Orderausführung seit dem letzten Tick wird so fortgesetzt
+     * 1. Pro Aktie eine gleichverteilte Zufallszahl ziehen (eine Schleife über die Zustände)
+     * 2. Gleichverteilte Schwankung auf alle Preise anwenden (eine Schleife ohne
+     *    Verzweigung, die der JIT vektorisiert)
+     * 3. Neue Zustände in die Zufallsströme der Aktien zurückschreiben
+     * 4. Aktien mit anderem Modell einzeln über ihr Modell und ihren eigenen
+     *    Zufallsstrom bepreisen (die Zahl aus Schritt 1 bleibt für sie ungenutzt)
+     * 5. Preise in die Aktien schreiben und, falls gesetzt, als Marktbild und auf dem
+     *    Marktdatenbus veröffentlichen
+     * <p>
+     * Anders als bei der Einzelermittlung wird nicht jeder Preis geloggt.
+     *
+     * @param block der Block, z. B. aus {@link #erstelleBlock(List)}
+     * @throws IllegalArgumentException wenn der Block null ist
+     */
+    public void ermittlePreise(Preisblock block) {
+        if (block == null) {
+            throw new IllegalArgumentException("Preisblock darf nicht null sein");
+        }
+        int anzahl = block.aktien.length;
+        double[] preise = block.preise;
+        double[] schwankung = block.schwankung;
+        double[] zufall = block.zufall;
+        long[] zustaende = block.zufallsZustand;
+        Zufallsstrom[] stroeme = block.stroeme;
+        Aktie[] aktien = block.aktien;
+
+        for (int i = 0; i < anzahl; i++) {
+            preise[i] = aktien[i].getPreis();
+            zustaende[i] = stroeme[i].gibZustand();
+        }
+
+        // Bewusst zwei getrennte Schleifen: jede für sich vektorisiert der JIT,
+        // zusammengelegt wird die Schleife nicht mehr vektorisiert und ist deutlich langsamer
+        Zufallsstroeme.fuelleGleichverteilt(block.zufallsZustand, zufall, anzahl);
+        for (int i = 0; i < anzahl; i++) {
+            preise[i] = Math.max(MINDESTPREIS, preise[i] * (1 + schwankung[i] * (zufall[i] * 2 - 1)));
+        }
+
+        for (int i = 0; i < anzahl; i++) {
+            stroeme[i].setzeZustand(zustaende[i]);
+        }
+
+        int[] sonderfaelle = block.sonderfaelle;
+        for (int k = 0; k < sonderfaelle.length; k++) {
+            int i = sonderfaelle[k];
+            // Die Schwankung dieser Aktien ist 0, preise[i] ist also noch der alte Preis
+            double neuerPreis = block.sondermodelle[k].naechsterPreis(preise[i], stroeme[i]);
+            preise[i] = neuerPreis >= MINDESTPREIS ? neuerPreis : MINDESTPREIS;
+            zustaende[i] = stroeme[i].gibZustand();
+        }
+
+        for (int i = 0; i < anzahl; i++) {
+            aktien[i].setPreis(preise[i]);
+        }
+
+        Marktbildquelle quelle = marktbildquelle;
+        if (quelle != null) {
+            quelle.veroeffentliche(block);
+        }
+
+        Marktdatenbus bus = marktdatenbus;
+        if (bus != null) {
+            long zeitstempel = System.currentTimeMillis();
+            for (int i = 0; i < anzahl; i++) {
+                bus.veroeffentliche(new Kursmeldung(block.ids[i], preise[i], zeitstempel, 0));
+            }
+        }
+    }
+
+    /**
+     * Erzeugt einen Preispfad für eine Aktie, z. B. für Lasttests.
+     * <p>
+     * Der Pfad wird aus dem Modell und dem Zufallsstrom der Aktie gezogen und setzt
+     * deren Strom fort, ist also ebenfalls durch den Master-Seed festgelegt.
+     * Der Preis der Aktie selbst wird nicht verändert.
+     *
+     * @param aktie die Aktie, ihr aktueller Preis ist der Startpreis
+     * @param pfad  nimmt an Position i den Preis nach i + 1 Schritten auf
+     * @throws IllegalArgumentException wenn Aktie oder Pfad null sind
+     */
+    public void erzeugePfad(Aktie aktie, double[] pfad) {
+        if (aktie == null || pfad == null) {
+            throw new IllegalArgumentException("Aktie und Pfad dürfen nicht null sein");
+        }
+        gibPreismodell(aktie).erzeugePfad(aktie.getPreis(), pfad, gibZufallsstrom(aktie.getId()));
+    }
+
+    /**
+     * Liefert den Zufallsstrom einer Aktie und legt ihn beim ersten Aufruf an.
+     * <p>
+     * Der Strom hängt nur von Master-Seed und Instrument-Id ab, nicht von der
+     * Reihenfolge, in der die Aktien zum ersten Mal auftauchen.
+     */
+    private Zufallsstrom gibZufallsstrom(int instrumentId) {
+        Zufallsstrom[] aktuell = zufallsstroeme;
+        if (instrumentId < aktuell.length) {
+            Zufallsstrom strom = (Zufallsstrom) STROM.getAcquire(aktuell, instrumentId);
+            if (strom != null) {
+                return strom;
+            }
+        }
+        return legeZufallsstromAn(instrumentId);
+    }
+
+    /**
+     * Legt den Zufallsstrom einer Aktie an.
+     * <p>
+     * Das Array wird nur ersetzt, wenn die Id nicht mehr hineinpasst, und wächst dann
+     * geometrisch (mindestens auf die Anzahl der bisher vergebenen Ids); sonst wird der
+     * neue Strom mit Release-Semantik eingetragen. Viele neue Aktien kosten so nicht je
+     * eine Kopie des Arrays.
+     */
+    private synchronized Zufallsstrom legeZufallsstromAn(int instrumentId) {
+        Zufallsstrom[] aktuell = zufallsstroeme;
+        if (instrumentId < aktuell.length && aktuell[instrumentId] != null) {
+            return aktuell[instrumentId];
+        }
+        Zufallsstrom strom = new Zufallsstrom(Zufallsstroeme.startZustand(masterSeed, instrumentId));
+        if (instrumentId < aktuell.length) {
+            STROM.setRelease(aktuell, instrumentId, strom);
+            return strom;
+        }
+        int laenge = Math.max(Math.max(aktuell.length * 2, instrumentId + 1), register.gibAnzahl());
+        Zufallsstrom[] neu = Arrays.copyOf(aktuell, laenge);
+        neu[instrumentId] = strom;
+        zufallsstroeme = neu;
+        return strom;
     }
 }
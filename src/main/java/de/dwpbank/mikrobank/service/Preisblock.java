@@ -0,0 +1,91 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.service.preismodell.Preismodell;
+import de.dwpbank.mikrobank.service.preismodell.Zufallsstrom;
+
+/**
+ * Ein Block von Aktien, deren Preise gemeinsam in einem Schritt ermittelt werden.
+ * <p>
+ * Wird über {@link PreisService#erstelleBlock(java.util.List)} angelegt und mit
+ * {@link PreisService#ermittlePreise(Preisblock)} pro Tick neu bepreist.
+ * <p>
+ * Technische Hinweise:
+ * - Die Daten liegen spaltenweise in parallelen primitiven Arrays (Preis, Schwankung,
+ *   Zustand des Zufallsstroms); ein Tick läuft in einfachen Schleifen über diese
+ *   Arrays, die der JIT vektorisieren kann, statt Aktie für Aktie über Objekte
+ * - Preise und Zustände der Zufallsströme sind eine Arbeitskopie: zu Beginn jedes Ticks
+ *   aus den Aktien und Strömen übernommen, danach zurückgeschrieben. Zwischen zwei Ticks
+ *   darf eine Aktie daher auch einzeln über {@link PreisService#ermittleAktuellenPreis}
+ *   bepreist oder durch eine Orderausführung neu gesetzt werden; der nächste Tick setzt
+ *   von dort fort
+ * - Preismodelle werden beim Anlegen des Blocks übernommen; spätere Änderungen
+ *   über {@link PreisService#setzePreismodell} wirken erst in einem neuen Block
+ * - Während eines Ticks darf keine Aktie des Blocks aus einem anderen Thread bepreist
+ *   werden, sonst geht einer der beiden Preise verloren
+ * - Die Klasse ist nicht thread-sicher; verschiedene Blöcke können aber parallel
+ *   von verschiedenen Threads bepreist werden
+ */
+public final class Preisblock {
+
+    // Pro Aktie: parallele Arrays, gleiche Reihenfolge wie beim Anlegen
+    final Aktie[] aktien;
+    final int[] ids;
+    final double[] preise;
+    // Maximale relative Änderung bei gleichverteilten Modellen, 0 bei allen anderen
+    final double[] schwankung;
+    final long[] zufallsZustand;
+    // Ströme der Aktien im PreisService, nehmen nach jedem Tick den neuen Zustand auf
+    final Zufallsstrom[] stroeme;
+    final double[] zufall;
+
+    // Positionen der Aktien, deren Modell nicht gleichverteilt ist, mit ihrem Modell
+    final int[] sonderfaelle;
+    final Preismodell[] sondermodelle;
+
+    Preisblock(Aktie[] aktien, int[] ids, double[] preise, double[] schwankung, long[] zufallsZustand,
+               Zufallsstrom[] stroeme, int[] sonderfaelle, Preismodell[] sondermodelle) {
+        this.aktien = aktien;
+        this.ids = ids;
+        this.preise = preise;
+        this.schwankung = schwankung;
+        this.zufallsZustand = zufallsZustand;
+        this.stroeme = stroeme;
+        this.zufall = new double[aktien.length];
+        this.sonderfaelle = sonderfaelle;
+        this.sondermodelle = sondermodelle;
+    }
+
+    /**
+     * @return Anzahl der Aktien im Block
+     */
+    public int gibAnzahl() {
+        return aktien.length;
+    }
+
+    /**
+     * @param index Position im Block (Reihenfolge beim Anlegen)
+     * @return die Aktie an dieser Position
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Blocks liegt
+     */
+    public Aktie gibAktie(int index) {
+        return aktien[index];
+    }
+
+    /**
+     * @param index Position im Block (Reihenfolge beim Anlegen)
+     * @return der zuletzt ermittelte Preis an dieser Position
+     * @throws IndexOutOfBoundsException wenn der Index außerhalb des Blocks liegt
+     */
+    public double gibPreis(int index) {
+        return preise[index];
+    }
+
+    /**
+     * @return Anzahl der Aktien, die nicht vektorisiert, sondern einzeln über ihr Modell
+     *         bepreist werden
+     */
+    public int gibAnzahlSonderfaelle() {
+        return sonderfaelle.length;
+    }
+}
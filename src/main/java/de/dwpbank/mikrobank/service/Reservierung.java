@@ -0,0 +1,88 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Konto;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Für eine laufende Order vorgemerktes Guthaben (Reservierung), angelegt über
+ * {@link KontoService#reserviereCent(Konto, long)}.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Der Betrag ist beim Anlegen bereits vom Kontostand abgezogen; weder andere
+ *   Orders noch Auszahlungen können ihn danach noch verwenden
+ * - Eine Reservierung endet genau einmal: abgerechnet (das Geld bleibt weg,
+ *   ein nicht benötigter Rest wird gutgeschrieben) oder freigegeben (der ganze
+ *   Betrag wird wieder gutgeschrieben)
+ * <p>
+ * Technische Hinweise:
+ * - Der Zustandswechsel ist atomar; wird eine Reservierung aus zwei Threads
+ *   gleichzeitig beendet, gewinnt genau einer, der andere erhält eine
+ *   IllegalStateException
+ */
+public final class Reservierung {
+
+    static final int OFFEN = 0;
+    static final int ABGERECHNET = 1;
+    static final int FREIGEGEBEN = 2;
+
+    private final Konto konto;
+    private final long betragCent;
+    private final AtomicInteger zustand = new AtomicInteger(OFFEN);
+
+    Reservierung(Konto konto, long betragCent) {
+        this.konto = konto;
+        this.betragCent = betragCent;
+    }
+
+    /**
+     * @return das Konto, auf dem reserviert ist
+     */
+    public Konto gibKonto() {
+        return konto;
+    }
+
+    /**
+     * @return reservierter Betrag in Cent
+     */
+    public long gibBetragCent() {
+        return betragCent;
+    }
+
+    /**
+     * @return true, solange die Reservierung weder abgerechnet noch freigegeben ist
+     */
+    public boolean istOffen() {
+        return zustand.get() == OFFEN;
+    }
+
+    /**
+     * @return true, wenn die Reservierung abgerechnet wurde
+     */
+    public boolean istAbgerechnet() {
+        return zustand.get() == ABGERECHNET;
+    }
+
+    /**
+     * Beendet die Reservierung.
+     *
+     * @param neuerZustand {@link #ABGERECHNET} oder {@link #FREIGEGEBEN}
+     * @throws IllegalStateException wenn die Reservierung bereits beendet ist
+     */
+    void beende(int neuerZustand) {
+        if (!zustand.compareAndSet(OFFEN, neuerZustand)) {
+            throw new IllegalStateException("Reservierung über " + betragCent + " Cent ist bereits "
+                    + (zustand.get() == ABGERECHNET ? "abgerechnet" : "freigegeben"));
+        }
+    }
+
+    @Override
+    public String toString() {
+        String text = switch (zustand.get()) {
+            case OFFEN -> "offen";
+            case ABGERECHNET -> "abgerechnet";
+            default -> "freigegeben";
+        };
+        return "Reservierung[" + betragCent + " Cent, " + text + "]";
+    }
+}
@@ -0,0 +1,107 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Trend;
+
+/**
+ * Einstellungen, nach denen der {@link KursService} einen {@link Trend} bestimmt.
+ * <p>
+ * Verglichen wird der Durchschnitt der letzten {@code kurzesFenster} Kurse mit dem
+ * Durchschnitt der {@code langesFenster} Kurse unmittelbar davor:
+ * - STEIGEND: neuer Durchschnitt > alter Durchschnitt * (1 + schwelle)
+ * - FALLEND: neuer Durchschnitt < alter Durchschnitt * (1 - schwelle)
+ * - STABIL: sonst
+ * - UNBEKANNT: weniger als {@code kurzesFenster + langesFenster} Kurse gespeichert
+ * <p>
+ * Technische Hinweise:
+ * - Unveränderlich und damit gefahrlos zwischen Threads teilbar; Roboter legen ihre
+ *   Parameter einmal an und verwenden sie bei jedem Tick wieder
+ * - Die Fenstersummen kommen aus den Präfixsummen der {@link Kurshistorie}, eine
+ *   Bewertung kostet daher O(1), unabhängig von der Fensterlänge
+ */
+public final class TrendParameter {
+
+    /**
+     * Bisheriges Verhalten von {@link KursService#bestimmeTrend(String)}:
+     * 5 gegen 5 Kurse mit 2% Schwelle.
+     */
+    public static final TrendParameter STANDARD = new TrendParameter(5, 5, 0.02);
+
+    private final int kurzesFenster;
+    private final int langesFenster;
+    private final double schwelle;
+
+    /**
+     * Erstellt Trend-Parameter.
+     *
+     * @param kurzesFenster Anzahl der jüngsten Kurse
+     * @param langesFenster Anzahl der Kurse davor, mit denen verglichen wird
+     * @param schwelle      relative Schwelle, z.B. 0.02 für 2%
+     * @throws IllegalArgumentException wenn ein Fenster kleiner als 1 ist oder die
+     *                                  Schwelle negativ oder keine Zahl ist
+     */
+    public TrendParameter(int kurzesFenster, int langesFenster, double schwelle) {
+        if (kurzesFenster < 1 || langesFenster < 1) {
+            throw new IllegalArgumentException("Fenster müssen mindestens 1 Kurs umfassen");
+        }
+        if (!(schwelle >= 0)) {
+            throw new IllegalArgumentException("Schwelle darf nicht negativ sein");
+        }
+        this.kurzesFenster = kurzesFenster;
+        this.langesFenster = langesFenster;
+        this.schwelle = schwelle;
+    }
+
+    /**
+     * Bewertet den Trend einer Kurshistorie.
+     * <p>
+     * Die Methode erzeugt keine Objekte und ist für den Hot-Path gedacht.
+     * Die Synchronisation liegt, wie bei der {@link Kurshistorie}, beim Aufrufer.
+     *
+     * @param historie die zu bewertende Kurshistorie
+     * @return der Trend, UNBEKANNT bei zu wenigen Kursen
+     */
+    public Trend bewerte(Kurshistorie historie) {
+        int anzahl = historie.gibAnzahl();
+        // In long, damit sehr große Fenster nicht überlaufen
+        if ((long) kurzesFenster + langesFenster > anzahl) {
+            return Trend.UNBEKANNT;
+        }
+        int grenze = anzahl - kurzesFenster;
+
+        double durchschnittNeu = historie.gibSumme(grenze, anzahl) / kurzesFenster;
+        double durchschnittAlt = historie.gibSumme(grenze - langesFenster, grenze) / langesFenster;
+
+        if (durchschnittNeu > durchschnittAlt * (1 + schwelle)) {
+            return Trend.STEIGEND;
+        } else if (durchschnittNeu < durchschnittAlt * (1 - schwelle)) {
+            return Trend.FALLEND;
+        }
+        return Trend.STABIL;
+    }
+
+    /**
+     * @return Anzahl der jüngsten Kurse
+     */
+    public int getKurzesFenster() {
+        return kurzesFenster;
+    }
+
+    /**
+     * @return Anzahl der Kurse, mit denen verglichen wird
+     */
+    public int getLangesFenster() {
+        return langesFenster;
+    }
+
+    /**
+     * @return relative Schwelle, z.B. 0.02 für 2%
+     */
+    public double getSchwelle() {
+        return schwelle;
+    }
+
+    @Override
+    public String toString() {
+        return "TrendParameter{" + kurzesFenster + "/" + langesFenster + ", schwelle=" + schwelle + "}";
+    }
+}
@@ -0,0 +1,63 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+/**
+ * Bollinger-Bänder.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Mittellinie = einfacher gleitender Durchschnitt über {@code periode} Kurse
+ * - Oberes/unteres Band = Mittellinie ± {@code faktor} * Standardabweichung
+ * - Ein Kurs unter dem unteren Band gilt als günstig, über dem oberen als teuer
+ * <p>
+ * {@link #gibWert()} liefert die Mittellinie.
+ */
+public class BollingerIndikator implements Indikator {
+
+    private final RollendeStatistik statistik;
+    private final double faktor;
+
+    /**
+     * Erstellt Bollinger-Bänder mit den üblichen Parametern 20 Kurse und 2 Standardabweichungen.
+     */
+    public BollingerIndikator() {
+        this(20, 2.0);
+    }
+
+    /**
+     * @param periode Fensterlänge in Kursen (mindestens 2)
+     * @param faktor  Abstand der Bänder in Standardabweichungen
+     * @throws IllegalArgumentException wenn die Periode kleiner als 2 ist
+     */
+    public BollingerIndikator(int periode, double faktor) {
+        this.statistik = new RollendeStatistik(periode);
+        this.faktor = faktor;
+    }
+
+    @Override
+    public void aktualisiere(double kurs) {
+        statistik.fuegeHinzu(kurs);
+    }
+
+    @Override
+    public double gibWert() {
+        return istBereit() ? statistik.gibMittelwert() : Double.NaN;
+    }
+
+    /**
+     * @return oberes Band, {@code Double.NaN} solange {@link #istBereit()} false ist
+     */
+    public double gibOberesBand() {
+        return gibWert() + faktor * statistik.gibStandardabweichung();
+    }
+
+    /**
+     * @return unteres Band, {@code Double.NaN} solange {@link #istBereit()} false ist
+     */
+    public double gibUnteresBand() {
+        return gibWert() - faktor * statistik.gibStandardabweichung();
+    }
+
+    @Override
+    public boolean istBereit() {
+        return statistik.istVoll();
+    }
+}
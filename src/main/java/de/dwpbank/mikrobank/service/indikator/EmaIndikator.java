@@ -0,0 +1,52 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+/**
+ * Exponentiell gleitender Durchschnitt (EMA).
+ * <p>
+ * Formel: EMA = α * Kurs + (1 - α) * EMA_vorher, mit α = 2 / (Periode + 1)
+ * <p>
+ * Der erste Kurs dient als Startwert. Aussagekräftig ist der EMA nach
+ * {@code periode} Kursen.
+ */
+public class EmaIndikator implements Indikator {
+
+    private final int periode;
+    private final double alpha;
+
+    private double ema;
+    private int anzahl;
+
+    /**
+     * @param periode Anzahl der Kurse, die der EMA im Wesentlichen abdeckt (z. B. 20)
+     * @throws IllegalArgumentException wenn die Periode kleiner als 1 ist
+     */
+    public EmaIndikator(int periode) {
+        if (periode < 1) {
+            throw new IllegalArgumentException("Periode muss größer als 0 sein");
+        }
+        this.periode = periode;
+        this.alpha = 2.0 / (periode + 1);
+    }
+
+    @Override
+    public void aktualisiere(double kurs) {
+        if (anzahl == 0) {
+            ema = kurs;
+        } else {
+            ema += alpha * (kurs - ema);
+        }
+        if (anzahl < periode) {
+            anzahl++;
+        }
+    }
+
+    @Override
+    public double gibWert() {
+        return istBereit() ? ema : Double.NaN;
+    }
+
+    @Override
+    public boolean istBereit() {
+        return anzahl >= periode;
+    }
+}
@@ -0,0 +1,42 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+/**
+ * Technischer Indikator, der fortlaufend aus einem Kursstrom berechnet wird.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Ein Indikator verdichtet die Kurshistorie einer Aktie zu einer Kennzahl
+ *   (z. B. gleitender Durchschnitt, Relative Stärke, Volatilität)
+ * - Der HandelsRoboter nutzt Indikatoren für Kauf- und Verkaufsentscheidungen
+ * <p>
+ * Technische Regeln:
+ * - {@link #aktualisiere(double)} wird vom {@link de.dwpbank.mikrobank.service.KursService}
+ *   bei jedem gespeicherten Kurs aufgerufen
+ * - Eine Aktualisierung kostet O(1) und erzeugt keine Objekte
+ * - Implementierungen sind nicht thread-sicher; der KursService ruft sie unter
+ *   der Sperre der jeweiligen Aktie auf
+ * - Konsistentes Lesen aus anderen Threads erfolgt über
+ *   {@link de.dwpbank.mikrobank.service.KursService#leseIndikator}
+ */
+public interface Indikator {
+
+    /**
+     * Verarbeitet einen neuen Kurs.
+     *
+     * @param kurs der neue Kurs (immer > 0)
+     */
+    void aktualisiere(double kurs);
+
+    /**
+     * Liefert den aktuellen Hauptwert des Indikators.
+     *
+     * @return Indikatorwert, {@code Double.NaN} solange {@link #istBereit()} false ist
+     */
+    double gibWert();
+
+    /**
+     * Prüft, ob genügend Kurse für einen aussagekräftigen Wert vorliegen.
+     *
+     * @return true, sobald die Einschwingphase abgeschlossen ist
+     */
+    boolean istBereit();
+}
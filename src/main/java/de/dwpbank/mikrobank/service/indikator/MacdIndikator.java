@@ -0,0 +1,74 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+/**
+ * Moving Average Convergence/Divergence (MACD).
+ * <p>
+ * Fachliche Bedeutung:
+ * - MACD-Linie = EMA(kurz) - EMA(lang)
+ * - Signallinie = EMA(signal) der MACD-Linie
+ * - Histogramm = MACD-Linie - Signallinie
+ * - Kreuzt die MACD-Linie die Signallinie von unten, gilt das als Kaufsignal
+ * <p>
+ * {@link #gibWert()} liefert die MACD-Linie.
+ */
+public class MacdIndikator implements Indikator {
+
+    private final EmaIndikator kurz;
+    private final EmaIndikator lang;
+    private final EmaIndikator signal;
+
+    /**
+     * Erstellt einen MACD mit den üblichen Perioden 12, 26 und 9.
+     */
+    public MacdIndikator() {
+        this(12, 26, 9);
+    }
+
+    /**
+     * @param kurzePeriode  Periode des schnellen EMA
+     * @param langePeriode  Periode des langsamen EMA
+     * @param signalPeriode Periode der Signallinie
+     * @throws IllegalArgumentException wenn die kurze Periode nicht kleiner als die lange ist
+     */
+    public MacdIndikator(int kurzePeriode, int langePeriode, int signalPeriode) {
+        if (kurzePeriode >= langePeriode) {
+            throw new IllegalArgumentException("Kurze Periode muss kleiner als die lange Periode sein");
+        }
+        this.kurz = new EmaIndikator(kurzePeriode);
+        this.lang = new EmaIndikator(langePeriode);
+        this.signal = new EmaIndikator(signalPeriode);
+    }
+
+    @Override
+    public void aktualisiere(double kurs) {
+        kurz.aktualisiere(kurs);
+        lang.aktualisiere(kurs);
+        if (lang.istBereit()) {
+            signal.aktualisiere(kurz.gibWert() - lang.gibWert());
+        }
+    }
+
+    @Override
+    public double gibWert() {
+        return lang.istBereit() ? kurz.gibWert() - lang.gibWert() : Double.NaN;
+    }
+
+    /**
+     * @return Signallinie, {@code Double.NaN} solange {@link #istBereit()} false ist
+     */
+    public double gibSignal() {
+        return signal.gibWert();
+    }
+
+    /**
+     * @return MACD-Linie minus Signallinie, {@code Double.NaN} solange {@link #istBereit()} false ist
+     */
+    public double gibHistogramm() {
+        return gibWert() - gibSignal();
+    }
+
+    @Override
+    public boolean istBereit() {
+        return signal.istBereit();
+    }
+}
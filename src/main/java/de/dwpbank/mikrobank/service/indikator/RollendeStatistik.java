@@ -0,0 +1,87 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+/**
+ * Mittelwert und Standardabweichung über ein gleitendes Fenster fester Länge.
+ * <p>
+ * Technische Hinweise:
+ * - Die Werte liegen in einem Ringpuffer, Summe und Quadratsumme werden beim
+ *   Anhängen und Verdrängen laufend mitgeführt (O(1) pro Wert)
+ * - Alle Werte werden um den ersten Wert verschoben gespeichert, damit die
+ *   Varianzformel {@code (Σx² - (Σx)²/n) / n} bei großen Kursen und kleiner
+ *   Streuung nicht durch Auslöschung ungenau wird
+ * - Nach jedem vollen Umlauf des Puffers werden Verschiebung und Summen aus dem
+ *   Pufferinhalt neu berechnet; das kostet amortisiert O(1) und verhindert, dass
+ *   sich Rundungsfehler oder eine davonlaufende Verschiebung aufsummieren
+ */
+final class RollendeStatistik {
+
+    private final double[] werte;
+    private int position;
+    private int anzahl;
+
+    private double verschiebung;
+    private double summe;
+    private double quadratSumme;
+
+    RollendeStatistik(int periode) {
+        if (periode < 2) {
+            throw new IllegalArgumentException("Periode muss mindestens 2 sein");
+        }
+        this.werte = new double[periode];
+    }
+
+    void fuegeHinzu(double wert) {
+        if (anzahl == 0) {
+            verschiebung = wert;
+        }
+        double verschoben = wert - verschiebung;
+        if (anzahl == werte.length) {
+            double alt = werte[position];
+            summe -= alt;
+            quadratSumme -= alt * alt;
+        } else {
+            anzahl++;
+        }
+        werte[position] = verschoben;
+        summe += verschoben;
+        quadratSumme += verschoben * verschoben;
+
+        position++;
+        if (position == werte.length) {
+            position = 0;
+            if (anzahl == werte.length) {
+                rebasiere();
+            }
+        }
+    }
+
+    /**
+     * Verschiebt alle Werte auf den aktuellen Mittelwert und summiert neu.
+     */
+    private void rebasiere() {
+        double delta = summe / anzahl;
+        verschiebung += delta;
+        summe = 0;
+        quadratSumme = 0;
+        for (int i = 0; i < anzahl; i++) {
+            double w = werte[i] - delta;
+            werte[i] = w;
+            summe += w;
+            quadratSumme += w * w;
+        }
+    }
+
+    boolean istVoll() {
+        return anzahl == werte.length;
+    }
+
+    double gibMittelwert() {
+        return verschiebung + summe / anzahl;
+    }
+
+    double gibStandardabweichung() {
+        double varianz = (quadratSumme - summe * summe / anzahl) / anzahl;
+        // Rundungsfehler können minimal negative Varianzen erzeugen
+        return varianz > 0 ? Math.sqrt(varianz) : 0.0;
+    }
+}
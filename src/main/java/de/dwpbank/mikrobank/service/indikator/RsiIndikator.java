@@ -0,0 +1,77 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+/**
+ * Relative Stärke Index (RSI) nach Wilder.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Werte über 70 gelten als "überkauft" (Verkaufssignal)
+ * - Werte unter 30 gelten als "überverkauft" (Kaufsignal)
+ * <p>
+ * Formel: RSI = 100 - 100 / (1 + Ø Gewinn / Ø Verlust)
+ * <p>
+ * Die ersten {@code periode} Kursänderungen werden einfach gemittelt, danach
+ * wird nach Wilder geglättet: Ø neu = (Ø alt * (n - 1) + Änderung) / n.
+ */
+public class RsiIndikator implements Indikator {
+
+    private final int periode;
+
+    private double letzterKurs;
+    private int anzahlAenderungen;
+    private boolean hatKurs;
+
+    private double durchschnittGewinn;
+    private double durchschnittVerlust;
+
+    /**
+     * @param periode Glättungsperiode (üblich: 14)
+     * @throws IllegalArgumentException wenn die Periode kleiner als 1 ist
+     */
+    public RsiIndikator(int periode) {
+        if (periode < 1) {
+            throw new IllegalArgumentException("Periode muss größer als 0 sein");
+        }
+        this.periode = periode;
+    }
+
+    @Override
+    public void aktualisiere(double kurs) {
+        if (!hatKurs) {
+            letzterKurs = kurs;
+            hatKurs = true;
+            return;
+        }
+
+        double aenderung = kurs - letzterKurs;
+        letzterKurs = kurs;
+        double gewinn = aenderung > 0 ? aenderung : 0.0;
+        double verlust = aenderung < 0 ? -aenderung : 0.0;
+
+        if (anzahlAenderungen < periode) {
+            // Einschwingphase: einfacher Durchschnitt
+            anzahlAenderungen++;
+            durchschnittGewinn += (gewinn - durchschnittGewinn) / anzahlAenderungen;
+            durchschnittVerlust += (verlust - durchschnittVerlust) / anzahlAenderungen;
+        } else {
+            durchschnittGewinn = (durchschnittGewinn * (periode - 1) + gewinn) / periode;
+            durchschnittVerlust = (durchschnittVerlust * (periode - 1) + verlust) / periode;
+        }
+    }
+
+    @Override
+    public double gibWert() {
+        if (!istBereit()) {
+            return Double.NaN;
+        }
+        if (durchschnittVerlust == 0) {
+            return durchschnittGewinn == 0 ? 50.0 : 100.0;
+        }
+        double relativeStaerke = durchschnittGewinn / durchschnittVerlust;
+        return 100.0 - 100.0 / (1.0 + relativeStaerke);
+    }
+
+    @Override
+    public boolean istBereit() {
+        return anzahlAenderungen >= periode;
+    }
+}
@@ -0,0 +1,42 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+/**
+ * Rollierende Volatilität.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Standardabweichung der logarithmischen Renditen ln(Kurs / Kurs_vorher)
+ *   über die letzten {@code periode} Kursänderungen
+ * - Angegeben pro Tick (nicht annualisiert), z. B. 0.01 = 1 % Schwankung je Tick
+ */
+public class VolatilitaetIndikator implements Indikator {
+
+    private final RollendeStatistik renditen;
+
+    private double letzterKurs;
+
+    /**
+     * @param periode Anzahl der Renditen im Fenster (mindestens 2)
+     * @throws IllegalArgumentException wenn die Periode kleiner als 2 ist
+     */
+    public VolatilitaetIndikator(int periode) {
+        this.renditen = new RollendeStatistik(periode);
+    }
+
+    @Override
+    public void aktualisiere(double kurs) {
+        if (letzterKurs > 0) {
+            renditen.fuegeHinzu(Math.log(kurs / letzterKurs));
+        }
+        letzterKurs = kurs;
+    }
+
+    @Override
+    public double gibWert() {
+        return istBereit() ? renditen.gibStandardabweichung() : Double.NaN;
+    }
+
+    @Override
+    public boolean istBereit() {
+        return renditen.istVoll();
+    }
+}
@@ -0,0 +1,40 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Geometrische Brownsche Bewegung (GBM), das Standardmodell für Aktienkurse.
+ * <p>
+ * Formel (exakte Diskretisierung):
+ * Preis_neu = Preis * exp((μ - σ²/2) * Δt + σ * √Δt * Z), mit Z standardnormalverteilt
+ * <p>
+ * Die logarithmischen Renditen sind normalverteilt, der Preis bleibt immer positiv.
+ * Drift und Volatilität werden wie üblich pro Jahr angegeben.
+ */
+public class GbmModell implements Preismodell {
+
+    private final double driftProSchritt;
+    private final double streuungProSchritt;
+
+    /**
+     * @param drift        erwartete Rendite μ pro Jahr, z. B. 0.07
+     * @param volatilitaet Volatilität σ pro Jahr, z. B. 0.25
+     * @param zeitschritt  Länge eines Schritts in Jahren, z. B. 1.0 / 252 für einen Handelstag
+     * @throws IllegalArgumentException wenn die Volatilität negativ oder der Zeitschritt ≤ 0 ist
+     */
+    public GbmModell(double drift, double volatilitaet, double zeitschritt) {
+        if (!(volatilitaet >= 0)) {
+            throw new IllegalArgumentException("Volatilität darf nicht negativ sein");
+        }
+        if (!(zeitschritt > 0)) {
+            throw new IllegalArgumentException("Zeitschritt muss größer als 0 sein");
+        }
+        this.driftProSchritt = (drift - volatilitaet * volatilitaet / 2) * zeitschritt;
+        this.streuungProSchritt = volatilitaet * Math.sqrt(zeitschritt);
+    }
+
+    @Override
+    public double naechsterPreis(double preis, RandomGenerator zufall) {
+        return preis * Math.exp(driftProSchritt + streuungProSchritt * zufall.nextGaussian());
+    }
+}
@@ -0,0 +1,40 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Gleichverteilte Schwankung um den aktuellen Preis.
+ * <p>
+ * Formel: Preis_neu = Preis * (1 + s * u), mit u gleichverteilt in [-1, 1)
+ * <p>
+ * Das ist die ursprüngliche Regel des PreisService (s = 5 %). Für Lasttests eher
+ * ungeeignet, da es weder Trend noch Häufung großer Bewegungen kennt.
+ */
+public class GleichverteilungModell implements Preismodell {
+
+    private final double maxSchwankung;
+
+    /**
+     * @param maxSchwankung maximale relative Änderung pro Schritt, z. B. 0.05 für ±5 %
+     * @throws IllegalArgumentException wenn die Schwankung nicht in [0, 1) liegt
+     */
+    public GleichverteilungModell(double maxSchwankung) {
+        if (!(maxSchwankung >= 0 && maxSchwankung < 1)) {
+            throw new IllegalArgumentException("Schwankung muss in [0, 1) liegen");
+        }
+        this.maxSchwankung = maxSchwankung;
+    }
+
+    @Override
+    public double naechsterPreis(double preis, RandomGenerator zufall) {
+        double u = zufall.nextDouble() * 2 - 1;
+        return preis * (1 + maxSchwankung * u);
+    }
+
+    /**
+     * @return maximale relative Änderung pro Schritt, z. B. 0.05 für ±5 %
+     */
+    public double getMaxSchwankung() {
+        return maxSchwankung;
+    }
+}
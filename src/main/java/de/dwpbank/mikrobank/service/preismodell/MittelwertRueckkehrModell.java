@@ -0,0 +1,50 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Mean Reversion: Der Kurs schwankt zufällig, wird aber zu einem Zielpreis zurückgezogen.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Typisch für Werte mit stabilem "fairen" Preis (Versorger, Rohstoffe, Zinsen)
+ * - Je weiter der Kurs vom Zielpreis entfernt ist, desto stärker zieht es ihn zurück
+ * <p>
+ * Modell: Der logarithmierte Preis folgt einem Ornstein-Uhlenbeck-Prozess
+ * dx = θ (ln(Ziel) - x) dt + σ dW, exakt diskretisiert:
+ * x_neu = x * e^(-θΔt) + ln(Ziel) * (1 - e^(-θΔt)) + σ * √((1 - e^(-2θΔt)) / 2θ) * Z
+ * <p>
+ * Der Preis bleibt damit immer positiv, die Halbwertszeit einer Abweichung ist ln(2) / θ Jahre.
+ */
+public class MittelwertRueckkehrModell implements Preismodell {
+
+    private final double gewichtAlt;
+    private final double zielAnteil;
+    private final double streuungProSchritt;
+
+    /**
+     * @param zielPreis      Preis, zu dem der Kurs langfristig zurückkehrt (> 0)
+     * @param geschwindigkeit Rückkehrgeschwindigkeit θ pro Jahr, z. B. 5 (Halbwertszeit ca. 7 Wochen)
+     * @param volatilitaet   Volatilität σ pro Jahr
+     * @param zeitschritt    Länge eines Schritts in Jahren
+     * @throws IllegalArgumentException wenn Zielpreis, Geschwindigkeit oder Zeitschritt ≤ 0
+     *                                  oder die Volatilität negativ ist
+     */
+    public MittelwertRueckkehrModell(double zielPreis, double geschwindigkeit, double volatilitaet, double zeitschritt) {
+        if (!(zielPreis > 0) || !(geschwindigkeit > 0) || !(zeitschritt > 0)) {
+            throw new IllegalArgumentException("Zielpreis, Geschwindigkeit und Zeitschritt müssen größer als 0 sein");
+        }
+        if (!(volatilitaet >= 0)) {
+            throw new IllegalArgumentException("Volatilität darf nicht negativ sein");
+        }
+        this.gewichtAlt = Math.exp(-geschwindigkeit * zeitschritt);
+        this.zielAnteil = Math.log(zielPreis) * (1 - gewichtAlt);
+        this.streuungProSchritt = volatilitaet
+                * Math.sqrt((1 - Math.exp(-2 * geschwindigkeit * zeitschritt)) / (2 * geschwindigkeit));
+    }
+
+    @Override
+    public double naechsterPreis(double preis, RandomGenerator zufall) {
+        double x = Math.log(preis) * gewichtAlt + zielAnteil + streuungProSchritt * zufall.nextGaussian();
+        return Math.exp(x);
+    }
+}
@@ -0,0 +1,49 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Stochastisches Modell, nach dem sich der Preis einer Aktie von Schritt zu Schritt bewegt.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Der {@link de.dwpbank.mikrobank.service.PreisService} fragt bei jeder Preisermittlung
+ *   das Modell der Aktie nach dem nächsten Preis
+ * - Verschiedene Aktien können verschiedene Modelle und Parameter haben
+ *   (z. B. volatile Wachstumswerte neben ruhigen Versorgern)
+ * <p>
+ * Technische Regeln:
+ * - Implementierungen sind unveränderlich und zustandslos, eine Instanz kann daher
+ *   von beliebig vielen Aktien und Threads gleichzeitig genutzt werden
+ * - Der Zufallsgenerator wird vom Aufrufer übergeben; das Modell hält keinen eigenen,
+ *   damit sich Threads nicht um einen gemeinsamen Generator streiten
+ * - Ein Schritt kostet O(1) und erzeugt keine Objekte
+ * - Das Ergebnis ist immer > 0, sofern der übergebene Preis > 0 ist
+ */
+public interface Preismodell {
+
+    /**
+     * Berechnet den Preis nach einem Zeitschritt.
+     *
+     * @param preis  der aktuelle Preis (> 0)
+     * @param zufall Quelle der Zufallszahlen
+     * @return der neue Preis
+     */
+    double naechsterPreis(double preis, RandomGenerator zufall);
+
+    /**
+     * Erzeugt einen ganzen Preispfad, z. B. für Lasttests.
+     * <p>
+     * Das Ziel-Array wird vom Aufrufer gestellt und kann wiederverwendet werden.
+     *
+     * @param startPreis Preis vor dem ersten Schritt (> 0)
+     * @param pfad       nimmt an Position i den Preis nach i + 1 Schritten auf
+     * @param zufall     Quelle der Zufallszahlen
+     */
+    default void erzeugePfad(double startPreis, double[] pfad, RandomGenerator zufall) {
+        double preis = startPreis;
+        for (int i = 0; i < pfad.length; i++) {
+            preis = naechsterPreis(preis, zufall);
+            pfad[i] = preis;
+        }
+    }
+}
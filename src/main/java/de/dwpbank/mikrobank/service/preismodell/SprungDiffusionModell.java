@@ -0,0 +1,72 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Sprung-Diffusion nach Merton: GBM plus seltene, große Kurssprünge.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Zwischen den Sprüngen bewegt sich der Kurs wie bei {@link GbmModell}
+ * - Sprünge (Nachrichten, Gewinnwarnungen, Übernahmen) treffen im Mittel
+ *   {@code intensitaet} mal pro Jahr ein
+ * - Die logarithmische Sprunghöhe ist normalverteilt mit Mittel {@code sprungMittel}
+ *   und Standardabweichung {@code sprungStreuung}
+ * <p>
+ * Die Drift wird um die erwartete Sprungrendite bereinigt, sodass die erwartete
+ * Rendite insgesamt μ bleibt.
+ * <p>
+ * Technische Hinweise:
+ * - Die Anzahl der Sprünge pro Schritt ist Poisson-verteilt und wird nach Knuth
+ *   gezogen; bei kleinem λ·Δt (Regelfall) kostet das meist nur eine Zufallszahl
+ */
+public class SprungDiffusionModell implements Preismodell {
+
+    private final double driftProSchritt;
+    private final double streuungProSchritt;
+    private final double keinSprungWahrscheinlichkeit;
+    private final double sprungMittel;
+    private final double sprungStreuung;
+
+    /**
+     * @param drift          erwartete Rendite μ pro Jahr
+     * @param volatilitaet   Volatilität σ der Diffusion pro Jahr
+     * @param intensitaet    erwartete Anzahl Sprünge λ pro Jahr, z. B. 2
+     * @param sprungMittel   Mittelwert der logarithmischen Sprunghöhe, z. B. -0.05
+     * @param sprungStreuung Standardabweichung der logarithmischen Sprunghöhe, z. B. 0.1
+     * @param zeitschritt    Länge eines Schritts in Jahren
+     * @throws IllegalArgumentException wenn Volatilität, Intensität oder Sprungstreuung
+     *                                  negativ sind oder der Zeitschritt ≤ 0 ist
+     */
+    public SprungDiffusionModell(double drift, double volatilitaet, double intensitaet,
+                                 double sprungMittel, double sprungStreuung, double zeitschritt) {
+        if (!(volatilitaet >= 0) || !(intensitaet >= 0) || !(sprungStreuung >= 0)) {
+            throw new IllegalArgumentException("Volatilität, Intensität und Sprungstreuung dürfen nicht negativ sein");
+        }
+        if (!(zeitschritt > 0)) {
+            throw new IllegalArgumentException("Zeitschritt muss größer als 0 sein");
+        }
+        double erwarteteSprungRendite = Math.exp(sprungMittel + sprungStreuung * sprungStreuung / 2) - 1;
+        this.driftProSchritt = (drift - volatilitaet * volatilitaet / 2 - intensitaet * erwarteteSprungRendite) * zeitschritt;
+        this.streuungProSchritt = volatilitaet * Math.sqrt(zeitschritt);
+        this.keinSprungWahrscheinlichkeit = Math.exp(-intensitaet * zeitschritt);
+        this.sprungMittel = sprungMittel;
+        this.sprungStreuung = sprungStreuung;
+    }
+
+    @Override
+    public double naechsterPreis(double preis, RandomGenerator zufall) {
+        double logRendite = driftProSchritt + streuungProSchritt * zufall.nextGaussian();
+
+        int spruenge = 0;
+        double produkt = zufall.nextDouble();
+        while (produkt > keinSprungWahrscheinlichkeit) {
+            spruenge++;
+            produkt *= zufall.nextDouble();
+        }
+        if (spruenge > 0) {
+            // Summe von k unabhängigen N(m, δ²) ist N(k·m, k·δ²)
+            logRendite += spruenge * sprungMittel + sprungStreuung * Math.sqrt(spruenge) * zufall.nextGaussian();
+        }
+        return preis * Math.exp(logRendite);
+    }
+}
@@ -0,0 +1,84 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import java.util.SplittableRandom;
+
+/**
+ * Leitet aus einem Master-Seed reproduzierbare, voneinander unabhängige Zufallsströme ab.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Ein Simulationslauf wird vollständig durch einen einzigen Master-Seed festgelegt
+ * - Jede Aktie (bzw. jeder Pfad, jede Teilaufgabe) bekommt ihren eigenen Strom
+ * <p>
+ * Technische Hinweise:
+ * - Der Strom hängt nur von Master-Seed und Index ab, nicht davon, welcher Thread
+ *   ihn wann anlegt; das Ergebnis ist daher unabhängig von der Anzahl der Threads
+ * - Es gibt keinen gemeinsamen Generator, Threads konkurrieren um nichts
+ * - Ein einzelner Strom ({@link SplittableRandom}) ist nicht thread-sicher und darf
+ *   zu einem Zeitpunkt nur von einem Thread benutzt werden
+ * - Für Blöcke vieler Aktien gibt es eine Variante ohne Objekte: der Zustand jedes
+ *   Stroms ist ein {@code long} in einem Array ({@link #startZustand},
+ *   {@link #fuelleGleichverteilt}); {@link Zufallsstrom} ist das passende Objekt,
+ *   dessen Zustand sich auslesen und setzen lässt
+ */
+public final class Zufallsstroeme {
+
+    // Weyl-Konstante (2^64 / Goldener Schnitt), wie bei SplittableRandom
+    static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private Zufallsstroeme() {
+    }
+
+    /**
+     * Liefert den Zufallsstrom mit dem gegebenen Index.
+     * <p>
+     * Gleicher Master-Seed und gleicher Index ergeben immer dieselbe Zahlenfolge.
+     *
+     * @param masterSeed der Seed des gesamten Laufs
+     * @param index      Nummer des Stroms, z. B. die Instrument-Id einer Aktie
+     * @return ein neuer Generator am Anfang dieses Stroms
+     */
+    public static SplittableRandom strom(long masterSeed, long index) {
+        return new SplittableRandom(startZustand(masterSeed, index));
+    }
+
+    /**
+     * Liefert den Anfangszustand des Stroms mit dem gegebenen Index für
+     * {@link #fuelleGleichverteilt}.
+     *
+     * @param masterSeed der Seed des gesamten Laufs
+     * @param index      Nummer des Stroms, z. B. die Instrument-Id einer Aktie
+     * @return der Zustand am Anfang dieses Stroms
+     */
+    public static long startZustand(long masterSeed, long index) {
+        return mische(masterSeed + (index + 1) * GOLDEN_GAMMA);
+    }
+
+    /**
+     * Zieht aus jedem Strom eines Blocks die nächste gleichverteilte Zahl aus [0, 1).
+     * <p>
+     * {@code zustaende[i]} ist der Zustand des i-ten Stroms und wird weitergeschaltet,
+     * {@code ziel[i]} erhält dessen Zahl. Die Schleife hat keine Abhängigkeiten
+     * zwischen den Elementen und erzeugt keine Objekte.
+     *
+     * @param zustaende Zustände der Ströme, z. B. aus {@link #startZustand}
+     * @param ziel      nimmt die Zufallszahlen auf
+     * @param anzahl    Anzahl der Ströme, beginnend bei 0
+     */
+    public static void fuelleGleichverteilt(long[] zustaende, double[] ziel, int anzahl) {
+        for (int i = 0; i < anzahl; i++) {
+            long z = zustaende[i] + GOLDEN_GAMMA;
+            zustaende[i] = z;
+            ziel[i] = (mische(z) >>> 11) * 0x1.0p-53;
+        }
+    }
+
+    /**
+     * Bit-Mischfunktion (Stafford, Variante 13), damit benachbarte Indizes
+     * völlig verschiedene Seeds ergeben.
+     */
+    static long mische(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,52 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import java.util.random.RandomGenerator;
+
+/**
+ * Ein Zufallsstrom, dessen Zustand sich auslesen und setzen lässt.
+ * <p>
+ * Fachliche Bedeutung:
+ * - Der {@link de.dwpbank.mikrobank.service.PreisService} hält pro Aktie einen
+ *   solchen Strom; Einzel- und Blockermittlung ziehen aus demselben Strom, der
+ *   Blockmodus übernimmt dafür den Zustand und schreibt ihn nach jedem Tick zurück
+ * <p>
+ * Technische Hinweise:
+ * - Liefert dieselbe Folge wie {@link Zufallsstroeme#strom(long, long)} und
+ *   {@link Zufallsstroeme#fuelleGleichverteilt} für denselben Zustand; ein Strom kann
+ *   daher zwischen Objekt und {@code long}-Array hin und her wechseln, ohne dass sich
+ *   Zahlen wiederholen oder verloren gehen
+ * - Nicht thread-sicher, zu einem Zeitpunkt darf nur ein Thread ziehen
+ */
+public final class Zufallsstrom implements RandomGenerator {
+
+    private long zustand;
+
+    /**
+     * @param zustand Anfangszustand, z. B. aus {@link Zufallsstroeme#startZustand}
+     */
+    public Zufallsstrom(long zustand) {
+        this.zustand = zustand;
+    }
+
+    /**
+     * @return der aktuelle Zustand, z. B. für {@link Zufallsstroeme#fuelleGleichverteilt}
+     */
+    public long gibZustand() {
+        return zustand;
+    }
+
+    /**
+     * Setzt den Strom an einem Zustand fort, z. B. nach einem Tick im Blockmodus.
+     *
+     * @param zustand der neue Zustand
+     */
+    public void setzeZustand(long zustand) {
+        this.zustand = zustand;
+    }
+
+    @Override
+    public long nextLong() {
+        zustand += Zufallsstroeme.GOLDEN_GAMMA;
+        return Zufallsstroeme.mische(zustand);
+    }
+}
@@ -319,6 +319,23 @@ class HandelsRoboterTest {
                 "Vermögen sollte nach profitablem Kauf/Verkauf höher sein");
     }
 
+    @Test
+    @DisplayName("HandelsRoboter: Vermögen bewertet das Depot zum aktuellen Preis")
+    void vermoegenBewertetDepotZumAktuellenPreis() {
+        // Arrange: 10 Apple zu 100€ kaufen
+        initialisiereReferenzkurs(roboter, appleAktie, 120);
+        roboter.handleAnEinemTag(appleAktie);
+        int anzahl = roboter.gibAnzahlAktien("Apple");
+
+        // Act
+        appleAktie.setPreis(110);
+        double vermoegen = roboter.berechnetGesamtvermoegen();
+
+        // Assert
+        assertEquals(10, anzahl);
+        assertEquals(roboter.getKonto().getKontostand() + anzahl * 110, vermoegen, 0.001);
+    }
+
     @Test
     @DisplayName("HandelsRoboter: Status-Bericht enthält relevante Informationen")
     void statusBerichenthaltRelevante() {
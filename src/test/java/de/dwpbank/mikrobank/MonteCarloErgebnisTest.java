@@ -0,0 +1,38 @@
+package de.dwpbank.mikrobank;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für das Ergebnis einer Monte-Carlo-Simulation.
+ */
+@DisplayName("MonteCarloErgebnis Tests")
+class MonteCarloErgebnisTest {
+
+    @Test
+    @DisplayName("Quantile: Lineare Interpolation zwischen sortierten Pfaden")
+    void quantile() {
+        // Arrange: unsortiert übergeben
+        MonteCarloErgebnis ergebnis = new MonteCarloErgebnis(new double[]{40, 10, 30, 20, 50}, 1_000_000_000L);
+
+        // Act & Assert
+        assertEquals(10, ergebnis.gibQuantil(0));
+        assertEquals(30, ergebnis.gibQuantil(0.5));
+        assertEquals(50, ergebnis.gibQuantil(1));
+        assertEquals(12, ergebnis.gibQuantil(0.05), 1e-9);
+        assertEquals(30, ergebnis.gibMittelwert());
+        assertEquals(5, ergebnis.gibPfadeProSekunde(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Quantile: Ungültige Eingaben werfen Exception")
+    void ungueltig() {
+        MonteCarloErgebnis ergebnis = new MonteCarloErgebnis(new double[]{1}, 1);
+
+        assertEquals(1, ergebnis.gibQuantil(0.3));
+        assertThrows(IllegalArgumentException.class, () -> ergebnis.gibQuantil(1.5));
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloErgebnis(new double[0], 1));
+    }
+}
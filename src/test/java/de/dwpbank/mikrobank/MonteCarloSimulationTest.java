@@ -0,0 +1,90 @@
+package de.dwpbank.mikrobank;
+
+import de.dwpbank.mikrobank.service.preismodell.GbmModell;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Monte-Carlo-Simulation.
+ */
+@DisplayName("MonteCarloSimulation Tests")
+class MonteCarloSimulationTest {
+
+    private static final double STARTKAPITAL = 50_000;
+
+    private static MonteCarloSimulation erstelleSimulation(double volatilitaet) {
+        MonteCarloSimulation simulation =
+                new MonteCarloSimulation(boerse -> new HandelsRoboter("MC Bot", STARTKAPITAL, boerse));
+        simulation.fuegeAktieHinzu("MC Apple", 100, new GbmModell(0.08, volatilitaet, 1.0 / 252));
+        simulation.fuegeAktieHinzu("MC SAP", 50, new GbmModell(0.05, volatilitaet, 1.0 / 252));
+        return simulation;
+    }
+
+    @Test
+    @DisplayName("Monte Carlo: Ergebnis hängt nicht von der Anzahl der Threads ab")
+    void unabhaengigVonThreads() {
+        // Arrange
+        ForkJoinPool einThread = new ForkJoinPool(1);
+        ForkJoinPool vierThreads = new ForkJoinPool(4);
+
+        try {
+            // Act
+            MonteCarloErgebnis seriell = erstelleSimulation(0.3).simuliere(64, 50, 42, einThread);
+            MonteCarloErgebnis parallel = erstelleSimulation(0.3).simuliere(64, 50, 42, vierThreads);
+
+            // Assert
+            for (double p = 0; p <= 1; p += 0.1) {
+                assertEquals(seriell.gibQuantil(p), parallel.gibQuantil(p));
+            }
+            assertEquals(64, parallel.gibAnzahlPfade());
+        } finally {
+            einThread.shutdown();
+            vierThreads.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Monte Carlo: Der Roboter handelt, die Pfade enden verschieden")
+    void roboterHandelt() {
+        // Act
+        MonteCarloErgebnis ergebnis = erstelleSimulation(0.6).simuliere(64, 60, 7);
+
+        // Assert: ohne Handel wäre das Endvermögen auf jedem Pfad das Startkapital
+        assertTrue(ergebnis.gibQuantil(0.05) < ergebnis.gibQuantil(0.95));
+        assertTrue(ergebnis.gibQuantil(0) > 0);
+        assertNotEquals(STARTKAPITAL, ergebnis.gibMittelwert());
+        assertTrue(ergebnis.gibPfadeProSekunde() > 0);
+    }
+
+    @Test
+    @DisplayName("Monte Carlo: Ohne Kursbewegung handelt der Roboter nicht")
+    void ohneKursbewegungKeinHandel() {
+        // Arrange
+        MonteCarloSimulation simulation =
+                new MonteCarloSimulation(boerse -> new HandelsRoboter("MC Bot", STARTKAPITAL, boerse));
+        simulation.fuegeAktieHinzu("MC Konstant", 100, new GbmModell(0, 0, 1.0 / 252));
+
+        // Act
+        MonteCarloErgebnis ergebnis = simulation.simuliere(16, 20, 1);
+
+        // Assert
+        assertEquals(STARTKAPITAL, ergebnis.gibQuantil(0));
+        assertEquals(STARTKAPITAL, ergebnis.gibQuantil(1));
+    }
+
+    @Test
+    @DisplayName("Monte Carlo: Ungültige Eingaben werfen Exception")
+    void ungueltigeEingaben() {
+        MonteCarloSimulation ohneAktien = new MonteCarloSimulation(boerse -> new HandelsRoboter("MC Bot", 0, boerse));
+
+        assertThrows(IllegalArgumentException.class, () -> new MonteCarloSimulation(null));
+        assertThrows(IllegalArgumentException.class, () -> ohneAktien.simuliere(10, 10, 1));
+        assertThrows(IllegalArgumentException.class, () -> erstelleSimulation(0.3).simuliere(0, 10, 1));
+        assertThrows(IllegalArgumentException.class,
+            () -> ohneAktien.fuegeAktieHinzu("X", 0, new GbmModell(0, 0.1, 1)));
+    }
+}
@@ -137,4 +137,18 @@ class AktieTest {
         Aktie aktie = new Aktie("Test", price);
         assertEquals(price, aktie.getPreis());
     }
+
+    @Test
+    void gleicherNameErgibtGleicheId() {
+        Aktie a = new Aktie("Porsche", 80);
+        Aktie b = new Aktie("Porsche", 90);
+        assertEquals(a.getId(), b.getId());
+        assertEquals("Porsche", InstrumentRegister.global().gibName(a.getId()));
+    }
+
+    @Test
+    void aktieOhneNamenHatKeineId() {
+        Aktie aktie = new Aktie(null, 10);
+        assertThrows(IllegalArgumentException.class, aktie::getId);
+    }
 }
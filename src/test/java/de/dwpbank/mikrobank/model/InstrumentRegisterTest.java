@@ -0,0 +1,78 @@
+package de.dwpbank.mikrobank.model;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für das Instrument-Register.
+ */
+@DisplayName("InstrumentRegister Tests")
+class InstrumentRegisterTest {
+
+    private InstrumentRegister register;
+
+    @BeforeEach
+    void setUp() {
+        register = new InstrumentRegister();
+    }
+
+    @Test
+    @DisplayName("InstrumentRegister: Ids sind dicht und stabil")
+    void idsSindDichtUndStabil() {
+        // Act
+        int apple = register.registriere("Apple");
+        int sap = register.registriere("SAP");
+
+        // Assert
+        assertEquals(0, apple);
+        assertEquals(1, sap);
+        assertEquals(apple, register.registriere("Apple"));
+        assertEquals(2, register.gibAnzahl());
+        assertEquals("SAP", register.gibName(sap));
+    }
+
+    @Test
+    @DisplayName("InstrumentRegister: Unbekannte Namen und Ids")
+    void unbekannteNamenUndIds() {
+        assertEquals(-1, register.gibId("Apple"));
+        assertEquals(-1, register.gibId(null));
+        assertEquals(0, register.gibAnzahl());
+        assertThrows(IllegalArgumentException.class, () -> register.gibName(0));
+        assertThrows(IllegalArgumentException.class, () -> register.registriere(null));
+    }
+
+    @Test
+    @DisplayName("InstrumentRegister: Gleichzeitiges Registrieren vergibt jede Id genau einmal")
+    void gleichzeitigesRegistrieren() throws Exception {
+        // Arrange
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        Set<Integer> ids = ConcurrentHashMap.newKeySet();
+
+        // Act: vier Threads registrieren dieselben 1000 Namen
+        for (int t = 0; t < 4; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    ids.add(register.registriere("Aktie" + i));
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(1000, register.gibAnzahl());
+        assertEquals(1000, ids.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals("Aktie" + i, register.gibName(register.gibId("Aktie" + i)));
+        }
+    }
+}
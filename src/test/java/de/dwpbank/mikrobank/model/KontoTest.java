@@ -2,6 +2,14 @@ package de.dwpbank.mikrobank.model;
 
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -83,4 +91,100 @@ class KontoTest {
         konto.setKontostand(-50);
         assertEquals(-50, konto.getKontostand());
     }
+
+    @Test
+    void kontostandIsStoredInCents() {
+        Konto konto = new Konto(0.1);
+        konto.bucheAtomar(20, Long.MIN_VALUE);
+        assertEquals(30, konto.getKontostandCent());
+        assertEquals(0.3, konto.getKontostand());
+    }
+
+    @Test
+    void inCentRoundsHalfAwayFromZero() {
+        assertEquals(13, Konto.inCent(0.125));
+        assertEquals(-13, Konto.inCent(-0.125));
+        assertEquals(1, Konto.inCent(0.005));
+        assertEquals(-1, Konto.inCent(-0.005));
+        assertEquals(12, Konto.inCent(0.1249));
+        assertEquals(0, Konto.inCent(0.0049));
+        assertThrows(IllegalArgumentException.class, () -> Konto.inCent(Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> Konto.inCent(1e17));
+    }
+
+    @Test
+    void bucheAtomarRejectsBookingBelowLimit() {
+        Konto konto = new Konto(1);
+        assertFalse(konto.bucheAtomar(-101, 0));
+        assertEquals(100, konto.getKontostandCent());
+        assertTrue(konto.bucheAtomar(-100, 0));
+        assertEquals(0, konto.getKontostandCent());
+    }
+
+    @Test
+    void bucheAtomarDetectsOverflow() {
+        Konto konto = new Konto(0);
+        konto.bucheAtomar(Long.MAX_VALUE, Long.MIN_VALUE);
+        assertThrows(ArithmeticException.class, () -> konto.bucheAtomar(1, Long.MIN_VALUE));
+        assertEquals(Long.MAX_VALUE, konto.getKontostandCent());
+    }
+
+    @Test
+    void bucheAtomarLosesNoBookingsUnderContention() throws Exception {
+        // 8 Threads buchen gleichzeitig je 100.000 Mal +1 und -1 Cent auf dasselbe Konto
+        int threads = 8;
+        int buchungen = 100_000;
+        Konto konto = new Konto(0);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> ergebnisse = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < buchungen; i++) {
+                    konto.bucheAtomar(3, Long.MIN_VALUE);
+                    konto.bucheAtomar(-1, Long.MIN_VALUE);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> ergebnis : ergebnisse) {
+            ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(2L * threads * buchungen, konto.getKontostandCent());
+    }
+
+    @Test
+    void bucheAtomarNeverPassesLimitUnderContention() throws Exception {
+        // 1.000 Cent Guthaben, 8 Threads versuchen zusammen 8.000 Mal 1 Cent abzubuchen
+        int threads = 8;
+        Konto konto = new Konto(10);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> ergebnisse = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                int erfolgreich = 0;
+                for (int i = 0; i < 1_000; i++) {
+                    if (konto.bucheAtomar(-1, 0)) {
+                        erfolgreich++;
+                    }
+                }
+                return erfolgreich;
+            }));
+        }
+        start.countDown();
+        int erfolgreich = 0;
+        for (Future<Integer> ergebnis : ergebnisse) {
+            erfolgreich += ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        assertEquals(1_000, erfolgreich);
+        assertEquals(0, konto.getKontostandCent());
+    }
 }
@@ -7,6 +7,16 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -361,4 +371,212 @@ class BoerseServiceTest {
         assertDoesNotThrow(() -> boerseService.verkaufe(konto, aktie, menge),
             "Der Verkauf von günstigen Aktien sollte möglich sein");
     }
+
+    // ============ NEBENLÄUFIGKEIT ============
+
+    @Test
+    @DisplayName("Kauf: Gleichzeitige Orders eines Kontos überziehen es nie")
+    void gleichzeitigeKaeufeUeberziehenNie() throws Exception {
+        // Arrange: 10.000 Euro; 8 Threads kaufen je 50 Mal eine Aktie zu 100 Euro
+        int threads = 8;
+        Konto konto = new Konto(10_000);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> ergebnisse = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                int ausgefuehrt = 0;
+                for (int i = 0; i < 50; i++) {
+                    try {
+                        // Eigene Aktie je Order, damit jede Order genau 100 Euro kostet
+                        boerseService.kaufe(konto, new Aktie("Apple", 100), 1);
+                        ausgefuehrt++;
+                    } catch (IllegalStateException e) {
+                        // Nicht gedeckt
+                    }
+                }
+                return ausgefuehrt;
+            }));
+        }
+        start.countDown();
+        int ausgefuehrt = 0;
+        for (Future<Integer> ergebnis : ergebnisse) {
+            ausgefuehrt += ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(100, ausgefuehrt);
+        assertEquals(0, konto.getKontostandCent());
+    }
+
+    // ============ ORDERBUCH ============
+
+    @Test
+    @DisplayName("Orderbuch: Kauf und Verkauf werden gegen das Buch ausgeführt")
+    void orderbuchBestimmtPreisUndKurs() {
+        // Arrange: eigene Aktie, damit kein anderer Test dasselbe Orderbuch trifft
+        Aktie aktie = new Aktie("Orderbuch-Test", 100);
+        Orderbuch buch = new Orderbuch(aktie.getName(), 1, 100_000);
+        buch.ordneEin(Orderbuch.Seite.VERKAUF, 10_000, 2);
+        buch.ordneEin(Orderbuch.Seite.VERKAUF, 10_500, 5);
+        buch.ordneEin(Orderbuch.Seite.KAUF, 9_800, 4);
+        boerseService.verbindeOrderbuch(aktie, buch);
+        Konto konto = new Konto(1_000);
+
+        // Act
+        boerseService.kaufe(konto, aktie, 3);     // 2 x 100,00 + 1 x 105,00
+        boerseService.verkaufe(konto, aktie, 1);  // 1 x 98,00
+
+        // Assert
+        assertEquals(100_000 - 30_500 + 9_800, konto.getKontostandCent());
+        assertEquals(98.0, aktie.getPreis(), 0.0001, "Kurs kommt aus der letzten Ausführung");
+        assertEquals(4, buch.gibVolumen(Orderbuch.Seite.VERKAUF, 10_500));
+        assertEquals(3, buch.gibVolumen(Orderbuch.Seite.KAUF, 9_800));
+    }
+
+    @Test
+    @DisplayName("Orderbuch: zu wenig Volumen oder Guthaben lässt Buch und Konto unverändert")
+    void orderbuchOhneLiquiditaet() {
+        // Arrange
+        Aktie aktie = new Aktie("Orderbuch-Liquiditaet", 100);
+        Orderbuch buch = new Orderbuch(aktie.getName(), 1, 100_000);
+        buch.ordneEin(Orderbuch.Seite.VERKAUF, 10_000, 2);
+        boerseService.verbindeOrderbuch(aktie, buch);
+        Konto konto = new Konto(150);
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> boerseService.kaufe(konto, aktie, 3),
+                "Nicht genug Verkaufsvolumen im Buch");
+        assertThrows(IllegalStateException.class, () -> boerseService.kaufe(konto, aktie, 2),
+                "Nicht genug Guthaben");
+        assertThrows(IllegalStateException.class, () -> boerseService.verkaufe(konto, aktie, 1),
+                "Keine Kauforder im Buch");
+        assertEquals(15_000, konto.getKontostandCent());
+        assertEquals(2, buch.gibVolumen(Orderbuch.Seite.VERKAUF, 10_000));
+    }
+
+    // ============ ASYNCHRONE ORDERS ============
+
+    @Test
+    @DisplayName("Asynchron: Kauf liefert Ausführungsbericht mit Preis und Menge")
+    void kaufeAsynchronLiefertBericht() throws Exception {
+        // Arrange
+        Konto konto = new Konto(1_000);
+        Aktie aktie = new Aktie("Apple", 100);
+
+        // Act
+        Ausfuehrungsbericht bericht = boerseService.kaufeAsynchron(konto, aktie, 3).get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(bericht.istAusgefuehrt());
+        assertEquals(3, bericht.gibAusgefuehrteMenge());
+        assertEquals(100.0, bericht.gibAusfuehrungspreis(), 0.0001);
+        assertEquals(30_000, bericht.gibUmsatzCent());
+        assertNull(bericht.gibAblehnungsgrund());
+        assertEquals(70_000, konto.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Asynchron: Ablehnung kommt als Bericht mit Grund, nicht als Exception")
+    void asynchroneAblehnungen() throws Exception {
+        // Arrange
+        Konto konto = new Konto(50);
+
+        // Act
+        Ausfuehrungsbericht nichtGedeckt = boerseService.kaufeAsynchron(konto, new Aktie("SAP", 100), 1)
+                .get(10, TimeUnit.SECONDS);
+        Ausfuehrungsbericht ungueltig = boerseService.verkaufeAsynchron(konto, new Aktie("SAP", 100), 0)
+                .get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertFalse(nichtGedeckt.istAusgefuehrt());
+        assertEquals("Nicht genügend Guthaben für den Kauf", nichtGedeckt.gibAblehnungsgrund());
+        assertEquals(0, nichtGedeckt.gibAusgefuehrteMenge());
+        assertFalse(ungueltig.istAusgefuehrt());
+        assertNotNull(ungueltig.gibAblehnungsgrund());
+        assertEquals(5_000, konto.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Asynchron: Orders laufen auf dem konfigurierten Executor, viele gleichzeitig")
+    void asynchronAufEigenemExecutor() throws Exception {
+        // Arrange: 200 offene Orders über 4 Aktien, ausgeführt auf einem eigenen Pool
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        AtomicInteger aufgaben = new AtomicInteger();
+        BoerseService service = new BoerseService(auftrag -> {
+            aufgaben.incrementAndGet();
+            pool.execute(auftrag);
+        });
+        Konto konto = new Konto(100_000);
+        List<CompletableFuture<Ausfuehrungsbericht>> offen = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 200; i++) {
+            offen.add(service.kaufeAsynchron(konto, new Aktie("Async" + i % 4, 10), 1));
+        }
+        int ausgefuehrt = 0;
+        for (CompletableFuture<Ausfuehrungsbericht> future : offen) {
+            ausgefuehrt += future.get(30, TimeUnit.SECONDS).gibAusgefuehrteMenge();
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals(200, ausgefuehrt);
+        assertEquals(200, aufgaben.get(), "Jede Order läuft über den Executor");
+        assertEquals(100_000 * 100 - 200 * 1_000, konto.getKontostandCent());
+        assertThrows(IllegalArgumentException.class, () -> new BoerseService(null));
+    }
+
+    @Test
+    @DisplayName("PreisService: Mit gleichem Seed ist die Kursreaktion auf Orders reproduzierbar")
+    void kursreaktionMitSeed() {
+        // Arrange
+        BoerseService erster = new BoerseService(new PreisService(4711), Runnable::run);
+        BoerseService zweiter = new BoerseService(new PreisService(4711), Runnable::run);
+        Aktie ersteAktie = new Aktie("Seed-Boerse", 100);
+        Aktie zweiteAktie = new Aktie("Seed-Boerse", 100);
+
+        // Act
+        for (int i = 0; i < 20; i++) {
+            erster.kaufe(new Konto(1_000), ersteAktie, 1);
+            zweiter.kaufe(new Konto(1_000), zweiteAktie, 1);
+        }
+
+        // Assert
+        assertEquals(ersteAktie.getPreis(), zweiteAktie.getPreis());
+        assertNotEquals(100.0, ersteAktie.getPreis());
+        assertThrows(IllegalArgumentException.class, () -> new BoerseService(null, Runnable::run));
+    }
+
+    @Test
+    @DisplayName("Asynchron: Gleichzeitige Orders derselben Aktie ergeben mit gleichem Seed denselben Kursverlauf")
+    void asynchronerKursverlaufReproduzierbar() throws Exception {
+        // Arrange: dieselben Orders einmal auf 4 Threads, einmal nacheinander
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        BoerseService parallel = new BoerseService(new PreisService(815), pool);
+        BoerseService nacheinander = new BoerseService(new PreisService(815), Runnable::run);
+        Aktie parallelAktie = new Aktie("Async-Seed", 10);
+        Aktie nacheinanderAktie = new Aktie("Async-Seed", 10);
+        Konto konto = new Konto(1_000_000);
+        List<CompletableFuture<Ausfuehrungsbericht>> offen = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 400; i++) {
+            offen.add(parallel.kaufeAsynchron(konto, parallelAktie, 1));
+            nacheinander.kaufe(new Konto(1_000_000), nacheinanderAktie, 1);
+        }
+        for (CompletableFuture<Ausfuehrungsbericht> future : offen) {
+            assertTrue(future.get(30, TimeUnit.SECONDS).istAusgefuehrt());
+        }
+        pool.shutdown();
+
+        // Assert: keine Kursreaktion verloren oder doppelt gezogen
+        assertEquals(nacheinanderAktie.getPreis(), parallelAktie.getPreis());
+        assertEquals(nacheinander.gibKursService().gibKurshistorie("Async-Seed"),
+                parallel.gibKursService().gibKurshistorie("Async-Seed"));
+    }
 }
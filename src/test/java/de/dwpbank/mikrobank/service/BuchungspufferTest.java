@@ -0,0 +1,69 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Konto;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für den wiederverwendbaren Buchungspuffer.
+ */
+@DisplayName("Buchungspuffer Tests")
+class BuchungspufferTest {
+
+    private Buchungspuffer puffer;
+
+    @BeforeEach
+    void setUp() {
+        puffer = new Buchungspuffer(3);
+    }
+
+    @Test
+    @DisplayName("Buchungspuffer: Voller Puffer nimmt keine Buchungen mehr an")
+    void vollerPufferLehntAb() {
+        // Arrange
+        Konto konto = new Konto(0);
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertTrue(puffer.fuegeHinzu(konto, 100 + i));
+        }
+
+        // Assert
+        assertTrue(puffer.istVoll());
+        assertFalse(puffer.fuegeHinzu(konto, 200));
+        assertEquals(3, puffer.gibAnzahl());
+        assertEquals(102, puffer.gibBetragCent(2));
+    }
+
+    @Test
+    @DisplayName("Buchungspuffer: Nach dem Leeren ist der Puffer wiederverwendbar")
+    void leerenMachtWiederverwendbar() {
+        // Arrange
+        puffer.fuegeHinzu(new Konto(0), 100);
+        puffer.fuegeHinzu(new Konto(0), -50);
+
+        // Act
+        puffer.leere();
+        puffer.fuegeHinzu(new Konto(0), 7);
+
+        // Assert
+        assertEquals(1, puffer.gibAnzahl());
+        assertEquals(7, puffer.gibBetragCent(0));
+        assertFalse(puffer.istAbgelehnt(0));
+        assertNull(puffer.konten[1]);
+    }
+
+    @Test
+    @DisplayName("Buchungspuffer: Ungültige Buchungen und Indizes werfen Exception")
+    void ungueltigeEingabenWerfenException() {
+        assertThrows(IllegalArgumentException.class, () -> new Buchungspuffer(0));
+        assertThrows(IllegalArgumentException.class, () -> puffer.fuegeHinzu(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> puffer.fuegeHinzu(new Konto(0), 0));
+        assertThrows(IllegalArgumentException.class, () -> puffer.fuegeHinzu(new Konto(0), Long.MIN_VALUE));
+        assertThrows(IndexOutOfBoundsException.class, () -> puffer.gibBetragCent(0));
+        assertThrows(IndexOutOfBoundsException.class, () -> puffer.istAbgelehnt(-1));
+    }
+}
@@ -0,0 +1,209 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Kerze;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Kerzenbildung (OHLCV).
+ */
+@DisplayName("KerzenReihe Tests")
+class KerzenReiheTest {
+
+    @Test
+    @DisplayName("Kerzen: Ticks im selben Intervall bilden eine Kerze")
+    void ticksImSelbenIntervall() {
+        // Arrange
+        KerzenReihe reihe = new KerzenReihe(Kerzenaufloesung.SEKUNDE);
+
+        // Act: vier Ticks innerhalb derselben Sekunde
+        reihe.aktualisiere(10_000, 100, 5);
+        reihe.aktualisiere(10_200, 104, 1);
+        reihe.aktualisiere(10_500, 97, 2);
+        reihe.aktualisiere(10_999, 101, 3);
+
+        // Assert
+        List<Kerze> kerzen = reihe.alsListe();
+        assertEquals(1, kerzen.size());
+        Kerze kerze = kerzen.get(0);
+        assertEquals(10_000, kerze.getBeginn());
+        assertEquals(100, kerze.getEroeffnung());
+        assertEquals(104, kerze.getHoch());
+        assertEquals(97, kerze.getTief());
+        assertEquals(101, kerze.getSchluss());
+        assertEquals(11, kerze.getVolumen());
+    }
+
+    @Test
+    @DisplayName("Kerzen: Neues Intervall beginnt eine neue Kerze")
+    void neuesIntervallNeueKerze() {
+        KerzenReihe reihe = new KerzenReihe(Kerzenaufloesung.MINUTE);
+
+        reihe.aktualisiere(59_999, 100, 0);
+        reihe.aktualisiere(60_000, 110, 0);
+        // Lücke: keine Ticks zwischen 2 und 5 Minuten → keine leeren Kerzen
+        reihe.aktualisiere(5 * 60_000 + 1, 120, 0);
+
+        List<Kerze> kerzen = reihe.alsListe();
+        assertEquals(3, kerzen.size());
+        assertEquals(0, kerzen.get(0).getBeginn());
+        assertEquals(60_000, kerzen.get(1).getBeginn());
+        assertEquals(300_000, kerzen.get(2).getBeginn());
+    }
+
+    @Test
+    @DisplayName("Kerzen: Verspäteter Tick zählt zur laufenden Kerze")
+    void verspaeteterTick() {
+        KerzenReihe reihe = new KerzenReihe(Kerzenaufloesung.SEKUNDE);
+
+        reihe.aktualisiere(1_000, 100, 0);
+        reihe.aktualisiere(2_000, 110, 0);
+        reihe.aktualisiere(1_500, 90, 0);
+
+        List<Kerze> kerzen = reihe.alsListe();
+        assertEquals(2, kerzen.size());
+        assertEquals(100, kerzen.get(0).getSchluss());
+        assertEquals(90, kerzen.get(1).getTief());
+    }
+
+    @Test
+    @DisplayName("Kerzen: Anzahl ist pro Auflösung begrenzt")
+    void anzahlBegrenzt() {
+        KerzenReihe reihe = new KerzenReihe(Kerzenaufloesung.SEKUNDE);
+        int max = Kerzenaufloesung.SEKUNDE.getMaxKerzen();
+
+        for (int i = 0; i < max + 10; i++) {
+            reihe.aktualisiere(i * 1_000L, 100 + i, 0);
+        }
+
+        List<Kerze> kerzen = reihe.alsListe();
+        assertEquals(max, kerzen.size());
+        assertEquals(10_000, kerzen.get(0).getBeginn());
+        assertEquals(100 + max + 9, kerzen.get(max - 1).getSchluss());
+    }
+
+    @Test
+    @DisplayName("Kerzen: KursService bildet alle Auflösungen gleichzeitig")
+    void kursServiceBildetAlleAufloesungen() {
+        // Arrange
+        KursService kursService = new KursService();
+        Aktie apple = new Aktie("Apple", 100);
+
+        // Act: ein Tick pro Sekunde über zwei Minuten
+        for (int sekunde = 0; sekunde < 120; sekunde++) {
+            apple.setPreis(100 + sekunde);
+            kursService.speichereKurs(apple, sekunde * 1_000L, 1);
+        }
+
+        // Assert
+        assertEquals(120, kursService.gibKerzen("Apple", Kerzenaufloesung.SEKUNDE).size());
+        List<Kerze> minuten = kursService.gibKerzen("Apple", Kerzenaufloesung.MINUTE);
+        assertEquals(2, minuten.size());
+        assertEquals(100, minuten.get(0).getEroeffnung());
+        assertEquals(159, minuten.get(0).getSchluss());
+        assertEquals(60, minuten.get(0).getVolumen());
+        assertEquals(1, kursService.gibKerzen("Apple", Kerzenaufloesung.TAG).size());
+        assertTrue(kursService.gibKerzen("Unbekannt", Kerzenaufloesung.TAG).isEmpty());
+    }
+
+    @Test
+    @DisplayName("Kerzen: Negatives Volumen wird abgelehnt")
+    void negativesVolumenWirftException() {
+        KursService kursService = new KursService();
+        Aktie apple = new Aktie("Apple", 100);
+
+        assertThrows(IllegalArgumentException.class, () -> kursService.speichereKurs(apple, 0, -1));
+    }
+
+    @Test
+    @DisplayName("Kerzen: Speicher wächst erst mit den Kerzen")
+    void speicherWaechstMitDenKerzen() {
+        // Arrange
+        KerzenReihe reihe = new KerzenReihe(Kerzenaufloesung.SEKUNDE);
+        int max = Kerzenaufloesung.SEKUNDE.getMaxKerzen();
+        assertEquals(0, reihe.gibKapazitaet(), "Ohne Tick wird nichts angelegt");
+
+        // Act: 20 Kerzen, danach so viele, dass der Puffer überläuft
+        for (int i = 0; i < 20; i++) {
+            reihe.aktualisiere(i * 1_000L, 100 + i, 1);
+        }
+        int kapazitaetNach20 = reihe.gibKapazitaet();
+        List<Kerze> nach20 = reihe.alsListe();
+        for (int i = 20; i < max + 5; i++) {
+            reihe.aktualisiere(i * 1_000L, 100 + i, 1);
+        }
+
+        // Assert
+        assertTrue(kapazitaetNach20 >= 20 && kapazitaetNach20 < max);
+        assertEquals(20, nach20.size());
+        assertEquals(19_000, nach20.get(19).getBeginn());
+        assertEquals(max, reihe.gibKapazitaet());
+        List<Kerze> kerzen = reihe.alsListe();
+        assertEquals(max, kerzen.size());
+        assertEquals(5_000, kerzen.get(0).getBeginn(), "Die ältesten Kerzen sind verdrängt");
+        assertEquals((max + 4) * 1_000L, kerzen.get(max - 1).getBeginn());
+    }
+
+    @Test
+    @DisplayName("Kerzen: Leser parallel zum Schreiber sehen beim Wachsen nur konsistente Kerzen")
+    void lesenWaehrendDesWachsens() throws Exception {
+        // Arrange: jede Runde eine neue Aktie, deren Spalten von 0 bis zum Überlauf wachsen;
+        // der Kurs jedes Ticks ergibt sich aus seinem Zeitstempel
+        KursService kursService = new KursService();
+        int runden = 500;
+        int anzahlLeser = 3;
+        int ticks = Kerzenaufloesung.SEKUNDE.getMaxKerzen() + 50;
+        AtomicReference<String> aktuell = new AtomicReference<>();
+        AtomicReference<Throwable> fehler = new AtomicReference<>();
+        Thread schreiber = new Thread(() -> {
+            for (int r = 0; r < runden; r++) {
+                Aktie aktie = new Aktie("Kerzen-Parallel-" + r, 100);
+                aktuell.set(aktie.getName());
+                for (int i = 0; i < ticks; i++) {
+                    kursService.speichereKurs(aktie.getId(), 100 + i, i * 1_000L, 1);
+                }
+            }
+            aktuell.set(null);
+        });
+
+        // Act
+        aktuell.set("Kerzen-Parallel-0");
+        schreiber.start();
+        Thread[] leser = new Thread[anzahlLeser];
+        for (int l = 0; l < anzahlLeser; l++) {
+            leser[l] = new Thread(() -> {
+                try {
+                    for (String name = aktuell.get(); name != null; name = aktuell.get()) {
+                        List<Kerze> kerzen = kursService.gibKerzen(name, Kerzenaufloesung.SEKUNDE);
+                        for (int j = 0; j < kerzen.size(); j++) {
+                            Kerze kerze = kerzen.get(j);
+                            assertEquals(100 + kerze.getBeginn() / 1_000.0, kerze.getSchluss(), 0.0);
+                            assertEquals(kerze.getEroeffnung(), kerze.getSchluss(), 0.0);
+                            if (j > 0) {
+                                assertEquals(kerzen.get(j - 1).getBeginn() + 1_000, kerze.getBeginn());
+                            }
+                        }
+                    }
+                } catch (Throwable t) {
+                    fehler.set(t);
+                }
+            });
+            leser[l].start();
+        }
+        schreiber.join(60_000);
+        for (Thread l : leser) {
+            l.join(60_000);
+        }
+
+        // Assert
+        assertNull(fehler.get(), () -> "Leser sah inkonsistente Kerzen: " + fehler.get());
+        assertEquals(Kerzenaufloesung.SEKUNDE.getMaxKerzen(),
+                kursService.gibKerzen("Kerzen-Parallel-" + (runden - 1), Kerzenaufloesung.SEKUNDE).size());
+    }
+}
@@ -0,0 +1,108 @@
+package de.dwpbank.mikrobank.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Vergleicht Speicherbedarf und Durchsatz der komprimierten Kurshistorie mit
+ * einer {@code ArrayList<Double>} und einem {@code double[]}.
+ * <p>
+ * Kein Unit-Test, wird manuell gestartet:
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes de.dwpbank.mikrobank.service.KomprimierteKurshistorieBenchmark
+ * </pre>
+ */
+public class KomprimierteKurshistorieBenchmark {
+
+    private static final int TICKS = 1_000_000;
+
+    public static void main(String[] args) {
+        Random random = new Random(7);
+        long[] zeitstempel = new long[TICKS];
+        double[] kurse = new double[TICKS];
+        erzeugeRealistischeTicks(zeitstempel, kurse, random);
+
+        // ArrayList<Double>: gemessen über den Heap-Zuwachs
+        long vorher = belegterHeap();
+        List<Double> liste = new ArrayList<>();
+        for (double kurs : kurse) {
+            liste.add(kurs);
+        }
+        long listeBytes = belegterHeap() - vorher;
+
+        // Komprimiert: mehrere Durchläufe zum Aufwärmen des JIT
+        KomprimierteKurshistorie komprimiert = null;
+        long kodierNanos = 0;
+        for (int durchlauf = 0; durchlauf < 5; durchlauf++) {
+            komprimiert = new KomprimierteKurshistorie(TICKS);
+            long start = System.nanoTime();
+            for (int i = 0; i < TICKS; i++) {
+                komprimiert.fuegeHinzu(zeitstempel[i], kurse[i]);
+            }
+            kodierNanos = System.nanoTime() - start;
+        }
+        long dekodierNanos = 0;
+        double pruefsumme = 0;
+        for (int durchlauf = 0; durchlauf < 5; durchlauf++) {
+            long start = System.nanoTime();
+            KomprimierteKurshistorie.Dekodierer dekodierer = komprimiert.dekodierer();
+            while (dekodierer.naechster()) {
+                pruefsumme += dekodierer.gibKurs();
+            }
+            dekodierNanos = System.nanoTime() - start;
+        }
+
+        System.out.printf("Ticks:                         %,d%n", TICKS);
+        System.out.printf("ArrayList<Double> (nur Kurse): %6.2f Byte/Tick%n", (double) listeBytes / TICKS);
+        System.out.printf("double[] (nur Kurse):          %6.2f Byte/Tick%n", 8.0);
+        System.out.printf("Komprimiert (Kurs + Zeit):     %6.2f Byte/Tick%n",
+                (double) komprimiert.gibBelegteBytes() / TICKS);
+        System.out.printf("Faktor gegenüber ArrayList:    %6.1fx%n",
+                (double) listeBytes / komprimiert.gibBelegteBytes());
+        System.out.printf("Kodieren:                      %6.1f ns/Tick%n", (double) kodierNanos / TICKS);
+        System.out.printf("Dekodieren:                    %6.1f ns/Tick%n", (double) dekodierNanos / TICKS);
+        System.out.printf("(Prüfsumme %.1f, Listengröße %d)%n", pruefsumme, liste.size());
+    }
+
+    /**
+     * Füllt eine Historie mit realistischen Ticks (siehe {@link #erzeugeRealistischeTicks}).
+     */
+    static void fuelleRealistisch(KomprimierteKurshistorie historie, int anzahl, Random random) {
+        long[] zeitstempel = new long[anzahl];
+        double[] kurse = new double[anzahl];
+        erzeugeRealistischeTicks(zeitstempel, kurse, random);
+        for (int i = 0; i < anzahl; i++) {
+            historie.fuegeHinzu(zeitstempel[i], kurse[i]);
+        }
+    }
+
+    /**
+     * Ticks etwa alle 250 ms mit leichtem Jitter; Kurse auf einem Cent-Raster,
+     * die sich bei etwa zwei Dritteln der Ticks nicht ändern.
+     */
+    static void erzeugeRealistischeTicks(long[] zeitstempel, double[] kurse, Random random) {
+        long zeit = 1_700_000_000_000L;
+        long cent = 15_000;
+        for (int i = 0; i < zeitstempel.length; i++) {
+            zeit += 250 + (random.nextInt(10) == 0 ? random.nextInt(20) - 10 : 0);
+            int schritt = random.nextInt(6);
+            if (schritt == 0) {
+                cent++;
+            } else if (schritt == 1) {
+                cent--;
+            }
+            zeitstempel[i] = zeit;
+            kurse[i] = cent / 100.0;
+        }
+    }
+
+    private static long belegterHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,127 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die komprimierte Kurshistorie (Gorilla-Kodierung).
+ */
+@DisplayName("KomprimierteKurshistorie Tests")
+class KomprimierteKurshistorieTest {
+
+    @Test
+    @DisplayName("Komprimiert: Beliebige Werte werden verlustfrei dekodiert")
+    void verlustfreiBeiBeliebigenWerten() {
+        // Arrange: unregelmäßige Zeitstempel (auch rückwärts und große Sprünge) und zufällige Kurse
+        Random random = new Random(42);
+        int anzahl = 5_000;
+        long[] zeitstempel = new long[anzahl];
+        double[] kurse = new double[anzahl];
+        long zeit = 1_700_000_000_000L;
+        for (int i = 0; i < anzahl; i++) {
+            zeit += switch (i % 5) {
+                case 0 -> 1_000;
+                case 1 -> random.nextInt(100);
+                case 2 -> -random.nextInt(3_000);
+                case 3 -> random.nextInt(Integer.MAX_VALUE);
+                default -> 1_000;
+            };
+            zeitstempel[i] = zeit;
+            kurse[i] = i % 3 == 0 ? kurse[Math.max(0, i - 1)] : random.nextDouble() * 1_000;
+        }
+        kurse[7] = Double.MIN_VALUE;
+        kurse[8] = Double.MAX_VALUE;
+
+        KomprimierteKurshistorie historie = new KomprimierteKurshistorie(anzahl);
+
+        // Act
+        for (int i = 0; i < anzahl; i++) {
+            historie.fuegeHinzu(zeitstempel[i], kurse[i]);
+        }
+
+        // Assert
+        assertEquals(anzahl, historie.gibAnzahl());
+        KomprimierteKurshistorie.Dekodierer dekodierer = historie.dekodierer();
+        for (int i = 0; i < anzahl; i++) {
+            assertTrue(dekodierer.naechster());
+            assertEquals(zeitstempel[i], dekodierer.gibZeitstempel(), "Zeitstempel " + i);
+            assertEquals(kurse[i], dekodierer.gibKurs(), "Kurs " + i);
+        }
+        assertFalse(dekodierer.naechster());
+    }
+
+    @Test
+    @DisplayName("Komprimiert: Älteste Blöcke werden verworfen")
+    void aeltesteBloeckeWerdenVerworfen() {
+        // Arrange: Platz für 2 Blöcke
+        KomprimierteKurshistorie historie = new KomprimierteKurshistorie(2 * KomprimierteKurshistorie.TICKS_PRO_BLOCK);
+
+        // Act: 3,5 Blöcke schreiben
+        int anzahl = 7 * KomprimierteKurshistorie.TICKS_PRO_BLOCK / 2;
+        for (int i = 0; i < anzahl; i++) {
+            historie.fuegeHinzu(i, i);
+        }
+
+        // Assert: ein abgeschlossener und der laufende halbe Block bleiben
+        int erwartet = 3 * KomprimierteKurshistorie.TICKS_PRO_BLOCK / 2;
+        assertEquals(erwartet, historie.gibAnzahl());
+        KomprimierteKurshistorie.Dekodierer dekodierer = historie.dekodierer();
+        assertTrue(dekodierer.naechster());
+        assertEquals(anzahl - erwartet, dekodierer.gibZeitstempel());
+    }
+
+    @Test
+    @DisplayName("Komprimiert: Schnappschuss ändert sich nicht mehr")
+    void schnappschussIstUnveraenderlich() {
+        KomprimierteKurshistorie historie = new KomprimierteKurshistorie(10_000);
+        historie.fuegeHinzu(1_000, 100);
+        historie.fuegeHinzu(2_000, 101);
+
+        KomprimierteKurshistorie schnappschuss = historie.schnappschuss();
+        historie.fuegeHinzu(3_000, 102);
+
+        assertEquals(2, schnappschuss.gibAnzahl());
+        assertEquals(3, historie.gibAnzahl());
+    }
+
+    @Test
+    @DisplayName("Komprimiert: Realistische Ticks brauchen deutlich weniger als 8 Byte")
+    void realistischeTicksWerdenKomprimiert() {
+        // Arrange & Act
+        KomprimierteKurshistorie historie = new KomprimierteKurshistorie(100_000);
+        KomprimierteKurshistorieBenchmark.fuelleRealistisch(historie, 100_000, new Random(1));
+
+        // Assert
+        double bytesProTick = (double) historie.gibBelegteBytes() / historie.gibAnzahl();
+        assertTrue(bytesProTick < 4.0, "Bytes pro Tick: " + bytesProTick);
+    }
+
+    @Test
+    @DisplayName("Komprimiert: KursService führt eine Langzeithistorie mit Zeitstempeln")
+    void kursServiceFuehrtLangzeithistorie() {
+        // Arrange
+        KursService kursService = new KursService();
+        Aktie apple = new Aktie("Apple", 100);
+
+        // Act: mehr Ticks als die normale Historie fasst
+        for (int i = 0; i < 500; i++) {
+            apple.setPreis(100 + i * 0.01);
+            kursService.speichereKurs(apple, i * 1_000L, 0);
+        }
+
+        // Assert
+        assertEquals(100, kursService.gibKurshistorie("Apple").size());
+        KomprimierteKurshistorie langzeit = kursService.gibLangzeitHistorie("Apple");
+        assertEquals(500, langzeit.gibAnzahl());
+        KomprimierteKurshistorie.Dekodierer dekodierer = langzeit.dekodierer();
+        assertTrue(dekodierer.naechster());
+        assertEquals(0, dekodierer.gibZeitstempel());
+        assertEquals(100, dekodierer.gibKurs());
+        assertEquals(0, kursService.gibLangzeitHistorie("Unbekannt").gibAnzahl());
+    }
+}
@@ -5,6 +5,16 @@ import de.dwpbank.mikrobank.model.Konto;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -234,4 +244,355 @@ class KontoServiceTest {
         assertThrows(IllegalArgumentException.class,
                 () -> kontoService.auszahlen(konto, 50.01));
     }
+
+    // ============ CENT- UND NEBENLÄUFIGKEITS-TESTS ============
+
+    @Test
+    @DisplayName("Cent: Euro-Beträge werden auf ganze Cent gerundet gebucht")
+    void centBetraegeSummierenOhneRundungsfehler() {
+        // Arrange
+        Konto konto = new Konto(0);
+
+        // Act: 0.1 + 0.2 ergibt als double nicht genau 0.3
+        kontoService.einzahlen(konto, 0.1);
+        kontoService.einzahlen(konto, 0.2);
+
+        // Assert
+        assertEquals(30, konto.getKontostandCent());
+        assertEquals(0.3, konto.getKontostand());
+    }
+
+    @Test
+    @DisplayName("Cent: Ungültige Cent-Beträge und fehlendes Konto werfen Exception")
+    void centUngueltigeEingabenWerfenException() {
+        // Arrange
+        Konto konto = new Konto(100);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> kontoService.einzahlenCent(konto, 0));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.auszahlenCent(konto, -1));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.einzahlen(konto, Double.NaN));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.einzahlen(null, 10));
+        assertEquals(10_000, konto.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Nebenläufigkeit: Gleichzeitige Auszahlungen überziehen das Konto nie")
+    void gleichzeitigeAuszahlungenUeberziehenNie() throws Exception {
+        // Arrange: 10 Euro Guthaben, 8 Threads wollen zusammen 16 Euro abheben
+        int threads = 8;
+        Konto konto = new Konto(10);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> ergebnisse = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                int erfolgreich = 0;
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        kontoService.auszahlenCent(konto, 1);
+                        erfolgreich++;
+                    } catch (IllegalArgumentException e) {
+                        // Nicht gedeckt, erwartet sobald das Guthaben aufgebraucht ist
+                    }
+                }
+                return erfolgreich;
+            }));
+        }
+        start.countDown();
+        int erfolgreich = 0;
+        for (Future<Integer> ergebnis : ergebnisse) {
+            erfolgreich += ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert: genau das Guthaben wurde ausgezahlt, keine Auszahlung mehr
+        assertEquals(1_000, erfolgreich);
+        assertEquals(0, konto.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Nebenläufigkeit: Gleichzeitige Ein- und Auszahlungen gehen nicht verloren")
+    void gleichzeitigeBuchungenGehenNichtVerloren() throws Exception {
+        // Arrange
+        int threads = 4;
+        int buchungen = 500;
+        Konto konto = new Konto(0);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> ergebnisse = new ArrayList<>();
+
+        // Act: jeder Thread zahlt 2 Cent ein und 1 Cent wieder aus
+        for (int t = 0; t < threads; t++) {
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < buchungen; i++) {
+                    kontoService.einzahlenCent(konto, 2);
+                    kontoService.auszahlenCent(konto, 1);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> ergebnis : ergebnisse) {
+            ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert
+        assertEquals((long) threads * buchungen, konto.getKontostandCent());
+    }
+
+    // ============ KONTOBUCH-TESTS ============
+
+    @Test
+    @DisplayName("Kontobuch: Eröffnetes Konto funktioniert wie ein normales Konto")
+    void eroeffnetesKontoUnterstuetztEinUndAuszahlungen() {
+        // Arrange
+        Konto konto = kontoService.eroeffneKonto(100);
+
+        // Act
+        kontoService.einzahlen(konto, 50.25);
+        kontoService.auszahlen(konto, 20);
+
+        // Assert
+        assertEquals(130.25, konto.getKontostand());
+        assertThrows(IllegalArgumentException.class, () -> kontoService.auszahlen(konto, 130.26));
+        assertEquals(13_025, kontoService.gibKontobuch().gibSummeCent());
+    }
+
+    @Test
+    @DisplayName("Kontobuch: Viele Konten auf einmal eröffnen")
+    void eroeffneKontenLegtFortlaufendeKontenAn() {
+        // Act
+        int ersteId = kontoService.eroeffneKonten(1_000_000, 10);
+
+        // Assert
+        Kontobuch buch = kontoService.gibKontobuch();
+        assertEquals(0, ersteId);
+        assertEquals(1_000_000, buch.gibAnzahl());
+        assertEquals(1_000_000_000L, buch.gibSummeCent());
+        assertThrows(IllegalArgumentException.class, () -> kontoService.eroeffneKonten(10, -1));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.eroeffneKonto(Double.NaN));
+    }
+
+    // ============ RESERVIERUNGS-TESTS ============
+
+    @Test
+    @DisplayName("Reservierung: Betrag ist sofort vorgemerkt und nicht mehr auszahlbar")
+    void reservierungMerktBetragVor() {
+        // Arrange
+        Konto konto = new Konto(100);
+
+        // Act
+        Reservierung reservierung = kontoService.reserviereCent(konto, 8_000);
+
+        // Assert
+        assertTrue(reservierung.istOffen());
+        assertEquals(8_000, reservierung.gibBetragCent());
+        assertEquals(2_000, konto.getKontostandCent());
+        assertThrows(IllegalArgumentException.class, () -> kontoService.auszahlen(konto, 20.01));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.reserviereCent(konto, 2_001));
+    }
+
+    @Test
+    @DisplayName("Reservierung: Abrechnung mit geringerem Betrag schreibt den Rest gut")
+    void abrechnungSchreibtRestGut() {
+        // Arrange
+        Konto konto = new Konto(100);
+        Reservierung reservierung = kontoService.reserviereCent(konto, 5_000);
+
+        // Act
+        kontoService.abrechnenCent(reservierung, 4_250);
+
+        // Assert
+        assertTrue(reservierung.istAbgerechnet());
+        assertEquals(5_750, konto.getKontostandCent());
+        assertThrows(IllegalStateException.class, () -> kontoService.freigeben(reservierung));
+        assertEquals(5_750, konto.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Reservierung: Freigabe schreibt den ganzen Betrag wieder gut")
+    void freigabeSchreibtBetragGut() {
+        // Arrange
+        Konto konto = new Konto(100);
+        Reservierung reservierung = kontoService.reserviereCent(konto, 5_000);
+
+        // Act
+        kontoService.freigeben(reservierung);
+
+        // Assert
+        assertFalse(reservierung.istOffen());
+        assertFalse(reservierung.istAbgerechnet());
+        assertEquals(10_000, konto.getKontostandCent());
+        assertThrows(IllegalStateException.class, () -> kontoService.abrechnen(reservierung));
+        assertThrows(IllegalStateException.class, () -> kontoService.freigeben(reservierung));
+        assertEquals(10_000, konto.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Reservierung: Ungültige Beträge werfen Exception")
+    void reservierungMitUngueltigenBetraegenWirftException() {
+        // Arrange
+        Konto konto = new Konto(100);
+        Reservierung reservierung = kontoService.reserviereCent(konto, 1_000);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> kontoService.reserviereCent(konto, 0));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.reserviereCent(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.abrechnenCent(reservierung, 1_001));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.abrechnenCent(reservierung, -1));
+        assertThrows(IllegalArgumentException.class, () -> kontoService.freigeben(null));
+        assertTrue(reservierung.istOffen());
+    }
+
+    @Test
+    @DisplayName("Nebenläufigkeit: Gleichzeitige Reservierungen überziehen das Konto nie")
+    void gleichzeitigeReservierungenUeberziehenNie() throws Exception {
+        // Arrange: 100 Euro Guthaben; 8 Threads reservieren je 1 Euro, jede zweite wird wieder freigegeben
+        int threads = 8;
+        Konto konto = new Konto(100);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> ergebnisse = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                int abgerechnet = 0;
+                for (int i = 0; i < 2_000; i++) {
+                    Reservierung reservierung;
+                    try {
+                        reservierung = kontoService.reserviereCent(konto, 100);
+                    } catch (IllegalArgumentException e) {
+                        continue;
+                    }
+                    assertTrue(konto.getKontostandCent() >= 0);
+                    if (i % 2 == 0) {
+                        kontoService.freigeben(reservierung);
+                    } else {
+                        kontoService.abrechnen(reservierung);
+                        abgerechnet++;
+                    }
+                }
+                return abgerechnet;
+            }));
+        }
+        start.countDown();
+        int abgerechnet = 0;
+        for (Future<Integer> ergebnis : ergebnisse) {
+            abgerechnet += ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert: genau das Guthaben wurde abgerechnet, freigegebene Beträge sind zurück
+        assertEquals(100, abgerechnet);
+        assertEquals(0, konto.getKontostandCent());
+    }
+
+    // ============ STAPEL-TESTS ============
+
+    @Test
+    @DisplayName("Stapel: Einzeln werden nur nicht gedeckte Auszahlungen abgelehnt")
+    void stapelEinzelnLehntNurUngedeckteAb() {
+        // Arrange
+        Konto anna = new Konto(100);
+        Konto bert = new Konto(10);
+        Buchungspuffer puffer = new Buchungspuffer(8);
+        puffer.fuegeHinzu(anna, -6_000);
+        puffer.fuegeHinzu(bert, -2_000);   // nicht gedeckt
+        puffer.fuegeHinzu(bert, 500);
+        puffer.fuegeHinzu(anna, -5_000);   // nach der ersten Auszahlung nicht mehr gedeckt
+
+        // Act
+        Buchungsergebnis ergebnis = kontoService.bucheStapel(puffer, Buchungsmodus.EINZELN);
+
+        // Assert
+        assertEquals(2, ergebnis.gibAnzahlGebucht());
+        assertEquals(2, ergebnis.gibAnzahlAbgelehnt());
+        assertFalse(ergebnis.istVollstaendig());
+        assertEquals(500, ergebnis.gibEingezahltCent());
+        assertEquals(6_000, ergebnis.gibAusgezahltCent());
+        assertFalse(puffer.istAbgelehnt(0));
+        assertTrue(puffer.istAbgelehnt(1));
+        assertFalse(puffer.istAbgelehnt(2));
+        assertTrue(puffer.istAbgelehnt(3));
+        assertEquals(4_000, anna.getKontostandCent());
+        assertEquals(1_500, bert.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Stapel: Ganz oder gar nicht bucht bei einer ungedeckten Auszahlung nichts")
+    void stapelAllesOderNichtsBuchtNichts() {
+        // Arrange
+        Konto anna = new Konto(100);
+        Konto bert = new Konto(10);
+        Buchungspuffer puffer = new Buchungspuffer(8);
+        puffer.fuegeHinzu(bert, 5_000);
+        puffer.fuegeHinzu(anna, -5_000);
+        puffer.fuegeHinzu(bert, -2_000);   // nicht gedeckt, die Einzahlung oben zählt nicht
+
+        // Act
+        Buchungsergebnis ergebnis = kontoService.bucheStapel(puffer, Buchungsmodus.ALLES_ODER_NICHTS);
+
+        // Assert
+        assertEquals(0, ergebnis.gibAnzahlGebucht());
+        assertEquals(3, ergebnis.gibAnzahlAbgelehnt());
+        for (int i = 0; i < 3; i++) {
+            assertTrue(puffer.istAbgelehnt(i));
+        }
+        assertEquals(10_000, anna.getKontostandCent());
+        assertEquals(1_000, bert.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Stapel: Ganz oder gar nicht bucht einen gedeckten Stapel vollständig")
+    void stapelAllesOderNichtsBuchtAlles() {
+        // Arrange: Abrechnung einer Ausführung zwischen Käufer und Verkäufer
+        Konto kaeufer = new Konto(100);
+        Konto verkaeufer = new Konto(0);
+        Buchungspuffer puffer = new Buchungspuffer(2);
+        puffer.fuegeHinzu(kaeufer, -10_000);
+        puffer.fuegeHinzu(verkaeufer, 10_000);
+
+        // Act
+        Buchungsergebnis ergebnis = kontoService.bucheStapel(puffer, Buchungsmodus.ALLES_ODER_NICHTS);
+
+        // Assert
+        assertTrue(ergebnis.istVollstaendig());
+        assertEquals(2, ergebnis.gibAnzahlGebucht());
+        assertEquals(0, kaeufer.getKontostandCent());
+        assertEquals(10_000, verkaeufer.getKontostandCent());
+        assertThrows(IllegalArgumentException.class, () -> kontoService.bucheStapel(puffer, null));
+    }
+
+    @Test
+    @DisplayName("Stapel: Gebuchte Einträge landen im Journal")
+    void stapelWirdJournalisiert(@TempDir Path verzeichnis) {
+        // Arrange
+        Path datei = verzeichnis.resolve("konten.journal");
+        Kontobuch buch = new Kontobuch();
+        try (Kontojournal journal = Kontojournal.oeffne(datei)) {
+            KontoService mitJournal = new KontoService(buch, journal);
+            mitJournal.eroeffneKonten(2, 10);
+            Buchungspuffer puffer = new Buchungspuffer(4);
+            puffer.fuegeHinzu(buch.gibKonto(0), -400);
+            puffer.fuegeHinzu(buch.gibKonto(1), -2_000);  // nicht gedeckt
+            puffer.fuegeHinzu(buch.gibKonto(1), 400);
+
+            // Act
+            mitJournal.bucheStapel(puffer, Buchungsmodus.EINZELN);
+            assertEquals(3, journal.gibAnzahlGesichert());
+        }
+
+        // Assert
+        Kontobuch wiederhergestellt = Kontojournal.stelleWiederHer(null, datei);
+        assertEquals(600, wiederhergestellt.gibKontostandCent(0));
+        assertEquals(1_400, wiederhergestellt.gibKontostandCent(1));
+    }
 }
@@ -0,0 +1,81 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Konto;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Vergleicht die Abrechnung einer Handelssitzung über Einzelaufrufe
+ * ({@link KontoService#einzahlenCent} / {@link KontoService#auszahlenCent}) mit
+ * {@link KontoService#bucheStapel(Buchungspuffer, Buchungsmodus)}, jeweils ohne
+ * und mit {@link Kontojournal}.
+ * <p>
+ * Das Logging geht in eine temporäre Datei statt auf die Konsole; gemessen werden
+ * also auch die Kosten der Logeinträge selbst.
+ * <p>
+ * Kein Unit-Test, wird manuell gestartet:
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes de.dwpbank.mikrobank.service.KontoStapelBenchmark
+ * </pre>
+ */
+public class KontoStapelBenchmark {
+
+    private static final int KONTEN = 1_000;
+    private static final int AUSFUEHRUNGEN = 10_000;
+    private static final int DURCHLAEUFE = 5;
+
+    public static void main(String[] args) throws Exception {
+        Path verzeichnis = Files.createTempDirectory("kontostapel");
+        // Muss vor dem ersten Logger gesetzt sein
+        System.setProperty("org.slf4j.simpleLogger.logFile", verzeichnis.resolve("benchmark.log").toString());
+
+        System.out.printf("Ausführungen pro Sitzung: %,d (je Käufer- und Verkäuferbuchung)%n", AUSFUEHRUNGEN);
+        for (boolean mitJournal : new boolean[]{false, true}) {
+            Path datei = verzeichnis.resolve("konten.journal");
+            Files.deleteIfExists(datei);
+            Kontobuch buch = new Kontobuch();
+            try (Kontojournal journal = mitJournal ? Kontojournal.oeffne(datei) : null) {
+                KontoService kontoService = new KontoService(buch, journal);
+                int ersteId = kontoService.eroeffneKonten(KONTEN, 1_000_000);
+                Konto[] konten = new Konto[KONTEN];
+                for (int i = 0; i < KONTEN; i++) {
+                    konten[i] = buch.gibKonto(ersteId + i);
+                }
+
+                long einzelNanos = Long.MAX_VALUE;
+                for (int d = 0; d < DURCHLAEUFE; d++) {
+                    long start = System.nanoTime();
+                    for (int a = 0; a < AUSFUEHRUNGEN; a++) {
+                        long betrag = 100 + a % 900;
+                        kontoService.auszahlenCent(konten[a % KONTEN], betrag);
+                        kontoService.einzahlenCent(konten[(a * 7 + 1) % KONTEN], betrag);
+                    }
+                    einzelNanos = Math.min(einzelNanos, System.nanoTime() - start);
+                }
+
+                Buchungspuffer puffer = new Buchungspuffer(2 * AUSFUEHRUNGEN);
+                long stapelNanos = Long.MAX_VALUE;
+                for (int d = 0; d < DURCHLAEUFE; d++) {
+                    long start = System.nanoTime();
+                    puffer.leere();
+                    for (int a = 0; a < AUSFUEHRUNGEN; a++) {
+                        long betrag = 100 + a % 900;
+                        puffer.fuegeHinzu(konten[a % KONTEN], -betrag);
+                        puffer.fuegeHinzu(konten[(a * 7 + 1) % KONTEN], betrag);
+                    }
+                    kontoService.bucheStapel(puffer, Buchungsmodus.EINZELN);
+                    stapelNanos = Math.min(stapelNanos, System.nanoTime() - start);
+                }
+
+                System.out.printf("%nJournal: %s%n", mitJournal ? "ja" : "nein");
+                System.out.printf("Einzelaufrufe:  %10.2f ms/Sitzung %8.3f µs/Buchung%n",
+                        einzelNanos / 1e6, einzelNanos / 1000.0 / (2 * AUSFUEHRUNGEN));
+                System.out.printf("Stapel:         %10.2f ms/Sitzung %8.3f µs/Buchung%n",
+                        stapelNanos / 1e6, stapelNanos / 1000.0 / (2 * AUSFUEHRUNGEN));
+                System.out.printf("Faktor:         %10.1fx%n", (double) einzelNanos / stapelNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Konto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für das Kontobuch.
+ */
+@DisplayName("Kontobuch Tests")
+class KontobuchTest {
+
+    @Test
+    @DisplayName("Eröffnen: Ids sind fortlaufend und Startguthaben ist gesetzt")
+    void eroeffnenVergibtFortlaufendeIds() {
+        // Arrange
+        Kontobuch buch = new Kontobuch();
+
+        // Act
+        int erste = buch.eroeffne(500);
+        int block = buch.eroeffne(3, 100);
+        int letzte = buch.eroeffne(0);
+
+        // Assert
+        assertEquals(0, erste);
+        assertEquals(1, block);
+        assertEquals(4, letzte);
+        assertEquals(5, buch.gibAnzahl());
+        assertEquals(500, buch.gibKontostandCent(0));
+        assertEquals(100, buch.gibKontostandCent(3));
+        assertEquals(0, buch.gibKontostandCent(4));
+    }
+
+    @Test
+    @DisplayName("Eröffnen: Viele Konten über mehrere Segmente hinweg")
+    void eroeffnenUeberSegmentgrenzen() {
+        // Arrange
+        Kontobuch buch = new Kontobuch();
+        buch.eroeffne(Kontobuch.SEGMENT_GROESSE - 1, 7);
+
+        // Act: dieser Block überspannt zwei Segmentgrenzen
+        int ersteId = buch.eroeffne(2 * Kontobuch.SEGMENT_GROESSE, 3);
+
+        // Assert
+        assertEquals(3L * Kontobuch.SEGMENT_GROESSE - 1, buch.gibAnzahl());
+        assertEquals(7, buch.gibKontostandCent(ersteId - 1));
+        assertEquals(3, buch.gibKontostandCent(ersteId));
+        assertEquals(3, buch.gibKontostandCent(Kontobuch.SEGMENT_GROESSE));
+        assertEquals(3, buch.gibKontostandCent(buch.gibAnzahl() - 1));
+        assertEquals(7L * (Kontobuch.SEGMENT_GROESSE - 1) + 3L * 2 * Kontobuch.SEGMENT_GROESSE, buch.gibSummeCent());
+    }
+
+    @Test
+    @DisplayName("Eröffnen: Ungültige Anzahl und unbekannte Ids werfen Exception")
+    void ungueltigeEingabenWerfenException() {
+        // Arrange
+        Kontobuch buch = new Kontobuch();
+        buch.eroeffne(100);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> buch.eroeffne(0, 100));
+        assertThrows(IllegalArgumentException.class, () -> buch.gibKontostandCent(1));
+        assertThrows(IllegalArgumentException.class, () -> buch.gibKontostandCent(-1));
+        assertThrows(IllegalArgumentException.class, () -> buch.gibKonto(1));
+    }
+
+    @Test
+    @DisplayName("Sammelbuchung: Einzahlungen auf mehrere Konten")
+    void zahleEinBuchtAlleEintraege() {
+        // Arrange
+        Kontobuch buch = new Kontobuch();
+        buch.eroeffne(3, 0);
+
+        // Act: das zweite Konto erhält zwei Einzahlungen; der letzte Eintrag liegt hinter anzahlEintraege
+        buch.zahleEin(new int[]{0, 1, 1, 2}, new long[]{10, 20, 30, 40}, 3);
+
+        // Assert
+        assertEquals(10, buch.gibKontostandCent(0));
+        assertEquals(50, buch.gibKontostandCent(1));
+        assertEquals(0, buch.gibKontostandCent(2));
+    }
+
+    @Test
+    @DisplayName("Sammelbuchung: Ungültiger Eintrag verhindert die ganze Einzahlung")
+    void zahleEinMitUngueltigemEintragBuchtNichts() {
+        // Arrange
+        Kontobuch buch = new Kontobuch();
+        buch.eroeffne(2, 0);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> buch.zahleEin(new int[]{0, 1}, new long[]{10, 0}, 2));
+        assertThrows(IllegalArgumentException.class,
+                () -> buch.zahleEin(new int[]{0, 2}, new long[]{10, 10}, 2));
+        assertEquals(0, buch.gibSummeCent());
+    }
+
+    @Test
+    @DisplayName("Sammelbuchung: Nicht gedeckte Auszahlungen werden einzeln übersprungen")
+    void zahleAusUeberspringtUngedeckteEintraege() {
+        // Arrange
+        Kontobuch buch = new Kontobuch();
+        buch.eroeffne(2, 100);
+        boolean[] gebucht = new boolean[3];
+
+        // Act: die zweite Auszahlung von Konto 0 ist nicht mehr gedeckt
+        int erfolgreich = buch.zahleAus(new int[]{0, 0, 1}, new long[]{60, 60, 100}, 3, gebucht);
+
+        // Assert
+        assertEquals(2, erfolgreich);
+        assertArrayEquals(new boolean[]{true, false, true}, gebucht);
+        assertEquals(40, buch.gibKontostandCent(0));
+        assertEquals(0, buch.gibKontostandCent(1));
+    }
+
+    @Test
+    @DisplayName("Auswertung: fuerAlle liefert jedes Konto genau einmal in Id-Reihenfolge")
+    void fuerAlleLiefertJedesKonto() {
+        // Arrange
+        Kontobuch buch = new Kontobuch();
+        int anzahl = Kontobuch.SEGMENT_GROESSE + 10;
+        buch.eroeffne(anzahl, 0);
+        for (int id = 0; id < anzahl; id++) {
+            buch.setzeKontostandCent(id, id);
+        }
+        int[] naechsteId = {0};
+
+        // Act & Assert
+        buch.fuerAlle((id, kontostandCent) -> {
+            assertEquals(naechsteId[0]++, id);
+            assertEquals(id, kontostandCent);
+        });
+        assertEquals(anzahl, naechsteId[0]);
+    }
+
+    @Test
+    @DisplayName("Ansicht: Konto liest und bucht im Kontobuch")
+    void kontoansichtArbeitetAufDemKontobuch() {
+        // Arrange
+        Kontobuch buch = new Kontobuch();
+        int id = buch.eroeffne(1_000);
+        Konto konto = buch.gibKonto(id);
+
+        // Act
+        konto.bucheAtomar(-250, 0);
+        buch.bucheAtomar(id, 50, 0);
+
+        // Assert: beide Wege sehen denselben Kontostand
+        assertEquals(800, konto.getKontostandCent());
+        assertEquals(8.0, konto.getKontostand());
+        konto.setKontostand(1.5);
+        assertEquals(150, buch.gibKontostandCent(id));
+        assertEquals(150, buch.gibKonto(id).getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Nebenläufigkeit: Buchungen und Eröffnungen gleichzeitig gehen nicht verloren")
+    void gleichzeitigeBuchungenUndEroeffnungen() throws Exception {
+        // Arrange: Konto 0 erhält Buchungen, während andere Threads das Kontobuch wachsen lassen
+        int threads = 4;
+        int buchungen = 50_000;
+        Kontobuch buch = new Kontobuch();
+        buch.eroeffne(0);
+        ExecutorService pool = Executors.newFixedThreadPool(threads * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> ergebnisse = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < buchungen; i++) {
+                    buch.bucheAtomar(0, 1, 0);
+                }
+                return null;
+            }));
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < 20; i++) {
+                    buch.eroeffne(Kontobuch.SEGMENT_GROESSE / 4, 1);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> ergebnis : ergebnisse) {
+            ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert
+        long neueKonten = (long) threads * 20 * (Kontobuch.SEGMENT_GROESSE / 4);
+        assertEquals((long) threads * buchungen, buch.gibKontostandCent(0));
+        assertEquals(1 + neueKonten, buch.gibAnzahl());
+        assertEquals((long) threads * buchungen + neueKonten, buch.gibSummeCent());
+    }
+}
@@ -0,0 +1,78 @@
+package de.dwpbank.mikrobank.service;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Misst die Kosten dauerhafter Buchungen: Kontobuch-Buchung plus Journaleintrag
+ * plus Warten auf den Commit, bei 1 bis 32 gleichzeitig buchenden Threads.
+ * <p>
+ * Mit mehr Threads deckt ein {@code fsync} mehr Buchungen ab (Group Commit), die
+ * Kosten pro Buchung sinken entsprechend.
+ * <p>
+ * Kein Unit-Test, wird manuell gestartet (optional mit Verzeichnis für das Journal):
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes de.dwpbank.mikrobank.service.KontojournalBenchmark [verzeichnis]
+ * </pre>
+ */
+public class KontojournalBenchmark {
+
+    private static final int KONTEN = 100_000;
+    private static final long DAUER_NANOS = 2_000_000_000L;
+
+    public static void main(String[] args) throws Exception {
+        Path verzeichnis = args.length > 0 ? Path.of(args[0]) : Files.createTempDirectory("kontojournal");
+        System.out.printf("%8s %14s %12s %14s%n", "Threads", "Buchungen/s", "µs Latenz", "Buchungen/fsync");
+        for (int anzahlThreads = 1; anzahlThreads <= 32; anzahlThreads *= 2) {
+            int threads = anzahlThreads;
+            Path datei = verzeichnis.resolve("benchmark-" + threads + ".journal");
+            Files.deleteIfExists(datei);
+            Kontobuch buch = new Kontobuch();
+            buch.eroeffne(KONTEN, 0);
+            long[] gebucht = new long[threads];
+            long nanos;
+            long commits;
+            try (Kontojournal journal = Kontojournal.oeffne(datei)) {
+                CountDownLatch start = new CountDownLatch(1);
+                Thread[] arbeiter = new Thread[threads];
+                long ende = System.nanoTime() + DAUER_NANOS;
+                for (int t = 0; t < threads; t++) {
+                    int nr = t;
+                    arbeiter[t] = new Thread(() -> {
+                        try {
+                            start.await();
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        int id = nr;
+                        long n = 0;
+                        while (System.nanoTime() < ende) {
+                            buch.bucheAtomar(id, 1, 0);
+                            journal.synchronisiere(journal.schreibeBuchung(id, 1));
+                            id = (id + threads) % KONTEN;
+                            n++;
+                        }
+                        gebucht[nr] = n;
+                    });
+                    arbeiter[t].start();
+                }
+                long beginn = System.nanoTime();
+                start.countDown();
+                for (Thread thread : arbeiter) {
+                    thread.join();
+                }
+                nanos = System.nanoTime() - beginn;
+                commits = journal.gibAnzahlCommits();
+            }
+            long summe = 0;
+            for (long n : gebucht) {
+                summe += n;
+            }
+            System.out.printf("%8d %,14.0f %12.2f %14.1f%n", threads, summe * 1e9 / nanos,
+                    nanos / 1000.0 / summe * threads, (double) summe / commits);
+            Files.deleteIfExists(datei);
+        }
+    }
+}
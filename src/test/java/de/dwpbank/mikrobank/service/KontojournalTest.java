@@ -0,0 +1,466 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Konto;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für das Kontojournal (Group Commit, Schreibfehler und Wiederherstellung).
+ */
+@DisplayName("Kontojournal Tests")
+class KontojournalTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    @Test
+    @DisplayName("Wiederherstellung: Kontostände aus dem Journal entsprechen dem Stand vor dem Absturz")
+    void wiederherstellungAusJournal() {
+        // Arrange
+        Path datei = verzeichnis.resolve("konten.journal");
+        Kontobuch buch = new Kontobuch();
+        try (Kontojournal journal = Kontojournal.oeffne(datei)) {
+            KontoService kontoService = new KontoService(buch, journal);
+            Konto anna = kontoService.eroeffneKonto(100);
+            kontoService.eroeffneKonten(3, 10);
+            Konto bert = buch.gibKonto(2);
+
+            // Act
+            kontoService.einzahlen(anna, 50.25);
+            kontoService.auszahlen(anna, 20);
+            kontoService.auszahlen(bert, 10);
+            assertThrows(IllegalArgumentException.class, () -> kontoService.auszahlen(bert, 0.01));
+            assertEquals(5, journal.gibAnzahlGesichert());
+        }
+        Kontobuch wiederhergestellt = Kontojournal.stelleWiederHer(null, datei);
+
+        // Assert
+        assertEquals(4, wiederhergestellt.gibAnzahl());
+        assertEquals(13_025, wiederhergestellt.gibKontostandCent(0));
+        assertEquals(1_000, wiederhergestellt.gibKontostandCent(1));
+        assertEquals(0, wiederhergestellt.gibKontostandCent(2));
+        assertEquals(1_000, wiederhergestellt.gibKontostandCent(3));
+    }
+
+    @Test
+    @DisplayName("Wiederherstellung: Schnappschuss plus Journalende")
+    void wiederherstellungAusSchnappschussUndJournal() {
+        // Arrange
+        Path datei = verzeichnis.resolve("konten.journal");
+        Path schnappschuss = verzeichnis.resolve("konten.snapshot");
+        Kontobuch buch = new Kontobuch();
+        try (Kontojournal journal = Kontojournal.oeffne(datei)) {
+            KontoService kontoService = new KontoService(buch, journal);
+            kontoService.eroeffneKonten(Kontobuch.SEGMENT_GROESSE + 5, 1);
+            kontoService.einzahlenCent(buch.gibKonto(7), 100);
+
+            // Act: Schnappschuss im Ruhezustand, danach weitere Buchungen
+            journal.schreibeSchnappschuss(buch, schnappschuss);
+            kontoService.einzahlenCent(buch.gibKonto(7), 5);
+            kontoService.eroeffneKonto(2);
+            kontoService.auszahlenCent(buch.gibKonto(Kontobuch.SEGMENT_GROESSE), 1);
+        }
+
+        // Assert: mit und ohne Schnappschuss ergibt sich derselbe Stand
+        for (Kontobuch wiederhergestellt : List.of(
+                Kontojournal.stelleWiederHer(schnappschuss, datei),
+                Kontojournal.stelleWiederHer(null, datei))) {
+            assertEquals(buch.gibAnzahl(), wiederhergestellt.gibAnzahl());
+            assertEquals(buch.gibSummeCent(), wiederhergestellt.gibSummeCent());
+            assertEquals(205, wiederhergestellt.gibKontostandCent(7));
+            assertEquals(99, wiederhergestellt.gibKontostandCent(Kontobuch.SEGMENT_GROESSE));
+            assertEquals(200, wiederhergestellt.gibKontostandCent(buch.gibAnzahl() - 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Wiederherstellung: Unvollständiger letzter Eintrag wird ignoriert und abgeschnitten")
+    void unvollstaendigerLetzterEintrag() throws Exception {
+        // Arrange
+        Path datei = verzeichnis.resolve("konten.journal");
+        try (Kontojournal journal = Kontojournal.oeffne(datei)) {
+            journal.schreibeEroeffnung(0, 1, 500);
+            journal.synchronisiere(journal.schreibeBuchung(0, -200));
+        }
+        // Absturz mitten im Schreiben des nächsten Eintrags
+        Files.write(datei, new byte[]{1, 2, 3, 4, 5, 6, 7}, StandardOpenOption.APPEND);
+
+        // Act
+        Kontobuch wiederhergestellt = Kontojournal.stelleWiederHer(null, datei);
+        try (Kontojournal journal = Kontojournal.oeffne(datei)) {
+            assertEquals(2, journal.gibAnzahlEintraege());
+            journal.synchronisiere(journal.schreibeBuchung(0, 50));
+        }
+
+        // Assert
+        assertEquals(300, wiederhergestellt.gibKontostandCent(0));
+        assertEquals(Kontojournal.KOPF_GROESSE + 3 * Kontojournal.EINTRAG_GROESSE, Files.size(datei));
+        assertEquals(350, Kontojournal.stelleWiederHer(null, datei).gibKontostandCent(0));
+    }
+
+    @Test
+    @DisplayName("Group Commit: Gleichzeitige Buchungen teilen sich fsync und gehen nicht verloren")
+    void groupCommitUnterLast() throws Exception {
+        // Arrange
+        int threads = 8;
+        int buchungen = 500;
+        Path datei = verzeichnis.resolve("konten.journal");
+        Kontobuch buch = new Kontobuch();
+        long commits;
+        try (Kontojournal journal = Kontojournal.oeffne(datei)) {
+            KontoService kontoService = new KontoService(buch, journal);
+            kontoService.eroeffneKonten(threads, 0);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> ergebnisse = new ArrayList<>();
+
+            // Act: jeder Thread bucht auf sein Konto und auf das gemeinsame Konto 0
+            for (int t = 0; t < threads; t++) {
+                Konto eigenes = buch.gibKonto(t);
+                Konto gemeinsam = buch.gibKonto(0);
+                ergebnisse.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < buchungen; i++) {
+                        kontoService.einzahlenCent(eigenes, 2);
+                        kontoService.auszahlenCent(eigenes, 1);
+                        kontoService.einzahlenCent(gemeinsam, 1);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> ergebnis : ergebnisse) {
+                ergebnis.get(60, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+            assertEquals(1 + 3L * threads * buchungen, journal.gibAnzahlGesichert());
+            commits = journal.gibAnzahlCommits();
+        }
+        Kontobuch wiederhergestellt = Kontojournal.stelleWiederHer(null, datei);
+
+        // Assert: jede Buchung ist im Journal, ohne für jede einzeln zu synchronisieren
+        assertTrue(commits <= 1 + 3L * threads * buchungen);
+        assertEquals(buch.gibSummeCent(), wiederhergestellt.gibSummeCent());
+        for (int t = 0; t < threads; t++) {
+            assertEquals(buch.gibKontostandCent(t), wiederhergestellt.gibKontostandCent(t));
+        }
+        assertEquals((long) buchungen + (long) threads * buchungen, wiederhergestellt.gibKontostandCent(0));
+    }
+
+    @Test
+    @DisplayName("Fehler: Ungültige Dateien und geschlossenes Journal")
+    void ungueltigeDateienWerfenException() throws Exception {
+        // Arrange
+        Path fremd = verzeichnis.resolve("fremd.bin");
+        Files.write(fremd, new byte[]{0, 0, 0, 0, 1, 0, 0, 0});
+        Path datei = verzeichnis.resolve("konten.journal");
+        Path schnappschuss = verzeichnis.resolve("konten.snapshot");
+        Kontobuch buch = new Kontobuch();
+        buch.eroeffne(1);
+        Kontojournal journal = Kontojournal.oeffne(datei);
+        journal.schreibeEroeffnung(0, 1, 1);
+        journal.schreibeSchnappschuss(buch, schnappschuss);
+        journal.close();
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> Kontojournal.oeffne(fremd));
+        assertThrows(IllegalStateException.class, () -> Kontojournal.stelleWiederHer(null, fremd));
+        assertThrows(IllegalStateException.class, () -> journal.schreibeBuchung(0, 1));
+        // Schnappschuss enthält einen Eintrag, das leere Journal keinen
+        Path leer = verzeichnis.resolve("leer.journal");
+        Kontojournal.oeffne(leer).close();
+        assertThrows(IllegalStateException.class, () -> Kontojournal.stelleWiederHer(schnappschuss, leer));
+    }
+
+    @Test
+    @DisplayName("Schreibfehler: Kein Wartender wird bestätigt, die Datei endet beim letzten Commit")
+    void schreibfehlerSperrtJournal() throws Exception {
+        // Arrange
+        Path datei = verzeichnis.resolve("konten.journal");
+        FehlerKanal kanal = new FehlerKanal(FileChannel.open(datei, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        Kontojournal journal = Kontojournal.oeffne(datei, kanal);
+        journal.synchronisiere(journal.schreibeEroeffnung(0, 1, 500));
+        kanal.scheitere = true;
+
+        // Act: der erste Commit hängt im force, ein zweiter Thread wartet auf den nächsten
+        long zweiter = journal.schreibeBuchung(0, -100);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        Future<?> fuehrend = pool.submit(() -> journal.synchronisiere(zweiter));
+        assertTrue(kanal.imForce.await(10, TimeUnit.SECONDS));
+        long dritter = journal.schreibeBuchung(0, -50);
+        Future<?> wartend = pool.submit(() -> journal.synchronisiere(dritter));
+        kanal.weiter.countDown();
+
+        // Assert
+        ExecutionException e1 = assertThrows(ExecutionException.class, () -> fuehrend.get(10, TimeUnit.SECONDS));
+        ExecutionException e2 = assertThrows(ExecutionException.class, () -> wartend.get(10, TimeUnit.SECONDS));
+        pool.shutdown();
+        assertInstanceOf(UncheckedIOException.class, e1.getCause());
+        assertInstanceOf(UncheckedIOException.class, e2.getCause());
+        assertEquals(1, journal.gibAnzahlGesichert(), "Nach dem Fehler darf nichts als gesichert gelten");
+        assertEquals(Kontojournal.KOPF_GROESSE + Kontojournal.EINTRAG_GROESSE, Files.size(datei));
+        assertThrows(UncheckedIOException.class, () -> journal.synchronisiere(zweiter));
+        assertDoesNotThrow(() -> journal.synchronisiere(1), "Bereits Gesichertes bleibt bestätigt");
+        assertThrows(IllegalStateException.class, () -> journal.schreibeBuchung(0, 1));
+        assertThrows(UncheckedIOException.class, journal::close);
+        assertFalse(kanal.isOpen(), "close schließt die Datei auch nach einem Fehler");
+        assertEquals(500, Kontojournal.stelleWiederHer(null, datei).gibKontostandCent(0));
+    }
+
+    @Test
+    @DisplayName("Schreibfehler: Nicht gesicherte Buchungen werden zurückgenommen, das gesperrte Journal bucht nicht mehr")
+    void schreibfehlerNimmtBuchungenZurueck() throws Exception {
+        // Arrange
+        Path datei = verzeichnis.resolve("konten.journal");
+        FehlerKanal kanal = new FehlerKanal(FileChannel.open(datei, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        Kontobuch buch = new Kontobuch();
+        Kontojournal journal = Kontojournal.oeffne(datei, kanal);
+        KontoService kontoService = new KontoService(buch, journal);
+        Konto konto = kontoService.eroeffneKonto(5);
+        kanal.weiter.countDown();
+        kanal.scheitere = true;
+
+        // Act & Assert: die Reservierung scheitert im Commit und hinterlässt kein Loch im Konto
+        assertThrows(UncheckedIOException.class, () -> kontoService.reserviereCent(konto, 200));
+        assertEquals(500, buch.gibKontostandCent(0));
+        // Danach wird abgelehnt, bevor der Kontostand sich ändert
+        assertThrows(IllegalStateException.class, () -> kontoService.reserviereCent(konto, 100));
+        assertThrows(IllegalStateException.class, () -> kontoService.einzahlenCent(konto, 100));
+        assertThrows(IllegalStateException.class, () -> kontoService.auszahlenCent(konto, 100));
+        Buchungspuffer puffer = new Buchungspuffer(2);
+        puffer.fuegeHinzu(konto, -100);
+        puffer.fuegeHinzu(konto, 300);
+        assertThrows(IllegalStateException.class, () -> kontoService.bucheStapel(puffer, Buchungsmodus.EINZELN));
+        assertThrows(IllegalStateException.class, () -> kontoService.eroeffneKonto(1));
+        assertEquals(500, buch.gibKontostandCent(0));
+        assertEquals(1, buch.gibAnzahl());
+        assertThrows(UncheckedIOException.class, journal::close);
+        assertEquals(500, Kontojournal.stelleWiederHer(null, datei).gibKontostandCent(0));
+    }
+
+    @Test
+    @DisplayName("Schreibfehler: Ein nicht gesicherter Stapel wird vollständig zurückgenommen")
+    void schreibfehlerNimmtStapelZurueck() throws Exception {
+        // Arrange
+        Path datei = verzeichnis.resolve("konten.journal");
+        FehlerKanal kanal = new FehlerKanal(FileChannel.open(datei, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE));
+        Kontobuch buch = new Kontobuch();
+        Kontojournal journal = Kontojournal.oeffne(datei, kanal);
+        KontoService kontoService = new KontoService(buch, journal);
+        Konto anna = kontoService.eroeffneKonto(5);
+        Konto bert = kontoService.eroeffneKonto(1);
+        Konto fremd = new Konto(0);
+        Buchungspuffer puffer = new Buchungspuffer(4);
+        puffer.fuegeHinzu(anna, -200);
+        puffer.fuegeHinzu(bert, 200);
+        puffer.fuegeHinzu(bert, -1000);
+        puffer.fuegeHinzu(fremd, 100);
+        kanal.weiter.countDown();
+        kanal.scheitere = true;
+
+        // Act
+        assertThrows(UncheckedIOException.class, () -> kontoService.bucheStapel(puffer, Buchungsmodus.EINZELN));
+
+        // Assert
+        assertEquals(500, buch.gibKontostandCent(0));
+        assertEquals(100, buch.gibKontostandCent(1));
+        assertEquals(0, fremd.getKontostandCent());
+        assertThrows(UncheckedIOException.class, journal::close);
+        Kontobuch wiederhergestellt = Kontojournal.stelleWiederHer(null, datei);
+        assertEquals(500, wiederhergestellt.gibKontostandCent(0));
+        assertEquals(100, wiederhergestellt.gibKontostandCent(1));
+    }
+
+    @Test
+    @DisplayName("Reihenfolge: Jeder Anfang des Journals ergibt einen gedeckten Kontostand")
+    void journalReihenfolgeEntsprichtSichtbarkeit() throws Exception {
+        // Arrange
+        Path datei = verzeichnis.resolve("konten.journal");
+        Kontobuch buch = new Kontobuch();
+        int threads = 4;
+        int buchungen = 300;
+        try (Kontojournal journal = Kontojournal.oeffne(datei)) {
+            KontoService kontoService = new KontoService(buch, journal);
+            Konto konto = kontoService.eroeffneKonto(0);
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> ergebnisse = new ArrayList<>();
+
+            // Act: die Hälfte zahlt ein, die andere Hälfte hebt ab, sobald etwas da ist
+            for (int t = 0; t < threads; t++) {
+                boolean einzahler = t % 2 == 0;
+                ergebnisse.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < buchungen; i++) {
+                        if (einzahler) {
+                            kontoService.einzahlenCent(konto, 1);
+                        } else {
+                            try {
+                                kontoService.auszahlenCent(konto, 1);
+                            } catch (IllegalArgumentException nichtGedeckt) {
+                                Thread.yield();
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> ergebnis : ergebnisse) {
+                ergebnis.get(60, TimeUnit.SECONDS);
+            }
+            pool.shutdown();
+        }
+
+        // Assert
+        ByteBuffer inhalt = ByteBuffer.wrap(Files.readAllBytes(datei)).order(ByteOrder.LITTLE_ENDIAN);
+        inhalt.position(Kontojournal.KOPF_GROESSE);
+        long stand = 0;
+        while (inhalt.hasRemaining()) {
+            inhalt.getInt();
+            inhalt.getInt();
+            stand += inhalt.getLong();
+            assertTrue(stand >= 0, "Journal enthält eine Auszahlung vor ihrer Deckung");
+        }
+        assertEquals(buch.gibKontostandCent(0), stand);
+    }
+
+    /**
+     * Reicht alles an einen echten Kanal durch; {@code force} scheitert auf Wunsch,
+     * nachdem der Test es freigegeben hat.
+     */
+    private static final class FehlerKanal extends FileChannel {
+        private final FileChannel echt;
+        private final CountDownLatch imForce = new CountDownLatch(1);
+        private final CountDownLatch weiter = new CountDownLatch(1);
+        private volatile boolean scheitere;
+
+        FehlerKanal(FileChannel echt) {
+            this.echt = echt;
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            if (scheitere) {
+                scheitere = false;
+                imForce.countDown();
+                try {
+                    weiter.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new IOException("Datenträger voll");
+            }
+            echt.force(metaData);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return echt.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return echt.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return echt.write(src);
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            return echt.write(srcs, offset, length);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return echt.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            echt.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return echt.size();
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            echt.truncate(size);
+            return this;
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return echt.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return echt.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return echt.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return echt.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return echt.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return echt.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return echt.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            echt.close();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Kursmeldung;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für den Abonnenten, der Kursmeldungen im KursService speichert.
+ */
+@DisplayName("KursAbonnent Tests")
+class KursAbonnentTest {
+
+    @Test
+    @DisplayName("Abonnent: Meldungen landen in der Kurshistorie, ungültige werden übersprungen")
+    void speichertKurse() {
+        // Arrange
+        KursService kursService = new KursService();
+        Marktdatenbus bus = new Marktdatenbus(Runnable::run, 16);
+        bus.subscribe(new KursAbonnent(kursService));
+        int id = new Aktie("Abo AG", 1).getId();
+
+        // Act: mehr Meldungen als ein Paket, dazwischen ein ungültiger Kurs
+        for (int i = 1; i <= 200; i++) {
+            bus.veroeffentliche(new Kursmeldung(id, i == 100 ? -1 : i, i, 0));
+        }
+
+        // Assert
+        assertEquals(100, kursService.gibKurshistorie("Abo AG").size());
+        assertEquals(200.0, kursService.gibKurshistorie("Abo AG").get(99));
+        assertThrows(IllegalArgumentException.class, () -> new KursAbonnent(null));
+    }
+}
@@ -0,0 +1,96 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für das persistente Kursarchiv (memory-mapped Dateien).
+ */
+@DisplayName("KursArchiv Tests")
+class KursArchivTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    @Test
+    @DisplayName("Archiv: Kurshistorie überlebt einen Neustart")
+    void historieUeberlebtNeustart() {
+        // Arrange: Kurse mit Archiv speichern
+        Aktie telekom = new Aktie("Deutsche Telekom", 28);
+        try (KursArchiv archiv = new KursArchiv(verzeichnis, 1_000)) {
+            KursService kursService = new KursService(archiv);
+            for (int i = 0; i < 150; i++) {
+                telekom.setPreis(28 + i);
+                kursService.speichereKurs(telekom, i * 1_000L, 0);
+            }
+        }
+
+        // Act: neuer KursService auf demselben Verzeichnis
+        try (KursArchiv archiv = new KursArchiv(verzeichnis, 1_000)) {
+            KursService kursService = new KursService(archiv);
+
+            // Assert: die letzten 100 Kurse sind sofort da, Trend ist bekannt
+            List<Double> historie = kursService.gibKurshistorie("Deutsche Telekom");
+            assertEquals(100, historie.size());
+            assertEquals(28 + 50, historie.get(0));
+            assertEquals(28 + 149, historie.get(99));
+            assertEquals("STEIGEND", kursService.bestimmeTrend("Deutsche Telekom"));
+
+            // Die Archivdatei selbst hält alle 150 Ticks
+            KursArchivDatei datei = archiv.gibDatei("Deutsche Telekom");
+            assertEquals(150, datei.gibAnzahl());
+            assertEquals(149_000, datei.gibZeitstempel(149));
+        }
+    }
+
+    @Test
+    @DisplayName("Archiv: Datei ist ein Ringpuffer fester Größe")
+    void dateiIstRingpuffer() throws Exception {
+        // Arrange
+        try (KursArchiv archiv = new KursArchiv(verzeichnis, 4)) {
+            KursArchivDatei datei = archiv.gibDatei("Apple");
+
+            // Act
+            for (int i = 1; i <= 6; i++) {
+                datei.schreibe(i, i * 10.0);
+            }
+
+            // Assert
+            assertEquals(4, datei.gibAnzahl());
+            assertEquals(30.0, datei.gibKurs(0));
+            assertEquals(60.0, datei.gibKurs(3));
+            assertEquals(KursArchivDatei.KOPF_GROESSE + 4 * KursArchivDatei.DATENSATZ_GROESSE,
+                    Files.size(datei.gibPfad()));
+            assertThrows(IndexOutOfBoundsException.class, () -> datei.gibKurs(4));
+        }
+    }
+
+    @Test
+    @DisplayName("Archiv: Vorhandene Datei behält ihre Kapazität")
+    void vorhandeneDateiBehaeltKapazitaet() {
+        try (KursArchiv archiv = new KursArchiv(verzeichnis, 8)) {
+            archiv.gibDatei("Apple").schreibe(1, 100);
+        }
+
+        try (KursArchiv archiv = new KursArchiv(verzeichnis, 1_000)) {
+            assertEquals(8, archiv.gibDatei("Apple").gibKapazitaet());
+            assertEquals(100, archiv.gibDatei("Apple").gibKurs(0));
+        }
+    }
+
+    @Test
+    @DisplayName("Archiv: Fremde Datei wird abgelehnt")
+    void fremdeDateiWirdAbgelehnt() throws Exception {
+        Files.write(verzeichnis.resolve("Apple.kurse"), new byte[128]);
+
+        assertThrows(IllegalStateException.class, () -> new KursArchiv(verzeichnis));
+    }
+}
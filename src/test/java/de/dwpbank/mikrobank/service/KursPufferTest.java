@@ -0,0 +1,91 @@
+package de.dwpbank.mikrobank.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für den wiederverwendbaren Kurspuffer.
+ */
+@DisplayName("KursPuffer Tests")
+class KursPufferTest {
+
+    private KursPuffer puffer;
+
+    @BeforeEach
+    void setUp() {
+        puffer = new KursPuffer(3);
+    }
+
+    @Test
+    @DisplayName("KursPuffer: Gleicher Name ergibt gleiche Symbolnummer")
+    void symbolNummernSindStabil() {
+        int apple = puffer.symbol("Apple");
+        int sap = puffer.symbol("SAP");
+
+        assertEquals(apple, puffer.symbol("Apple"));
+        assertNotEquals(apple, sap);
+    }
+
+    @Test
+    @DisplayName("KursPuffer: Voller Puffer nimmt keine Ticks mehr an")
+    void vollerPufferLehntAb() {
+        // Arrange
+        int apple = puffer.symbol("Apple");
+
+        // Act
+        for (int i = 0; i < 3; i++) {
+            assertTrue(puffer.fuegeHinzu(apple, 100 + i, i, 0));
+        }
+
+        // Assert
+        assertTrue(puffer.istVoll());
+        assertFalse(puffer.fuegeHinzu(apple, 200, 3, 0));
+        assertEquals(3, puffer.gibAnzahl());
+        assertEquals(102, puffer.gibKurs(2));
+    }
+
+    @Test
+    @DisplayName("KursPuffer: Nach dem Leeren ist der Puffer wiederverwendbar")
+    void leerenMachtWiederverwendbar() {
+        // Arrange
+        int apple = puffer.symbol("Apple");
+        int sap = puffer.symbol("SAP");
+        puffer.fuegeHinzu(apple, 100, 0, 0);
+        puffer.fuegeHinzu(sap, 50, 0, 0);
+
+        // Act
+        puffer.leere();
+        puffer.fuegeHinzu(sap, 51, 1, 0);
+
+        // Assert
+        assertEquals(1, puffer.gibAnzahl());
+        assertEquals("SAP", puffer.gibAktieName(0));
+        assertEquals(1, puffer.aktiveAnzahl);
+        assertEquals(-1, puffer.erster[apple]);
+    }
+
+    @Test
+    @DisplayName("KursPuffer: Symboltabelle wächst über die Startgröße hinaus")
+    void symboltabelleWaechst() {
+        KursPuffer gross = new KursPuffer(100);
+        for (int i = 0; i < 100; i++) {
+            int symbol = gross.symbol("Aktie" + i);
+            assertTrue(gross.fuegeHinzu(symbol, 1 + i, 0, 0));
+        }
+
+        assertEquals(100, gross.aktiveAnzahl);
+        assertEquals("Aktie99", gross.gibAktieName(99));
+    }
+
+    @Test
+    @DisplayName("KursPuffer: Ungültige Argumente werfen Exception")
+    void ungueltigeArgumente() {
+        assertThrows(IllegalArgumentException.class, () -> new KursPuffer(0));
+        assertThrows(IllegalArgumentException.class, () -> puffer.symbol(null));
+        assertThrows(IllegalArgumentException.class, () -> puffer.fuegeHinzu(-1, 100, 0, 0));
+        assertThrows(IndexOutOfBoundsException.class, () -> puffer.istAbgelehnt(0));
+    }
+}
@@ -0,0 +1,82 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.service.indikator.BollingerIndikator;
+import de.dwpbank.mikrobank.service.indikator.EmaIndikator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests für die Anbindung technischer Indikatoren an den KursService.
+ */
+@DisplayName("KursService Indikator Tests")
+class KursServiceIndikatorTest {
+
+    private KursService kursService;
+    private Aktie apple;
+
+    @BeforeEach
+    void setUp() {
+        kursService = new KursService();
+        apple = new Aktie("Apple", 100);
+    }
+
+    @Test
+    @DisplayName("Indikator: Wird bei jedem gespeicherten Kurs aktualisiert")
+    void indikatorWirdAktualisiert() {
+        // Arrange
+        EmaIndikator ema = kursService.registriereIndikator("Apple", new EmaIndikator(3));
+
+        // Act
+        double[] kurse = {100, 110, 120};
+        for (double kurs : kurse) {
+            apple.setPreis(kurs);
+            kursService.speichereKurs(apple);
+        }
+
+        // Assert
+        assertEquals(112.5, kursService.leseIndikator("Apple", ema, EmaIndikator::gibWert), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Indikator: Wird bei Registrierung mit vorhandener Historie gefüttert")
+    void indikatorBekommtVorhandeneHistorie() {
+        // Arrange
+        for (int kurs = 1; kurs <= 4; kurs++) {
+            apple.setPreis(kurs);
+            kursService.speichereKurs(apple);
+        }
+
+        // Act
+        BollingerIndikator bollinger = kursService.registriereIndikator("Apple", new BollingerIndikator(4, 2.0));
+
+        // Assert
+        assertTrue(bollinger.istBereit());
+        assertEquals(2.5, kursService.leseIndikator("Apple", bollinger, BollingerIndikator::gibWert), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Indikator: Entfernter Indikator wird nicht mehr aktualisiert")
+    void entfernterIndikatorBleibtStehen() {
+        // Arrange
+        EmaIndikator ema = kursService.registriereIndikator("Apple", new EmaIndikator(1));
+        kursService.speichereKurs(apple);
+
+        // Act
+        assertTrue(kursService.entferneIndikator("Apple", ema));
+        apple.setPreis(200);
+        kursService.speichereKurs(apple);
+
+        // Assert
+        assertEquals(100, ema.gibWert());
+    }
+
+    @Test
+    @DisplayName("Indikator: Unbekannte Aktie liefert NaN")
+    void unbekannteAktieLiefertNaN() {
+        assertTrue(Double.isNaN(kursService.leseIndikator("Unbekannt", new EmaIndikator(3), EmaIndikator::gibWert)));
+    }
+}
@@ -0,0 +1,100 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Trend;
+import de.dwpbank.mikrobank.service.indikator.EmaIndikator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests für die Zugriffe des KursService über Instrument-Ids.
+ */
+@DisplayName("KursService Instrument-Id Tests")
+class KursServiceInstrumentTest {
+
+    private KursService kursService;
+    private Aktie apple;
+
+    @BeforeEach
+    void setUp() {
+        kursService = new KursService();
+        apple = new Aktie("Apple", 100);
+    }
+
+    @Test
+    @DisplayName("Instrument-Id: Ticks über Id und über Name landen in derselben Historie")
+    void idUndNameTeilenHistorie() {
+        // Arrange
+        int id = apple.getId();
+
+        // Act
+        kursService.speichereKurs(apple);
+        kursService.speichereKurs(id, 110, 0, 0);
+        kursService.speichereKurs(new Aktie("Apple", 120));
+
+        // Assert
+        assertEquals(List.of(100.0, 110.0, 120.0), kursService.gibKurshistorie("Apple"));
+        assertEquals(110.0, kursService.berechnetDurchschnittskurs(id), 1e-12);
+        assertEquals(110.0, kursService.berechnetDurchschnittskurs("Apple"), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Instrument-Id: Trend und Indikator sind über die Id lesbar")
+    void trendUndIndikatorUeberId() {
+        // Arrange
+        int id = apple.getId();
+        EmaIndikator ema = kursService.registriereIndikator("Apple", new EmaIndikator(3));
+        double[] kurse = {100, 100, 100, 100, 100, 120, 120, 120, 120, 120};
+
+        // Act
+        for (double kurs : kurse) {
+            kursService.speichereKurs(id, kurs, 0, 0);
+        }
+
+        // Assert
+        assertEquals(Trend.STEIGEND, kursService.ermittleTrend(id, TrendParameter.STANDARD));
+        assertEquals(kursService.leseIndikator("Apple", ema, EmaIndikator::gibWert),
+                kursService.leseIndikator(id, ema, EmaIndikator::gibWert));
+    }
+
+    @Test
+    @DisplayName("Instrument-Id: Unbekannte Ids werden abgelehnt bzw. liefern Standardwerte")
+    void unbekannteIds() {
+        assertThrows(IllegalArgumentException.class, () -> kursService.speichereKurs(-1, 100, 0, 0));
+        assertThrows(IllegalArgumentException.class, () -> kursService.speichereKurs(Integer.MAX_VALUE, 100, 0, 0));
+        assertEquals(0.0, kursService.berechnetDurchschnittskurs(Integer.MAX_VALUE));
+        assertEquals(Trend.UNBEKANNT, kursService.ermittleTrend(-1, TrendParameter.STANDARD));
+        assertEquals(0.0, kursService.berechnetDurchschnittskurs("NochNieGesehen"));
+    }
+
+    @Test
+    @DisplayName("Instrument-Id: Viele neue Aktien in beliebiger Reihenfolge behalten ihre Historie")
+    void vieleNeueAktien() {
+        // Arrange: 5.000 neue Aktien, getickt zuerst rückwärts (großes Array, Lücken werden
+        // direkt befüllt), dann vorwärts
+        int anzahl = 5_000;
+        Aktie[] aktien = new Aktie[anzahl];
+        for (int i = 0; i < anzahl; i++) {
+            aktien[i] = new Aktie("Viele-" + i, i + 1);
+            aktien[i].getId();
+        }
+
+        // Act
+        for (int i = anzahl - 1; i >= 0; i--) {
+            kursService.speichereKurs(aktien[i]);
+        }
+        for (int i = 0; i < anzahl; i++) {
+            kursService.speichereKurs(aktien[i].getId(), i + 2, 0, 0);
+        }
+
+        // Assert
+        for (int i = 0; i < anzahl; i++) {
+            assertEquals(List.of(i + 1.0, i + 2.0), kursService.gibKurshistorie("Viele-" + i));
+        }
+    }
+}
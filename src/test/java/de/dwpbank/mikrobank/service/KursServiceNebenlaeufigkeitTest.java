@@ -0,0 +1,185 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Stresstests für den KursService unter Nebenläufigkeit.
+ *
+ * Mehrere Feed-Threads schreiben gleichzeitig Kurse, während Leser-Threads
+ * Historie und Durchschnitt lesen. Die Leser prüfen dabei, dass sie nur
+ * Zustände sehen, die es zu einem Zeitpunkt tatsächlich gegeben hat (Linearisierbarkeit).
+ */
+@DisplayName("KursService Nebenläufigkeit Tests")
+class KursServiceNebenlaeufigkeitTest {
+
+    private static final int SCHREIBER = 4;
+    private static final int TICKS_PRO_SCHREIBER = 50_000;
+
+    // Werte eines Schreibers: schreiberNr * BEREICH + laufende Nummer
+    private static final double BEREICH = 1_000_000;
+
+    @Test
+    @DisplayName("Nebenläufigkeit: Leser sehen nur konsistente Historien eigener Aktien")
+    void leserSehenKonsistenteHistorien() throws Exception {
+        // Arrange: jeder Schreiber schreibt streng steigende Kurse 1, 2, 3, ... auf seine Aktie
+        KursService kursService = new KursService();
+        ExecutorService pool = Executors.newFixedThreadPool(SCHREIBER * 2);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean fertig = new AtomicBoolean(false);
+        List<Future<?>> ergebnisse = new ArrayList<>();
+
+        // Act
+        for (int s = 0; s < SCHREIBER; s++) {
+            String name = "Aktie" + s;
+            ergebnisse.add(pool.submit(() -> {
+                Aktie aktie = new Aktie(name, 1);
+                start.await();
+                for (int i = 1; i <= TICKS_PRO_SCHREIBER; i++) {
+                    aktie.setPreis(i);
+                    kursService.speichereKurs(aktie);
+                }
+                return null;
+            }));
+            ergebnisse.add(pool.submit(() -> {
+                start.await();
+                double letzterDurchschnitt = 0;
+                while (!fertig.get()) {
+                    // Eine Historie muss immer eine lückenlose Folge aufeinanderfolgender Kurse sein
+                    List<Double> historie = kursService.gibKurshistorie(name);
+                    for (int i = 1; i < historie.size(); i++) {
+                        assertEquals(historie.get(i - 1) + 1, historie.get(i), "Zerrissene Historie gelesen");
+                    }
+                    // Bei steigenden Kursen darf der Durchschnitt nie zurückspringen
+                    double durchschnitt = kursService.berechnetDurchschnittskurs(name);
+                    assertTrue(durchschnitt >= letzterDurchschnitt, "Durchschnitt ist zurückgesprungen");
+                    letzterDurchschnitt = durchschnitt;
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (int i = 0; i < ergebnisse.size(); i += 2) {
+            ergebnisse.get(i).get(60, TimeUnit.SECONDS);
+        }
+        fertig.set(true);
+        for (Future<?> ergebnis : ergebnisse) {
+            ergebnis.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+
+        // Assert: Endzustand jeder Aktie sind die letzten 100 Kurse
+        for (int s = 0; s < SCHREIBER; s++) {
+            List<Double> historie = kursService.gibKurshistorie("Aktie" + s);
+            assertEquals(100, historie.size());
+            assertEquals(TICKS_PRO_SCHREIBER, historie.get(99));
+            assertEquals(TICKS_PRO_SCHREIBER - 49.5, kursService.berechnetDurchschnittskurs("Aktie" + s), 1e-9);
+        }
+    }
+
+    @Test
+    @DisplayName("Nebenläufigkeit: Mehrere Schreiber auf einer Aktie verlieren keine Reihenfolge")
+    void mehrereSchreiberAufEinerAktie() throws Exception {
+        // Arrange
+        KursService kursService = new KursService();
+        ExecutorService pool = Executors.newFixedThreadPool(SCHREIBER + 1);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean fertig = new AtomicBoolean(false);
+        List<Future<?>> schreiber = new ArrayList<>();
+
+        // Act: alle Schreiber auf dieselbe Aktie, jeder mit eigener steigender Folge
+        for (int s = 0; s < SCHREIBER; s++) {
+            double basis = (s + 1) * BEREICH;
+            schreiber.add(pool.submit(() -> {
+                Aktie aktie = new Aktie("Geteilt", basis);
+                start.await();
+                for (int i = 1; i <= TICKS_PRO_SCHREIBER; i++) {
+                    aktie.setPreis(basis + i);
+                    kursService.speichereKurs(aktie);
+                }
+                return null;
+            }));
+        }
+        Future<?> leser = pool.submit(() -> {
+            start.await();
+            while (!fertig.get()) {
+                pruefeProSchreiberSteigend(kursService.gibKurshistorie("Geteilt"));
+            }
+            return null;
+        });
+        start.countDown();
+        for (Future<?> f : schreiber) {
+            f.get(60, TimeUnit.SECONDS);
+        }
+        fertig.set(true);
+        leser.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        // Assert: volle Historie, Summe passt zu den gespeicherten Kursen
+        List<Double> historie = kursService.gibKurshistorie("Geteilt");
+        assertEquals(100, historie.size());
+        pruefeProSchreiberSteigend(historie);
+        double summe = 0;
+        for (double kurs : historie) {
+            summe += kurs;
+        }
+        assertEquals(summe / 100, kursService.berechnetDurchschnittskurs("Geteilt"), 1e-6);
+    }
+
+    @Test
+    @DisplayName("Nebenläufigkeit: Langzeithistorie ist bei dauerndem Schreiben lesbar und lückenlos")
+    void langzeitHistorieUnterDauerlast() throws Exception {
+        // Arrange: ein Schreiber schreibt ohne Pause steigende Kurse
+        KursService kursService = new KursService();
+        Aktie aktie = new Aktie("Langzeit", 1);
+        AtomicBoolean fertig = new AtomicBoolean(false);
+        ExecutorService pool = Executors.newSingleThreadExecutor();
+        Future<?> schreiber = pool.submit(() -> {
+            for (int i = 1; !fertig.get(); i++) {
+                kursService.speichereKurs(aktie.getId(), i, i, 0);
+            }
+        });
+
+        // Act & Assert: jeder Schnappschuss ist eine lückenlose Folge
+        for (int lesen = 0; lesen < 200; lesen++) {
+            KomprimierteKurshistorie.Dekodierer dekodierer =
+                    kursService.gibLangzeitHistorie("Langzeit").dekodierer();
+            double vorher = 0;
+            int anzahl = 0;
+            while (dekodierer.naechster()) {
+                if (anzahl > 0) {
+                    assertEquals(vorher + 1, dekodierer.gibKurs(), "Zerrissener Schnappschuss");
+                }
+                vorher = dekodierer.gibKurs();
+                anzahl++;
+            }
+        }
+        fertig.set(true);
+        schreiber.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+    }
+
+    /**
+     * Die Kurse jedes einzelnen Schreibers müssen in seiner Schreibreihenfolge erscheinen.
+     */
+    private static void pruefeProSchreiberSteigend(List<Double> historie) {
+        double[] letzter = new double[SCHREIBER + 1];
+        for (double kurs : historie) {
+            int schreiberNr = (int) (kurs / BEREICH);
+            assertTrue(kurs > letzter[schreiberNr], "Reihenfolge eines Schreibers verletzt");
+            letzter[schreiberNr] = kurs;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests für das stapelweise Speichern von Ticks im KursService.
+ */
+@DisplayName("KursService Stapel Tests")
+class KursServiceStapelTest {
+
+    private KursService kursService;
+    private KursPuffer puffer;
+
+    @BeforeEach
+    void setUp() {
+        kursService = new KursService();
+        puffer = new KursPuffer(16);
+    }
+
+    @Test
+    @DisplayName("Stapel: Gemischte Ticks landen in Reihenfolge bei ihrer Aktie")
+    void tickWerdenProAktieGespeichert() {
+        // Arrange
+        int apple = puffer.symbol("Apple");
+        int sap = puffer.symbol("SAP");
+        puffer.fuegeHinzu(apple, 100, 1_000, 10);
+        puffer.fuegeHinzu(sap, 50, 1_000, 5);
+        puffer.fuegeHinzu(apple, 101, 2_000, 10);
+        puffer.fuegeHinzu(sap, 51, 2_000, 5);
+        puffer.fuegeHinzu(apple, 102, 3_000, 10);
+
+        // Act
+        int abgelehnt = kursService.speichereKurse(puffer);
+
+        // Assert
+        assertEquals(0, abgelehnt);
+        assertEquals(List.of(100.0, 101.0, 102.0), kursService.gibKurshistorie("Apple"));
+        assertEquals(List.of(50.0, 51.0), kursService.gibKurshistorie("SAP"));
+        assertEquals(30, kursService.gibKerzen("Apple", Kerzenaufloesung.MINUTE).get(0).getVolumen());
+    }
+
+    @Test
+    @DisplayName("Stapel: Ungültige Ticks werden gemeldet statt geworfen")
+    void ungueltigeTicksWerdenAbgelehnt() {
+        // Arrange
+        int apple = puffer.symbol("Apple");
+        int sap = puffer.symbol("SAP");
+        puffer.fuegeHinzu(apple, 100, 0, 0);
+        puffer.fuegeHinzu(apple, 0, 0, 0);
+        puffer.fuegeHinzu(apple, Double.NaN, 0, 0);
+        puffer.fuegeHinzu(apple, 101, 0, -1);
+        puffer.fuegeHinzu(sap, -5, 0, 0);
+
+        // Act
+        int abgelehnt = kursService.speichereKurse(puffer);
+
+        // Assert
+        assertEquals(4, abgelehnt);
+        assertFalse(puffer.istAbgelehnt(0));
+        for (int i = 1; i < 5; i++) {
+            assertTrue(puffer.istAbgelehnt(i));
+        }
+        assertEquals(List.of(100.0), kursService.gibKurshistorie("Apple"));
+        // Eine Aktie nur mit ungültigen Ticks wird gar nicht erst angelegt
+        assertFalse(kursService.gibStatus().contains("SAP"));
+    }
+
+    @Test
+    @DisplayName("Stapel: Ergebnis entspricht einzeln gespeicherten Ticks")
+    void stapelEntsprichtEinzelnenTicks() {
+        // Arrange
+        KursService einzeln = new KursService();
+        Aktie aktie = new Aktie("Apple", 1);
+        int apple = puffer.symbol("Apple");
+
+        // Act: 40 Ticks in drei Stapeln bzw. einzeln
+        for (int i = 1; i <= 40; i++) {
+            if (!puffer.fuegeHinzu(apple, i, i * 1_000L, 0)) {
+                kursService.speichereKurse(puffer);
+                puffer.leere();
+                puffer.fuegeHinzu(apple, i, i * 1_000L, 0);
+            }
+            aktie.setPreis(i);
+            einzeln.speichereKurs(aktie, i * 1_000L, 0);
+        }
+        kursService.speichereKurse(puffer);
+
+        // Assert
+        assertEquals(einzeln.gibKurshistorie("Apple"), kursService.gibKurshistorie("Apple"));
+        assertEquals(einzeln.berechnetDurchschnittskurs("Apple"), kursService.berechnetDurchschnittskurs("Apple"));
+    }
+
+    @Test
+    @DisplayName("Stapel: Null-Puffer wirft Exception")
+    void nullPufferWirftException() {
+        assertThrows(IllegalArgumentException.class, () -> kursService.speichereKurse(null));
+    }
+}
@@ -0,0 +1,84 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Trend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests für die typisierte Trend-Bestimmung des KursService.
+ */
+@DisplayName("KursService Trend Tests")
+class KursServiceTrendTest {
+
+    private KursService kursService;
+    private Aktie apple;
+
+    @BeforeEach
+    void setUp() {
+        kursService = new KursService();
+        apple = new Aktie("Apple", 100);
+    }
+
+    @Test
+    @DisplayName("Trend: String-API und Enum-API liefern denselben Trend")
+    void stringUndEnumStimmenUeberein() {
+        // Arrange
+        speichere(100, 100, 100, 100, 100, 120, 120, 120, 120, 120);
+
+        // Act & Assert
+        assertEquals(Trend.STEIGEND, kursService.ermittleTrend("Apple", TrendParameter.STANDARD));
+        assertEquals("STEIGEND", kursService.bestimmeTrend("Apple"));
+    }
+
+    @Test
+    @DisplayName("Trend: Unbekannte Aktie ergibt UNBEKANNT")
+    void unbekannteAktie() {
+        assertEquals(Trend.UNBEKANNT, kursService.ermittleTrend("Siemens", TrendParameter.STANDARD));
+        assertEquals("UNBEKANNT", kursService.bestimmeTrend("Siemens"));
+    }
+
+    @Test
+    @DisplayName("Trend: Mehrere Einstellungen werden in einem Aufruf ausgewertet")
+    void mehrereEinstellungen() {
+        // Arrange: 20 Kurse, erst deutlich fallend (200 → 168), die letzten 3 wieder steigend
+        for (int i = 0; i < 17; i++) {
+            speichere(200 - 2 * i);
+        }
+        speichere(180, 185, 190);
+        TrendParameter[] parameter = {
+                new TrendParameter(3, 3, 0.02),
+                new TrendParameter(10, 10, 0.02),
+                new TrendParameter(30, 30, 0.02)
+        };
+        Trend[] ergebnis = new Trend[parameter.length];
+
+        // Act
+        kursService.ermittleTrends("Apple", parameter, ergebnis);
+
+        // Assert
+        assertArrayEquals(new Trend[]{Trend.STEIGEND, Trend.FALLEND, Trend.UNBEKANNT}, ergebnis);
+    }
+
+    @Test
+    @DisplayName("Trend: Ungültige Argumente werfen Exception")
+    void ungueltigeArgumente() {
+        TrendParameter[] parameter = {TrendParameter.STANDARD, TrendParameter.STANDARD};
+
+        assertThrows(IllegalArgumentException.class, () -> kursService.ermittleTrend("Apple", null));
+        assertThrows(IllegalArgumentException.class,
+                () -> kursService.ermittleTrends("Apple", parameter, new Trend[1]));
+        assertThrows(IllegalArgumentException.class,
+                () -> kursService.ermittleTrends("Apple", new TrendParameter[]{null}, new Trend[1]));
+    }
+
+    private void speichere(double... kurse) {
+        for (double kurs : kurse) {
+            apple.setPreis(kurs);
+            kursService.speichereKurs(apple);
+        }
+    }
+}
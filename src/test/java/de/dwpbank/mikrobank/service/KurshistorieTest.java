@@ -0,0 +1,154 @@
+package de.dwpbank.mikrobank.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Kurshistorie (Ringpuffer).
+ *
+ * Diese Tests prüfen, dass der Ringpuffer Kurse in chronologischer Reihenfolge
+ * liefert und bei Überlauf den ältesten Kurs verdrängt.
+ */
+@DisplayName("Kurshistorie Tests")
+class KurshistorieTest {
+
+    private Kurshistorie historie;
+
+    @BeforeEach
+    void setUp() {
+        historie = new Kurshistorie(3);
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Neue Historie ist leer")
+    void neueHistorieIstLeer() {
+        assertTrue(historie.istLeer());
+        assertEquals(0, historie.gibAnzahl());
+        assertTrue(historie.alsListe().isEmpty());
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Kurse werden chronologisch gespeichert")
+    void kurseWerdenChronologischGespeichert() {
+        // Arrange & Act
+        historie.fuegeHinzu(100);
+        historie.fuegeHinzu(105);
+
+        // Assert
+        assertEquals(2, historie.gibAnzahl());
+        assertEquals(100, historie.gib(0));
+        assertEquals(105, historie.gib(1));
+        assertEquals(105, historie.gibNeuesten());
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Bei Überlauf wird der älteste Kurs verdrängt")
+    void ueberlaufVerdraengtAeltestenKurs() {
+        // Arrange & Act: 5 Kurse in einen Puffer der Kapazität 3
+        for (int kurs = 1; kurs <= 5; kurs++) {
+            historie.fuegeHinzu(kurs);
+        }
+
+        // Assert
+        assertTrue(historie.istVoll());
+        assertEquals(3, historie.gibAnzahl());
+        assertEquals(List.of(3.0, 4.0, 5.0), historie.alsListe());
+        assertEquals(3, historie.gibAeltesten());
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Ungültiger Index wirft Exception")
+    void ungueltigerIndexWirftException() {
+        historie.fuegeHinzu(100);
+
+        assertThrows(IndexOutOfBoundsException.class, () -> historie.gib(1));
+        assertThrows(IndexOutOfBoundsException.class, () -> historie.gib(-1));
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Kapazität 0 ist ungültig")
+    void kapazitaetNullWirftException() {
+        assertThrows(IllegalArgumentException.class, () -> new Kurshistorie(0));
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Durchschnitt berücksichtigt verdrängte Kurse")
+    void durchschnittNachUeberlauf() {
+        // Arrange & Act: 1..5 in Kapazität 3 → gespeichert sind 3, 4, 5
+        for (int kurs = 1; kurs <= 5; kurs++) {
+            historie.fuegeHinzu(kurs);
+        }
+
+        // Assert
+        assertEquals(12.0, historie.gibSumme());
+        assertEquals(4.0, historie.gibDurchschnitt());
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Durchschnitt einer leeren Historie ist 0")
+    void durchschnittLeereHistorie() {
+        assertEquals(0.0, historie.gibDurchschnitt());
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Laufende Summe driftet über viele Ticks nicht")
+    void laufendeSummeOhneDrift() {
+        // Arrange
+        Kurshistorie lang = new Kurshistorie(100);
+
+        // Act: eine Million Ticks mit "krummen" Kursen
+        for (int i = 0; i < 1_000_000; i++) {
+            lang.fuegeHinzu(100.0 + (i % 7) * 0.1 + 1e-7 * i);
+        }
+
+        // Assert: Vergleich mit einer frischen Summe über den Pufferinhalt
+        double frischeSumme = 0;
+        for (int i = 0; i < lang.gibAnzahl(); i++) {
+            frischeSumme += lang.gib(i);
+        }
+        assertEquals(frischeSumme, lang.gibSumme(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Fenstersumme liefert Teilsummen nach Überlauf")
+    void fensterSummeNachUeberlauf() {
+        // Arrange & Act: 1..5 in Kapazität 3 → gespeichert sind 3, 4, 5
+        for (int kurs = 1; kurs <= 5; kurs++) {
+            historie.fuegeHinzu(kurs);
+        }
+
+        // Assert
+        assertEquals(12.0, historie.gibSumme(0, 3));
+        assertEquals(9.0, historie.gibSumme(1, 3));
+        assertEquals(4.0, historie.gibSumme(1, 2));
+        assertEquals(0.0, historie.gibSumme(2, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> historie.gibSumme(0, 4));
+        assertThrows(IndexOutOfBoundsException.class, () -> historie.gibSumme(2, 1));
+    }
+
+    @Test
+    @DisplayName("Kurshistorie: Fenstersummen bleiben über viele Umläufe genau")
+    void fensterSummeOhneDrift() {
+        // Arrange
+        Kurshistorie lang = new Kurshistorie(100);
+
+        // Act: eine Million Ticks, ein Vielfaches der Kapazität
+        for (int i = 0; i < 1_000_000; i++) {
+            lang.fuegeHinzu(10_000.0 + (i % 7) * 0.01);
+        }
+
+        // Assert: kleine Fenster am Ende gegen frische Summen
+        for (int laenge = 1; laenge <= 10; laenge++) {
+            double frischeSumme = 0;
+            for (int i = 100 - laenge; i < 100; i++) {
+                frischeSumme += lang.gib(i);
+            }
+            assertEquals(frischeSumme, lang.gibSumme(100 - laenge, 100), 1e-9);
+        }
+    }
+}
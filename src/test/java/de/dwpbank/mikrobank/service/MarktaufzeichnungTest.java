@@ -0,0 +1,122 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Aufzeichnung und Wiedergabe von Marktverläufen.
+ */
+@DisplayName("Marktaufzeichnung Tests")
+class MarktaufzeichnungTest {
+
+    @TempDir
+    Path verzeichnis;
+
+    @Test
+    @DisplayName("Aufzeichnung: Seed, Aktien und alle Runden werden wieder gelesen")
+    void schreibenUndLesen() {
+        // Arrange
+        Path datei = verzeichnis.resolve("markt.bin");
+        List<Aktie> aktien = List.of(new Aktie("Apple", 150), new Aktie("Münchener Rück", 400));
+        PreisService preisService = new PreisService(42);
+
+        // Act: 100 Runden aufzeichnen und die Preise merken
+        double[] erwartet = new double[200];
+        try (Marktaufzeichnung.Schreiber schreiber = Marktaufzeichnung.beginne(datei, 42, aktien)) {
+            for (int runde = 0; runde < 100; runde++) {
+                for (int i = 0; i < 2; i++) {
+                    erwartet[runde * 2 + i] = preisService.ermittleAktuellenPreis(aktien.get(i));
+                }
+                schreiber.schreibeRunde(aktien);
+            }
+            assertEquals(100, schreiber.gibAnzahlRunden());
+        }
+        Marktaufzeichnung aufzeichnung = Marktaufzeichnung.lies(datei);
+
+        // Assert
+        assertEquals(42, aufzeichnung.gibSeed());
+        assertEquals(2, aufzeichnung.gibAnzahlAktien());
+        assertEquals("Münchener Rück", aufzeichnung.gibAktienName(1));
+        assertEquals(150, aufzeichnung.gibStartpreis(0));
+        assertEquals(100, aufzeichnung.gibAnzahlRunden());
+        for (int runde = 0; runde < 100; runde++) {
+            assertEquals(erwartet[runde * 2], aufzeichnung.gibPreis(runde, 0));
+            assertEquals(erwartet[runde * 2 + 1], aufzeichnung.gibPreis(runde, 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Wiedergabe: Preise einer Runde werden in die Aktien gesetzt")
+    void setzePreise() {
+        // Arrange
+        Path datei = verzeichnis.resolve("markt.bin");
+        Aktie sap = new Aktie("SAP", 110);
+        try (Marktaufzeichnung.Schreiber schreiber = Marktaufzeichnung.beginne(datei, 1, List.of(sap))) {
+            sap.setPreis(111);
+            schreiber.schreibeRunde(List.of(sap));
+            sap.setPreis(112);
+            schreiber.schreibeRunde(List.of(sap));
+        }
+        Marktaufzeichnung aufzeichnung = Marktaufzeichnung.lies(datei);
+        Aktie wiedergabe = new Aktie("SAP", aufzeichnung.gibStartpreis(0));
+
+        // Act
+        aufzeichnung.setzePreise(1, List.of(wiedergabe));
+
+        // Assert
+        assertEquals(112, wiedergabe.getPreis());
+        assertThrows(IndexOutOfBoundsException.class, () -> aufzeichnung.setzePreise(2, List.of(wiedergabe)));
+        assertThrows(IllegalArgumentException.class, () -> aufzeichnung.setzePreise(0, List.of()));
+    }
+
+    @Test
+    @DisplayName("Aufzeichnung: Abgebrochene letzte Runde wird ignoriert")
+    void abgebrocheneRunde() throws Exception {
+        // Arrange: 3 vollständige Runden, dann ein halber Datensatz
+        Path datei = verzeichnis.resolve("markt.bin");
+        List<Aktie> aktien = List.of(new Aktie("BMW", 85), new Aktie("SAP", 110));
+        try (Marktaufzeichnung.Schreiber schreiber = Marktaufzeichnung.beginne(datei, 7, aktien)) {
+            for (int i = 0; i < 3; i++) {
+                schreiber.schreibeRunde(aktien);
+            }
+        }
+        byte[] inhalt = Files.readAllBytes(datei);
+        Files.write(datei, Arrays.copyOf(inhalt, inhalt.length + 8));
+
+        // Act
+        Marktaufzeichnung aufzeichnung = Marktaufzeichnung.lies(datei);
+
+        // Assert
+        assertEquals(3, aufzeichnung.gibAnzahlRunden());
+    }
+
+    @Test
+    @DisplayName("Aufzeichnung: Fremde oder kaputte Datei wird abgelehnt")
+    void ungueltigeDatei() throws Exception {
+        // Arrange
+        Path fremd = verzeichnis.resolve("fremd.bin");
+        Files.write(fremd, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        Path abgeschnitten = verzeichnis.resolve("abgeschnitten.bin");
+        try (Marktaufzeichnung.Schreiber schreiber =
+                     Marktaufzeichnung.beginne(abgeschnitten, 1, List.of(new Aktie("Apple", 150)))) {
+            assertNotNull(schreiber);
+        }
+        byte[] inhalt = Files.readAllBytes(abgeschnitten);
+        Files.write(abgeschnitten, Arrays.copyOf(inhalt, inhalt.length - 4));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> Marktaufzeichnung.lies(fremd));
+        assertThrows(IllegalStateException.class, () -> Marktaufzeichnung.lies(abgeschnitten));
+        assertThrows(IllegalArgumentException.class,
+            () -> Marktaufzeichnung.beginne(verzeichnis.resolve("leer.bin"), 1, List.of()));
+    }
+}
@@ -0,0 +1,157 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für Marktbilder (konsistente, wiederverwendbare Preisstände pro Tick).
+ */
+@DisplayName("Marktbildquelle Tests")
+class MarktbildquelleTest {
+
+    @Test
+    @DisplayName("Marktbild: Enthält die Preise des Ticks, Version zählt hoch")
+    void veroeffentlichen() {
+        // Arrange
+        Marktbildquelle quelle = new Marktbildquelle();
+        Aktie apple = new Aktie("Bild Apple", 150);
+        Aktie sap = new Aktie("Bild SAP", 110);
+
+        // Act
+        long version = quelle.veroeffentliche(List.of(apple, sap));
+        sap.setPreis(111);
+        quelle.veroeffentliche(List.of(sap));
+
+        // Assert: Apple behält den Preis aus dem vorherigen Tick
+        try (Marktbild bild = quelle.erwerbe()) {
+            assertEquals(1, version);
+            assertEquals(2, bild.gibVersion());
+            assertEquals(150, bild.gibPreis(apple.getId()));
+            assertEquals(111, bild.gibPreis("Bild SAP"));
+            assertTrue(Double.isNaN(bild.gibPreis("Unbekannt")));
+        }
+    }
+
+    @Test
+    @DisplayName("Marktbild: Ein gehaltenes Bild ändert sich nicht durch spätere Ticks")
+    void gehaltenesBildBleibt() {
+        // Arrange
+        Marktbildquelle quelle = new Marktbildquelle(1);
+        Aktie aktie = new Aktie("Bild Halten", 10);
+        quelle.veroeffentliche(List.of(aktie));
+
+        // Act
+        Marktbild alt = quelle.erwerbe();
+        for (int i = 11; i < 20; i++) {
+            aktie.setPreis(i);
+            quelle.veroeffentliche(List.of(aktie));
+        }
+
+        // Assert
+        assertEquals(1, alt.gibVersion());
+        assertEquals(10, alt.gibPreis(aktie.getId()));
+        alt.close();
+        assertThrows(IllegalStateException.class, alt::close);
+    }
+
+    @Test
+    @DisplayName("Pool: Zurückgegebene Marktbilder werden wiederverwendet")
+    void poolWiederverwendung() {
+        // Arrange
+        Marktbildquelle quelle = new Marktbildquelle(2);
+        Aktie aktie = new Aktie("Bild Pool", 1);
+        List<Marktbild> gesehen = new ArrayList<>();
+
+        // Act: 100 Ticks, jeweils kurz lesen
+        for (int i = 0; i < 100; i++) {
+            aktie.setPreis(i + 1);
+            quelle.veroeffentliche(List.of(aktie));
+            try (Marktbild bild = quelle.erwerbe()) {
+                if (gesehen.stream().noneMatch(b -> b == bild)) {
+                    gesehen.add(bild);
+                }
+                assertEquals(i + 1, bild.gibPreis(aktie.getId()));
+            }
+        }
+
+        // Assert: es kreisen nur wenige Marktbilder
+        assertTrue(gesehen.size() <= 3, "Verschiedene Marktbilder: " + gesehen.size());
+    }
+
+    @Test
+    @DisplayName("Nebenläufigkeit: Leser sehen nie einen halb aktualisierten Tick")
+    void konsistentUnterLast() throws Exception {
+        // Arrange: in Tick v haben alle Aktien den Preis v
+        Marktbildquelle quelle = new Marktbildquelle(2);
+        List<Aktie> aktien = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            aktien.add(new Aktie("Bild Last " + i, 0));
+        }
+        AtomicBoolean laeuft = new AtomicBoolean(true);
+        AtomicReference<String> fehler = new AtomicReference<>();
+        List<Thread> leser = new ArrayList<>();
+        for (int t = 0; t < 3; t++) {
+            Thread thread = new Thread(() -> {
+                while (laeuft.get()) {
+                    try (Marktbild bild = quelle.erwerbe()) {
+                        if (bild.gibVersion() == 0) {
+                            continue;
+                        }
+                        double erwartet = bild.gibVersion();
+                        for (Aktie aktie : aktien) {
+                            if (bild.gibPreis(aktie.getId()) != erwartet) {
+                                fehler.set("Version " + erwartet + ", Preis " + bild.gibPreis(aktie.getId()));
+                            }
+                        }
+                    }
+                }
+            });
+            thread.start();
+            leser.add(thread);
+        }
+
+        // Act
+        for (int tick = 1; tick <= 5_000; tick++) {
+            for (Aktie aktie : aktien) {
+                aktie.setPreis(tick);
+            }
+            quelle.veroeffentliche(aktien);
+        }
+        laeuft.set(false);
+        for (Thread thread : leser) {
+            thread.join();
+        }
+
+        // Assert
+        assertNull(fehler.get());
+        assertEquals(5_000, quelle.gibVersion());
+    }
+
+    @Test
+    @DisplayName("Preisblock: Blockmodus des PreisService veröffentlicht ein Marktbild")
+    void blockVeroeffentlicht() {
+        // Arrange
+        PreisService preisService = new PreisService(5);
+        Marktbildquelle quelle = new Marktbildquelle();
+        preisService.setzeMarktbildquelle(quelle);
+        Aktie aktie = new Aktie("Bild Block", 100);
+        Preisblock block = preisService.erstelleBlock(List.of(aktie));
+
+        // Act
+        preisService.ermittlePreise(block);
+
+        // Assert
+        try (Marktbild bild = quelle.erwerbe()) {
+            assertEquals(1, bild.gibVersion());
+            assertEquals(aktie.getPreis(), bild.gibPreis(aktie.getId()));
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Kursmeldung;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für den Marktdatenbus (Flow-basierte Verteilung von Kursmeldungen).
+ * <p>
+ * Die meisten Tests stellen mit {@code Runnable::run} direkt im aufrufenden Thread zu
+ * und sind dadurch deterministisch.
+ */
+@DisplayName("Marktdatenbus Tests")
+class MarktdatenbusTest {
+
+    /**
+     * Sammelt alle Signale; fordert beim Abonnieren {@code anfangsNachfrage} Meldungen an.
+     */
+    static class Sammler implements Flow.Subscriber<Kursmeldung> {
+        final List<Kursmeldung> meldungen = new CopyOnWriteArrayList<>();
+        final long anfangsNachfrage;
+        volatile Flow.Subscription abonnement;
+        volatile Throwable fehler;
+        volatile boolean abgeschlossen;
+
+        Sammler(long anfangsNachfrage) {
+            this.anfangsNachfrage = anfangsNachfrage;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription abonnement) {
+            this.abonnement = abonnement;
+            if (anfangsNachfrage > 0) {
+                abonnement.request(anfangsNachfrage);
+            }
+        }
+
+        @Override
+        public void onNext(Kursmeldung meldung) {
+            meldungen.add(meldung);
+        }
+
+        @Override
+        public void onError(Throwable fehler) {
+            this.fehler = fehler;
+        }
+
+        @Override
+        public void onComplete() {
+            abgeschlossen = true;
+        }
+
+        double[] kurse() {
+            return meldungen.stream().mapToDouble(Kursmeldung::getKurs).toArray();
+        }
+    }
+
+    private static Kursmeldung tick(int id, double kurs) {
+        return new Kursmeldung(id, kurs, 0, 0);
+    }
+
+    @Test
+    @DisplayName("Verteilung: Jeder Abonnent erhält alle Meldungen in Reihenfolge")
+    void verteiltAnAlle() {
+        // Arrange
+        Marktdatenbus bus = new Marktdatenbus(Runnable::run, 16);
+        Sammler erster = new Sammler(Long.MAX_VALUE);
+        Sammler zweiter = new Sammler(Long.MAX_VALUE);
+        bus.subscribe(erster);
+        bus.subscribe(zweiter);
+
+        // Act
+        for (int i = 1; i <= 5; i++) {
+            bus.veroeffentliche(tick(0, i));
+        }
+
+        // Assert
+        assertEquals(2, bus.gibAnzahlAbonnenten());
+        assertArrayEquals(new double[]{1, 2, 3, 4, 5}, erster.kurse());
+        assertArrayEquals(new double[]{1, 2, 3, 4, 5}, zweiter.kurse());
+    }
+
+    @Test
+    @DisplayName("Backpressure: Es wird nur zugestellt, was angefordert wurde")
+    void backpressure() {
+        // Arrange
+        Marktdatenbus bus = new Marktdatenbus(Runnable::run, 16);
+        Sammler sammler = new Sammler(2);
+        bus.subscribe(sammler);
+
+        // Act
+        for (int i = 1; i <= 5; i++) {
+            bus.veroeffentliche(tick(0, i));
+        }
+        int vorNachforderung = sammler.meldungen.size();
+        sammler.abonnement.request(10);
+
+        // Assert
+        assertEquals(2, vorNachforderung);
+        assertArrayEquals(new double[]{1, 2, 3, 4, 5}, sammler.kurse());
+    }
+
+    @Test
+    @DisplayName("Conflation: Bei vollem Puffer ersetzt ein neuer Kurs den alten derselben Aktie")
+    void conflation() {
+        // Arrange: Puffer für 2 Meldungen, Abonnent fordert zunächst nichts an
+        Marktdatenbus bus = new Marktdatenbus(Runnable::run, 2);
+        Sammler sammler = new Sammler(0);
+        bus.subscribe(sammler);
+
+        // Act: A1, B1 füllen den Puffer; A2 und B2 ersetzen A1 und B1
+        bus.veroeffentliche(tick(0, 1));
+        bus.veroeffentliche(tick(1, 10));
+        bus.veroeffentliche(tick(0, 2));
+        bus.veroeffentliche(tick(1, 20));
+        long zusammengefasst = bus.gibAnzahlZusammengefasst();
+        sammler.abonnement.request(10);
+
+        // Assert: nur die aktuellen Kurse, Reihenfolge der Aktien bleibt
+        assertArrayEquals(new double[]{2, 20}, sammler.kurse());
+        assertEquals(2, zusammengefasst);
+        assertEquals(0, bus.gibAnzahlVerworfen());
+    }
+
+    @Test
+    @DisplayName("Conflation: Ohne Meldung derselben Aktie wird die älteste verworfen")
+    void verwirftAelteste() {
+        // Arrange
+        Marktdatenbus bus = new Marktdatenbus(Runnable::run, 2);
+        Sammler sammler = new Sammler(0);
+        bus.subscribe(sammler);
+
+        // Act
+        bus.veroeffentliche(tick(0, 1));
+        bus.veroeffentliche(tick(1, 10));
+        bus.veroeffentliche(tick(2, 100));
+        long verworfen = bus.gibAnzahlVerworfen();
+        sammler.abonnement.request(10);
+
+        // Assert
+        assertArrayEquals(new double[]{10, 100}, sammler.kurse());
+        assertEquals(1, verworfen);
+    }
+
+    @Test
+    @DisplayName("Langsamer Abonnent: Bus und schneller Abonnent laufen weiter")
+    void langsamerAbonnentBremstNicht() throws Exception {
+        // Arrange: der langsame Abonnent blockiert in onNext, bis der Test ihn freigibt
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        Marktdatenbus bus = new Marktdatenbus(executor, 8);
+        CountDownLatch freigabe = new CountDownLatch(1);
+        CountDownLatch schnellFertig = new CountDownLatch(1);
+        Sammler langsam = new Sammler(Long.MAX_VALUE) {
+            @Override
+            public void onNext(Kursmeldung meldung) {
+                try {
+                    freigabe.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.onNext(meldung);
+            }
+        };
+        Sammler schnell = new Sammler(Long.MAX_VALUE) {
+            @Override
+            public void onNext(Kursmeldung meldung) {
+                super.onNext(meldung);
+                if (meldung.getKurs() == 10_000) {
+                    schnellFertig.countDown();
+                }
+            }
+        };
+        bus.subscribe(langsam);
+        bus.subscribe(schnell);
+
+        try {
+            // Act: 10.000 Ticks für 4 Aktien, während der langsame Abonnent hängt
+            for (int i = 1; i <= 10_000; i++) {
+                bus.veroeffentliche(tick(i % 4, i));
+            }
+
+            // Assert: der schnelle Abonnent hat den letzten Kurs, der langsame noch nichts
+            assertTrue(schnellFertig.await(5, TimeUnit.SECONDS));
+            assertTrue(langsam.meldungen.isEmpty());
+
+            // Nach der Freigabe bekommt der langsame die jüngsten Kurse aller Aktien
+            freigabe.countDown();
+            bus.close();
+            for (int i = 0; i < 500 && !langsam.abgeschlossen; i++) {
+                Thread.sleep(10);
+            }
+            assertTrue(langsam.abgeschlossen);
+            assertTrue(langsam.meldungen.size() <= 9);
+            double[] letzterKurs = new double[4];
+            for (Kursmeldung meldung : langsam.meldungen) {
+                letzterKurs[meldung.getInstrumentId()] = meldung.getKurs();
+            }
+            assertArrayEquals(new double[]{10_000, 9_997, 9_998, 9_999}, letzterKurs);
+        } finally {
+            freigabe.countDown();
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Lebenszyklus: close, cancel und ungültige Anforderung")
+    void lebenszyklus() {
+        // Arrange
+        Marktdatenbus bus = new Marktdatenbus(Runnable::run, 4);
+        Sammler bleibt = new Sammler(Long.MAX_VALUE);
+        Sammler kuendigt = new Sammler(Long.MAX_VALUE);
+        Sammler falsch = new Sammler(0);
+        bus.subscribe(bleibt);
+        bus.subscribe(kuendigt);
+        bus.subscribe(falsch);
+
+        // Act
+        kuendigt.abonnement.cancel();
+        falsch.abonnement.request(0);
+        bus.veroeffentliche(tick(0, 1));
+        bus.close();
+
+        // Assert
+        assertEquals(1, bleibt.meldungen.size());
+        assertTrue(bleibt.abgeschlossen);
+        assertTrue(kuendigt.meldungen.isEmpty());
+        assertInstanceOf(IllegalArgumentException.class, falsch.fehler);
+        assertThrows(IllegalStateException.class, () -> bus.veroeffentliche(tick(0, 2)));
+
+        Sammler spaet = new Sammler(1);
+        bus.subscribe(spaet);
+        assertTrue(spaet.abgeschlossen);
+    }
+}
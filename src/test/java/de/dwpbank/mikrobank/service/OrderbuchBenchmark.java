@@ -0,0 +1,84 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.service.Orderbuch.Seite;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Misst Durchsatz und Latenz des {@link Orderbuch}s mit einem Ereignisstrom aus
+ * Limit-Orders nahe der Mitte (70 %), Stornos ruhender Orders (20 %) und kleinen
+ * Market-Orders (10 %).
+ * <p>
+ * Der Strom wird vorab erzeugt, gemessen wird nur das Orderbuch. Ein Thread, ein Buch;
+ * die Latenz wird je Ereignis mit {@link System#nanoTime()} gemessen und enthält damit
+ * auch dessen Kosten (etwa 20-30 ns).
+ * <p>
+ * Kein Unit-Test, wird manuell gestartet:
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes de.dwpbank.mikrobank.service.OrderbuchBenchmark
+ * </pre>
+ */
+public class OrderbuchBenchmark {
+
+    private static final int EREIGNISSE = 2_000_000;
+    private static final int DURCHLAEUFE = 5;
+    private static final long MITTE_CENT = 10_000;
+
+    private static final byte LIMIT = 0;
+    private static final byte STORNO = 1;
+    private static final byte MARKT = 2;
+
+    public static void main(String[] args) {
+        SplittableRandom zufall = new SplittableRandom(42);
+        byte[] art = new byte[EREIGNISSE];
+        boolean[] kauf = new boolean[EREIGNISSE];
+        long[] preis = new long[EREIGNISSE];
+        long[] menge = new long[EREIGNISSE];
+        int[] stornoZiel = new int[EREIGNISSE];
+        for (int i = 0; i < EREIGNISSE; i++) {
+            int wurf = zufall.nextInt(100);
+            art[i] = wurf < 70 ? LIMIT : wurf < 90 ? STORNO : MARKT;
+            kauf[i] = zufall.nextBoolean();
+            // Kauf meist unter, Verkauf meist über der Mitte; ein Teil kreuzt
+            long abstand = zufall.nextInt(-5, 50);
+            preis[i] = kauf[i] ? MITTE_CENT - abstand : MITTE_CENT + abstand;
+            menge[i] = 1 + zufall.nextInt(art[i] == MARKT ? 20 : 100);
+            // Storniert wird eine der letzten 1.000 Orders; ist sie schon erledigt, ist das Storno wirkungslos
+            stornoZiel[i] = Math.max(0, i - 1 - zufall.nextInt(1_000));
+        }
+
+        long[] ids = new long[EREIGNISSE];
+        long[] latenz = new long[EREIGNISSE];
+        for (int d = 1; d <= DURCHLAEUFE; d++) {
+            Orderbuch buch = new Orderbuch("Benchmark", 5_000, 15_000);
+            long ausgefuehrt = 0;
+            long start = System.nanoTime();
+            for (int i = 0; i < EREIGNISSE; i++) {
+                long t0 = System.nanoTime();
+                switch (art[i]) {
+                    case LIMIT -> ids[i] = buch.ordneEin(kauf[i] ? Seite.KAUF : Seite.VERKAUF, preis[i], menge[i]);
+                    case STORNO -> buch.storniere(ids[stornoZiel[i]]);
+                    default -> ids[i] = buch.ordneEinMarkt(kauf[i] ? Seite.KAUF : Seite.VERKAUF, menge[i]);
+                }
+                latenz[i] = System.nanoTime() - t0;
+                if (art[i] != STORNO) {
+                    ausgefuehrt += buch.gibZuletztAusgefuehrt();
+                }
+            }
+            long dauer = System.nanoTime() - start;
+
+            Arrays.sort(latenz);
+            System.out.printf("Durchlauf %d: %,10.0f Ereignisse/s  p50 %5d ns  p99 %6d ns  p99.9 %7d ns  max %9d ns"
+                            + "  (%,d Stück ausgeführt, %,d Orders offen)%n",
+                    d, EREIGNISSE / (dauer / 1e9),
+                    perzentil(latenz, 0.50), perzentil(latenz, 0.99), perzentil(latenz, 0.999),
+                    latenz[EREIGNISSE - 1], ausgefuehrt, buch.gibAnzahlOffeneOrders());
+        }
+    }
+
+    private static long perzentil(long[] sortiert, double anteil) {
+        return sortiert[(int) Math.min(sortiert.length - 1, (long) (sortiert.length * anteil))];
+    }
+}
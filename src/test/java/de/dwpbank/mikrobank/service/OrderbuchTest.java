@@ -0,0 +1,222 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.service.Orderbuch.Seite;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für das Orderbuch.
+ * <p>
+ * Preise sind in Cent angegeben, das Preisband reicht von 1,00 bis 200,00 Euro.
+ */
+@DisplayName("Orderbuch Tests")
+class OrderbuchTest {
+
+    private Orderbuch buch;
+    private List<long[]> ausfuehrungen;
+
+    @BeforeEach
+    void setUp() {
+        buch = new Orderbuch("Apple", 100, 20_000);
+        ausfuehrungen = new ArrayList<>();
+        buch.setzeBeobachter((aktiv, passiv, preis, menge) -> ausfuehrungen.add(new long[]{aktiv, passiv, preis, menge}));
+    }
+
+    @Test
+    @DisplayName("Leeres Buch: kein Geld- und kein Briefkurs")
+    void leeresBuch() {
+        // Assert
+        assertEquals(-1, buch.gibBestenGeldkursCent());
+        assertEquals(-1, buch.gibBestenBriefkursCent());
+        assertEquals(-1, buch.gibLetztenKursCent());
+        assertEquals(0, buch.gibAnzahlOffeneOrders());
+    }
+
+    @Test
+    @DisplayName("Nicht kreuzende Limit-Orders ruhen im Buch")
+    void limitOrdersRuhen() {
+        // Act
+        buch.ordneEin(Seite.KAUF, 9_900, 10);
+        buch.ordneEin(Seite.KAUF, 9_950, 5);
+        buch.ordneEin(Seite.VERKAUF, 10_050, 7);
+
+        // Assert
+        assertEquals(9_950, buch.gibBestenGeldkursCent());
+        assertEquals(10_050, buch.gibBestenBriefkursCent());
+        assertEquals(10, buch.gibVolumen(Seite.KAUF, 9_900));
+        assertEquals(3, buch.gibAnzahlOffeneOrders());
+        assertTrue(ausfuehrungen.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Bester Preis zuerst, Ausführung zum Preis der ruhenden Order")
+    void preisprioritaet() {
+        // Arrange
+        buch.ordneEin(Seite.VERKAUF, 10_100, 5);
+        long besser = buch.ordneEin(Seite.VERKAUF, 10_000, 5);
+
+        // Act: Limit liegt über beiden Verkaufsorders
+        long kauf = buch.ordneEin(Seite.KAUF, 10_200, 3);
+
+        // Assert
+        assertEquals(1, ausfuehrungen.size());
+        assertArrayEquals(new long[]{kauf, besser, 10_000, 3}, ausfuehrungen.get(0));
+        assertEquals(2, buch.gibRestmenge(besser));
+        assertEquals(10_000, buch.gibLetztenKursCent());
+    }
+
+    @Test
+    @DisplayName("Gleicher Preis: ältere Order zuerst")
+    void zeitprioritaet() {
+        // Arrange
+        long erste = buch.ordneEin(Seite.KAUF, 10_000, 4);
+        long zweite = buch.ordneEin(Seite.KAUF, 10_000, 4);
+
+        // Act
+        buch.ordneEin(Seite.VERKAUF, 10_000, 6);
+
+        // Assert
+        assertEquals(2, ausfuehrungen.size());
+        assertEquals(erste, ausfuehrungen.get(0)[1]);
+        assertEquals(4, ausfuehrungen.get(0)[3]);
+        assertEquals(zweite, ausfuehrungen.get(1)[1]);
+        assertEquals(2, ausfuehrungen.get(1)[3]);
+        assertEquals(0, buch.gibRestmenge(erste));
+        assertEquals(2, buch.gibRestmenge(zweite));
+    }
+
+    @Test
+    @DisplayName("Teilausführung über mehrere Stufen, der Rest ruht zum Limit")
+    void teilausfuehrungMitRest() {
+        // Arrange
+        buch.ordneEin(Seite.VERKAUF, 10_000, 2);
+        buch.ordneEin(Seite.VERKAUF, 10_010, 3);
+        buch.ordneEin(Seite.VERKAUF, 10_050, 10);
+
+        // Act
+        long kauf = buch.ordneEin(Seite.KAUF, 10_020, 8);
+
+        // Assert
+        assertEquals(5, buch.gibZuletztAusgefuehrt());
+        assertEquals(2 * 10_000 + 3 * 10_010, buch.gibZuletztUmsatzCent());
+        assertEquals(3, buch.gibRestmenge(kauf));
+        assertEquals(10_020, buch.gibBestenGeldkursCent());
+        assertEquals(10_050, buch.gibBestenBriefkursCent());
+    }
+
+    @Test
+    @DisplayName("Storno entfernt den Rest und aktualisiert den besten Kurs")
+    void storno() {
+        // Arrange
+        long unten = buch.ordneEin(Seite.KAUF, 9_900, 5);
+        long oben = buch.ordneEin(Seite.KAUF, 9_950, 5);
+
+        // Act
+        boolean storniert = buch.storniere(oben);
+
+        // Assert
+        assertTrue(storniert);
+        assertEquals(9_900, buch.gibBestenGeldkursCent());
+        assertEquals(0, buch.gibVolumen(Seite.KAUF, 9_950));
+        assertFalse(buch.storniere(oben), "Zweites Storno darf nichts bewirken");
+        assertTrue(buch.storniere(unten));
+        assertEquals(-1, buch.gibBestenGeldkursCent());
+        assertEquals(0, buch.gibAnzahlOffeneOrders());
+    }
+
+    @Test
+    @DisplayName("Storno aus der Mitte einer Stufe erhält die Reihenfolge")
+    void stornoAusDerMitte() {
+        // Arrange
+        long a = buch.ordneEin(Seite.VERKAUF, 10_000, 1);
+        long b = buch.ordneEin(Seite.VERKAUF, 10_000, 1);
+        long c = buch.ordneEin(Seite.VERKAUF, 10_000, 1);
+
+        // Act
+        buch.storniere(b);
+        buch.ordneEinMarkt(Seite.KAUF, 2);
+
+        // Assert
+        assertEquals(a, ausfuehrungen.get(0)[1]);
+        assertEquals(c, ausfuehrungen.get(1)[1]);
+        assertEquals(-1, buch.gibBestenBriefkursCent());
+    }
+
+    @Test
+    @DisplayName("Alte Order-Id trifft keine neue Order im selben Slot")
+    void alteIdWirdAbgelehnt() {
+        // Arrange: Order vollständig ausgeführt, ihr Slot wird wiederverwendet
+        long alt = buch.ordneEin(Seite.VERKAUF, 10_000, 1);
+        buch.ordneEinMarkt(Seite.KAUF, 1);
+        long neu = buch.ordneEin(Seite.VERKAUF, 10_000, 1);
+
+        // Act & Assert
+        assertNotEquals(alt, neu);
+        assertFalse(buch.storniere(alt));
+        assertEquals(1, buch.gibRestmenge(neu));
+    }
+
+    @Test
+    @DisplayName("Market-Order: nicht ausführbarer Rest verfällt")
+    void marketOrderRestVerfaellt() {
+        // Arrange
+        buch.ordneEin(Seite.KAUF, 9_900, 3);
+
+        // Act
+        long markt = buch.ordneEinMarkt(Seite.VERKAUF, 5);
+
+        // Assert
+        assertEquals(3, buch.gibZuletztAusgefuehrt());
+        assertEquals(0, buch.gibRestmenge(markt));
+        assertEquals(0, buch.gibAnzahlOffeneOrders());
+        assertEquals(-1, buch.gibBestenBriefkursCent());
+    }
+
+    @Test
+    @DisplayName("Kosten und Erlös einer Market-Order ohne Ausführung berechnen")
+    void berechneKostenUndErloes() {
+        // Arrange
+        buch.ordneEin(Seite.VERKAUF, 10_000, 2);
+        buch.ordneEin(Seite.VERKAUF, 10_100, 2);
+        buch.ordneEin(Seite.KAUF, 9_900, 1);
+
+        // Act & Assert
+        assertEquals(2 * 10_000 + 10_100, buch.berechneKaufkosten(3));
+        assertEquals(-1, buch.berechneKaufkosten(5));
+        assertEquals(9_900, buch.berechneVerkaufserloes(1));
+        assertEquals(-1, buch.berechneVerkaufserloes(2));
+        assertEquals(3, buch.gibAnzahlOffeneOrders(), "Berechnen darf nichts ausführen");
+    }
+
+    @Test
+    @DisplayName("Ungültige Orders werden abgelehnt")
+    void ungueltigeOrders() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> buch.ordneEin(Seite.KAUF, 99, 1));
+        assertThrows(IllegalArgumentException.class, () -> buch.ordneEin(Seite.KAUF, 20_001, 1));
+        assertThrows(IllegalArgumentException.class, () -> buch.ordneEin(Seite.KAUF, 10_000, 0));
+        assertThrows(IllegalArgumentException.class, () -> buch.ordneEinMarkt(Seite.VERKAUF, -1));
+        assertThrows(IllegalArgumentException.class, () -> new Orderbuch("X", 0, 100));
+    }
+
+    @Test
+    @DisplayName("Viele Orders: Slots wachsen mit, Volumen bleibt konsistent")
+    void vieleOrders() {
+        // Arrange & Act: mehr Orders als Start-Slots
+        for (int i = 0; i < 5_000; i++) {
+            buch.ordneEin(Seite.KAUF, 9_000 + i % 500, 1);
+        }
+        buch.ordneEinMarkt(Seite.VERKAUF, 4_990);
+
+        // Assert
+        assertEquals(10, buch.gibAnzahlOffeneOrders());
+        assertEquals(9_000, buch.gibBestenGeldkursCent());
+        assertEquals(10, buch.gibVolumen(Seite.KAUF, 9_000));
+    }
+}
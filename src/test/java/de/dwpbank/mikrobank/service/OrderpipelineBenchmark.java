@@ -0,0 +1,90 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Konto;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * Vergleicht den Durchsatz von Kauforders über {@link BoerseService#kaufe} (alle
+ * Schritte auf dem Thread des Aufrufers) mit der {@link Orderpipeline}, jeweils mit
+ * 1, 4 und 16 einreichenden Threads.
+ * <p>
+ * Gemessen wird bis zum Abschluss der letzten Order. Das Logging geht wie beim
+ * {@link KontoStapelBenchmark} in eine temporäre Datei.
+ * <p>
+ * Kein Unit-Test, wird manuell gestartet:
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes de.dwpbank.mikrobank.service.OrderpipelineBenchmark
+ * </pre>
+ */
+public class OrderpipelineBenchmark {
+
+    private static final int ORDERS = 200_000;
+    private static final int AKTIEN = 64;
+    private static final int DURCHLAEUFE = 3;
+
+    public static void main(String[] args) throws Exception {
+        Path verzeichnis = Files.createTempDirectory("orderpipeline");
+        // Muss vor dem ersten Logger gesetzt sein
+        System.setProperty("org.slf4j.simpleLogger.logFile", verzeichnis.resolve("benchmark.log").toString());
+
+        Aktie[] aktien = new Aktie[AKTIEN];
+        for (int i = 0; i < AKTIEN; i++) {
+            aktien[i] = new Aktie("BENCH" + i, 10);
+        }
+
+        System.out.printf("Kauforders pro Durchlauf: %,d%n", ORDERS);
+        for (int anzahlThreads : new int[]{1, 4, 16}) {
+            double direkt = 0;
+            double pipeline = 0;
+            for (int d = 0; d < DURCHLAEUFE; d++) {
+                direkt = Math.max(direkt, miss(anzahlThreads, aktien, false));
+                pipeline = Math.max(pipeline, miss(anzahlThreads, aktien, true));
+            }
+            System.out.printf("%2d Threads: direkt %,10.0f Orders/s   Pipeline %,10.0f Orders/s   Faktor %.1fx%n",
+                    anzahlThreads, direkt, pipeline, pipeline / direkt);
+        }
+    }
+
+    private static double miss(int anzahlThreads, Aktie[] aktien, boolean mitPipeline) throws Exception {
+        BoerseService boerseService = new BoerseService();
+        Orderpipeline pipeline = mitPipeline ? new Orderpipeline(boerseService, 4096, null) : null;
+        int proThread = ORDERS / anzahlThreads;
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] threads = new Thread[anzahlThreads];
+        for (int t = 0; t < anzahlThreads; t++) {
+            Konto konto = new Konto(1_000_000_000);
+            int versatz = t;
+            threads[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < proThread; i++) {
+                    Aktie aktie = aktien[(i + versatz) % aktien.length];
+                    if (pipeline != null) {
+                        pipeline.reicheEin(konto, aktie, 1, Orderbuch.Seite.KAUF, null);
+                    } else {
+                        boerseService.kaufe(konto, aktie, 1);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        long beginn = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        if (pipeline != null) {
+            pipeline.close();
+        }
+        long dauer = System.nanoTime() - beginn;
+        return (double) proThread * anzahlThreads / (dauer / 1e9);
+    }
+}
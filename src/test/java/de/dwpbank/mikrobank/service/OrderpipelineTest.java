@@ -0,0 +1,298 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.model.Konto;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Orderpipeline.
+ * <p>
+ * Die Ereignisse werden im Abschluss kopiert, weil die Pipeline sie danach wiederverwendet.
+ */
+@DisplayName("Orderpipeline Tests")
+class OrderpipelineTest {
+
+    /** Kopie eines abgeschlossenen Orderereignisses. */
+    private static final class Ergebnis {
+        final long sequenz;
+        final String ablehnungsgrund;
+        final long umsatzCent;
+        final long kursCent;
+        final Object anhang;
+
+        Ergebnis(Orderereignis ereignis) {
+            sequenz = ereignis.gibSequenz();
+            ablehnungsgrund = ereignis.gibAblehnungsgrund();
+            umsatzCent = ereignis.gibUmsatzCent();
+            kursCent = ereignis.gibKursCent();
+            anhang = ereignis.gibAnhang();
+        }
+    }
+
+    private BoerseService boerseService;
+    private Orderpipeline pipeline;
+    private final List<Ergebnis> ergebnisse = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        boerseService = new BoerseService();
+        pipeline = new Orderpipeline(boerseService, 8, ereignis -> {
+            synchronized (ergebnisse) {
+                ergebnisse.add(new Ergebnis(ereignis));
+            }
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.close();
+    }
+
+    @Test
+    @DisplayName("Kauf und Verkauf werden zum Kurs bei Annahme gebucht")
+    void kaufUndVerkauf() {
+        // Arrange
+        Konto konto = new Konto(1_000);
+
+        // Act
+        pipeline.reicheEin(konto, new Aktie("Apple", 100), 3, Orderbuch.Seite.KAUF, "kauf");
+        pipeline.reicheEin(konto, new Aktie("SAP", 50), 2, Orderbuch.Seite.VERKAUF, "verkauf");
+        pipeline.close();
+
+        // Assert
+        assertEquals(100_000 - 30_000 + 10_000, konto.getKontostandCent());
+        assertEquals(2, ergebnisse.size());
+        assertEquals("kauf", ergebnisse.get(0).anhang);
+        assertNull(ergebnisse.get(0).ablehnungsgrund);
+        assertEquals(30_000, ergebnisse.get(0).umsatzCent);
+        assertTrue(ergebnisse.get(0).kursCent > 0);
+        assertEquals(10_000, ergebnisse.get(1).umsatzCent);
+    }
+
+    @Test
+    @DisplayName("Ungültige und nicht gedeckte Orders werden mit Grund abgelehnt")
+    void ablehnungen() {
+        // Arrange
+        Konto konto = new Konto(100);
+
+        // Act
+        pipeline.reicheEin(konto, new Aktie("Apple", 100), 0, Orderbuch.Seite.KAUF, null);
+        pipeline.reicheEin(null, new Aktie("Apple", 100), 1, Orderbuch.Seite.KAUF, null);
+        pipeline.reicheEin(konto, new Aktie("Apple", 100), 2, Orderbuch.Seite.KAUF, null);
+        pipeline.close();
+
+        // Assert
+        assertEquals(3, ergebnisse.size());
+        assertNotNull(ergebnisse.get(0).ablehnungsgrund);
+        assertEquals("Konto darf nicht null sein", ergebnisse.get(1).ablehnungsgrund);
+        assertEquals(Orderpipeline.NICHT_GEDECKT, ergebnisse.get(2).ablehnungsgrund);
+        assertEquals(0, ergebnisse.get(2).umsatzCent);
+        assertEquals(10_000, konto.getKontostandCent(), "Abgelehnte Orders dürfen nichts buchen");
+    }
+
+    @Test
+    @DisplayName("Orderbuch: Ausführung gegen das Buch, ohne Liquidität wird erstattet")
+    void orderbuch() {
+        // Arrange
+        Aktie aktie = new Aktie("Pipeline-Orderbuch", 100);
+        Orderbuch buch = new Orderbuch(aktie.getName(), 1, 100_000);
+        buch.ordneEin(Orderbuch.Seite.VERKAUF, 10_000, 1);
+        buch.ordneEin(Orderbuch.Seite.VERKAUF, 10_200, 1);
+        boerseService.verbindeOrderbuch(aktie, buch);
+        Konto konto = new Konto(1_000);
+
+        // Act
+        pipeline.reicheEin(konto, aktie, 2, Orderbuch.Seite.KAUF, null);
+        pipeline.reicheEin(konto, aktie, 1, Orderbuch.Seite.KAUF, null);
+        pipeline.close();
+
+        // Assert
+        assertNull(ergebnisse.get(0).ablehnungsgrund);
+        assertEquals(20_200, ergebnisse.get(0).umsatzCent);
+        assertEquals(10_200, ergebnisse.get(0).kursCent);
+        assertEquals(Orderpipeline.KEINE_LIQUIDITAET, ergebnisse.get(1).ablehnungsgrund);
+        assertEquals(100_000 - 20_200, konto.getKontostandCent());
+        assertEquals(102.0, aktie.getPreis(), 0.0001);
+    }
+
+    @Test
+    @DisplayName("Viele Threads, kleiner Ring: jede Order genau einmal, in Sequenzreihenfolge")
+    void vieleProduzenten() throws Exception {
+        // Arrange: 4 Threads reichen je 500 Käufe zu 1 Euro ein, der Ring hat 8 Plätze
+        int threads = 4;
+        int proThread = 500;
+        Konto konto = new Konto(1_500);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> produzenten = new ArrayList<>();
+
+        // Act
+        for (int t = 0; t < threads; t++) {
+            produzenten.add(pool.submit(() -> {
+                start.await();
+                for (int i = 0; i < proThread; i++) {
+                    pipeline.reicheEin(konto, new Aktie("Penny", 1), 1, Orderbuch.Seite.KAUF, null);
+                }
+                return null;
+            }));
+        }
+        start.countDown();
+        for (Future<?> produzent : produzenten) {
+            produzent.get(60, TimeUnit.SECONDS);
+        }
+        pool.shutdown();
+        pipeline.close();
+
+        // Assert
+        assertEquals(threads * proThread, pipeline.gibAnzahlAbgeschlossen());
+        assertEquals(threads * proThread, ergebnisse.size());
+        long abgelehnt = 0;
+        for (int i = 0; i < ergebnisse.size(); i++) {
+            assertEquals(i, ergebnisse.get(i).sequenz);
+            if (ergebnisse.get(i).ablehnungsgrund != null) {
+                abgelehnt++;
+            }
+        }
+        assertEquals(500, abgelehnt, "2.000 Käufe zu 1 Euro, 1.500 Euro Guthaben");
+        assertEquals(0, konto.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Nach close werden keine Orders mehr angenommen")
+    void geschlossen() {
+        // Act
+        pipeline.close();
+
+        // Assert
+        assertThrows(IllegalStateException.class,
+                () -> pipeline.reicheEin(new Konto(100), new Aktie("Apple", 1), 1, Orderbuch.Seite.KAUF, null));
+        assertDoesNotThrow(pipeline::close, "Zweites close ist harmlos");
+    }
+
+    @Test
+    @DisplayName("Kapazität muss eine Zweierpotenz sein")
+    void kapazitaet() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new Orderpipeline(boerseService, 12, null));
+        assertThrows(IllegalArgumentException.class, () -> new Orderpipeline(null, 8, null));
+    }
+
+    @Test
+    @DisplayName("Future-Variante: Bericht ohne wartenden Thread")
+    void reicheEinMitFuture() throws Exception {
+        // Arrange
+        Konto konto = new Konto(150);
+
+        // Act
+        CompletableFuture<Ausfuehrungsbericht> kauf =
+                pipeline.reicheEin(konto, new Aktie("Apple", 100), 1, Orderbuch.Seite.KAUF);
+        CompletableFuture<Ausfuehrungsbericht> zuTeuer =
+                pipeline.reicheEin(konto, new Aktie("Apple", 100), 1, Orderbuch.Seite.KAUF);
+
+        // Assert
+        Ausfuehrungsbericht bericht = kauf.get(10, TimeUnit.SECONDS);
+        assertTrue(bericht.istAusgefuehrt());
+        assertEquals(1, bericht.gibAusgefuehrteMenge());
+        assertEquals(100.0, bericht.gibAusfuehrungspreis(), 0.0001);
+        assertEquals(Orderpipeline.NICHT_GEDECKT, zuTeuer.get(10, TimeUnit.SECONDS).gibAblehnungsgrund());
+        assertEquals(5_000, konto.getKontostandCent());
+    }
+
+    @Test
+    @DisplayName("Folgeorder aus dem Abschluss wird abgelehnt statt die Pipeline zu blockieren")
+    void folgeorderAusAbschluss() {
+        // Arrange: ein Platz im Ring, der Abschluss würde auf seinen eigenen Platz warten
+        Konto konto = new Konto(1_000);
+        Aktie aktie = new Aktie("Apple", 100);
+        AtomicReference<RuntimeException> fehler = new AtomicReference<>();
+        Orderpipeline[] eigene = new Orderpipeline[1];
+        eigene[0] = new Orderpipeline(boerseService, 1, ereignis -> {
+            try {
+                eigene[0].reicheEin(konto, aktie, 1, Orderbuch.Seite.KAUF, null);
+            } catch (RuntimeException e) {
+                fehler.set(e);
+            }
+        });
+
+        // Act
+        eigene[0].reicheEin(konto, aktie, 1, Orderbuch.Seite.KAUF, null);
+        eigene[0].close();
+
+        // Assert
+        assertInstanceOf(IllegalStateException.class, fehler.get());
+        assertEquals(1, eigene[0].gibAnzahlEingereicht());
+    }
+
+    @Test
+    @DisplayName("Future-Variante: Folgeorder über die Async-Fortsetzung wird ausgeführt")
+    void folgeorderAsynchron() throws Exception {
+        // Arrange
+        Konto konto = new Konto(1_000);
+        Aktie aktie = new Aktie("Apple", 100);
+
+        // Act
+        Ausfuehrungsbericht zweiter = pipeline.reicheEin(konto, aktie, 1, Orderbuch.Seite.KAUF)
+                .thenComposeAsync(erster -> pipeline.reicheEin(konto, aktie, 1, Orderbuch.Seite.KAUF))
+                .get(10, TimeUnit.SECONDS);
+
+        // Assert
+        assertTrue(zweiter.istAusgefuehrt());
+        assertEquals(2, pipeline.gibAnzahlEingereicht());
+    }
+
+    @Test
+    @DisplayName("Orderbuch: Wird das Buch nach der Deckung getrennt, wird trotzdem gegen dieses Buch ausgeführt")
+    void buchNachDeckungGetrennt() throws Exception {
+        // Arrange
+        Aktie aktie = new Aktie("Pipeline-Trennung", 100);
+        Orderbuch buch = new Orderbuch(aktie.getName(), 1, 100_000);
+        buch.ordneEin(Orderbuch.Seite.VERKAUF, 10_000, 1);
+        boerseService.verbindeOrderbuch(aktie, buch);
+        Konto konto = new Konto(1_000);
+
+        // Act: die Deckungsstufe hält das Buch bereits, als es getrennt wird
+        synchronized (buch) {
+            pipeline.reicheEin(konto, aktie, 1, Orderbuch.Seite.KAUF, null);
+            warteBisBlockiert("orderpipeline-deckung");
+            boerseService.verbindeOrderbuch(aktie, null);
+        }
+        pipeline.close();
+
+        // Assert
+        assertNull(ergebnisse.get(0).ablehnungsgrund);
+        assertEquals(10_000, ergebnisse.get(0).umsatzCent);
+        assertEquals(10_000, ergebnisse.get(0).kursCent);
+        assertEquals(100_000 - 10_000, konto.getKontostandCent());
+        synchronized (buch) {
+            assertEquals(-1, buch.berechneKaufkosten(1), "Das Angebot im Buch ist verbraucht");
+        }
+    }
+
+    private static void warteBisBlockiert(String threadName) throws InterruptedException {
+        long ende = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < ende) {
+            for (Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().equals(threadName) && thread.getState() == Thread.State.BLOCKED) {
+                    return;
+                }
+            }
+            Thread.sleep(1);
+        }
+        fail("Thread " + threadName + " wartet nicht auf das Orderbuch");
+    }
+}
@@ -2,10 +2,18 @@
 package de.dwpbank.mikrobank.service;
 
 import de.dwpbank.mikrobank.model.Aktie;
+import de.dwpbank.mikrobank.service.preismodell.GbmModell;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.DisplayName;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -143,4 +151,282 @@ class PreisServiceTest {
         assertEquals(rueckgabewert, aktienPreis,
             "Der zurückgegebene Preis muss dem Aktienpreis entsprechen");
     }
+
+    @Test
+    @DisplayName("Preis ermitteln: Eigenes Preismodell pro Aktie")
+    void ermittleAktuellenPreisMitEigenemModell() {
+        // Arrange: GBM ohne Volatilität → Preis wächst deterministisch um e^0.1
+        Aktie aktie = new Aktie("Bayer", 100);
+        Aktie andere = new Aktie("BASF", 100);
+        preisService.setzePreismodell(aktie, new GbmModell(0.1, 0, 1.0));
+
+        // Act
+        double neuerPreis = preisService.ermittleAktuellenPreis(aktie);
+        double andererPreis = preisService.ermittleAktuellenPreis(andere);
+
+        // Assert: die andere Aktie nutzt weiter die ±5 %-Regel
+        assertEquals(100 * Math.exp(0.1), neuerPreis, 1e-9);
+        assertTrue(andererPreis >= 95 && andererPreis <= 105);
+    }
+
+    @Test
+    @DisplayName("Preis ermitteln: Preis fällt nie unter den Mindestpreis")
+    void ermittleAktuellenPreisMindestpreis() {
+        // Arrange: starker negativer Drift
+        Aktie aktie = new Aktie("Pleite AG", 0.02);
+        preisService.setzePreismodell(aktie, new GbmModell(-50, 0, 1.0));
+
+        // Act
+        double neuerPreis = preisService.ermittleAktuellenPreis(aktie);
+
+        // Assert
+        assertEquals(0.01, neuerPreis);
+    }
+
+    @Test
+    @DisplayName("Preis ermitteln: Null-Aktie wirft Exception")
+    void ermittleAktuellenPreisNullAktie() {
+        assertThrows(IllegalArgumentException.class, () -> preisService.ermittleAktuellenPreis(null));
+    }
+
+    @Test
+    @DisplayName("Master-Seed: Gleicher Seed ergibt dieselben Preisfolgen")
+    void gleicherSeedGleichePreise() {
+        // Arrange
+        PreisService erster = new PreisService(4711);
+        PreisService zweiter = new PreisService(4711);
+        Aktie a = new Aktie("Seed AG", 100);
+        Aktie b = new Aktie("Seed AG", 100);
+
+        // Act & Assert
+        for (int i = 0; i < 50; i++) {
+            assertEquals(erster.ermittleAktuellenPreis(a), zweiter.ermittleAktuellenPreis(b));
+        }
+        assertEquals(4711, erster.gibMasterSeed());
+    }
+
+    @Test
+    @DisplayName("Master-Seed: Ergebnis hängt nicht von der Anzahl der Threads ab")
+    void unabhaengigVonThreadAnzahl() throws Exception {
+        // Arrange: 8 Aktien, je 200 Preisschritte
+        String[] namen = {"T0", "T1", "T2", "T3", "T4", "T5", "T6", "T7"};
+
+        // Act
+        double[] einThread = simuliere(namen, 1);
+        double[] vierThreads = simuliere(namen, 4);
+
+        // Assert
+        assertArrayEquals(einThread, vierThreads);
+    }
+
+    @Test
+    @DisplayName("Pfad erzeugen: Reproduzierbar und ohne Änderung der Aktie")
+    void erzeugePfad() {
+        // Arrange
+        Aktie aktie = new Aktie("Pfad AG", 50);
+        double[] erster = new double[100];
+        double[] zweiter = new double[100];
+
+        // Act
+        new PreisService(new GbmModell(0.05, 0.2, 1.0 / 252), 99).erzeugePfad(aktie, erster);
+        new PreisService(new GbmModell(0.05, 0.2, 1.0 / 252), 99).erzeugePfad(aktie, zweiter);
+
+        // Assert
+        assertArrayEquals(erster, zweiter);
+        assertEquals(50, aktie.getPreis());
+        assertThrows(IllegalArgumentException.class, () -> preisService.erzeugePfad(aktie, null));
+    }
+
+    @Test
+    @DisplayName("Preisblock: Alle Preise bleiben in den Grenzen der ±5 %-Regel")
+    void ermittlePreiseGleichverteilt() {
+        // Arrange
+        List<Aktie> aktien = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            aktien.add(new Aktie("Block " + i, 100));
+        }
+        Preisblock block = preisService.erstelleBlock(aktien);
+
+        // Act
+        preisService.ermittlePreise(block);
+
+        // Assert: Preise im Block und in den Aktien stimmen überein
+        assertEquals(0, block.gibAnzahlSonderfaelle());
+        for (int i = 0; i < aktien.size(); i++) {
+            double preis = block.gibPreis(i);
+            assertTrue(preis >= 95 && preis <= 105, "Preis " + preis);
+            assertEquals(preis, aktien.get(i).getPreis());
+        }
+    }
+
+    @Test
+    @DisplayName("Preisblock: Aktien mit eigenem Modell werden nach ihrem Modell bepreist")
+    void ermittlePreiseMitSonderfall() {
+        // Arrange: GBM ohne Volatilität → deterministisch e^0.1
+        Aktie gbm = new Aktie("Block GBM", 100);
+        Aktie normal = new Aktie("Block Normal", 100);
+        preisService.setzePreismodell(gbm, new GbmModell(0.1, 0, 1.0));
+        Preisblock block = preisService.erstelleBlock(List.of(normal, gbm));
+
+        // Act
+        preisService.ermittlePreise(block);
+
+        // Assert
+        assertEquals(1, block.gibAnzahlSonderfaelle());
+        assertEquals(100 * Math.exp(0.1), gbm.getPreis(), 1e-9);
+        assertTrue(normal.getPreis() >= 95 && normal.getPreis() <= 105);
+    }
+
+    @Test
+    @DisplayName("Preisblock: Ergebnis hängt nicht von der Aufteilung in Blöcke ab")
+    void ermittlePreiseUnabhaengigVonAufteilung() {
+        // Arrange: dieselben 6 Aktien einmal als ein Block, einmal als zwei Blöcke
+        List<Aktie> ganz = new ArrayList<>();
+        List<Aktie> geteilt = new ArrayList<>();
+        for (int i = 0; i < 6; i++) {
+            ganz.add(new Aktie("Teil " + i, 50 + i));
+            geteilt.add(new Aktie("Teil " + i, 50 + i));
+        }
+        PreisService einService = new PreisService(2024);
+        PreisService andererService = new PreisService(2024);
+        Preisblock einBlock = einService.erstelleBlock(ganz);
+        Preisblock vorne = andererService.erstelleBlock(geteilt.subList(0, 3));
+        Preisblock hinten = andererService.erstelleBlock(geteilt.subList(3, 6));
+
+        // Act
+        for (int tick = 0; tick < 20; tick++) {
+            einService.ermittlePreise(einBlock);
+            andererService.ermittlePreise(hinten);
+            andererService.ermittlePreise(vorne);
+        }
+
+        // Assert
+        double[] erwartet = ganz.stream().mapToDouble(Aktie::getPreis).toArray();
+        double[] tatsaechlich = geteilt.stream().mapToDouble(Aktie::getPreis).toArray();
+        assertArrayEquals(erwartet, tatsaechlich, Arrays.toString(tatsaechlich));
+    }
+
+    @Test
+    @DisplayName("Preisblock: Blöcke nacheinander und Einzelermittlung setzen denselben Strom fort")
+    void ermittlePreiseSetztStromFort() {
+        // Arrange: dieselbe Aktie einmal gemischt (Block, neuer Block, einzeln),
+        // einmal nur einzeln bepreist
+        Aktie gemischt = new Aktie("Fortsetzung", 100);
+        Aktie einzeln = new Aktie("Fortsetzung", 100);
+        PreisService gemischterService = new PreisService(77);
+        PreisService einzelService = new PreisService(77);
+        double[] erwartet = new double[30];
+        double[] tatsaechlich = new double[30];
+
+        // Act
+        for (int schritt = 0; schritt < 30; schritt++) {
+            erwartet[schritt] = einzelService.ermittleAktuellenPreis(einzeln);
+        }
+        Preisblock ersterBlock = gemischterService.erstelleBlock(List.of(gemischt));
+        for (int schritt = 0; schritt < 10; schritt++) {
+            gemischterService.ermittlePreise(ersterBlock);
+            tatsaechlich[schritt] = gemischt.getPreis();
+        }
+        Preisblock zweiterBlock = gemischterService.erstelleBlock(List.of(gemischt));
+        for (int schritt = 10; schritt < 20; schritt++) {
+            gemischterService.ermittlePreise(zweiterBlock);
+            tatsaechlich[schritt] = gemischt.getPreis();
+        }
+        for (int schritt = 20; schritt < 30; schritt++) {
+            tatsaechlich[schritt] = gemischterService.ermittleAktuellenPreis(gemischt);
+        }
+
+        // Assert: gleiche Folge, und der zweite Block wiederholt nicht die Schwankungen des ersten
+        assertArrayEquals(erwartet, tatsaechlich, 1e-9);
+        assertNotEquals(tatsaechlich[0] / 100, tatsaechlich[10] / tatsaechlich[9], 1e-12);
+    }
+
+    @Test
+    @DisplayName("Preisblock: Ein Tick übernimmt Preise und Ströme, die seit dem letzten Tick geändert wurden")
+    void ermittlePreiseUebernimmtAenderungen() {
+        // Arrange: derselbe Block wird abwechselnd mit Einzelermittlung und einem
+        // von außen gesetzten Preis (wie nach einer Orderbuch-Ausführung) bepreist
+        Aktie gemischt = new Aktie("Zwischenstand", 100);
+        Aktie einzeln = new Aktie("Zwischenstand", 100);
+        PreisService gemischterService = new PreisService(91);
+        PreisService einzelService = new PreisService(91);
+        Preisblock block = gemischterService.erstelleBlock(List.of(gemischt));
+        double[] erwartet = new double[30];
+        double[] tatsaechlich = new double[30];
+
+        // Act
+        for (int schritt = 0; schritt < 30; schritt++) {
+            if (schritt == 15) {
+                einzeln.setPreis(50);
+                gemischt.setPreis(50);
+            }
+            erwartet[schritt] = einzelService.ermittleAktuellenPreis(einzeln);
+            if (schritt % 3 == 0) {
+                tatsaechlich[schritt] = gemischterService.ermittleAktuellenPreis(gemischt);
+            } else {
+                gemischterService.ermittlePreise(block);
+                tatsaechlich[schritt] = block.gibPreis(0);
+            }
+        }
+
+        // Assert: keine Zufallszahl doppelt, kein Preis vom Block überschrieben
+        assertArrayEquals(erwartet, tatsaechlich, 1e-9);
+        assertEquals(tatsaechlich[29], gemischt.getPreis(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Preisblock: Null-Block und Null-Aktie werfen Exception")
+    void ermittlePreiseUngueltig() {
+        assertThrows(IllegalArgumentException.class, () -> preisService.ermittlePreise(null));
+        assertThrows(IllegalArgumentException.class,
+            () -> preisService.erstelleBlock(Arrays.asList(new Aktie("X", 1), null)));
+    }
+
+    @Test
+    @DisplayName("Marktdatenbus: Neue Preise werden als Kursmeldung veröffentlicht")
+    void veroeffentlichtAufMarktdatenbus() {
+        // Arrange
+        Marktdatenbus bus = new Marktdatenbus(Runnable::run, 16);
+        MarktdatenbusTest.Sammler sammler = new MarktdatenbusTest.Sammler(Long.MAX_VALUE);
+        bus.subscribe(sammler);
+        preisService.setzeMarktdatenbus(bus);
+        Aktie aktie = new Aktie("Bus AG", 100);
+
+        // Act
+        double preis = preisService.ermittleAktuellenPreis(aktie);
+        preisService.ermittlePreise(preisService.erstelleBlock(List.of(aktie)));
+
+        // Assert
+        assertEquals(2, sammler.meldungen.size());
+        assertEquals(aktie.getId(), sammler.meldungen.get(0).getInstrumentId());
+        assertEquals(preis, sammler.meldungen.get(0).getKurs());
+        assertEquals(aktie.getPreis(), sammler.meldungen.get(1).getKurs());
+    }
+
+    /**
+     * Ermittelt für jede Aktie 200 Preise; jede Aktie wird von genau einer Aufgabe bearbeitet.
+     */
+    private static double[] simuliere(String[] namen, int threads) throws Exception {
+        PreisService service = new PreisService(new GbmModell(0.05, 0.3, 1.0 / 252), 123);
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Double>> ergebnisse = new ArrayList<>();
+            for (String name : namen) {
+                ergebnisse.add(pool.submit(() -> {
+                    Aktie aktie = new Aktie(name, 100);
+                    for (int i = 0; i < 200; i++) {
+                        service.ermittleAktuellenPreis(aktie);
+                    }
+                    return aktie.getPreis();
+                }));
+            }
+            double[] endpreise = new double[namen.length];
+            for (int i = 0; i < namen.length; i++) {
+                endpreise[i] = ergebnisse.get(i).get();
+            }
+            return endpreise;
+        } finally {
+            pool.shutdown();
+        }
+    }
 }
@@ -0,0 +1,64 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Aktie;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Vergleicht die Einzelermittlung ({@link PreisService#ermittleAktuellenPreis}) mit
+ * dem Blockmodus ({@link PreisService#ermittlePreise(Preisblock)}) für ein
+ * Universum von 100.000 Aktien.
+ * <p>
+ * Kein Unit-Test, wird manuell gestartet:
+ * <pre>
+ * mvn -q test-compile
+ * java -cp target/classes:target/test-classes de.dwpbank.mikrobank.service.PreisblockBenchmark
+ * </pre>
+ */
+public class PreisblockBenchmark {
+
+    private static final int AKTIEN = 100_000;
+    private static final int TICKS = 2_000;
+
+    public static void main(String[] args) {
+        List<Aktie> aktien = new ArrayList<>(AKTIEN);
+        for (int i = 0; i < AKTIEN; i++) {
+            aktien.add(new Aktie("Bench " + i, 10 + i % 500));
+        }
+        PreisService preisService = new PreisService(42);
+
+        // Einzeln: jede Aktie über ihr Objekt
+        long einzelNanos = 0;
+        for (int durchlauf = 0; durchlauf < 3; durchlauf++) {
+            long start = System.nanoTime();
+            for (int tick = 0; tick < TICKS / 10; tick++) {
+                for (Aktie aktie : aktien) {
+                    preisService.ermittleAktuellenPreis(aktie);
+                }
+            }
+            einzelNanos = (System.nanoTime() - start) / (TICKS / 10);
+        }
+
+        // Block: ganze Arrays pro Tick
+        Preisblock block = preisService.erstelleBlock(aktien);
+        long blockNanos = 0;
+        for (int durchlauf = 0; durchlauf < 3; durchlauf++) {
+            long start = System.nanoTime();
+            for (int tick = 0; tick < TICKS; tick++) {
+                preisService.ermittlePreise(block);
+            }
+            blockNanos = (System.nanoTime() - start) / TICKS;
+        }
+
+        double pruefsumme = 0;
+        for (int i = 0; i < AKTIEN; i++) {
+            pruefsumme += block.gibPreis(i);
+        }
+        System.out.printf("Aktien pro Tick:   %,d%n", AKTIEN);
+        System.out.printf("Einzeln:           %8.1f µs/Tick%n", einzelNanos / 1000.0);
+        System.out.printf("Block:             %8.1f µs/Tick%n", blockNanos / 1000.0);
+        System.out.printf("Faktor:            %8.1fx%n", (double) einzelNanos / blockNanos);
+        System.out.printf("(Prüfsumme %.1f)%n", pruefsumme);
+    }
+}
@@ -0,0 +1,67 @@
+package de.dwpbank.mikrobank.service;
+
+import de.dwpbank.mikrobank.model.Trend;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Trend-Parameter und ihre Bewertung einer Kurshistorie.
+ */
+@DisplayName("TrendParameter Tests")
+class TrendParameterTest {
+
+    @Test
+    @DisplayName("TrendParameter: Standard erkennt STEIGEND, FALLEND und STABIL")
+    void standardBewertung() {
+        assertEquals(Trend.STEIGEND, TrendParameter.STANDARD.bewerte(
+                historie(100, 100, 100, 100, 100, 120, 120, 120, 120, 120)));
+        assertEquals(Trend.FALLEND, TrendParameter.STANDARD.bewerte(
+                historie(120, 120, 120, 120, 120, 100, 100, 100, 100, 100)));
+        assertEquals(Trend.STABIL, TrendParameter.STANDARD.bewerte(
+                historie(100, 100.5, 101, 100, 100.5, 101, 100, 100.5, 101, 100)));
+    }
+
+    @Test
+    @DisplayName("TrendParameter: Zu wenige Kurse ergeben UNBEKANNT")
+    void zuWenigeKurse() {
+        assertEquals(Trend.UNBEKANNT, TrendParameter.STANDARD.bewerte(historie(100, 101, 102, 103, 104)));
+        assertEquals(Trend.UNBEKANNT, new TrendParameter(2, 3, 0.0).bewerte(historie(1, 2, 3, 4)));
+        assertEquals(Trend.STEIGEND, new TrendParameter(2, 3, 0.0).bewerte(historie(1, 2, 3, 4, 5)));
+        assertEquals(Trend.UNBEKANNT, new TrendParameter(Integer.MAX_VALUE, Integer.MAX_VALUE, 0.0)
+                .bewerte(historie(1, 2, 3, 4, 5)));
+        assertEquals(Trend.UNBEKANNT, new TrendParameter(2, Integer.MAX_VALUE, 0.0).bewerte(historie(1, 2, 3, 4, 5)));
+    }
+
+    @Test
+    @DisplayName("TrendParameter: Fenster und Schwelle sind einstellbar")
+    void einstellbareFensterUndSchwelle() {
+        // Arrange: ältere Kurse 100, die letzten beiden 103
+        Kurshistorie historie = historie(100, 100, 100, 100, 103, 103);
+
+        // Act & Assert: 3% Anstieg liegt über 2%, aber unter 5%
+        assertEquals(Trend.STEIGEND, new TrendParameter(2, 4, 0.02).bewerte(historie));
+        assertEquals(Trend.STABIL, new TrendParameter(2, 4, 0.05).bewerte(historie));
+        // Fenster verschoben: letzte 3 (100, 103, 103) gegen die 3 davor (100, 100, 100)
+        assertEquals(Trend.STEIGEND, new TrendParameter(3, 3, 0.015).bewerte(historie));
+        assertEquals(Trend.STABIL, new TrendParameter(3, 3, 0.025).bewerte(historie));
+    }
+
+    @Test
+    @DisplayName("TrendParameter: Ungültige Werte werfen Exception")
+    void ungueltigeWerte() {
+        assertThrows(IllegalArgumentException.class, () -> new TrendParameter(0, 5, 0.02));
+        assertThrows(IllegalArgumentException.class, () -> new TrendParameter(5, 0, 0.02));
+        assertThrows(IllegalArgumentException.class, () -> new TrendParameter(5, 5, -0.01));
+        assertThrows(IllegalArgumentException.class, () -> new TrendParameter(5, 5, Double.NaN));
+    }
+
+    private static Kurshistorie historie(double... kurse) {
+        Kurshistorie historie = new Kurshistorie(100);
+        for (double kurs : kurse) {
+            historie.fuegeHinzu(kurs);
+        }
+        return historie;
+    }
+}
@@ -0,0 +1,50 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Bollinger-Bänder.
+ */
+@DisplayName("BollingerIndikator Tests")
+class BollingerIndikatorTest {
+
+    @Test
+    @DisplayName("Bollinger: Mittellinie und Bänder über das Fenster")
+    void baenderUeberFenster() {
+        // Arrange: Fenster 4, Faktor 2
+        BollingerIndikator bollinger = new BollingerIndikator(4, 2.0);
+
+        // Act: 1, 2 werden verdrängt, im Fenster: 2, 4, 4, 6 → Ø 4, σ = √2
+        double[] kurse = {1, 2, 4, 4, 6};
+        for (double kurs : kurse) {
+            bollinger.aktualisiere(kurs);
+        }
+
+        // Assert
+        assertEquals(4.0, bollinger.gibWert(), 1e-12);
+        assertEquals(4.0 + 2 * Math.sqrt(2), bollinger.gibOberesBand(), 1e-12);
+        assertEquals(4.0 - 2 * Math.sqrt(2), bollinger.gibUnteresBand(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Bollinger: Bleibt über lange Läufe genau")
+    void genauUeberLangeLaeufe() {
+        // Arrange: Kurse laufen weit vom Startwert weg, Streuung bleibt klein
+        BollingerIndikator bollinger = new BollingerIndikator(20, 2.0);
+
+        // Act
+        double kurs = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            kurs = 10_000 + i * 0.01 + ((i % 2 == 0) ? 0.001 : -0.001);
+            bollinger.aktualisiere(kurs);
+        }
+
+        // Assert: Fenster sind 20 Werte im Abstand 0.01 mit ±0.001 → Ø = letzter - 0.095
+        assertEquals(kurs + 0.001 - 0.095, bollinger.gibWert(), 1e-6);
+        double bandbreite = bollinger.gibOberesBand() - bollinger.gibUnteresBand();
+        assertTrue(bandbreite > 0.2 && bandbreite < 0.25, "Bandbreite: " + bandbreite);
+    }
+}
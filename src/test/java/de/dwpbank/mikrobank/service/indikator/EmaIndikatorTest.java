@@ -0,0 +1,49 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für den exponentiell gleitenden Durchschnitt.
+ */
+@DisplayName("EmaIndikator Tests")
+class EmaIndikatorTest {
+
+    @Test
+    @DisplayName("EMA: Erst nach einer vollen Periode bereit")
+    void bereitNachPeriode() {
+        EmaIndikator ema = new EmaIndikator(3);
+
+        ema.aktualisiere(100);
+        ema.aktualisiere(100);
+        assertFalse(ema.istBereit());
+        assertTrue(Double.isNaN(ema.gibWert()));
+
+        ema.aktualisiere(100);
+        assertTrue(ema.istBereit());
+        assertEquals(100, ema.gibWert());
+    }
+
+    @Test
+    @DisplayName("EMA: Berechnet mit α = 2 / (n + 1)")
+    void berechnetNachFormel() {
+        // Arrange: Periode 3 → α = 0.5
+        EmaIndikator ema = new EmaIndikator(3);
+
+        // Act: Start 100, dann 110 → 105, dann 120 → 112.5
+        ema.aktualisiere(100);
+        ema.aktualisiere(110);
+        ema.aktualisiere(120);
+
+        // Assert
+        assertEquals(112.5, ema.gibWert(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("EMA: Periode 0 ist ungültig")
+    void periodeNullWirftException() {
+        assertThrows(IllegalArgumentException.class, () -> new EmaIndikator(0));
+    }
+}
@@ -0,0 +1,44 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für den MACD.
+ */
+@DisplayName("MacdIndikator Tests")
+class MacdIndikatorTest {
+
+    @Test
+    @DisplayName("MACD: Konstante Kurse ergeben MACD 0")
+    void konstanteKurse() {
+        MacdIndikator macd = new MacdIndikator(3, 6, 3);
+        for (int i = 0; i < 20; i++) {
+            macd.aktualisiere(100);
+        }
+
+        assertTrue(macd.istBereit());
+        assertEquals(0.0, macd.gibWert(), 1e-12);
+        assertEquals(0.0, macd.gibSignal(), 1e-12);
+        assertEquals(0.0, macd.gibHistogramm(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("MACD: Steigende Kurse ergeben positiven MACD")
+    void steigendeKurse() {
+        MacdIndikator macd = new MacdIndikator();
+        for (int i = 0; i < 60; i++) {
+            macd.aktualisiere(100 + i);
+        }
+
+        assertTrue(macd.gibWert() > 0);
+    }
+
+    @Test
+    @DisplayName("MACD: Kurze Periode muss kleiner als lange sein")
+    void ungueltigePerioden() {
+        assertThrows(IllegalArgumentException.class, () -> new MacdIndikator(26, 12, 9));
+    }
+}
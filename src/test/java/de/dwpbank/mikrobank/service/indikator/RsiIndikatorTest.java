@@ -0,0 +1,51 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für den Relative Stärke Index.
+ */
+@DisplayName("RsiIndikator Tests")
+class RsiIndikatorTest {
+
+    @Test
+    @DisplayName("RSI: Nur steigende Kurse ergeben 100")
+    void nurSteigendeKurse() {
+        RsiIndikator rsi = new RsiIndikator(5);
+        for (int kurs = 100; kurs <= 110; kurs++) {
+            rsi.aktualisiere(kurs);
+        }
+
+        assertEquals(100.0, rsi.gibWert());
+    }
+
+    @Test
+    @DisplayName("RSI: Gleich große Gewinne und Verluste ergeben 50")
+    void gleicheGewinneUndVerluste() {
+        RsiIndikator rsi = new RsiIndikator(4);
+        double[] kurse = {100, 102, 100, 102, 100};
+        for (double kurs : kurse) {
+            rsi.aktualisiere(kurs);
+        }
+
+        assertTrue(rsi.istBereit());
+        assertEquals(50.0, rsi.gibWert(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("RSI: Erst nach n Kursänderungen bereit")
+    void bereitNachPeriodeAenderungen() {
+        RsiIndikator rsi = new RsiIndikator(3);
+        rsi.aktualisiere(100);
+        rsi.aktualisiere(101);
+        rsi.aktualisiere(102);
+        assertFalse(rsi.istBereit());
+        assertTrue(Double.isNaN(rsi.gibWert()));
+
+        rsi.aktualisiere(101);
+        assertTrue(rsi.istBereit());
+    }
+}
@@ -0,0 +1,53 @@
+package de.dwpbank.mikrobank.service.indikator;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die rollierende Volatilität.
+ */
+@DisplayName("VolatilitaetIndikator Tests")
+class VolatilitaetIndikatorTest {
+
+    @Test
+    @DisplayName("Volatilität: Konstantes Wachstum hat keine Volatilität")
+    void konstantesWachstum() {
+        VolatilitaetIndikator volatilitaet = new VolatilitaetIndikator(5);
+        double kurs = 100;
+        for (int i = 0; i < 10; i++) {
+            volatilitaet.aktualisiere(kurs);
+            kurs *= 1.01;
+        }
+
+        assertEquals(0.0, volatilitaet.gibWert(), 1e-9);
+    }
+
+    @Test
+    @DisplayName("Volatilität: Abwechselnde Renditen ergeben ihre Standardabweichung")
+    void abwechselndeRenditen() {
+        // Arrange: Renditen +ln(1.1), -ln(1.1), ... → σ = ln(1.1)
+        VolatilitaetIndikator volatilitaet = new VolatilitaetIndikator(4);
+
+        // Act
+        for (int i = 0; i < 9; i++) {
+            volatilitaet.aktualisiere(i % 2 == 0 ? 100 : 110);
+        }
+
+        // Assert
+        assertEquals(Math.log(1.1), volatilitaet.gibWert(), 1e-12);
+    }
+
+    @Test
+    @DisplayName("Volatilität: Erst nach n Renditen bereit")
+    void bereitNachPeriode() {
+        VolatilitaetIndikator volatilitaet = new VolatilitaetIndikator(2);
+        volatilitaet.aktualisiere(100);
+        volatilitaet.aktualisiere(101);
+        assertFalse(volatilitaet.istBereit());
+
+        volatilitaet.aktualisiere(102);
+        assertTrue(volatilitaet.istBereit());
+    }
+}
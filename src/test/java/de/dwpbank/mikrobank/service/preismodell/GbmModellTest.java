@@ -0,0 +1,59 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die geometrische Brownsche Bewegung.
+ */
+@DisplayName("GbmModell Tests")
+class GbmModellTest {
+
+    @Test
+    @DisplayName("GBM: Ohne Volatilität wächst der Preis stetig mit der Drift")
+    void ohneVolatilitaet() {
+        GbmModell modell = new GbmModell(0.1, 0, 0.5);
+
+        assertEquals(100 * Math.exp(0.05), modell.naechsterPreis(100, new SplittableRandom(1)), 1e-9);
+    }
+
+    @Test
+    @DisplayName("GBM: Log-Renditen haben Mittel (μ - σ²/2)Δt und Streuung σ√Δt")
+    void logRenditenVerteilung() {
+        // Arrange: Tagesschritte, μ = 8 %, σ = 30 %
+        double dt = 1.0 / 252;
+        GbmModell modell = new GbmModell(0.08, 0.30, dt);
+        double[] pfad = new double[200_000];
+
+        // Act
+        modell.erzeugePfad(100, pfad, new SplittableRandom(7));
+
+        // Assert
+        double summe = 0;
+        double quadratSumme = 0;
+        double vorher = 100;
+        for (double preis : pfad) {
+            double r = Math.log(preis / vorher);
+            summe += r;
+            quadratSumme += r * r;
+            vorher = preis;
+        }
+        double mittel = summe / pfad.length;
+        double streuung = Math.sqrt(quadratSumme / pfad.length - mittel * mittel);
+        double sollStreuung = 0.30 * Math.sqrt(dt);
+        // Toleranz: 5 Standardfehler
+        assertEquals((0.08 - 0.045) * dt, mittel, 5 * sollStreuung / Math.sqrt(pfad.length));
+        assertEquals(sollStreuung, streuung, sollStreuung * 0.01);
+    }
+
+    @Test
+    @DisplayName("GBM: Ungültige Parameter werfen Exception")
+    void ungueltigeParameter() {
+        assertThrows(IllegalArgumentException.class, () -> new GbmModell(0.05, -0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new GbmModell(0.05, 0.2, 0));
+    }
+}
@@ -0,0 +1,44 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die gleichverteilte Schwankung.
+ */
+@DisplayName("GleichverteilungModell Tests")
+class GleichverteilungModellTest {
+
+    @Test
+    @DisplayName("Gleichverteilung: Preise bleiben in ±5 % und schöpfen den Bereich aus")
+    void preiseImBereich() {
+        // Arrange
+        GleichverteilungModell modell = new GleichverteilungModell(0.05);
+        SplittableRandom zufall = new SplittableRandom(42);
+        double min = Double.MAX_VALUE;
+        double max = 0;
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            double preis = modell.naechsterPreis(100, zufall);
+            min = Math.min(min, preis);
+            max = Math.max(max, preis);
+        }
+
+        // Assert
+        assertTrue(min >= 95 && min < 95.1, "Minimum: " + min);
+        assertTrue(max <= 105 && max > 104.9, "Maximum: " + max);
+    }
+
+    @Test
+    @DisplayName("Gleichverteilung: Ungültige Schwankung wirft Exception")
+    void ungueltigeSchwankung() {
+        assertThrows(IllegalArgumentException.class, () -> new GleichverteilungModell(-0.01));
+        assertThrows(IllegalArgumentException.class, () -> new GleichverteilungModell(1.0));
+        assertThrows(IllegalArgumentException.class, () -> new GleichverteilungModell(Double.NaN));
+    }
+}
@@ -0,0 +1,65 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für das Mean-Reversion-Modell.
+ */
+@DisplayName("MittelwertRueckkehrModell Tests")
+class MittelwertRueckkehrModellTest {
+
+    @Test
+    @DisplayName("Mean Reversion: Abweichung halbiert sich (logarithmisch) nach ln(2)/θ")
+    void halbwertszeit() {
+        // Arrange: Ziel 100, Start 400 → log-Abweichung ln(4); ohne Volatilität
+        double theta = 2;
+        double halbwertszeit = Math.log(2) / theta;
+        MittelwertRueckkehrModell modell = new MittelwertRueckkehrModell(100, theta, 0, halbwertszeit / 10);
+        double[] pfad = new double[10];
+
+        // Act
+        modell.erzeugePfad(400, pfad, new SplittableRandom(1));
+
+        // Assert: nach einer Halbwertszeit ist ln(4) auf ln(2) geschrumpft
+        assertEquals(200, pfad[9], 1e-9);
+    }
+
+    @Test
+    @DisplayName("Mean Reversion: Langfristig schwankt der Log-Preis um das Ziel mit σ/√(2θ)")
+    void stationaereVerteilung() {
+        // Arrange
+        double theta = 5;
+        double sigma = 0.2;
+        MittelwertRueckkehrModell modell = new MittelwertRueckkehrModell(50, theta, sigma, 1.0 / 252);
+        double[] pfad = new double[500_000];
+
+        // Act
+        modell.erzeugePfad(50, pfad, new SplittableRandom(5));
+
+        // Assert
+        double summe = 0;
+        double quadratSumme = 0;
+        for (double preis : pfad) {
+            double x = Math.log(preis);
+            summe += x;
+            quadratSumme += x * x;
+        }
+        double mittel = summe / pfad.length;
+        double streuung = Math.sqrt(quadratSumme / pfad.length - mittel * mittel);
+        assertEquals(Math.log(50), mittel, 0.01);
+        assertEquals(sigma / Math.sqrt(2 * theta), streuung, 0.003);
+    }
+
+    @Test
+    @DisplayName("Mean Reversion: Ungültige Parameter werfen Exception")
+    void ungueltigeParameter() {
+        assertThrows(IllegalArgumentException.class, () -> new MittelwertRueckkehrModell(0, 1, 0.2, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MittelwertRueckkehrModell(10, 0, 0.2, 1));
+        assertThrows(IllegalArgumentException.class, () -> new MittelwertRueckkehrModell(10, 1, -0.2, 1));
+    }
+}
@@ -0,0 +1,62 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Sprung-Diffusion nach Merton.
+ */
+@DisplayName("SprungDiffusionModell Tests")
+class SprungDiffusionModellTest {
+
+    @Test
+    @DisplayName("Sprung-Diffusion: Sprünge treten mit Wahrscheinlichkeit 1 - e^(-λΔt) auf")
+    void sprunghaeufigkeit() {
+        // Arrange: keine Diffusion, jeder Sprung genau -20 % (log), λΔt = 0.1
+        SprungDiffusionModell modell = new SprungDiffusionModell(0, 0, 10, -0.2, 0, 0.01);
+        SplittableRandom zufall = new SplittableRandom(3);
+        int schritte = 100_000;
+        int mitSprung = 0;
+
+        // Act: ohne Sprung steigt der Preis minimal (Driftbereinigung), mit Sprung fällt er
+        for (int i = 0; i < schritte; i++) {
+            if (modell.naechsterPreis(100, zufall) < 100) {
+                mitSprung++;
+            }
+        }
+
+        // Assert
+        double erwartet = 1 - Math.exp(-0.1);
+        assertEquals(erwartet, (double) mitSprung / schritte, 0.005);
+    }
+
+    @Test
+    @DisplayName("Sprung-Diffusion: Erwartete Rendite bleibt trotz Sprüngen μ")
+    void erwarteteRendite() {
+        // Arrange
+        SprungDiffusionModell modell = new SprungDiffusionModell(0.05, 0.1, 2, -0.1, 0.1, 1.0);
+        SplittableRandom zufall = new SplittableRandom(11);
+        int schritte = 400_000;
+
+        // Act
+        double summe = 0;
+        for (int i = 0; i < schritte; i++) {
+            summe += modell.naechsterPreis(1, zufall);
+        }
+
+        // Assert: E[S1/S0] = e^μ
+        assertEquals(Math.exp(0.05), summe / schritte, 0.002);
+    }
+
+    @Test
+    @DisplayName("Sprung-Diffusion: Ungültige Parameter werfen Exception")
+    void ungueltigeParameter() {
+        assertThrows(IllegalArgumentException.class, () -> new SprungDiffusionModell(0, 0.2, -1, 0, 0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SprungDiffusionModell(0, 0.2, 1, 0, -0.1, 1));
+        assertThrows(IllegalArgumentException.class, () -> new SprungDiffusionModell(0, 0.2, 1, 0, 0.1, 0));
+    }
+}
@@ -0,0 +1,108 @@
+package de.dwpbank.mikrobank.service.preismodell;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit Tests für die Ableitung der Zufallsströme aus einem Master-Seed.
+ */
+@DisplayName("Zufallsstroeme Tests")
+class ZufallsstroemeTest {
+
+    @Test
+    @DisplayName("Zufallsströme: Gleicher Seed und Index ergeben dieselbe Folge")
+    void gleicherSeedGleicheFolge() {
+        // Arrange
+        SplittableRandom a = Zufallsstroeme.strom(42, 3);
+        SplittableRandom b = Zufallsstroeme.strom(42, 3);
+
+        // Act & Assert
+        for (int i = 0; i < 100; i++) {
+            assertEquals(a.nextLong(), b.nextLong());
+        }
+    }
+
+    @Test
+    @DisplayName("Zufallsströme: Benachbarte Indizes und Seeds ergeben verschiedene Folgen")
+    void verschiedeneStroeme() {
+        // Act
+        long index0 = Zufallsstroeme.strom(42, 0).nextLong();
+        long index1 = Zufallsstroeme.strom(42, 1).nextLong();
+        long seed43 = Zufallsstroeme.strom(43, 0).nextLong();
+
+        // Assert
+        assertNotEquals(index0, index1);
+        assertNotEquals(index0, seed43);
+    }
+
+    @Test
+    @DisplayName("Zufallsströme: Benachbarte Ströme sind nicht korreliert")
+    void keineKorrelation() {
+        // Arrange
+        SplittableRandom a = Zufallsstroeme.strom(7, 0);
+        SplittableRandom b = Zufallsstroeme.strom(7, 1);
+        int n = 100_000;
+
+        // Act: Korrelation zweier gleichverteilter Folgen
+        double summeA = 0, summeB = 0, summeAB = 0, summeAA = 0, summeBB = 0;
+        for (int i = 0; i < n; i++) {
+            double x = a.nextDouble();
+            double y = b.nextDouble();
+            summeA += x;
+            summeB += y;
+            summeAB += x * y;
+            summeAA += x * x;
+            summeBB += y * y;
+        }
+        double kovarianz = summeAB / n - (summeA / n) * (summeB / n);
+        double korrelation = kovarianz / Math.sqrt((summeAA / n - Math.pow(summeA / n, 2))
+                * (summeBB / n - Math.pow(summeB / n, 2)));
+
+        // Assert: bei 100.000 Werten liegt |r| praktisch immer unter 0,02
+        assertEquals(0, korrelation, 0.02);
+    }
+
+    @Test
+    @DisplayName("Blockvariante: Jeder Strom liefert Zahlen aus [0, 1), unabhängig von den anderen")
+    void fuelleGleichverteilt() {
+        // Arrange: Strom 5 einmal allein, einmal als zweites Element eines Blocks
+        long[] allein = {Zufallsstroeme.startZustand(42, 5)};
+        long[] block = {Zufallsstroeme.startZustand(42, 4), Zufallsstroeme.startZustand(42, 5)};
+        double[] zielAllein = new double[1];
+        double[] zielBlock = new double[2];
+
+        // Act & Assert
+        for (int i = 0; i < 1000; i++) {
+            Zufallsstroeme.fuelleGleichverteilt(allein, zielAllein, 1);
+            Zufallsstroeme.fuelleGleichverteilt(block, zielBlock, 2);
+            assertEquals(zielAllein[0], zielBlock[1]);
+            assertTrue(zielBlock[0] >= 0 && zielBlock[0] < 1);
+        }
+    }
+
+    @Test
+    @DisplayName("Zufallsstrom: Gleiche Folge wie SplittableRandom und Blockvariante, Zustand übertragbar")
+    void zufallsstromMitZustand() {
+        // Arrange
+        SplittableRandom referenz = Zufallsstroeme.strom(42, 5);
+        Zufallsstrom strom = new Zufallsstrom(Zufallsstroeme.startZustand(42, 5));
+        long[] zustand = new long[1];
+        double[] ziel = new double[1];
+
+        // Act & Assert: abwechselnd als Objekt und als Block ziehen
+        for (int i = 0; i < 1000; i++) {
+            if (i % 2 == 0) {
+                assertEquals(referenz.nextDouble(), strom.nextDouble());
+            } else {
+                zustand[0] = strom.gibZustand();
+                Zufallsstroeme.fuelleGleichverteilt(zustand, ziel, 1);
+                strom.setzeZustand(zustand[0]);
+                assertEquals(referenz.nextDouble(), ziel[0]);
+            }
+        }
+    }
+}